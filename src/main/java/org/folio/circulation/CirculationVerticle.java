@@ -2,14 +2,24 @@ package org.folio.circulation;
 
 import java.lang.invoke.MethodHandles;
 
+import org.folio.circulation.resources.BulkCheckInByBarcodeResource;
+import org.folio.circulation.resources.BulkCheckOutByBarcodeResource;
+import org.folio.circulation.resources.BulkMoveRequestsResource;
+import org.folio.circulation.resources.BulkRenewalResource;
 import org.folio.circulation.resources.CheckInByBarcodeResource;
 import org.folio.circulation.resources.CheckOutByBarcodeResource;
 import org.folio.circulation.resources.CirculationRulesResource;
+import org.folio.circulation.resources.HoldShelfExpirationProcessingResource;
+import org.folio.circulation.resources.ItemsAvailabilityResource;
 import org.folio.circulation.resources.LoanCirculationRulesEngineResource;
 import org.folio.circulation.resources.LoanCollectionResource;
+import org.folio.circulation.resources.LoanExportResource;
 import org.folio.circulation.resources.NoticeCirculationRulesEngineResource;
+import org.folio.circulation.resources.OfflineTransactionsResource;
+import org.folio.circulation.resources.OverdueLoansReportResource;
 import org.folio.circulation.resources.OverrideCheckOutStrategy;
 import org.folio.circulation.resources.OverrideRenewalStrategy;
+import org.folio.circulation.resources.PatronSummaryResource;
 import org.folio.circulation.resources.RegularCheckOutStrategy;
 import org.folio.circulation.resources.RegularRenewalStrategy;
 import org.folio.circulation.resources.RenewByBarcodeResource;
@@ -18,6 +28,7 @@ import org.folio.circulation.resources.RequestByInstanceIdResource;
 import org.folio.circulation.resources.RequestCirculationRulesEngineResource;
 import org.folio.circulation.resources.RequestCollectionResource;
 import org.folio.circulation.resources.RequestHoldShelfClearanceResource;
+import org.folio.circulation.resources.RequestPickSlipsResource;
 import org.folio.circulation.resources.RequestQueueResource;
 import org.folio.circulation.resources.ScheduledNoticeProcessingResource;
 import org.folio.circulation.support.logging.Logging;
@@ -53,7 +64,13 @@ public class CirculationVerticle extends AbstractVerticle {
       client, new RegularCheckOutStrategy()).register(router);
     new CheckOutByBarcodeResource("/circulation/override-check-out-by-barcode",
       client, new OverrideCheckOutStrategy()).register(router);
+    new BulkCheckOutByBarcodeResource("/circulation/bulk-check-out-by-barcode",
+      client, new RegularCheckOutStrategy()).register(router);
+    new BulkCheckOutByBarcodeResource("/circulation/override-bulk-check-out-by-barcode",
+      client, new OverrideCheckOutStrategy()).register(router);
     new CheckInByBarcodeResource(client).register(router);
+    new BulkCheckInByBarcodeResource(client).register(router);
+    new OfflineTransactionsResource(client).register(router);
 
     new RenewByBarcodeResource("/circulation/renew-by-barcode",
       new RegularRenewalStrategy(), client).register(router);
@@ -61,14 +78,28 @@ public class CirculationVerticle extends AbstractVerticle {
       new RegularRenewalStrategy(), client).register(router);
     new RenewByBarcodeResource("/circulation/override-renewal-by-barcode",
       new OverrideRenewalStrategy(), client).register(router);
+    new BulkRenewalResource("/circulation/bulk-renew",
+      new RegularRenewalStrategy(), client).register(router);
 
     new LoanCollectionResource(client).register(router);
+    new LoanExportResource("/circulation/loans-export", client)
+      .register(router);
+    new OverdueLoansReportResource("/circulation/loans-reports/overdue", client)
+      .register(router);
+    new PatronSummaryResource("/circulation/patron-summary/:userId", client)
+      .register(router);
+    new ItemsAvailabilityResource("/circulation/items-availability", client)
+      .register(router);
     new RequestCollectionResource(client).register(router);
     new RequestQueueResource(client).register(router);
     new RequestByInstanceIdResource(client).register(router);
+    new BulkMoveRequestsResource("/circulation/requests/bulk-move", client)
+      .register(router);
 
     new RequestHoldShelfClearanceResource("/circulation/requests-reports/hold-shelf-clearance/:servicePointId", client)
       .register(router);
+    new RequestPickSlipsResource("/circulation/requests-reports/pick-slips/:servicePointId", client)
+      .register(router);
     new CirculationRulesResource("/circulation/rules", client)
       .register(router);
     new LoanCirculationRulesEngineResource(
@@ -88,6 +119,7 @@ public class CirculationVerticle extends AbstractVerticle {
         .register(router);
 
     new ScheduledNoticeProcessingResource(client).register(router);
+    new HoldShelfExpirationProcessingResource(client).register(router);
 
 
     server.requestHandler(router::accept)
@@ -29,6 +29,10 @@ public class Account {
     return getNestedStringProperty(representation, "status", "name");
   }
 
+  public JsonObject asJson() {
+    return representation.copy();
+  }
+
   public static Account from(JsonObject representation) {
     return new Account(representation);
   }
@@ -81,6 +81,23 @@ public class AccountRepository {
       );
   }
 
+  /**
+   * @param userId ID of the user who owes the fees / fines
+   * @param limit maximum number of accounts to find, when zero only
+   * the number of open accounts is found
+   * @return the open accounts found, with the total number of open accounts
+   */
+  public CompletableFuture<Result<MultipleRecords<Account>>> findOpenAccountsForUser(
+    String userId, int limit) {
+
+    final Result<CqlQuery> userIdQuery = exactMatch("userId", userId);
+
+    return accountStatusQuery.combine(userIdQuery, CqlQuery::and)
+      .after(query -> accountsStorageClient.getMany(query, limit))
+      .thenApply(r -> r.next(response ->
+        MultipleRecords.from(response, Account::from, "accounts")));
+  }
+
   private MultipleRecordFetcher<Account> createAccountsFetcher() {
     return new MultipleRecordFetcher<>(accountsStorageClient, "accounts", Account::from);
   }
@@ -29,6 +29,17 @@ public class CreateRequestService {
   public CompletableFuture<Result<RequestAndRelatedRecords>> createRequest(
       RequestAndRelatedRecords requestAndRelatedRecords) {
 
+    return checkRequestCanBeCreated(requestAndRelatedRecords)
+      .thenComposeAsync(r -> r.after(this::createCheckedRequest));
+  }
+
+  /**
+   * Checks whether a request could be created, without changing anything,
+   * so that many possible requests can be checked at the same time
+   */
+  public CompletableFuture<Result<RequestAndRelatedRecords>> checkRequestCanBeCreated(
+      RequestAndRelatedRecords requestAndRelatedRecords) {
+
     return of(() -> requestAndRelatedRecords)
       .next(RequestServiceUtility::refuseWhenItemDoesNotExist)
       .next(RequestServiceUtility::refuseWhenInvalidUserAndPatronGroup)
@@ -36,8 +47,17 @@ public class CreateRequestService {
       .next(RequestServiceUtility::refuseWhenUserHasAlreadyRequestedItem)
       .after(requestLoanValidator::refuseWhenUserHasAlreadyBeenLoanedItem)
       .thenComposeAsync(r -> r.after(requestPolicyRepository::lookupRequestPolicy))
-      .thenApply(r -> r.next(RequestServiceUtility::refuseWhenRequestCannotBeFulfilled))
-      .thenComposeAsync(r -> r.after(updateUponRequest.updateItem::onRequestCreateOrUpdate))
+      .thenApply(r -> r.next(RequestServiceUtility::refuseWhenRequestCannotBeFulfilled));
+  }
+
+  /**
+   * Creates a request which has already been checked by
+   * {@link #checkRequestCanBeCreated(RequestAndRelatedRecords)}
+   */
+  public CompletableFuture<Result<RequestAndRelatedRecords>> createCheckedRequest(
+      RequestAndRelatedRecords requestAndRelatedRecords) {
+
+    return updateUponRequest.updateItem.onRequestCreateOrUpdate(requestAndRelatedRecords)
       .thenComposeAsync(r -> r.after(updateUponRequest.updateLoanActionHistory::onRequestCreateOrUpdate))
       .thenComposeAsync(r -> r.after(updateUponRequest.updateLoan::onRequestCreateOrUpdate))
       .thenComposeAsync(r -> r.after(requestRepository::create))
@@ -0,0 +1,149 @@
+package org.folio.circulation.domain;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.support.BoundedConcurrency;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.results.CommonFailures;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closes requests which have been awaiting pickup for longer than their
+ * hold shelf expiration date, a batch at a time
+ *
+ * The requests in each batch are grouped by item, so that each item's queue
+ * is only fetched and reordered once, no matter how many of its requests
+ * have expired. A failure for one item does not stop the others being closed
+ */
+public class HoldShelfExpirationHandler {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private static final int BATCH_SIZE = 50;
+  private static final int MAXIMUM_BATCHES_PER_SWEEP = 10;
+  private static final int MAXIMUM_CONCURRENT_QUEUES = 5;
+
+  public static HoldShelfExpirationHandler using(Clients clients, DateTime systemTime) {
+    return new HoldShelfExpirationHandler(
+      RequestRepository.using(clients),
+      RequestQueueRepository.using(clients),
+      UpdateRequestQueue.using(clients),
+      systemTime);
+  }
+
+  private final RequestRepository requestRepository;
+  private final RequestQueueRepository requestQueueRepository;
+  private final UpdateRequestQueue updateRequestQueue;
+  private final DateTime systemTime;
+
+  public HoldShelfExpirationHandler(
+    RequestRepository requestRepository,
+    RequestQueueRepository requestQueueRepository,
+    UpdateRequestQueue updateRequestQueue,
+    DateTime systemTime) {
+
+    this.requestRepository = requestRepository;
+    this.requestQueueRepository = requestQueueRepository;
+    this.updateRequestQueue = updateRequestQueue;
+    this.systemTime = systemTime;
+  }
+
+  /**
+   * Closes expired requests, stopping after a limited number of batches
+   *
+   * @param sweep where to start from
+   * @return how many requests were closed, with a cursor to continue from
+   * when the sweep stopped before all expired requests were looked at
+   */
+  public CompletableFuture<Result<HoldShelfExpirationSweep>> expireRequests(
+    HoldShelfExpirationSweep sweep) {
+
+    return expireRequests(sweep, 0);
+  }
+
+  private CompletableFuture<Result<HoldShelfExpirationSweep>> expireRequests(
+    HoldShelfExpirationSweep sweep, int batchesSwept) {
+
+    if (batchesSwept >= MAXIMUM_BATCHES_PER_SWEEP) {
+      return completedFuture(succeeded(sweep));
+    }
+
+    return requestRepository.findExpiredAwaitingPickupRequests(systemTime,
+      sweep.getCursor(), BATCH_SIZE)
+      .thenCompose(r -> r.after(expiredRequests -> {
+        final List<Request> requests = new ArrayList<>(expiredRequests.getRecords());
+
+        if (requests.isEmpty()) {
+          return completedFuture(succeeded(sweep.finished()));
+        }
+
+        final String lastRequestId = requests.get(requests.size() - 1).getId();
+
+        return expireBatch(requests)
+          .thenApply(r2 -> r2.map(outcome -> sweep.afterBatch(lastRequestId,
+            outcome.closed, outcome.failed)))
+          .thenCompose(r2 -> r2.after(nextSweep -> requests.size() < BATCH_SIZE
+            ? completedFuture(succeeded(nextSweep.finished()))
+            : expireRequests(nextSweep, batchesSwept + 1)));
+      }));
+  }
+
+  private CompletableFuture<Result<BatchOutcome>> expireBatch(List<Request> requests) {
+    final Map<String, Set<String>> expiredRequestIdsByItem = requests.stream()
+      .collect(Collectors.groupingBy(Request::getItemId, LinkedHashMap::new,
+        Collectors.mapping(Request::getId, Collectors.toSet())));
+
+    return requestQueueRepository.getRequestQueuesWithoutItems(
+      expiredRequestIdsByItem.keySet())
+      .thenCompose(r -> r.after(queues -> BoundedConcurrency.mapInOrder(
+        new ArrayList<>(expiredRequestIdsByItem.entrySet()),
+        MAXIMUM_CONCURRENT_QUEUES,
+        expiredForItem -> expireForItem(queues.get(expiredForItem.getKey()),
+          expiredForItem.getKey(), expiredForItem.getValue()))
+        .thenApply(outcomes -> succeeded(outcomes.stream()
+          .reduce(new BatchOutcome(0, 0), BatchOutcome::combine)))));
+  }
+
+  private CompletableFuture<BatchOutcome> expireForItem(RequestQueue requestQueue,
+    String itemId, Set<String> expiredRequestIds) {
+
+    return updateRequestQueue.onHoldShelfExpiration(requestQueue, expiredRequestIds)
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenApply(r -> {
+        if (r.failed()) {
+          log.error("Failed to close expired requests for item {}: {}",
+            itemId, r.cause());
+
+          return new BatchOutcome(0, expiredRequestIds.size());
+        }
+
+        return new BatchOutcome(r.value().size(), 0);
+      });
+  }
+
+  private static class BatchOutcome {
+    private final int closed;
+    private final int failed;
+
+    private BatchOutcome(int closed, int failed) {
+      this.closed = closed;
+      this.failed = failed;
+    }
+
+    private BatchOutcome combine(BatchOutcome other) {
+      return new BatchOutcome(closed + other.closed, failed + other.failed);
+    }
+  }
+}
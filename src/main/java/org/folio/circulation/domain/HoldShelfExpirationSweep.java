@@ -0,0 +1,55 @@
+package org.folio.circulation.domain;
+
+import static org.folio.circulation.support.JsonPropertyWriter.write;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Progress of closing requests which have expired on the hold shelf
+ *
+ * The cursor is the ID of the last request looked at, so that a sweep which
+ * stops before every expired request has been closed can be continued from
+ * where it stopped. It is null once there are no more requests to look at
+ */
+public class HoldShelfExpirationSweep {
+  private final String cursor;
+  private final int closedRequests;
+  private final int failedRequests;
+
+  private HoldShelfExpirationSweep(String cursor, int closedRequests,
+    int failedRequests) {
+
+    this.cursor = cursor;
+    this.closedRequests = closedRequests;
+    this.failedRequests = failedRequests;
+  }
+
+  public static HoldShelfExpirationSweep startingAfter(String cursor) {
+    return new HoldShelfExpirationSweep(cursor, 0, 0);
+  }
+
+  HoldShelfExpirationSweep afterBatch(String lastRequestId,
+    int closedInBatch, int failedInBatch) {
+
+    return new HoldShelfExpirationSweep(lastRequestId,
+      closedRequests + closedInBatch, failedRequests + failedInBatch);
+  }
+
+  HoldShelfExpirationSweep finished() {
+    return new HoldShelfExpirationSweep(null, closedRequests, failedRequests);
+  }
+
+  public String getCursor() {
+    return cursor;
+  }
+
+  public JsonObject asJson() {
+    final JsonObject representation = new JsonObject();
+
+    representation.put("closedRequests", closedRequests);
+    representation.put("failedRequests", failedRequests);
+    write(representation, "cursor", cursor);
+
+    return representation;
+  }
+}
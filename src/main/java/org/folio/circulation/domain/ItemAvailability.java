@@ -0,0 +1,70 @@
+package org.folio.circulation.domain;
+
+import static org.folio.circulation.support.JsonPropertyWriter.write;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.policy.RequestPolicy;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Whether an item is available, how many requests are waiting for it,
+ * and which kinds of request a patron could place for it
+ */
+public class ItemAvailability {
+  private static final List<RequestType> REQUEST_TYPES = Arrays.asList(
+    RequestType.PAGE, RequestType.HOLD, RequestType.RECALL);
+
+  private final Item item;
+  private final Loan openLoan;
+  private final RequestQueue requestQueue;
+  private final RequestPolicy requestPolicy;
+
+  public ItemAvailability(
+    Item item,
+    Loan openLoan,
+    RequestQueue requestQueue,
+    RequestPolicy requestPolicy) {
+
+    this.item = item;
+    this.openLoan = openLoan;
+    this.requestQueue = requestQueue;
+    this.requestPolicy = requestPolicy;
+  }
+
+  /**
+   * A request type can be placed when both the request policy for the patron
+   * allows it and the item is in a status that allows it
+   */
+  public List<RequestType> getAllowedRequestTypes() {
+    return REQUEST_TYPES.stream()
+      .filter(requestPolicy::allowsType)
+      .filter(type -> RequestTypeItemStatusWhiteList
+        .canCreateRequestForItem(item.getStatus(), type))
+      .collect(Collectors.toList());
+  }
+
+  public JsonObject asJson() {
+    final JsonObject representation = new JsonObject();
+
+    write(representation, "itemId", item.getItemId());
+    write(representation, "status", item.getStatus().getValue());
+
+    if (openLoan != null) {
+      write(representation, "dueDate", openLoan.getDueDate());
+    }
+
+    representation.put("queueLength", requestQueue.size());
+
+    representation.put("allowedRequestTypes", new JsonArray(
+      getAllowedRequestTypes().stream()
+        .map(RequestType::getValue)
+        .collect(Collectors.toList())));
+
+    return representation;
+  }
+}
@@ -6,6 +6,7 @@ import static org.folio.circulation.domain.representations.LoanProperties.ACTION
 import static org.folio.circulation.domain.representations.LoanProperties.CHECKIN_SERVICE_POINT_ID;
 import static org.folio.circulation.domain.representations.LoanProperties.CHECKOUT_SERVICE_POINT_ID;
 import static org.folio.circulation.domain.representations.LoanProperties.DUE_DATE;
+import static org.folio.circulation.domain.representations.LoanProperties.METADATA;
 import static org.folio.circulation.domain.representations.LoanProperties.RETURN_DATE;
 import static org.folio.circulation.domain.representations.LoanProperties.STATUS;
 import static org.folio.circulation.domain.representations.LoanProperties.SYSTEM_RETURN_DATE;
@@ -213,6 +214,29 @@ public class Loan implements ItemRelatedRecord, UserRelatedRecord {
       checkoutServicePoint, originalDueDate, loanPolicy, accounts);
   }
 
+  /**
+   * Updates the change metadata in the same way as storage would when
+   * the loan is changed, so that the loan does not need to be fetched again
+   * after it has been updated
+   *
+   * @param userId ID of the user who changed the loan
+   * @param changedDate when the loan was changed
+   */
+  Loan changedBy(String userId, DateTime changedDate) {
+    final JsonObject changedRepresentation = representation.copy();
+
+    final JsonObject metadata = changedRepresentation.containsKey(METADATA)
+      ? changedRepresentation.getJsonObject(METADATA)
+      : new JsonObject();
+
+    write(metadata, "updatedDate", changedDate);
+    write(metadata, "updatedByUserId", userId);
+
+    changedRepresentation.put(METADATA, metadata);
+
+    return replaceRepresentation(changedRepresentation);
+  }
+
   public Loan withItem(Item item) {
     return new Loan(representation, item, user, proxy, checkinServicePoint,
         checkoutServicePoint, originalDueDate, loanPolicy, accounts);
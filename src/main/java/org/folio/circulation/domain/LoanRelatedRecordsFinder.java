@@ -0,0 +1,109 @@
+package org.folio.circulation.domain;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.policy.LoanPolicyRepository;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.Result;
+
+/**
+ * Finds the records related to many loans (accounts, service points, users,
+ * loan policies and patron groups at checkout)
+ *
+ * The accounts, service points, users and loan policies do not depend upon
+ * each other, so they are all fetched at the same time from the same loans
+ * and then merged together, rather than one after another
+ *
+ * The patron group at checkout is written to the representation of each loan,
+ * which the other finders read, so it is only found once they have finished
+ */
+public class LoanRelatedRecordsFinder {
+  private final Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findAccounts;
+  private final Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findServicePoints;
+  private final Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findUsers;
+  private final Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findLoanPolicies;
+  private final Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findPatronGroups;
+
+  LoanRelatedRecordsFinder(
+    Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findAccounts,
+    Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findServicePoints,
+    Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findUsers,
+    Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findLoanPolicies,
+    Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> findPatronGroups) {
+
+    this.findAccounts = findAccounts;
+    this.findServicePoints = findServicePoints;
+    this.findUsers = findUsers;
+    this.findLoanPolicies = findLoanPolicies;
+    this.findPatronGroups = findPatronGroups;
+  }
+
+  public static LoanRelatedRecordsFinder using(Clients clients) {
+    return new LoanRelatedRecordsFinder(
+      new AccountRepository(clients)::findAccountsForLoans,
+      new ServicePointRepository(clients)::findServicePointsForLoans,
+      new UserRepository(clients)::findUsersForLoans,
+      new LoanPolicyRepository(clients)::findLoanPoliciesForLoans,
+      new PatronGroupRepository(clients)::findPatronGroupsByIds);
+  }
+
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findRelatedRecords(
+    MultipleRecords<Loan> multipleLoans) {
+
+    final CompletableFuture<Result<MultipleRecords<Loan>>> accountsFound =
+      findAccounts.apply(multipleLoans);
+
+    final CompletableFuture<Result<MultipleRecords<Loan>>> servicePointsFound =
+      findServicePoints.apply(multipleLoans);
+
+    final CompletableFuture<Result<MultipleRecords<Loan>>> usersFound =
+      findUsers.apply(multipleLoans);
+
+    final CompletableFuture<Result<MultipleRecords<Loan>>> loanPoliciesFound =
+      findLoanPolicies.apply(multipleLoans);
+
+    return CompletableFuture.allOf(accountsFound, servicePointsFound,
+      usersFound, loanPoliciesFound)
+      .thenApply(notUsed -> accountsFound.join()
+        .combine(servicePointsFound.join(), (loans, withServicePoints) ->
+          merge(loans, withServicePoints, (loan, other) -> loan
+            .withCheckinServicePoint(other.getCheckinServicePoint())
+            .withCheckoutServicePoint(other.getCheckoutServicePoint())))
+        .combine(usersFound.join(), (loans, withUsers) ->
+          merge(loans, withUsers, (loan, other) ->
+            loan.withUser(other.getUser())))
+        .combine(loanPoliciesFound.join(), (loans, withLoanPolicies) ->
+          merge(loans, withLoanPolicies, (loan, other) ->
+            loan.withLoanPolicy(other.getLoanPolicy()))))
+      .thenCompose(r -> r.after(findPatronGroups));
+  }
+
+  /**
+   * The loans are merged by ID, as a finder does not have to keep the loans
+   * in the same order. A loan which a finder did not return is left as it is
+   */
+  private static MultipleRecords<Loan> merge(
+    MultipleRecords<Loan> loans,
+    MultipleRecords<Loan> otherLoans,
+    LoanMerger merger) {
+
+    final Map<String, Loan> otherLoansById = otherLoans.toMap(Loan::getId);
+
+    final List<Loan> mergedRecords = loans.getRecords().stream()
+      .map(loan -> otherLoansById.containsKey(loan.getId())
+        ? merger.merge(loan, otherLoansById.get(loan.getId()))
+        : loan)
+      .collect(Collectors.toList());
+
+    return new MultipleRecords<>(mergedRecords, loans.getTotalRecords());
+  }
+
+  @FunctionalInterface
+  private interface LoanMerger {
+    Loan merge(Loan loan, Loan otherLoan);
+  }
+}
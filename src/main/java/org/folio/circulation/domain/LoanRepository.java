@@ -5,16 +5,17 @@ import static java.util.Objects.nonNull;
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
 import static org.folio.circulation.support.CqlQuery.exactMatchAny;
+import static org.folio.circulation.support.CqlSortBy.ascending;
 import static org.folio.circulation.support.Result.failed;
 import static org.folio.circulation.support.Result.of;
 import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ResultBinding.mapResult;
-import static org.folio.circulation.support.http.CommonResponseInterpreters.noContentRecordInterpreter;
 import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailure;
 import static org.folio.circulation.support.http.ResponseMapping.mapUsingJson;
 import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
 
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -26,10 +27,12 @@ import java.util.stream.Collectors;
 import org.folio.circulation.domain.policy.LoanPolicy;
 import org.folio.circulation.domain.representations.LoanProperties;
 import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.ClockManager;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.RecordNotFoundFailure;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.SingleRecordFetcher;
@@ -45,12 +48,14 @@ public class LoanRepository {
   private final CollectionResourceClient loansStorageClient;
   private final ItemRepository itemRepository;
   private final UserRepository userRepository;
+  private final String currentUserId;
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   public LoanRepository(Clients clients) {
     loansStorageClient = clients.loansStorage();
     itemRepository = new ItemRepository(clients, true, true, true);
     userRepository = new UserRepository(clients);
+    currentUserId = clients.currentUserId();
   }
 
   public CompletableFuture<Result<LoanAndRelatedRecords>> createLoan(
@@ -77,15 +82,45 @@ public class LoanRepository {
   }
 
   public CompletableFuture<Result<Loan>> updateLoan(Loan loan) {
+    return updateLoan(loan, false);
+  }
+
+  /**
+   * Updates a loan in storage
+   *
+   * Storage does not respond with the updated loan, so unless it is asked
+   * to be fetched again, the change metadata is updated locally in the same
+   * way that storage would have. Should storage respond with the updated loan,
+   * that is used instead
+   *
+   * @param loan the loan to update
+   * @param refreshFromStorage whether to fetch the loan again after it has been
+   * updated, for when properties which only storage can generate are needed
+   * @return the updated loan
+   */
+  public CompletableFuture<Result<Loan>> updateLoan(Loan loan,
+    boolean refreshFromStorage) {
+
     if(loan == null) {
       return completedFuture(of(() -> null));
     }
 
     JsonObject storageLoan = mapToStorageRepresentation(loan, loan.getItem());
 
-    return loansStorageClient.put(loan.getId(), storageLoan)
-      .thenApply(noContentRecordInterpreter(loan)::apply)
-      .thenComposeAsync(r -> r.after(this::refreshLoanRepresentation));
+    final ResponseInterpreter<Loan> interpreter = new ResponseInterpreter<Loan>()
+      .flatMapOn(200, mapUsingJson(loan::replaceRepresentation))
+      .flatMapOn(204, response -> of(() -> loan.changedBy(currentUserId,
+        ClockManager.getClockManager().getDateTime())));
+
+    final CompletableFuture<Result<Loan>> updated = loansStorageClient
+      .put(loan.getId(), storageLoan)
+      .thenApply(interpreter::apply);
+
+    if (!refreshFromStorage) {
+      return updated;
+    }
+
+    return updated.thenComposeAsync(r -> r.after(this::refreshLoanRepresentation));
   }
 
   /**
@@ -159,11 +194,56 @@ public class LoanRepository {
 
   public CompletableFuture<Result<MultipleRecords<Loan>>> findBy(String query) {
     //TODO: Should fetch users for all loans
-    return loansStorageClient.getManyWithRawQueryStringParameters(query)
-      .thenApply(this::mapResponseToLoans)
+    return findWithoutItems(query)
       .thenComposeAsync(loans -> itemRepository.fetchItemsFor(loans, Loan::withItem));
   }
 
+  /**
+   * Finds loans without their items, so that the items can be found
+   * separately (e.g. for a batch of the loans at a time)
+   *
+   * @param query raw query string to pass on to storage
+   * @return the loans found
+   */
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findWithoutItems(String query) {
+    return loansStorageClient.getManyWithRawQueryStringParameters(query)
+      .thenApply(this::mapResponseToLoans);
+  }
+
+  /**
+   * Finds a page of loans without their items
+   *
+   * @param query to find the loans with
+   * @param limit maximum number of loans to find
+   * @return the loans found
+   */
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findWithoutItems(
+    CqlQuery query, int limit) {
+
+    return findWithoutItems(query, limit, 0);
+  }
+
+  /**
+   * Finds a page of loans without their items
+   *
+   * @param query to find the loans with
+   * @param limit maximum number of loans to find
+   * @param offset how many matching loans to skip
+   * @return the loans found
+   */
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findWithoutItems(
+    CqlQuery query, int limit, int offset) {
+
+    return loansStorageClient.getMany(query, limit, offset)
+      .thenApply(r -> r.next(this::mapResponseToLoans));
+  }
+
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findItemsFor(
+    MultipleRecords<Loan> loans) {
+
+    return itemRepository.fetchItemsFor(succeeded(loans), Loan::withItem);
+  }
+
   private Result<MultipleRecords<Loan>> mapResponseToLoans(Response response) {
     return MultipleRecords.from(response, Loan::from, "loans");
   }
@@ -245,6 +325,88 @@ public class LoanRepository {
       .thenApply(result -> result.next(this::mapResponseToLoans));
   }
 
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findOpenLoansForItems(
+    Collection<String> itemIds) {
+
+    final MultipleRecordFetcher<Loan> fetcher
+      = new MultipleRecordFetcher<>(loansStorageClient, "loans", Loan::from);
+
+    return fetcher.findByIndexNameAndQuery(itemIds, "itemId",
+      exactMatch("status.name", "Open"));
+  }
+
+  /**
+   * Finds all of the open loans for a user without their items, a page at a
+   * time, so that no loans are left out however many the user has
+   *
+   * @param userId ID of the user who borrowed the items
+   * @return the loans found, in ID order
+   */
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findAllOpenLoansForUser(
+    String userId) {
+
+    final int pageSize = 1000;
+
+    final Result<CqlQuery> statusQuery = exactMatch("status.name", "Open");
+    final Result<CqlQuery> userIdQuery = exactMatch("userId", userId);
+
+    return statusQuery.combine(userIdQuery, CqlQuery::and)
+      .map(query -> query.sortBy(ascending("id")))
+      .after(query -> findInPages(query, pageSize, 0, new ArrayList<>()));
+  }
+
+  private CompletableFuture<Result<MultipleRecords<Loan>>> findInPages(
+    CqlQuery query,
+    int pageSize,
+    int offset,
+    List<Loan> foundSoFar) {
+
+    return loansStorageClient.getMany(query, pageSize, offset)
+      .thenApply(result -> result.next(this::mapResponseToLoans))
+      .thenCompose(r -> r.after(page -> {
+        foundSoFar.addAll(page.getRecords());
+
+        final boolean noMoreLoans = page.getRecords().size() < pageSize
+          || (page.getTotalRecords() != null
+            && foundSoFar.size() >= page.getTotalRecords());
+
+        if (noMoreLoans) {
+          return completedFuture(succeeded(
+            new MultipleRecords<>(foundSoFar, page.getTotalRecords())));
+        }
+
+        return findInPages(query, pageSize, offset + pageSize, foundSoFar);
+      }));
+  }
+
+  /**
+   * Finds open loans for a user without their items
+   *
+   * @param userId ID of the user who borrowed the items
+   * @param limit maximum number of loans to find, when zero only
+   * the number of open loans is found
+   * @return the loans found, with the total number of open loans
+   */
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findOpenLoansForUser(
+    String userId, int limit) {
+
+    final Result<CqlQuery> statusQuery = exactMatch("status.name", "Open");
+    final Result<CqlQuery> userIdQuery = exactMatch("userId", userId);
+
+    return statusQuery.combine(userIdQuery, CqlQuery::and)
+      .after(query -> loansStorageClient.getMany(query, limit))
+      .thenApply(result -> result.next(this::mapResponseToLoans));
+  }
+
+  public CompletableFuture<Result<MultipleRecords<Loan>>> findByIds(
+    Collection<String> loanIds) {
+
+    final MultipleRecordFetcher<Loan> fetcher
+      = new MultipleRecordFetcher<>(loansStorageClient, "loans", Loan::from);
+
+    return fetcher.findByIds(loanIds);
+  }
+
   CompletableFuture<Result<MultipleRecords<Request>>> findOpenLoansFor(
     MultipleRecords<Request> multipleRequests) {
 
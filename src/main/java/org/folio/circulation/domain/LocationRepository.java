@@ -12,6 +12,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import io.vertx.core.json.JsonObject;
@@ -63,6 +64,17 @@ public class LocationRepository {
       .thenCompose(r -> r.after(this::loadInstitution));
   }
 
+  /**
+   * Finds the locations for many items, including the library, campus and
+   * institution for each of them
+   *
+   * Each level of the hierarchy is found using a single (batched by ID) query,
+   * and the libraries, campuses and institutions are found at the same time,
+   * so the number of requests does not depend upon the number of items
+   *
+   * @param inventoryRecords the items to find the locations for
+   * @return the locations, mapped by ID
+   */
   public CompletableFuture<Result<Map<String, Location>>> getLocations(
     Collection<Item> inventoryRecords) {
 
@@ -76,7 +88,7 @@ public class LocationRepository {
       locationsStorageClient, "locations", Location::from);
 
     return fetcher.findByIds(locationIds)
-      .thenCompose(this::loadLibrariesForLocations)
+      .thenCompose(r -> r.after(this::loadHierarchyForLocations))
       .thenApply(mapResult(sds -> sds.toMap(Location::getId)));
   }
 
@@ -110,29 +122,50 @@ public class LocationRepository {
       .thenApply(r -> r.map(location::withInstitutionRepresentation));
   }
 
-  private CompletableFuture<Result<MultipleRecords<Location>>> loadLibrariesForLocations(
-          Result<MultipleRecords<Location>> multipleRecordsResult) {
+  private CompletableFuture<Result<MultipleRecords<Location>>> loadHierarchyForLocations(
+    MultipleRecords<Location> locations) {
 
-    return multipleRecordsResult.combineAfter(
-      locations -> getLibraries(locations.getRecords()), (locations, libraries) ->
-        locations.mapRecords(location -> location.withLibraryRepresentation(
-          libraries.getOrDefault(location.getLibraryId(),null))));
+    final Collection<Location> records = locations.getRecords();
 
+    final CompletableFuture<Result<Map<String, JsonObject>>> libraries = findByIds(
+      librariesStorageClient, "loclibs", records, Location::getLibraryId);
+
+    final CompletableFuture<Result<Map<String, JsonObject>>> campuses = findByIds(
+      campusesStorageClient, "loccamps", records, Location::getCampusId);
+
+    final CompletableFuture<Result<Map<String, JsonObject>>> institutions = findByIds(
+      institutionsStorageClient, "locinsts", records, Location::getInstitutionId);
+
+    return CompletableFuture.allOf(libraries, campuses, institutions)
+      .thenApply(notUsed -> succeeded(locations)
+        .combine(libraries.join(), (withoutLibraries, librariesById) ->
+          withoutLibraries.mapRecords(location -> location.withLibraryRepresentation(
+            librariesById.getOrDefault(location.getLibraryId(), null))))
+        .combine(campuses.join(), (withoutCampuses, campusesById) ->
+          withoutCampuses.mapRecords(location -> location.withCampusRepresentation(
+            campusesById.getOrDefault(location.getCampusId(), null))))
+        .combine(institutions.join(), (withoutInstitutions, institutionsById) ->
+          withoutInstitutions.mapRecords(location -> location.withInstitutionRepresentation(
+            institutionsById.getOrDefault(location.getInstitutionId(), null)))));
   }
 
-  private CompletableFuture<Result<Map<String, JsonObject>>> getLibraries(
-          Collection<Location> locations) {
+  private static CompletableFuture<Result<Map<String, JsonObject>>> findByIds(
+    CollectionResourceClient client,
+    String collectionPropertyName,
+    Collection<Location> locations,
+    Function<Location, String> idMapper) {
 
     final MultipleRecordFetcher<JsonObject> fetcher = new MultipleRecordFetcher<>(
-            librariesStorageClient, "loclibs", identity());
+      client, collectionPropertyName, identity());
 
-    List<String> libraryIds = locations.stream()
-            .map(Location::getLibraryId)
-            .distinct()
-            .collect(toList());
+    List<String> ids = locations.stream()
+      .map(idMapper)
+      .filter(StringUtils::isNotBlank)
+      .distinct()
+      .collect(toList());
 
-    return fetcher.findByIds(libraryIds)
-            .thenApply(mapResult(records -> records.toMap(library ->
-                    library.getString("id"))));
+    return fetcher.findByIds(ids)
+      .thenApply(mapResult(records -> records.toMap(record ->
+        record.getString("id"))));
   }
 }
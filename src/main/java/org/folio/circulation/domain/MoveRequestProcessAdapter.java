@@ -19,6 +19,37 @@ public class MoveRequestProcessAdapter {
     this.requestQueueRepository = requestQueueRepository;
   }
 
+  /**
+   * Fetches the items and request queues for both the source and the
+   * destination of a move at the same time, as none of them depend upon
+   * each other
+   */
+  CompletableFuture<Result<RequestAndRelatedRecords>> findSourceAndDestination(
+      RequestAndRelatedRecords requestAndRelatedRecords) {
+
+    final CompletableFuture<Result<Item>> sourceItemFetched =
+      itemRepository.fetchById(requestAndRelatedRecords.getSourceItemId());
+
+    final CompletableFuture<Result<RequestQueue>> sourceQueueFetched =
+      requestQueueRepository.get(requestAndRelatedRecords.getSourceItemId());
+
+    final CompletableFuture<Result<RequestQueue>> destinationQueueFetched =
+      requestQueueRepository.get(requestAndRelatedRecords.getDestinationItemId());
+
+    final CompletableFuture<Result<RequestAndRelatedRecords>> destinationItemFetched =
+      findDestinationItem(requestAndRelatedRecords);
+
+    return CompletableFuture.allOf(sourceItemFetched, sourceQueueFetched,
+      destinationQueueFetched, destinationItemFetched)
+      .thenApply(notUsed -> destinationItemFetched.join()
+        .combine(destinationQueueFetched.join(),
+          RequestAndRelatedRecords::withRequestQueue)
+        .combine(sourceItemFetched.join(),
+          RequestAndRelatedRecords::withSourceItem)
+        .combine(sourceQueueFetched.join(),
+          RequestAndRelatedRecords::withSourceRequestQueue));
+  }
+
   CompletableFuture<Result<RequestAndRelatedRecords>> findDestinationItem(
       RequestAndRelatedRecords requestAndRelatedRecords) {
     return itemRepository.fetchById(requestAndRelatedRecords.getDestinationItemId())
@@ -32,24 +63,6 @@ public class MoveRequestProcessAdapter {
       .thenApply(r -> r.map(requestAndRelatedRecords::withLoan));
   }
 
-  CompletableFuture<Result<RequestAndRelatedRecords>> getDestinationRequestQueue(
-      RequestAndRelatedRecords requestAndRelatedRecords) {
-    return requestQueueRepository.get(requestAndRelatedRecords.getDestinationItemId())
-      .thenApply(result -> result.map(requestAndRelatedRecords::withRequestQueue));
-  }
-
-  CompletableFuture<Result<RequestAndRelatedRecords>> findSourceItem(
-      RequestAndRelatedRecords requestAndRelatedRecords) {
-    return itemRepository.fetchById(requestAndRelatedRecords.getSourceItemId())
-      .thenApply(result -> result.map(requestAndRelatedRecords::withItem));
-  }
-
-  CompletableFuture<Result<RequestAndRelatedRecords>> getSourceRequestQueue(
-      RequestAndRelatedRecords requestAndRelatedRecords) {
-    return requestQueueRepository.get(requestAndRelatedRecords.getSourceItemId())
-      .thenApply(result -> result.map(requestAndRelatedRecords::withRequestQueue));
-  }
-
   CompletableFuture<Result<RequestAndRelatedRecords>> getRequest(
       RequestAndRelatedRecords requestAndRelatedRecords) {
     return requestRepository.getById(requestAndRelatedRecords.getRequest().getId())
@@ -4,10 +4,20 @@ public class MoveRequestRecord {
 
   private final String sourceItemId;
   private final String destinationItemId;
+  private final Item sourceItem;
+  private final RequestQueue sourceRequestQueue;
 
   public MoveRequestRecord(String sourceItemId, String destinationItemId) {
+    this(sourceItemId, destinationItemId, null, null);
+  }
+
+  private MoveRequestRecord(String sourceItemId, String destinationItemId,
+    Item sourceItem, RequestQueue sourceRequestQueue) {
+
     this.sourceItemId = sourceItemId;
     this.destinationItemId = destinationItemId;
+    this.sourceItem = sourceItem;
+    this.sourceRequestQueue = sourceRequestQueue;
   }
 
   public String getSourceItemId() {
@@ -17,7 +27,25 @@ public class MoveRequestRecord {
   public String getDestinationItemId() {
     return destinationItemId;
   }
-  
+
+  Item getSourceItem() {
+    return sourceItem;
+  }
+
+  RequestQueue getSourceRequestQueue() {
+    return sourceRequestQueue;
+  }
+
+  MoveRequestRecord withSourceItem(Item newSourceItem) {
+    return new MoveRequestRecord(sourceItemId, destinationItemId,
+      newSourceItem, sourceRequestQueue);
+  }
+
+  MoveRequestRecord withSourceRequestQueue(RequestQueue newSourceRequestQueue) {
+    return new MoveRequestRecord(sourceItemId, destinationItemId,
+      sourceItem, newSourceRequestQueue);
+  }
+
   public static MoveRequestRecord with(String sourceItemId, String destinationItemId) {
     return new MoveRequestRecord(sourceItemId, destinationItemId);
   }
@@ -5,9 +5,12 @@ import static org.folio.circulation.support.Result.of;
 
 import java.util.concurrent.CompletableFuture;
 
+import org.folio.circulation.domain.policy.LoanPolicyRepository;
 import org.folio.circulation.domain.policy.RequestPolicyRepository;
 import org.folio.circulation.domain.validation.RequestLoanValidator;
 import org.folio.circulation.resources.RequestNoticeSender;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.ItemRepository;
 import org.folio.circulation.support.Result;
 
 public class MoveRequestService {
@@ -29,23 +32,42 @@ public class MoveRequestService {
     this.requestNoticeSender = requestNoticeSender;
   }
 
+  public static MoveRequestService using(Clients clients) {
+    final RequestRepository requestRepository = RequestRepository.using(clients);
+    final LoanRepository loanRepository = new LoanRepository(clients);
+
+    final UpdateUponRequest updateUponRequest = new UpdateUponRequest(
+        new UpdateItem(clients),
+        new UpdateLoan(clients, loanRepository, new LoanPolicyRepository(clients)),
+        new UpdateLoanActionHistory(loanRepository),
+        UpdateRequestQueue.using(clients));
+
+    final MoveRequestProcessAdapter moveRequestProcessAdapter =
+        new MoveRequestProcessAdapter(
+          new ItemRepository(clients, true, true, true),
+          loanRepository,
+          requestRepository,
+          RequestQueueRepository.using(clients));
+
+    return new MoveRequestService(
+        requestRepository,
+        new RequestPolicyRepository(clients),
+        updateUponRequest,
+        moveRequestProcessAdapter,
+        new RequestLoanValidator(),
+        RequestNoticeSender.using(clients));
+  }
+
   public CompletableFuture<Result<RequestAndRelatedRecords>> moveRequest(
       RequestAndRelatedRecords requestAndRelatedRecords) {
     return completedFuture(of(() -> requestAndRelatedRecords))
-      .thenComposeAsync(r -> r.after(moveRequestProcessAdapter::findDestinationItem))
-      .thenComposeAsync(r -> r.after(moveRequestProcessAdapter::getDestinationRequestQueue))
+      .thenComposeAsync(r -> r.after(moveRequestProcessAdapter::findSourceAndDestination))
       .thenApply(r -> r.map(this::pagedRequestIfDestinationItemAvailable))
       .thenCompose(r -> r.after(this::validateUpdateRequest))
-      .thenCompose(r -> r.after(updateUponRequest.updateRequestQueue::onMovedTo))
-      .thenComposeAsync(r -> r.after(this::updateRelatedObjects))
+      .thenCompose(r -> r.after(updateUponRequest.updateRequestQueue::onMoved))
+      .thenComposeAsync(r -> r.after(this::updateSourceAndDestination))
       .thenCompose(r -> r.after(requestRepository::update))
       .thenApply(r -> r.next(requestNoticeSender::sendNoticeOnRequestMoved))
-      .thenComposeAsync(r -> r.after(moveRequestProcessAdapter::findSourceItem))
-      .thenComposeAsync(r -> r.after(moveRequestProcessAdapter::getSourceRequestQueue))
-      .thenCompose(r -> r.after(updateUponRequest.updateRequestQueue::onMovedFrom))
-      .thenComposeAsync(r -> r.after(this::updateRelatedObjects))
-      .thenComposeAsync(r -> r.after(moveRequestProcessAdapter::findDestinationItem))
-      .thenComposeAsync(r -> r.after(moveRequestProcessAdapter::getDestinationRequestQueue))
       .thenComposeAsync(r -> r.after(moveRequestProcessAdapter::getRequest));
   }
 
@@ -70,6 +92,31 @@ public class MoveRequestService {
       .thenApply(r -> r.next(RequestServiceUtility::refuseWhenRequestCannotBeFulfilled));
   }
 
+  /**
+   * The items (and loans) for the source and destination are different,
+   * so can be updated at the same time
+   */
+  private CompletableFuture<Result<RequestAndRelatedRecords>> updateSourceAndDestination(
+      RequestAndRelatedRecords requestAndRelatedRecords) {
+
+    // The request for the source item is a copy, as changing the item
+    // changes the item ID in the representation
+    final Request requestForSourceItem = Request.from(
+      requestAndRelatedRecords.getRequest().asJson())
+      .withItem(requestAndRelatedRecords.getSourceItem());
+
+    final CompletableFuture<Result<RequestAndRelatedRecords>> sourceUpdated =
+      updateRelatedObjects(new RequestAndRelatedRecords(requestForSourceItem)
+        .withRequestQueue(requestAndRelatedRecords.getSourceRequestQueue()));
+
+    final CompletableFuture<Result<RequestAndRelatedRecords>> destinationUpdated =
+      updateRelatedObjects(requestAndRelatedRecords);
+
+    return destinationUpdated.thenCombine(sourceUpdated,
+      (destinationResult, sourceResult) -> destinationResult.combine(
+        sourceResult, (destination, source) -> destination));
+  }
+
   private CompletableFuture<Result<RequestAndRelatedRecords>> updateRelatedObjects(
       RequestAndRelatedRecords requestAndRelatedRecords) {
     return updateUponRequest.updateItem.onRequestCreateOrUpdate(requestAndRelatedRecords)
@@ -1,5 +1,6 @@
 package org.folio.circulation.domain;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.function.Function.identity;
 import static java.util.stream.Stream.concat;
 import static org.folio.circulation.support.JsonArrayHelper.mapToList;
@@ -10,6 +11,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -56,6 +58,19 @@ public class MultipleRecords<T> {
       wrappedRecords, totalRecords));
   }
 
+  /**
+   * @return a function which only finds records related to these records
+   * when they are included, otherwise leaving the records as they are
+   */
+  public static <T> Function<MultipleRecords<T>, CompletableFuture<Result<MultipleRecords<T>>>> onlyWhen(
+    boolean included,
+    Function<MultipleRecords<T>, CompletableFuture<Result<MultipleRecords<T>>>> fetchRelatedRecords) {
+
+    return records -> included
+      ? fetchRelatedRecords.apply(records)
+      : completedFuture(succeeded(records));
+  }
+
   public <R> List<R> toKeys(Function<T, R> keyMapper) {
     return getRecords().stream()
       .map(keyMapper)
@@ -265,6 +265,14 @@ public class Request implements ItemRelatedRecord, UserRelatedRecord {
     }
   }
 
+  Request withoutPosition() {
+    final JsonObject representation = requestRepresentation.copy();
+
+    representation.remove(POSITION);
+
+    return withRequestJsonRepresentation(representation);
+  }
+
   void removePosition() {
     previousPosition = getPosition();
     requestRepresentation.remove(POSITION);
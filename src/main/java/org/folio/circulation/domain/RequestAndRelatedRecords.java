@@ -88,6 +88,24 @@ public class RequestAndRelatedRecords implements UserRelatedRecord, ItemRelatedR
     );
   }
 
+  RequestAndRelatedRecords withSourceItem(Item newSourceItem) {
+    return new RequestAndRelatedRecords(
+      this.request,
+      this.requestQueue,
+      this.requestPolicy,
+      this.moveRequestRecord.withSourceItem(newSourceItem)
+    );
+  }
+
+  RequestAndRelatedRecords withSourceRequestQueue(RequestQueue newSourceRequestQueue) {
+    return new RequestAndRelatedRecords(
+      this.request,
+      this.requestQueue,
+      this.requestPolicy,
+      this.moveRequestRecord.withSourceRequestQueue(newSourceRequestQueue)
+    );
+  }
+
   public Request getRequest() {
     return request;
   }
@@ -106,6 +124,14 @@ public class RequestAndRelatedRecords implements UserRelatedRecord, ItemRelatedR
     return moveRequestRecord != null ? moveRequestRecord.getDestinationItemId() : null;
   }
 
+  Item getSourceItem() {
+    return moveRequestRecord != null ? moveRequestRecord.getSourceItem() : null;
+  }
+
+  RequestQueue getSourceRequestQueue() {
+    return moveRequestRecord != null ? moveRequestRecord.getSourceRequestQueue() : null;
+  }
+
   @Override
   public String getUserId() {
     return request.getUserId();
@@ -0,0 +1,112 @@
+package org.folio.circulation.domain;
+
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.support.Result;
+
+/**
+ * Which of the records related to a request are included when finding many
+ * requests, so that clients which only need the requests themselves (e.g. to
+ * count a queue) do not cause the related records to be fetched
+ *
+ * Every related record is included unless specific ones are asked for
+ */
+public class RequestIncludes {
+  public static final String INCLUDE_PARAMETER = "include";
+
+  private enum RelatedRecord {
+    ITEM("item"),
+    LOAN("loan"),
+    REQUESTER("requester"),
+    PROXY("proxy"),
+    PICKUP_SERVICE_POINT("pickupServicePoint");
+
+    private final String name;
+
+    RelatedRecord(String name) {
+      this.name = name;
+    }
+
+    private static Optional<RelatedRecord> from(String name) {
+      return Arrays.stream(values())
+        .filter(relatedRecord -> relatedRecord.name.equals(name))
+        .findFirst();
+    }
+  }
+
+  private final Set<RelatedRecord> included;
+
+  private RequestIncludes(Set<RelatedRecord> included) {
+    this.included = included;
+  }
+
+  public static RequestIncludes all() {
+    return new RequestIncludes(EnumSet.allOf(RelatedRecord.class));
+  }
+
+  /**
+   * @param include comma separated names of the related records to include,
+   * when null every related record is included, when empty none are
+   */
+  public static Result<RequestIncludes> from(String include) {
+    if (include == null) {
+      return succeeded(all());
+    }
+
+    final List<String> names = StringUtils.isBlank(include)
+      ? Collections.emptyList()
+      : Arrays.stream(include.split(","))
+        .map(String::trim)
+        .collect(Collectors.toList());
+
+    final Set<RelatedRecord> included = EnumSet.noneOf(RelatedRecord.class);
+
+    for (String name : names) {
+      final Optional<RelatedRecord> relatedRecord = RelatedRecord.from(name);
+
+      if (!relatedRecord.isPresent()) {
+        return failedValidation(
+          String.format("Cannot include %s with requests", name),
+          INCLUDE_PARAMETER, include);
+      }
+
+      included.add(relatedRecord.get());
+    }
+
+    return succeeded(new RequestIncludes(included));
+  }
+
+  boolean includesItem() {
+    return included.contains(RelatedRecord.ITEM);
+  }
+
+  boolean includesLoan() {
+    return included.contains(RelatedRecord.LOAN);
+  }
+
+  boolean includesRequester() {
+    return included.contains(RelatedRecord.REQUESTER);
+  }
+
+  boolean includesProxy() {
+    return included.contains(RelatedRecord.PROXY);
+  }
+
+  boolean includesUsers() {
+    return includesRequester() || includesProxy();
+  }
+
+  boolean includesPickupServicePoint() {
+    return included.contains(RelatedRecord.PICKUP_SERVICE_POINT);
+  }
+}
@@ -0,0 +1,33 @@
+package org.folio.circulation.domain;
+
+import java.util.List;
+
+/**
+ * Requests whose positions must be updated one after another, because each
+ * request is moving into the position previously held by the one before it
+ *
+ * When the chain is cyclic, the first request is moving into the position
+ * of the last, so the last request needs to be moved out of its current
+ * position before any of the others can be updated
+ */
+class RequestPositionChain {
+  private final List<Request> requests;
+  private final boolean cyclic;
+
+  RequestPositionChain(List<Request> requests, boolean cyclic) {
+    this.requests = requests;
+    this.cyclic = cyclic;
+  }
+
+  List<Request> getRequests() {
+    return requests;
+  }
+
+  Request getLast() {
+    return requests.get(requests.size() - 1);
+  }
+
+  boolean isCyclic() {
+    return cyclic;
+  }
+}
@@ -1,19 +1,49 @@
 package org.folio.circulation.domain;
 
+import static java.util.Comparator.nullsLast;
 import static org.folio.circulation.domain.ItemStatus.AVAILABLE;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.ListIterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
+import org.joda.time.DateTime;
+
 public class RequestQueue {
+  // requests that are in transit or awaiting pickup come first, then by request date
+  private static final Comparator<QueuedRequest> QUEUE_ORDER =
+    Comparator.comparing((QueuedRequest queued) -> !queued.notDisplaceable)
+      .thenComparing(queued -> queued.requestDate, nullsLast(Comparator.<DateTime>naturalOrder()))
+      .thenComparingLong(queued -> queued.sequence);
+
+  private List<Request> requests;
+  private final boolean complete;
 
-  private Collection<Request> requests;
+  private TreeSet<QueuedRequest> orderedRequests;
+  private Map<String, QueuedRequest> requestsById;
+  private long nextSequence = 0;
 
   public RequestQueue(Collection<Request> requests) {
-    this.requests = requests;
+    this(requests, true);
+  }
+
+  /**
+   * @param requests in position order
+   * @param complete whether these are all of the requests in the queue, or
+   * only the first requests, up to the highest priority fulfillable request
+   */
+  RequestQueue(Collection<Request> requests, boolean complete) {
+    this.requests = new ArrayList<>(requests);
+    this.complete = complete;
   }
 
   ItemStatus checkedInItemStatus() {
@@ -49,28 +79,60 @@ public class RequestQueue {
   }
 
   public void add(Request newRequest) {
-    requests = new ArrayList<>(requests);
-    requests.add(newRequest);
-    orderRequests();
+    refuseWhenIncomplete();
+
+    //The existing requests need to be indexed first, so that they come before
+    //a new request with the same request date
+    final TreeSet<QueuedRequest> ordered = orderedRequests();
+
+    final QueuedRequest queued = new QueuedRequest(newRequest, nextSequence++);
+
+    ordered.add(queued);
+    requestsById().put(newRequest.getId(), queued);
+
+    renumberRequests();
   }
 
   public void remove(Request request) {
-    requests = requests.stream()
-      .filter(r -> !r.getId().equals(request.getId()))
-      .collect(Collectors.toList());
+    refuseWhenIncomplete();
+
+    final QueuedRequest queued = requestsById().remove(request.getId());
+
+    if(queued != null) {
+      orderedRequests().remove(queued);
+    }
+
     request.removePosition();
-    orderRequests();
+    renumberRequests();
   }
 
-  private void orderRequests() {
-    requests = requests.stream()
-      // order by date descending
-      .sorted((req1, req2) -> req1.getRequestDate().compareTo(req2.getRequestDate()))
-      // order by (request status = "Open - In transit" or "Open - Awaiting pickup") first
-      .sorted((req1, req2) -> Boolean.compare(req2.isNotDisplaceable(), req1.isNotDisplaceable()))
-      .collect(Collectors.toList());
-    final AtomicInteger position = new AtomicInteger(1);
-    requests.forEach(req -> req.changePosition(position.getAndIncrement()));
+  boolean isComplete() {
+    return complete;
+  }
+
+  //Changing the order of only part of the queue would lead to duplicate positions
+  private void refuseWhenIncomplete() {
+    if (!complete) {
+      throw new IllegalStateException(
+        "Cannot change the order of a partially fetched request queue");
+    }
+  }
+
+  /**
+   * Positions are assigned in queue order, so only the requests after
+   * where a request was added or removed end up with a different position
+   */
+  private void renumberRequests() {
+    final List<Request> renumbered = new ArrayList<>(orderedRequests.size());
+
+    int position = 1;
+
+    for (QueuedRequest queued : orderedRequests) {
+      queued.request.changePosition(position++);
+      renumbered.add(queued.request);
+    }
+
+    requests = renumbered;
   }
 
   public Integer size() {
@@ -78,26 +140,146 @@ public class RequestQueue {
   }
 
   public Boolean contains(Request request) {
-      return requests.stream()
-        .anyMatch(r -> r.getId().equals(request.getId()));
+    return requestsById().containsKey(request.getId());
   }
 
   Collection<Request> getRequestsWithChangedPosition() {
-    return requests.stream()
-      .filter(Request::hasChangedPosition)
-      // order by position descending
-      .sorted((req1, req2) -> req2.getPosition().compareTo(req1.getPosition()))
-      .collect(Collectors.toList());
+    final List<Request> changedRequests = new ArrayList<>();
+
+    // requests are in position order, so walk backwards for position descending
+    final ListIterator<Request> iterator = requests.listIterator(requests.size());
+
+    while (iterator.hasPrevious()) {
+      final Request request = iterator.previous();
+
+      if (request.hasChangedPosition()) {
+        changedRequests.add(request);
+      }
+    }
+
+    return changedRequests;
+  }
+
+  /**
+   * Groups the requests which have changed position into chains that can be
+   * updated without two requests ever having the same position, a request
+   * can only take a position once the request which previously had it
+   * has moved
+   *
+   * Each request can only be waiting for one other request (the previous
+   * holder of its new position), and only one request can be waiting for it,
+   * so the chains can be found in a single pass over the changed requests
+   *
+   * @return chains of requests, in the order each chain needs to be updated
+   */
+  List<RequestPositionChain> getPositionChangeChains() {
+    final Collection<Request> changedRequests = getRequestsWithChangedPosition();
+
+    final Map<Integer, Request> byPreviousPosition = new HashMap<>();
+    final Set<Integer> newPositions = new HashSet<>();
+
+    changedRequests.forEach(request -> {
+      if (request.hasPreviousPosition()) {
+        byPreviousPosition.put(request.getPreviousPosition(), request);
+      }
+
+      newPositions.add(request.getPosition());
+    });
+
+    final Set<String> chained = new HashSet<>();
+    final List<RequestPositionChain> chains = new ArrayList<>();
+
+    // start from the requests no other request is waiting for
+    changedRequests.stream()
+      .filter(request -> !request.hasPreviousPosition()
+        || !newPositions.contains(request.getPreviousPosition()))
+      .forEach(last -> chains.add(chainEndingWith(last, byPreviousPosition,
+        chained)));
+
+    // anything left over is waiting on itself, through the other requests
+    changedRequests.stream()
+      .filter(request -> !chained.contains(request.getId()))
+      .forEach(last -> chains.add(chainEndingWith(last, byPreviousPosition,
+        chained)));
+
+    return chains;
+  }
+
+  private static RequestPositionChain chainEndingWith(
+    Request last,
+    Map<Integer, Request> byPreviousPosition,
+    Set<String> chained) {
+
+    final LinkedList<Request> chain = new LinkedList<>();
+
+    Request current = last;
+    boolean cyclic = false;
+
+    while (current != null) {
+      if (!chained.add(current.getId())) {
+        cyclic = true;
+        break;
+      }
+
+      chain.addFirst(current);
+      current = byPreviousPosition.get(current.getPosition());
+    }
+
+    return new RequestPositionChain(chain, cyclic);
+  }
+
+  private TreeSet<QueuedRequest> orderedRequests() {
+    if (orderedRequests == null) {
+      index();
+    }
+
+    return orderedRequests;
   }
 
-  public Boolean positionPreviouslyTaken(Request request) {
-    return requests.stream()
-      .anyMatch(r -> !r.getId().equals(request.getId()) &&
-          (r.hasPreviousPosition() && r.getPreviousPosition().equals(request.getPosition())));
+  private Map<String, QueuedRequest> requestsById() {
+    if (requestsById == null) {
+      index();
+    }
+
+    return requestsById;
+  }
+
+  /**
+   * Queue order is only needed once the queue changes, so is built on demand
+   */
+  private void index() {
+    orderedRequests = new TreeSet<>(QUEUE_ORDER);
+    requestsById = new HashMap<>();
+
+    requests.forEach(request -> {
+      final QueuedRequest queued = new QueuedRequest(request, nextSequence++);
+
+      orderedRequests.add(queued);
+      requestsById.put(request.getId(), queued);
+    });
   }
 
   //TODO: Encapsulate this better
   public Collection<Request> getRequests() {
     return requests;
   }
+
+  /**
+   * A request in the queue, with the values it is ordered by taken when it
+   * joined the queue, so that changes to the request cannot disturb the order.
+   * Requests with the same order stay in the order they joined the queue
+   */
+  private static class QueuedRequest {
+    private final Request request;
+    private final boolean notDisplaceable;
+    private final DateTime requestDate;
+    private final long sequence;
+
+    QueuedRequest(Request request, long sequence) {
+      this.request = request;
+      this.notDisplaceable = request.isNotDisplaceable();
+      this.requestDate = request.getRequestDate();
+      this.sequence = sequence;
+    }
+  }
 }
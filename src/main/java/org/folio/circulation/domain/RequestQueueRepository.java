@@ -1,19 +1,34 @@
 package org.folio.circulation.domain;
 
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsLast;
+import static java.util.Collections.singletonList;
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
 import static org.folio.circulation.support.CqlQuery.exactMatchAny;
 import static org.folio.circulation.support.CqlSortBy.ascending;
 import static org.folio.circulation.support.Result.succeeded;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.Result;
 
 public class RequestQueueRepository {
+  private static final int MAXIMUM_CONCURRENT_CHAINS = 5;
+  private static final int QUEUE_PAGE_SIZE = 100;
+  private static final int HEAD_OF_QUEUE_PAGE_SIZE = 10;
+
   private final RequestRepository requestRepository;
 
   private RequestQueueRepository(RequestRepository requestRepository) {
@@ -35,64 +50,194 @@ public class RequestQueueRepository {
     return get(itemRelatedRecord.getItemId());
   }
 
+  /**
+   * Fetches every request in the queue, a page at a time, so there is no
+   * limit on how long a queue can be
+   */
   public CompletableFuture<Result<RequestQueue>> get(String itemId) {
-    final Result<CqlQuery> itemIdQuery = exactMatch("itemId", itemId);
-    final Result<CqlQuery> statusQuery = exactMatchAny("status", RequestStatus.openStates());
-
-    final int maximumSupportedRequestQueueSize = 1000;
-
-    return itemIdQuery.combine(statusQuery, CqlQuery::and)
-      .map(q -> q.sortBy(ascending("position")))
-      .after(query -> requestRepository.findBy(query, maximumSupportedRequestQueueSize))
+    return openRequestsInPositionOrder(itemId)
+      .after(query -> requestRepository.findInPagesWithItems(query,
+        QUEUE_PAGE_SIZE, requests -> false))
       .thenApply(r -> r.map(MultipleRecords::getRecords))
       .thenApply(r -> r.map(RequestQueue::new));
   }
 
-  public CompletableFuture<Result<RequestQueue>> getRequestQueueWithoutItemLookup(String itemId) {
+  public CompletableFuture<Result<LoanAndRelatedRecords>> getHeadOfQueue(
+    LoanAndRelatedRecords loanAndRelatedRecords) {
+
+    return getHeadOfQueue(loanAndRelatedRecords.getLoan().getItemId())
+      .thenApply(result -> result.map(loanAndRelatedRecords::withRequestQueue));
+  }
+
+  /**
+   * Fetches only the start of the queue, up to and including the highest
+   * priority fulfillable request, which is all that is needed when checking
+   * an item in or out, or renewing a loan
+   *
+   * The queue cannot be reordered until it has been completed
+   */
+  public CompletableFuture<Result<RequestQueue>> getHeadOfQueue(String itemId) {
+    return openRequestsInPositionOrder(itemId)
+      .after(query -> requestRepository.findInPagesWithItems(query,
+        HEAD_OF_QUEUE_PAGE_SIZE,
+        requests -> requests.stream().anyMatch(Request::isFulfillable)))
+      .thenApply(r -> r.map(requests -> new RequestQueue(requests.getRecords(),
+        requests.getRecords().size() >= requests.getTotalRecords())));
+  }
+
+  /**
+   * Fetches the rest of a queue, when only the start of it has been fetched
+   */
+  CompletableFuture<Result<RequestQueue>> complete(
+    RequestQueue requestQueue, String itemId) {
+
+    return requestQueue.isComplete()
+      ? completedFuture(succeeded(requestQueue))
+      : get(itemId);
+  }
+
+  private static Result<CqlQuery> openRequestsInPositionOrder(String itemId) {
     final Result<CqlQuery> itemIdQuery = exactMatch("itemId", itemId);
     final Result<CqlQuery> statusQuery = exactMatchAny("status", RequestStatus.openStates());
 
-    final int maximumSupportedRequestQueueSize = 1000;
-
     return itemIdQuery.combine(statusQuery, CqlQuery::and)
-      .map(q -> q.sortBy(ascending("position")))
-      .after(query -> requestRepository.findByWithoutItems(query, maximumSupportedRequestQueueSize))
-      .thenApply(r -> r.map(MultipleRecords::getRecords))
-      .thenApply(r -> r.map(RequestQueue::new));
+      .map(q -> q.sortBy(ascending("position")));
+  }
+
+  /**
+   * Fetches the request queues for many items at once, using batched queries
+   * for the open requests of all of the items
+   *
+   * @param items the items to fetch queues for
+   * @return a queue for each item (which may be empty), keyed by item ID
+   */
+  public CompletableFuture<Result<Map<String, RequestQueue>>> getRequestQueues(
+    Collection<Item> items) {
+
+    final Map<String, Item> itemsById = items.stream()
+      .collect(Collectors.toMap(Item::getItemId, identity(),
+        (first, second) -> first));
+
+    return requestRepository.findOpenRequestsForItems(itemsById.keySet())
+      .thenApply(r -> r.map(requests ->
+        groupIntoQueues(requests.getRecords(), itemsById.keySet(),
+          request -> request.withItem(itemsById.get(request.getItemId())))));
+  }
+
+  /**
+   * Fetches the request queues for many items at once, without fetching
+   * the items, for when only the requests in the queues are changed
+   *
+   * @param itemIds the IDs of the items to fetch queues for
+   * @return a queue for each item (which may be empty), keyed by item ID
+   */
+  CompletableFuture<Result<Map<String, RequestQueue>>> getRequestQueuesWithoutItems(
+    Collection<String> itemIds) {
+
+    return requestRepository.findOpenRequestsForItems(itemIds)
+      .thenApply(r -> r.map(requests ->
+        groupIntoQueues(requests.getRecords(), itemIds, identity())));
+  }
+
+  private static Map<String, RequestQueue> groupIntoQueues(
+    Collection<Request> requests, Collection<String> itemIds,
+    Function<Request, Request> includeItem) {
+
+    final Map<String, List<Request>> requestsByItem = requests.stream()
+      .sorted(comparing(Request::getPosition, nullsLast(naturalOrder())))
+      .map(includeItem)
+      .collect(Collectors.groupingBy(Request::getItemId));
+
+    return itemIds.stream()
+      .distinct()
+      .collect(Collectors.toMap(identity(), itemId -> new RequestQueue(
+        requestsByItem.getOrDefault(itemId, new ArrayList<>()))));
   }
 
   CompletableFuture<Result<RequestQueue>> updateRequestsWithChangedPositions(
     RequestQueue requestQueue) {
 
-    final ArrayList<Request> changedRequests = new ArrayList<>(requestQueue.getRequestsWithChangedPosition());
+    return updateRequestsWithChangedPositions(singletonList(requestQueue))
+      .thenApply(r -> r.map(notUsed -> requestQueue));
+  }
+
+  /**
+   * Updates the requests which have changed position in any of the queues
+   * using a single batch, e.g. when a request has been moved between queues
+   *
+   * When storage cannot update many requests at once, each queue is updated
+   * in the order given, as a request moved from one queue to another has to
+   * be updated before the rest of its old queue can move up
+   */
+  CompletableFuture<Result<Void>> updateRequestsWithChangedPositions(
+    List<RequestQueue> requestQueues) {
+
+    final List<Request> changedRequests = requestQueues.stream()
+      .flatMap(requestQueue -> requestQueue.getPositionChangeChains().stream())
+      .flatMap(chain -> chain.getRequests().stream())
+      .collect(Collectors.toList());
 
     if(changedRequests.isEmpty()) {
-      return completedFuture(succeeded(requestQueue));
+      return completedFuture(succeeded(null));
+    }
+
+    return requestRepository.batchUpdate(changedRequests)
+      .thenCompose(r -> r.after(updated -> {
+        if (updated) {
+          changedRequests.forEach(Request::freePreviousPosition);
+          return completedFuture(succeeded(null));
+        }
+        else {
+          return updateEachQueue(requestQueues);
+        }
+      }));
+  }
+
+  private CompletableFuture<Result<Void>> updateEachQueue(
+    List<RequestQueue> requestQueues) {
+
+    CompletableFuture<Result<Void>> queuesUpdated = completedFuture(succeeded(null));
+
+    for (RequestQueue requestQueue : requestQueues) {
+      queuesUpdated = queuesUpdated.thenCompose(r -> r.after(notUsed ->
+        updateEachRequest(requestQueue.getPositionChangeChains())));
     }
 
-    CompletableFuture<Result<Request>> requestUpdated = completedFuture(succeeded(null));
-
-    int index;
-    Request request;
-    boolean positionTaken = false;
-
-    while (!changedRequests.isEmpty()) {
-      index = 0;
-      request = changedRequests.get(index);
-      while (changedRequests.size() > 1
-          && (positionTaken = requestQueue.positionPreviouslyTaken(request))
-          && index + 1 < changedRequests.size()) {
-        request = changedRequests.get(++index);
-      }
-      if (!positionTaken) {
-        CompletableFuture<Result<Request>> updateFuture =
-          requestRepository.update(request);
-        requestUpdated = requestUpdated.thenComposeAsync(r ->
-          r.after(notUsed -> updateFuture));
-        request.freePreviousPosition();
-        changedRequests.remove(index);
-      }
+    return queuesUpdated;
+  }
+
+  /**
+   * Updates each request separately, when storage cannot update many at once
+   *
+   * Chains do not depend upon each other, so a few can be updated at the
+   * same time, the requests in each chain are updated in order
+   */
+  private CompletableFuture<Result<Void>> updateEachRequest(
+    List<RequestPositionChain> chains) {
+
+    return BoundedConcurrency.mapInOrder(chains, MAXIMUM_CONCURRENT_CHAINS,
+      this::updatePositions)
+      .thenApply(outcomes -> Result.combineAll(outcomes))
+      .thenApply(r -> r.map(notUsed -> null));
+  }
+
+  private CompletableFuture<Result<Request>> updatePositions(
+    RequestPositionChain chain) {
+
+    // Moves the last request out of the way, to make space for the first
+    CompletableFuture<Result<Request>> requestUpdated = chain.isCyclic()
+      ? requestRepository.update(chain.getLast().withoutPosition())
+      : completedFuture(succeeded(null));
+
+    for (Request request : chain.getRequests()) {
+      requestUpdated = requestUpdated
+        .thenCompose(r -> r.after(notUsed -> requestRepository.update(request)))
+        .thenApply(r -> r.map(updatedRequest -> {
+          updatedRequest.freePreviousPosition();
+          return updatedRequest;
+        }));
     }
-    return requestUpdated.thenApply(r -> r.map(notUsed -> requestQueue));
+
+    return requestUpdated;
   }
 }
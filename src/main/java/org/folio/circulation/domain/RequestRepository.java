@@ -1,6 +1,13 @@
 package org.folio.circulation.domain;
 
 import static java.util.Objects.isNull;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.domain.MultipleRecords.onlyWhen;
+import static org.folio.circulation.support.CqlQuery.exactMatch;
+import static org.folio.circulation.support.CqlQuery.exactMatchAny;
+import static org.folio.circulation.support.CqlQuery.greaterThan;
+import static org.folio.circulation.support.CqlQuery.lessThan;
+import static org.folio.circulation.support.CqlSortBy.ascending;
 import static org.folio.circulation.support.Result.failed;
 import static org.folio.circulation.support.Result.of;
 import static org.folio.circulation.support.Result.ofAsync;
@@ -9,23 +16,33 @@ import static org.folio.circulation.support.ResultBinding.mapResult;
 import static org.folio.circulation.support.http.ResponseMapping.forwardOnFailure;
 import static org.folio.circulation.support.http.ResponseMapping.mapUsingJson;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.FetchSingleRecord;
 import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.RecordNotFoundFailure;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.SingleRecordFetcher;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.http.client.ResponseInterpreter;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 
 public class RequestRepository {
   private final CollectionResourceClient requestsStorageClient;
+  private final CollectionResourceClient requestsBatchStorageClient;
   private final CollectionResourceClient cancellationReasonStorageClient;
   private final ItemRepository itemRepository;
   private final UserRepository userRepository;
@@ -35,6 +52,7 @@ public class RequestRepository {
 
   private RequestRepository(
     CollectionResourceClient requestsStorageClient,
+    CollectionResourceClient requestsBatchStorageClient,
     CollectionResourceClient cancellationReasonStorageClient,
     ItemRepository itemRepository,
     UserRepository userRepository,
@@ -43,6 +61,7 @@ public class RequestRepository {
     PatronGroupRepository patronGroupRepository) {
 
     this.requestsStorageClient = requestsStorageClient;
+    this.requestsBatchStorageClient = requestsBatchStorageClient;
     this.cancellationReasonStorageClient = cancellationReasonStorageClient;
     this.itemRepository = itemRepository;
     this.userRepository = userRepository;
@@ -53,36 +72,229 @@ public class RequestRepository {
 
   public static RequestRepository using(Clients clients) {
     return new RequestRepository(clients.requestsStorage(),
-      clients.cancellationReasonStorage(),
+      clients.requestsBatchStorage(), clients.cancellationReasonStorage(),
       new ItemRepository(clients, true, false, true),
       new UserRepository(clients), new LoanRepository(clients),
       new ServicePointRepository(clients), new PatronGroupRepository(clients));
   }
 
   public CompletableFuture<Result<MultipleRecords<Request>>> findBy(String query) {
+    return findBy(query, RequestIncludes.all());
+  }
+
+  /**
+   * Finds requests, only fetching the related records which are included
+   *
+   * @param query raw query string to pass on to storage
+   * @param includes which related records to fetch for the requests
+   * @return the requests found, with the related records included
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findBy(
+    String query, RequestIncludes includes) {
+
+    return findWithoutRelatedRecords(query)
+      .thenComposeAsync(result -> result.after(
+        requests -> findRelatedRecords(requests, includes)));
+  }
+
+  /**
+   * Finds requests without any of their related records, so that the related
+   * records can be found separately (e.g. for a batch of the requests at a time)
+   *
+   * @param query raw query string to pass on to storage
+   * @return the requests found
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findWithoutRelatedRecords(
+    String query) {
+
     return requestsStorageClient.getManyWithRawQueryStringParameters(query)
-      .thenApply(this::mapResponseToRequests)
-      .thenComposeAsync(result -> itemRepository.fetchItemsFor(result, Request::withItem))
-      .thenComposeAsync(result -> result.after(loanRepository::findOpenLoansFor))
-      .thenComposeAsync(result -> result.after(servicePointRepository::findServicePointsForRequests))
-      .thenComposeAsync(result -> result.after(userRepository::findUsersForRequests))
-      .thenComposeAsync(result -> result.after(patronGroupRepository::findPatronGroupsForRequestsUsers));
+      .thenApply(this::mapResponseToRequests);
   }
 
-  //TODO: try to consolidate this further with above
-  CompletableFuture<Result<MultipleRecords<Request>>> findBy(
-    CqlQuery query, Integer pageLimit) {
+  /**
+   * Finds a page of requests without any of their related records
+   *
+   * @param query to find the requests with
+   * @param limit maximum number of requests to find
+   * @return the requests found
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findWithoutRelatedRecords(
+    CqlQuery query, int limit) {
+
+    return requestsStorageClient.getMany(query, limit)
+      .thenApply(r -> r.next(this::mapResponseToRequests));
+  }
 
-    return requestsStorageClient.getMany(query, pageLimit)
-      .thenApply(result -> result.next(this::mapResponseToRequests))
+  /**
+   * Finds open requests made by a requester without any of their related records
+   *
+   * @param requesterId ID of the user who made the requests
+   * @param limit maximum number of requests to find, when zero only
+   * the number of open requests is found
+   * @return the requests found, with the total number of open requests
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findOpenRequestsForRequester(
+    String requesterId, int limit) {
+
+    final Result<CqlQuery> statusQuery = exactMatchAny("status",
+      RequestStatus.openStates());
+
+    final Result<CqlQuery> requesterIdQuery = exactMatch("requesterId", requesterId);
+
+    return statusQuery.combine(requesterIdQuery, CqlQuery::and)
+      .after(query -> findWithoutRelatedRecords(query, limit));
+  }
+
+  /**
+   * Finds the related records for requests, only fetching those which are included
+   *
+   * @param multipleRequests requests to find the related records for
+   * @param includes which related records to fetch for the requests
+   * @return the requests, with the related records included
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findRelatedRecords(
+    MultipleRecords<Request> multipleRequests, RequestIncludes includes) {
+
+    return MultipleRecords.<Request>onlyWhen(includes.includesItem(),
+      requests -> itemRepository.fetchItemsFor(succeeded(requests), Request::withItem))
+      .apply(multipleRequests)
+      .thenComposeAsync(result -> result.after(onlyWhen(includes.includesLoan(),
+        loanRepository::findOpenLoansFor)))
+      .thenComposeAsync(result -> result.after(onlyWhen(includes.includesPickupServicePoint(),
+        servicePointRepository::findServicePointsForRequests)))
+      .thenComposeAsync(result -> result.after(onlyWhen(includes.includesUsers(),
+        requests -> userRepository.findUsersForRequests(requests,
+          includes.includesRequester(), includes.includesProxy()))))
+      .thenComposeAsync(result -> result.after(onlyWhen(includes.includesUsers(),
+        patronGroupRepository::findPatronGroupsForRequestsUsers)));
+  }
+
+  /**
+   * Finds requests a page at a time, in the order defined by the query,
+   * until either every matching request has been found, or the requests found
+   * so far are enough for what they are needed for
+   *
+   * @param query to find requests with, needs a sort order that does not
+   * change between pages
+   * @param pageSize how many requests to find at a time
+   * @param enoughFound whether the requests found so far are enough
+   * @return the requests found, with the total number of matching requests
+   */
+  CompletableFuture<Result<MultipleRecords<Request>>> findInPages(
+    CqlQuery query, int pageSize, Predicate<List<Request>> enoughFound) {
+
+    return findInPages(query, pageSize, 0, new ArrayList<>(), enoughFound);
+  }
+
+  CompletableFuture<Result<MultipleRecords<Request>>> findInPagesWithItems(
+    CqlQuery query, int pageSize, Predicate<List<Request>> enoughFound) {
+
+    return findInPages(query, pageSize, enoughFound)
       .thenComposeAsync(requests ->
         itemRepository.fetchItemsFor(requests, Request::withItem));
   }
 
-  CompletableFuture<Result<MultipleRecords<Request>>> findByWithoutItems(
-    CqlQuery query, Integer pageLimit) {
+  private CompletableFuture<Result<MultipleRecords<Request>>> findInPages(
+    CqlQuery query,
+    int pageSize,
+    int offset,
+    List<Request> foundSoFar,
+    Predicate<List<Request>> enoughFound) {
+
+    return requestsStorageClient.getMany(query, pageSize, offset)
+      .thenApply(result -> result.next(this::mapResponseToRequests))
+      .thenCompose(r -> r.after(page -> {
+        foundSoFar.addAll(page.getRecords());
+
+        final boolean noMoreRequests = page.getRecords().size() < pageSize
+          || foundSoFar.size() >= page.getTotalRecords();
+
+        if (noMoreRequests || enoughFound.test(foundSoFar)) {
+          return completedFuture(succeeded(
+            new MultipleRecords<>(foundSoFar, page.getTotalRecords())));
+        }
+
+        return findInPages(query, pageSize, offset + pageSize, foundSoFar,
+          enoughFound);
+      }));
+  }
+
+  CompletableFuture<Result<MultipleRecords<Request>>> findOpenRequestsForItems(
+    Collection<String> itemIds) {
+
+    final MultipleRecordFetcher<Request> fetcher
+      = new MultipleRecordFetcher<>(requestsStorageClient, "requests", Request::from);
+
+    return fetcher.findByIndexNameAndQuery(itemIds, "itemId",
+      exactMatchAny("status", RequestStatus.openStates()));
+  }
+
+  /**
+   * Finds requests which are still awaiting pickup after their hold shelf
+   * expiration date, in ID order, so that a large number of them can be
+   * worked through a batch at a time
+   *
+   * @param expiredBefore when the requests must have expired by
+   * @param afterRequestId only find requests with a later ID than this,
+   * to continue from the end of the previous batch (null for the first batch)
+   * @param limit how many requests to find
+   */
+  CompletableFuture<Result<MultipleRecords<Request>>> findExpiredAwaitingPickupRequests(
+    DateTime expiredBefore, String afterRequestId, int limit) {
+
+    final Result<CqlQuery> statusQuery = exactMatch("status",
+      RequestStatus.OPEN_AWAITING_PICKUP.getValue());
+
+    final Result<CqlQuery> expiredQuery = lessThan("holdShelfExpirationDate",
+      expiredBefore.withZone(DateTimeZone.UTC));
+
+    return findInIdOrder(statusQuery.combine(expiredQuery, CqlQuery::and),
+      afterRequestId, limit);
+  }
+
+  /**
+   * Finds page requests which have not been filled yet, in ID order,
+   * a batch at a time
+   *
+   * @param afterRequestId only find requests with a later ID than this,
+   * to continue from the end of the previous batch (null for the first batch)
+   * @param limit how many requests to find
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findOpenPageRequests(
+    String afterRequestId, int limit) {
+
+    final Result<CqlQuery> typeQuery = exactMatch("requestType",
+      RequestType.PAGE.getValue());
+
+    final Result<CqlQuery> statusQuery = exactMatch("status",
+      RequestStatus.OPEN_NOT_YET_FILLED.getValue());
+
+    return findInIdOrder(typeQuery.combine(statusQuery, CqlQuery::and),
+      afterRequestId, limit);
+  }
+
+  /**
+   * Finds requests by ID, without any of their related records
+   */
+  public CompletableFuture<Result<MultipleRecords<Request>>> findByIds(
+    Collection<String> requestIds) {
 
-    return requestsStorageClient.getMany(query, pageLimit)
+    final MultipleRecordFetcher<Request> fetcher
+      = new MultipleRecordFetcher<>(requestsStorageClient, "requests", Request::from);
+
+    return fetcher.findByIds(requestIds);
+  }
+
+  private CompletableFuture<Result<MultipleRecords<Request>>> findInIdOrder(
+    Result<CqlQuery> queryResult, String afterRequestId, int limit) {
+
+    final Result<CqlQuery> batchQuery = isNull(afterRequestId)
+      ? queryResult
+      : queryResult.combine(greaterThan("id", afterRequestId), CqlQuery::and);
+
+    return batchQuery
+      .map(query -> query.sortBy(ascending("id")))
+      .after(query -> requestsStorageClient.getMany(query, limit))
       .thenApply(result -> result.next(this::mapResponseToRequests));
   }
 
@@ -138,6 +350,34 @@ public class RequestRepository {
       .thenApply(interpreter::apply);
   }
 
+  /**
+   * Updates many requests in a single call to storage, which applies all of
+   * the changes together, so positions can be swapped between requests
+   * without them ever colliding
+   *
+   * @param requests to update
+   * @return whether the requests were updated, false when storage does not
+   * provide the batch interface (and so each request needs updating separately)
+   */
+  CompletableFuture<Result<Boolean>> batchUpdate(Collection<Request> requests) {
+    final StoredRequestRepresentation storedRequestRepresentation
+      = new StoredRequestRepresentation();
+
+    final JsonObject batch = new JsonObject()
+      .put("requests", new JsonArray(requests.stream()
+        .map(storedRequestRepresentation::storedRequest)
+        .collect(Collectors.toList())));
+
+    final ResponseInterpreter<Boolean> interpreter = new ResponseInterpreter<Boolean>()
+      .on(201, succeeded(true))
+      .on(204, succeeded(true))
+      .on(404, succeeded(false))
+      .otherwise(forwardOnFailure());
+
+    return requestsBatchStorageClient.post(batch)
+      .thenApply(interpreter::apply);
+  }
+
   public CompletableFuture<Result<RequestAndRelatedRecords>> update(
     RequestAndRelatedRecords requestAndRelatedRecords) {
 
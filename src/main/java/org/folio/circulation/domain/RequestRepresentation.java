@@ -101,6 +101,8 @@ public class RequestRepresentation {
 
     write(locationSummary, "name", location.getName());
     write(locationSummary, "libraryName", location.getLibraryName());
+    write(locationSummary, "campusName", location.getCampusName());
+    write(locationSummary, "institutionName", location.getInstitutionName());
     write(locationSummary, "code", location.getCode());
     return locationSummary;
   }
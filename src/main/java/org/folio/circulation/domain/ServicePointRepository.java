@@ -55,6 +55,12 @@ public class ServicePointRepository {
     return getServicePointById(request.getPickupServicePointId());
   } 
   
+  public CompletableFuture<Result<MultipleRecords<ServicePoint>>> findServicePointsByIds(
+    Collection<String> ids) {
+
+    return createServicePointsFetcher().findByIds(ids);
+  }
+
   public CompletableFuture<Result<Loan>> findServicePointsForLoan(Result<Loan> loanResult) {
     return fetchCheckInServicePoint(loanResult)
       .thenComposeAsync(this::fetchCheckOutServicePoint);
@@ -19,6 +19,7 @@ public class UpdateLoan {
   private final LoanRepository loanRepository;
   private final LoanPolicyRepository loanPolicyRepository;
   private final ScheduledNoticeService scheduledNoticeService;
+  private final UserRepository userRepository;
 
   public UpdateLoan(Clients clients,
       LoanRepository loanRepository,
@@ -28,6 +29,7 @@ public class UpdateLoan {
     this.loanPolicyRepository = loanPolicyRepository;
     this.loanRepository = loanRepository;
     this.scheduledNoticeService = ScheduledNoticeService.using(clients);
+    this.userRepository = new UserRepository(clients);
   }
 
   /**
@@ -35,6 +37,10 @@ public class UpdateLoan {
    * recall request. No modifications are made if the request is not a recall.
    * Depending on loan/request policies, the loan date may not be updated.
    *
+   * The loan found when the request was created is used (including the action
+   * already changed by {@link UpdateLoanActionHistory}), rather than fetching
+   * it again, so that it is only written to storage once.
+   *
    * @param requestAndRelatedRecords request and related records.
    * @return the request and related records with the possibly updated loan.
    */
@@ -43,7 +49,7 @@ public class UpdateLoan {
     Request request = requestAndRelatedRecords.getRequest();
     Loan loan = request.getLoan();
     if (request.getRequestType() == RequestType.RECALL && loan != null) {
-      return loanRepository.getById(loan.getId())
+      return fetchUserWhenMissing(loan)
           .thenApply(r -> r.map(LoanAndRelatedRecords::new))
           .thenComposeAsync(r -> r.after(loanPolicyRepository::lookupLoanPolicy))
           .thenApply(r -> r.next(this::recall))
@@ -56,6 +62,17 @@ public class UpdateLoan {
     }
   }
 
+  //The borrower is needed to determine the loan policy, and is not always
+  //found with the loan, e.g. when a request is moved
+  private CompletableFuture<Result<Loan>> fetchUserWhenMissing(Loan loan) {
+    if (loan.getUser() != null) {
+      return completedFuture(succeeded(loan));
+    }
+
+    return userRepository.getUser(loan.getUserId())
+        .thenApply(r -> r.map(loan::withUser));
+  }
+
   //TODO: Possibly combine this with LoanRenewalService?
   private Result<LoanAndRelatedRecords> recall(LoanAndRelatedRecords loanAndRelatedRecords) {
     final Loan loan = loanAndRelatedRecords.getLoan();
@@ -2,101 +2,94 @@ package org.folio.circulation.domain;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.support.Result.succeeded;
-import static org.folio.circulation.support.results.CommonFailures.failedDueToServerError;
 
 import java.lang.invoke.MethodHandles;
-import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import org.apache.commons.lang3.StringUtils;
-import org.folio.circulation.support.Clients;
-import org.folio.circulation.support.CollectionResourceClient;
-import org.folio.circulation.support.JsonArrayHelper;
 import org.folio.circulation.support.Result;
-import org.folio.circulation.support.http.client.Response;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import io.vertx.core.json.JsonObject;
-
 public class UpdateLoanActionHistory {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
-  private final CollectionResourceClient loansStorageClient;
+  private final LoanRepository loanRepository;
 
-  public UpdateLoanActionHistory(Clients clients) {
-    loansStorageClient = clients.loansStorage();
+  public UpdateLoanActionHistory(LoanRepository loanRepository) {
+    this.loanRepository = loanRepository;
   }
 
   private static <T> CompletableFuture<Result<T>> skip(T previousResult) {
     return completedFuture(succeeded(previousResult));
   }
 
-  //Updates the single open loan for the item related to a request
+  /**
+   * Changes the action (and item status) of the single open loan for the item
+   * related to a request
+   *
+   * The open loan found when the request was created or moved is used, so that
+   * it does not need to be found again. As a recall changes the loan again
+   * (in {@link UpdateLoan}), the change is not written to storage until then,
+   * so that the loan is only updated once
+   *
+   * @param requestAndRelatedRecords request and related records
+   * @return the request and related records with the changed loan
+   */
   CompletableFuture<Result<RequestAndRelatedRecords>> onRequestCreateOrUpdate(
     RequestAndRelatedRecords requestAndRelatedRecords) {
 
-    String action = requestAndRelatedRecords.getRequest().actionOnCreateOrUpdate();
+    final Request request = requestAndRelatedRecords.getRequest();
 
-    String itemStatus = requestAndRelatedRecords.getRequest().getItem()
-      .getStatus().getValue();
+    String action = request.actionOnCreateOrUpdate();
 
     //Do not change any loans if no new status
     if(StringUtils.isEmpty(action)) {
       return skip(requestAndRelatedRecords);
     }
 
-    String itemId = requestAndRelatedRecords.getRequest().getItemId();
+    final Loan loan = request.getLoan();
+
+    //The loan is not always found beforehand, e.g. for the item a request is moved from
+    if(loan == null) {
+      return loanRepository.findOpenLoanForRequest(request)
+        .thenComposeAsync(r -> r.after(openLoan ->
+          updateOpenLoan(requestAndRelatedRecords, openLoan, action)));
+    }
+
+    final Loan changedLoan = changeAction(loan, request, action);
 
-    //TODO: Replace this with CQL Helper and explicit query parameter
-    String queryTemplate = "query=itemId=%s+and+status.name=Open";
-    String query = String.format(queryTemplate, itemId);
+    if(request.getRequestType() == RequestType.RECALL) {
+      return skip(requestAndRelatedRecords.withLoan(changedLoan));
+    }
 
-    return this.loansStorageClient.getManyWithRawQueryStringParameters(query)
-      .thenComposeAsync(
-        getLoansResponse -> updateLatestLoan(requestAndRelatedRecords, action,
-        itemStatus, itemId, getLoansResponse));
+    return loanRepository.updateLoan(changedLoan)
+      .thenApply(r -> r.map(requestAndRelatedRecords::withLoan));
   }
 
-  private CompletableFuture<Result<RequestAndRelatedRecords>> updateLatestLoan(
+  private CompletableFuture<Result<RequestAndRelatedRecords>> updateOpenLoan(
     RequestAndRelatedRecords requestAndRelatedRecords,
-    String action,
-    String itemStatus,
-    String itemId,
-    Response getLoansResponse) {
-
-    if(getLoansResponse.getStatusCode() == 200) {
-      List<JsonObject> loans = JsonArrayHelper.toList(
-        getLoansResponse.getJson().getJsonArray("loans"));
-
-      if(loans.isEmpty()) {
-        log.warn("No open loans found for item {}", itemId);
-        //Only success in the sense that it can't be done, but no
-        //compensating action to take
-        return completedFuture(succeeded(requestAndRelatedRecords));
-      }
-      else if(loans.size() == 1) {
-        JsonObject changedLoan = loans.get(0).copy();
-
-        changedLoan.put("action", action);
-        changedLoan.put("itemStatus", itemStatus);
-
-        return this.loansStorageClient.put(changedLoan.getString("id"), changedLoan)
-          .thenApply(putLoanResponse -> succeeded(requestAndRelatedRecords));
-      }
-      else {
-        String moreThanOneOpenLoanError = String.format(
-          "Received unexpected number (%s) of open loans for item %s",
-          loans.size(), itemId);
-
-        log.error(moreThanOneOpenLoanError);
-        return completedFuture(failedDueToServerError(moreThanOneOpenLoanError));
-      }
-    } else {
-      String failedError = String.format("Could not get open loans for item %s", itemId);
-
-      log.error(failedError);
-      return completedFuture(failedDueToServerError(failedError));
+    Loan openLoan,
+    String action) {
+
+    final Request request = requestAndRelatedRecords.getRequest();
+
+    if(openLoan == null) {
+      log.warn("No open loans found for item {}", request.getItemId());
+      //Only success in the sense that it can't be done, but no
+      //compensating action to take
+      return skip(requestAndRelatedRecords);
     }
+
+    //The loan is not included in the request, as it was not found for it
+    return loanRepository.updateLoan(changeAction(openLoan, request, action))
+      .thenApply(r -> r.map(updatedLoan -> requestAndRelatedRecords));
+  }
+
+  private static Loan changeAction(Loan loan, Request request, String action) {
+    loan.changeAction(action);
+
+    //The item status is taken from the item when the loan is updated
+    return loan.withItem(request.getItem());
   }
 }
@@ -6,7 +6,11 @@ import static org.folio.circulation.support.Result.succeeded;
 
 import java.lang.invoke.MethodHandles;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.ClockManager;
@@ -100,7 +104,16 @@ public class UpdateRequestQueue {
   public CompletableFuture<Result<LoanAndRelatedRecords>> onCheckOut(
     LoanAndRelatedRecords relatedRecords) {
 
-    return onCheckOut(relatedRecords.getRequestQueue())
+    final RequestQueue requestQueue = relatedRecords.getRequestQueue();
+
+    if (!requestQueue.hasOutstandingFulfillableRequests()) {
+      return completedFuture(succeeded(relatedRecords));
+    }
+
+    //The rest of the queue is only needed when a request is being fulfilled
+    return requestQueueRepository.complete(requestQueue,
+      relatedRecords.getLoan().getItemId())
+      .thenComposeAsync(r -> r.after(this::onCheckOut))
       .thenApply(result -> result.map(relatedRecords::withRequestQueue));
   }
 
@@ -123,6 +136,47 @@ public class UpdateRequestQueue {
     }
   }
 
+  /**
+   * Closes requests which were not picked up before their hold shelf
+   * expiration date, and moves the rest of the queue up, only changing
+   * the positions of the remaining requests once
+   *
+   * @param requestQueue the whole queue for an item
+   * @param expiredRequestIds the IDs of the requests which have expired
+   * @return the requests which have been closed
+   */
+  CompletableFuture<Result<List<Request>>> onHoldShelfExpiration(
+    RequestQueue requestQueue, Collection<String> expiredRequestIds) {
+
+    final List<Request> expiredRequests = requestQueue.getRequests().stream()
+      .filter(request -> expiredRequestIds.contains(request.getId()))
+      .filter(Request::isAwaitingPickup)
+      .collect(Collectors.toList());
+
+    if (expiredRequests.isEmpty()) {
+      return completedFuture(succeeded(expiredRequests));
+    }
+
+    expiredRequests.forEach(request -> {
+      log.info("Closing expired request '{}'", request.getId());
+      request.changeStatus(RequestStatus.CLOSED_PICKUP_EXPIRED);
+
+      requestQueue.remove(request);
+    });
+
+    final List<CompletableFuture<Result<Request>>> closed = expiredRequests.stream()
+      .map(requestRepository::update)
+      .collect(Collectors.toList());
+
+    return CompletableFuture.allOf(closed.toArray(new CompletableFuture[0]))
+      .thenApply(notUsed -> Result.combineAll(closed.stream()
+        .map(CompletableFuture::join)
+        .collect(Collectors.toList())))
+      .thenComposeAsync(r -> r.after(notUsed ->
+        requestQueueRepository.updateRequestsWithChangedPositions(requestQueue)))
+      .thenApply(r -> r.map(notUsed -> expiredRequests));
+  }
+
   CompletableFuture<Result<RequestAndRelatedRecords>> onCreate(
     RequestAndRelatedRecords requestAndRelatedRecords) {
     final Request request = requestAndRelatedRecords.getRequest();
@@ -144,34 +198,31 @@ public class UpdateRequestQueue {
     }
   }
 
-  CompletableFuture<Result<RequestAndRelatedRecords>> onMovedFrom(
+  /**
+   * Moves a request from the queue for one item to the end of the queue for
+   * another, the changed positions in both queues are updated together
+   */
+  CompletableFuture<Result<RequestAndRelatedRecords>> onMoved(
     RequestAndRelatedRecords requestAndRelatedRecords) {
     final Request request = requestAndRelatedRecords.getRequest();
-    if (requestAndRelatedRecords.getSourceItemId().equals(request.getItemId())) {
-      final RequestQueue requestQueue = requestAndRelatedRecords.getRequestQueue();
-      requestQueue.remove(request);
-      return requestQueueRepository.updateRequestsWithChangedPositions(requestQueue)
-            .thenApply(r -> r.map(requestAndRelatedRecords::withRequestQueue));
-    }
-    else {
-      return completedFuture(succeeded(requestAndRelatedRecords));
-    }
-  }
 
-  CompletableFuture<Result<RequestAndRelatedRecords>> onMovedTo(
-    RequestAndRelatedRecords requestAndRelatedRecords) {
-    final Request request = requestAndRelatedRecords.getRequest();
-    if (requestAndRelatedRecords.getDestinationItemId().equals(request.getItemId())) {
-      final RequestQueue requestQueue = requestAndRelatedRecords.getRequestQueue();
-      // NOTE: it is important to remove position when moving request from one queue to another
-      request.removePosition();
-      requestQueue.add(request);
-      return requestQueueRepository.updateRequestsWithChangedPositions(requestQueue)
-            .thenApply(r -> r.map(requestAndRelatedRecords::withRequestQueue));
-    }
-    else {
+    //A request moved to the item it is already for keeps its position
+    if (requestAndRelatedRecords.getSourceItemId().equals(
+      requestAndRelatedRecords.getDestinationItemId())) {
       return completedFuture(succeeded(requestAndRelatedRecords));
     }
+
+    final RequestQueue sourceQueue = requestAndRelatedRecords.getSourceRequestQueue();
+    final RequestQueue destinationQueue = requestAndRelatedRecords.getRequestQueue();
+
+    sourceQueue.remove(request);
+    // NOTE: it is important to remove position when moving request from one queue to another
+    request.removePosition();
+    destinationQueue.add(request);
+
+    return requestQueueRepository.updateRequestsWithChangedPositions(
+      Arrays.asList(destinationQueue, sourceQueue))
+      .thenApply(r -> r.map(notUsed -> requestAndRelatedRecords));
   }
 
   public CompletableFuture<Result<Request>> onDeletion(Request request) {
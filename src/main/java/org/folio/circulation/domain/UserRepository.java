@@ -151,10 +151,26 @@ public class UserRepository {
   CompletableFuture<Result<MultipleRecords<Request>>> findUsersForRequests(
     MultipleRecords<Request> multipleRequests) {
 
+    return findUsersForRequests(multipleRequests, true, true);
+  }
+
+  /**
+   * Fetches only the users a request refers to which are needed
+   *
+   * @param multipleRequests the requests to fetch users for
+   * @param includeRequester whether to fetch the requesting users
+   * @param includeProxy whether to fetch the proxy users
+   * @return the requests with the users which have been fetched
+   */
+  CompletableFuture<Result<MultipleRecords<Request>>> findUsersForRequests(
+    MultipleRecords<Request> multipleRequests,
+    boolean includeRequester,
+    boolean includeProxy) {
+
     Collection<Request> requests = multipleRequests.getRecords();
 
     final List<String> usersToFetch = requests.stream()
-      .map(this::getUsersFromRequest)
+      .map(request -> getUsersFromRequest(request, includeRequester, includeProxy))
       .flatMap(Collection::stream)
       .distinct()
       .collect(Collectors.toList());
@@ -173,14 +189,16 @@ public class UserRepository {
             matchUsersToRequests(request, multipleUsers)))));
   }
 
-  private ArrayList<String> getUsersFromRequest(Request request) {
+  private ArrayList<String> getUsersFromRequest(Request request,
+    boolean includeRequester, boolean includeProxy) {
+
     final ArrayList<String> usersToFetch = new ArrayList<>();
 
-    if (request.getUserId() != null) {
+    if (includeRequester && request.getUserId() != null) {
       usersToFetch.add(request.getUserId());
     }
 
-    if (request.getProxyUserId() != null) {
+    if (includeProxy && request.getProxyUserId() != null) {
       usersToFetch.add(request.getProxyUserId());
     }
 
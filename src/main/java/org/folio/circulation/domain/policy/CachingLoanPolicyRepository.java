@@ -0,0 +1,45 @@
+package org.folio.circulation.domain.policy;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.Result;
+
+/**
+ * Loan policy repository that remembers the policy determined for each
+ * combination of circulation rules criteria, intended to be used for the
+ * duration of a single request that involves many items (e.g. bulk check out)
+ *
+ * Items with the same loan type, location and material type loaned to the same
+ * patron group share a single circulation rules lookup and policy fetch
+ */
+public class CachingLoanPolicyRepository extends LoanPolicyRepository {
+  private final Map<String, CompletableFuture<Result<LoanPolicy>>> policies
+    = new ConcurrentHashMap<>();
+
+  public CachingLoanPolicyRepository(Clients clients) {
+    super(clients);
+  }
+
+  @Override
+  public CompletableFuture<Result<LoanPolicy>> lookupPolicy(Loan loan) {
+    final Item item = loan.getItem();
+
+    //Let the underlying repository report the problem with these items
+    if (item == null || item.isNotFound() || item.doesNotHaveHolding()
+      || loan.getUser() == null) {
+
+      return super.lookupPolicy(loan);
+    }
+
+    final String key = String.join(":", item.determineLoanTypeForItem(),
+      item.getLocationId(), item.getMaterialTypeId(),
+      loan.getUser().getPatronGroupId());
+
+    return policies.computeIfAbsent(key, notUsed -> super.lookupPolicy(loan));
+  }
+}
@@ -0,0 +1,45 @@
+package org.folio.circulation.domain.policy;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.User;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.Result;
+
+/**
+ * Request policy repository that remembers the policy determined for each
+ * combination of circulation rules criteria, intended to be used for the
+ * duration of a single request that involves many items (e.g. finding
+ * the availability of a page of search results)
+ *
+ * Items with the same loan type, location and material type requested by the
+ * same patron group share a single circulation rules lookup and policy fetch
+ */
+public class CachingRequestPolicyRepository extends RequestPolicyRepository {
+  private final Map<String, CompletableFuture<Result<RequestPolicy>>> policies
+    = new ConcurrentHashMap<>();
+
+  public CachingRequestPolicyRepository(Clients clients) {
+    super(clients);
+  }
+
+  @Override
+  public CompletableFuture<Result<RequestPolicy>> lookupRequestPolicy(
+    Item item,
+    User user) {
+
+    //Let the underlying repository report the problem with these items
+    if (item == null || item.isNotFound() || user == null) {
+      return super.lookupRequestPolicy(item, user);
+    }
+
+    final String key = String.join(":", item.determineLoanTypeForItem(),
+      item.getLocationId(), item.getMaterialTypeId(), user.getPatronGroupId());
+
+    return policies.computeIfAbsent(key,
+      notUsed -> super.lookupRequestPolicy(item, user));
+  }
+}
@@ -46,7 +46,7 @@ public class RequestPolicyRepository {
       .thenApply(result -> result.map(relatedRecords::withRequestPolicy));
   }
 
-  private CompletableFuture<Result<RequestPolicy>> lookupRequestPolicy(
+  public CompletableFuture<Result<RequestPolicy>> lookupRequestPolicy(
     Item item,
     User user) {
 
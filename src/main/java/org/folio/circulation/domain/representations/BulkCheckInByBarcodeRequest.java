@@ -0,0 +1,60 @@
+package org.folio.circulation.domain.representations;
+
+import static org.folio.circulation.support.JsonStringArrayHelper.toStream;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.support.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A check in of many items at the same service point (e.g. when emptying
+ * a book drop), made up of a check in request for each barcode, in the order
+ * the barcodes were provided
+ */
+public class BulkCheckInByBarcodeRequest {
+  private static final String ITEM_BARCODES = "itemBarcodes";
+  private static final String CHECK_IN_DATE = "checkInDate";
+  private static final String SERVICE_POINT_ID = "servicePointId";
+
+  private final List<CheckInByBarcodeRequest> checkInRequests;
+
+  private BulkCheckInByBarcodeRequest(List<CheckInByBarcodeRequest> checkInRequests) {
+    this.checkInRequests = checkInRequests;
+  }
+
+  public static Result<BulkCheckInByBarcodeRequest> from(JsonObject json) {
+    final List<String> itemBarcodes = toStream(json, ITEM_BARCODES)
+      .collect(Collectors.toList());
+
+    if (itemBarcodes.isEmpty()) {
+      return failedValidation("Bulk check in request must have at least one item barcode",
+        ITEM_BARCODES, null);
+    }
+
+    final List<Result<CheckInByBarcodeRequest>> checkInRequests = itemBarcodes.stream()
+      .map(barcode -> new JsonObject()
+        .put("itemBarcode", barcode)
+        .put(SERVICE_POINT_ID, json.getValue(SERVICE_POINT_ID))
+        .put(CHECK_IN_DATE, json.getValue(CHECK_IN_DATE)))
+      .map(CheckInByBarcodeRequest::from)
+      .collect(Collectors.toList());
+
+    return Result.combineAll(checkInRequests)
+      .map(BulkCheckInByBarcodeRequest::new);
+  }
+
+  public List<CheckInByBarcodeRequest> getCheckInRequests() {
+    return checkInRequests;
+  }
+
+  public List<String> getItemBarcodes() {
+    return checkInRequests.stream()
+      .map(CheckInByBarcodeRequest::getItemBarcode)
+      .distinct()
+      .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,79 @@
+package org.folio.circulation.domain.representations;
+
+import static org.folio.circulation.support.JsonPropertyFetcher.getProperty;
+import static org.folio.circulation.support.JsonStringArrayHelper.toStream;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.support.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A check out of many items to the same patron at the same service point,
+ * with the item barcodes in the order they were provided
+ */
+public class BulkCheckOutByBarcodeRequest {
+  private static final String ITEM_BARCODES = "itemBarcodes";
+  private static final String LOAN_DATE = "loanDate";
+
+  private final JsonObject representation;
+  private final List<String> itemBarcodes;
+
+  private BulkCheckOutByBarcodeRequest(
+    JsonObject representation,
+    List<String> itemBarcodes) {
+
+    this.representation = representation;
+    this.itemBarcodes = itemBarcodes;
+  }
+
+  public static Result<BulkCheckOutByBarcodeRequest> from(JsonObject json) {
+    final List<String> itemBarcodes = toStream(json, ITEM_BARCODES)
+      .collect(Collectors.toList());
+
+    if (itemBarcodes.isEmpty()) {
+      return failedValidation("Bulk check out request must have at least one item barcode",
+        ITEM_BARCODES, null);
+    }
+
+    return succeeded(new BulkCheckOutByBarcodeRequest(json, itemBarcodes));
+  }
+
+  /**
+   * @return the representation of the request, used by check out strategies
+   * to read shared properties (e.g. override comment and due date)
+   */
+  public JsonObject getRepresentation() {
+    return representation;
+  }
+
+  public List<String> getItemBarcodes() {
+    return itemBarcodes;
+  }
+
+  public List<String> getDistinctItemBarcodes() {
+    return itemBarcodes.stream()
+      .distinct()
+      .collect(Collectors.toList());
+  }
+
+  public String getUserBarcode() {
+    return getProperty(representation, CheckOutByBarcodeRequest.USER_BARCODE);
+  }
+
+  public String getProxyUserBarcode() {
+    return getProperty(representation, CheckOutByBarcodeRequest.PROXY_USER_BARCODE);
+  }
+
+  public String getServicePointId() {
+    return getProperty(representation, CheckOutByBarcodeRequest.SERVICE_POINT_ID);
+  }
+
+  public String getLoanDate() {
+    return getProperty(representation, LOAN_DATE);
+  }
+}
@@ -31,6 +31,10 @@ public class CheckInByBarcodeResponse {
   private static ResponseWritableResult<JsonObject> mapToResponse(
     CheckInProcessRecords records) {
 
+    return new OkJsonResponseResult(asJson(records));
+  }
+
+  public static JsonObject asJson(CheckInProcessRecords records) {
     final LoanRepresentation loanRepresentation = new LoanRepresentation();
     final ItemSummaryRepresentation itemRepresentation = new ItemSummaryRepresentation();
 
@@ -44,6 +48,6 @@ public class CheckInByBarcodeResponse {
 
     write(checkInResponseBody, "staffSlipContext", createCheckInContext(records));
 
-    return new OkJsonResponseResult(checkInResponseBody);
+    return checkInResponseBody;
   }
 }
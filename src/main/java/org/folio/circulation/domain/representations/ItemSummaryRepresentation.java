@@ -56,8 +56,14 @@ public class ItemSummaryRepresentation {
     final Location location = item.getLocation();
 
     if(location != null) {
-      itemSummary.put("location", new JsonObject()
-        .put("name", location.getName()));
+      final JsonObject locationSummary = new JsonObject();
+
+      write(locationSummary, "name", location.getName());
+      write(locationSummary, "libraryName", location.getLibraryName());
+      write(locationSummary, "campusName", location.getCampusName());
+      write(locationSummary, "institutionName", location.getInstitutionName());
+
+      itemSummary.put("location", locationSummary);
     }
 
     final String materialTypeProperty = "materialType";
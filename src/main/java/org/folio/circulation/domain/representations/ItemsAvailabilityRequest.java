@@ -0,0 +1,66 @@
+package org.folio.circulation.domain.representations;
+
+import static org.folio.circulation.support.JsonStringArrayHelper.toStream;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.support.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Which items to find the availability of, and which patron would be
+ * requesting them, in the order the item IDs were provided
+ */
+public class ItemsAvailabilityRequest {
+  private static final String USER_ID = "userId";
+  private static final String ITEM_IDS = "itemIds";
+
+  private static final int MAXIMUM_ITEMS = 100;
+
+  private final String userId;
+  private final List<String> itemIds;
+
+  private ItemsAvailabilityRequest(String userId, List<String> itemIds) {
+    this.userId = userId;
+    this.itemIds = itemIds;
+  }
+
+  public static Result<ItemsAvailabilityRequest> from(JsonObject json) {
+    final String userId = json.getString(USER_ID);
+
+    if (StringUtils.isBlank(userId)) {
+      return failedValidation("Items availability request must have a user ID",
+        USER_ID, userId);
+    }
+
+    final List<String> itemIds = toStream(json, ITEM_IDS)
+      .distinct()
+      .collect(Collectors.toList());
+
+    if (itemIds.isEmpty()) {
+      return failedValidation("Items availability request must have at least one item ID",
+        ITEM_IDS, null);
+    }
+
+    if (itemIds.size() > MAXIMUM_ITEMS) {
+      return failedValidation(String.format(
+        "Items availability request cannot have more than %s item IDs", MAXIMUM_ITEMS),
+        ITEM_IDS, String.valueOf(itemIds.size()));
+    }
+
+    return succeeded(new ItemsAvailabilityRequest(userId, itemIds));
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public List<String> getItemIds() {
+    return itemIds;
+  }
+}
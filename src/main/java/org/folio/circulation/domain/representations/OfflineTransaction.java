@@ -0,0 +1,172 @@
+package org.folio.circulation.domain.representations;
+
+import static org.folio.circulation.support.JsonPropertyFetcher.getDateTimeProperty;
+import static org.folio.circulation.support.JsonPropertyFetcher.getProperty;
+import static org.folio.circulation.support.JsonPropertyWriter.write;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.util.Arrays;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.support.Result;
+import org.joda.time.DateTime;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A circulation transaction recorded whilst a service desk was offline,
+ * to be replayed as if it happened at the time it was recorded
+ */
+public class OfflineTransaction {
+  public enum Type {
+    CHECK_OUT("check-out"),
+    CHECK_IN("check-in"),
+    RENEW("renew");
+
+    private final String value;
+
+    Type(String value) {
+      this.value = value;
+    }
+
+    public String getValue() {
+      return value;
+    }
+
+    static Type from(String value) {
+      return Arrays.stream(values())
+        .filter(type -> type.getValue().equalsIgnoreCase(value))
+        .findFirst()
+        .orElse(null);
+    }
+  }
+
+  private static final String TYPE = "type";
+  private static final String TIMESTAMP = "timestamp";
+  private static final String ITEM_BARCODE = "itemBarcode";
+  private static final String USER_BARCODE = "userBarcode";
+  private static final String PROXY_USER_BARCODE = "proxyUserBarcode";
+  private static final String SERVICE_POINT_ID = "servicePointId";
+
+  private final Type type;
+  private final DateTime timestamp;
+  private final String itemBarcode;
+  private final String userBarcode;
+  private final String proxyUserBarcode;
+  private final String servicePointId;
+
+  private OfflineTransaction(Type type, DateTime timestamp, String itemBarcode,
+    String userBarcode, String proxyUserBarcode, String servicePointId) {
+
+    this.type = type;
+    this.timestamp = timestamp;
+    this.itemBarcode = itemBarcode;
+    this.userBarcode = userBarcode;
+    this.proxyUserBarcode = proxyUserBarcode;
+    this.servicePointId = servicePointId;
+  }
+
+  public static Result<OfflineTransaction> from(String line) {
+    try {
+      return from(new JsonObject(line));
+    }
+    catch (DecodeException e) {
+      return failedValidation("Transaction is not valid JSON", "line", line);
+    }
+  }
+
+  public static Result<OfflineTransaction> from(JsonObject json) {
+    final String typeValue = getProperty(json, TYPE);
+    final Type type = Type.from(typeValue);
+
+    if (type == null) {
+      return failedValidation(
+        "Transaction type must be one of check-out, check-in or renew",
+        TYPE, typeValue);
+    }
+
+    if (StringUtils.isBlank(getProperty(json, TIMESTAMP))) {
+      return failedValidation("Transaction must have a timestamp", TIMESTAMP, null);
+    }
+
+    final DateTime timestamp;
+
+    try {
+      timestamp = getDateTimeProperty(json, TIMESTAMP);
+    }
+    catch (IllegalArgumentException e) {
+      return failedValidation("Transaction timestamp must be a date and time",
+        TIMESTAMP, getProperty(json, TIMESTAMP));
+    }
+
+    final String itemBarcode = getProperty(json, ITEM_BARCODE);
+
+    if (StringUtils.isBlank(itemBarcode)) {
+      return failedValidation("Transaction must have an item barcode",
+        ITEM_BARCODE, null);
+    }
+
+    final String userBarcode = getProperty(json, USER_BARCODE);
+
+    if (type != Type.CHECK_IN && StringUtils.isBlank(userBarcode)) {
+      return failedValidation("Transaction must have a user barcode",
+        USER_BARCODE, null);
+    }
+
+    return succeeded(new OfflineTransaction(type, timestamp, itemBarcode, userBarcode,
+      getProperty(json, PROXY_USER_BARCODE), getProperty(json, SERVICE_POINT_ID)));
+  }
+
+  public Type getType() {
+    return type;
+  }
+
+  public DateTime getTimestamp() {
+    return timestamp;
+  }
+
+  public String getItemBarcode() {
+    return itemBarcode;
+  }
+
+  /**
+   * @return a check out request for the transaction, loaned from when
+   * the transaction happened
+   */
+  public JsonObject toCheckOutRequest() {
+    final JsonObject request = new JsonObject();
+
+    write(request, ITEM_BARCODE, itemBarcode);
+    write(request, USER_BARCODE, userBarcode);
+    write(request, PROXY_USER_BARCODE, proxyUserBarcode);
+    write(request, SERVICE_POINT_ID, servicePointId);
+    write(request, "loanDate", timestamp);
+
+    return request;
+  }
+
+  /**
+   * @return a check in request for the transaction, returned when
+   * the transaction happened
+   */
+  public JsonObject toCheckInRequest() {
+    final JsonObject request = new JsonObject();
+
+    write(request, ITEM_BARCODE, itemBarcode);
+    write(request, SERVICE_POINT_ID, servicePointId);
+    write(request, "checkInDate", timestamp);
+
+    return request;
+  }
+
+  public JsonObject toRenewalRequest() {
+    final JsonObject request = new JsonObject();
+
+    write(request, ITEM_BARCODE, itemBarcode);
+    write(request, USER_BARCODE, userBarcode);
+
+    return request;
+  }
+}
@@ -1,7 +1,9 @@
 package org.folio.circulation.domain.validation;
 
 import static org.folio.circulation.support.Result.ofAsync;
+import static org.folio.circulation.support.Result.succeeded;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
@@ -31,4 +33,23 @@ public class ExistingOpenLoanValidator {
           "Cannot check out item that already has an open loan")))
       .thenApply(result -> result.map(v -> loanAndRelatedRecords));
   }
+
+  /**
+   * Refuses based upon open loans that have already been found (e.g. as part
+   * of a batch), rather than looking for an open loan for the item
+   *
+   * @param result the check out to validate
+   * @param itemIdsWithOpenLoans the IDs of items known to have an open loan
+   * @return the check out when the item has no open loan, failure otherwise
+   */
+  public Result<LoanAndRelatedRecords> refuseWhenHasOpenLoan(
+    Result<LoanAndRelatedRecords> result,
+    Collection<String> itemIdsWithOpenLoans) {
+
+    return result.failWhen(
+      records -> succeeded(itemIdsWithOpenLoans.contains(
+        records.getLoan().getItemId())),
+      records -> existingOpenLoanErrorFunction.apply(
+        "Cannot check out item that already has an open loan"));
+  }
 }
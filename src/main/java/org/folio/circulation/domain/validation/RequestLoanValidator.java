@@ -1,31 +1,30 @@
 package org.folio.circulation.domain.validation;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.support.Result.of;
+import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 
-import org.folio.circulation.domain.LoanRepository;
 import org.folio.circulation.domain.Request;
 import org.folio.circulation.domain.RequestAndRelatedRecords;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.http.server.ValidationError;
 
+/**
+ * Uses the open loan for the requested item that was found with the request,
+ * rather than finding it again
+ */
 public class RequestLoanValidator {
-  private final LoanRepository loanRepository;
-
-  public RequestLoanValidator(LoanRepository loanRepository) {
-    this.loanRepository = loanRepository;
-  }
-
   public CompletableFuture<Result<RequestAndRelatedRecords>> refuseWhenUserHasAlreadyBeenLoanedItem(
       RequestAndRelatedRecords requestAndRelatedRecords) {
 
     final Request request = requestAndRelatedRecords.getRequest();
 
-    return loanRepository.findOpenLoanForRequest(request).thenApply(loanResult -> loanResult
+    return completedFuture(succeeded(request.getLoan())
       .failWhen(loan -> of(() -> loan != null && loan.getUserId().equals(request.getUserId())), loan -> {
         Map<String, String> parameters = new HashMap<>();
         parameters.put("itemId", request.getItemId());
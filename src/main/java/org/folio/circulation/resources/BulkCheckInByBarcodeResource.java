@@ -0,0 +1,221 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.domain.validation.CommonFailures.moreThanOneOpenLoanFailure;
+import static org.folio.circulation.domain.validation.CommonFailures.noItemFoundForBarcodeFailure;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.CheckInProcessRecords;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.RequestQueueRepository;
+import org.folio.circulation.domain.UserRepository;
+import org.folio.circulation.domain.representations.BulkCheckInByBarcodeRequest;
+import org.folio.circulation.domain.representations.CheckInByBarcodeRequest;
+import org.folio.circulation.domain.representations.CheckInByBarcodeResponse;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.FailureRepresentation;
+import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Checks in many items at the same service point in a single request
+ *
+ * The items, their open loans and request queues are found using batched
+ * queries, after which each item is checked in concurrently using the same
+ * process as a single check in. When the same barcode is provided more than
+ * once, the later check ins for that item wait for the earlier one to finish,
+ * and find the item's records again.
+ *
+ * The outcome of each check in is reported separately, in the order the
+ * barcodes were provided
+ */
+public class BulkCheckInByBarcodeResource extends Resource {
+  public BulkCheckInByBarcodeResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      "/circulation/bulk-check-in-by-barcode", router);
+
+    routeRegistration.create(this::checkInItems);
+  }
+
+  private void checkInItems(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+
+    final Clients clients = Clients.create(context, client);
+
+    BulkCheckInByBarcodeRequest.from(routingContext.getBodyAsJson())
+      .after(bulkRequest -> findRecords(bulkRequest, clients)
+        .thenCompose(r -> r.after(records -> checkInItems(bulkRequest, records, clients))))
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private CompletableFuture<Result<Map<String, Result<CheckInProcessRecords>>>> findRecords(
+    BulkCheckInByBarcodeRequest bulkRequest, Clients clients) {
+
+    final ItemRepository itemRepository = new ItemRepository(clients, true, true, true);
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final UserRepository userRepository = new UserRepository(clients);
+    final RequestQueueRepository requestQueueRepository = RequestQueueRepository.using(clients);
+
+    return itemRepository.fetchByBarcodes(bulkRequest.getItemBarcodes())
+      .thenCompose(r -> r.after(items -> {
+        final List<String> itemIds = items.stream()
+          .map(Item::getItemId)
+          .collect(Collectors.toList());
+
+        final CompletableFuture<Result<MultipleRecords<Loan>>> loansFetched
+          = loanRepository.findOpenLoansForItems(itemIds)
+            .thenCompose(loansResult -> loansResult.after(userRepository::findUsersForLoans));
+
+        final CompletableFuture<Result<Map<String, RequestQueue>>> queuesFetched
+          = requestQueueRepository.getRequestQueues(items);
+
+        return loansFetched.thenCombine(queuesFetched,
+          (loansResult, queuesResult) -> Result.combine(loansResult, queuesResult,
+            (loans, queues) -> matchRecordsToBarcodes(bulkRequest, items,
+              loans.getRecords(), queues)));
+      }));
+  }
+
+  private Map<String, Result<CheckInProcessRecords>> matchRecordsToBarcodes(
+    BulkCheckInByBarcodeRequest bulkRequest,
+    Collection<Item> items,
+    Collection<Loan> loans,
+    Map<String, RequestQueue> queues) {
+
+    final Map<String, Item> itemsByBarcode = items.stream()
+      .collect(Collectors.toMap(Item::getBarcode, item -> item,
+        (first, second) -> first));
+
+    final Map<String, List<Loan>> loansByItemId = loans.stream()
+      .collect(Collectors.groupingBy(Loan::getItemId));
+
+    final Map<String, Result<CheckInProcessRecords>> recordsByBarcode = new HashMap<>();
+
+    bulkRequest.getCheckInRequests().forEach(checkInRequest ->
+      recordsByBarcode.computeIfAbsent(checkInRequest.getItemBarcode(),
+        barcode -> matchRecords(checkInRequest, itemsByBarcode.get(barcode),
+          loansByItemId, queues)));
+
+    return recordsByBarcode;
+  }
+
+  private Result<CheckInProcessRecords> matchRecords(
+    CheckInByBarcodeRequest checkInRequest,
+    Item item,
+    Map<String, List<Loan>> loansByItemId,
+    Map<String, RequestQueue> queues) {
+
+    final String barcode = checkInRequest.getItemBarcode();
+
+    if(item == null) {
+      return failed(noItemFoundForBarcodeFailure(barcode).get());
+    }
+
+    final List<Loan> openLoans = loansByItemId.getOrDefault(item.getItemId(),
+      new ArrayList<>());
+
+    if(openLoans.size() > 1) {
+      return failed(moreThanOneOpenLoanFailure(barcode).get());
+    }
+
+    final Loan openLoan = openLoans.stream()
+      .findFirst()
+      .map(loan -> loan.withItem(item))
+      .orElse(null);
+
+    return succeeded(new CheckInProcessRecords(checkInRequest)
+      .withItem(item)
+      .withLoan(openLoan)
+      .withRequestQueue(queues.getOrDefault(item.getItemId(),
+        new RequestQueue(new ArrayList<>()))));
+  }
+
+  private CompletableFuture<Result<JsonObject>> checkInItems(
+    BulkCheckInByBarcodeRequest bulkRequest,
+    Map<String, Result<CheckInProcessRecords>> recordsByBarcode,
+    Clients clients) {
+
+    final Map<String, CompletableFuture<Result<CheckInProcessRecords>>> latestCheckIns
+      = new HashMap<>();
+
+    final List<CompletableFuture<JsonObject>> checkIns = new ArrayList<>();
+
+    for (CheckInByBarcodeRequest checkInRequest : bulkRequest.getCheckInRequests()) {
+      final String barcode = checkInRequest.getItemBarcode();
+
+      final CheckInProcessAdapter processAdapter
+        = CheckInProcessAdapter.newAdapter(clients, barcode);
+
+      final CompletableFuture<Result<CheckInProcessRecords>> previousCheckIn
+        = latestCheckIns.get(barcode);
+
+      final CompletableFuture<Result<CheckInProcessRecords>> checkIn;
+
+      if(previousCheckIn == null) {
+        checkIn = completedFuture(recordsByBarcode.get(barcode))
+          .thenCompose(r -> r.combineAfter(processAdapter::checkInLoan,
+            CheckInProcessRecords::withLoan))
+          .thenCompose(r -> r.after(processAdapter::completeCheckIn));
+      }
+      else {
+        checkIn = previousCheckIn.thenCompose(notUsed ->
+          processAdapter.checkIn(new CheckInProcessRecords(checkInRequest)));
+      }
+
+      final CompletableFuture<Result<CheckInProcessRecords>> guardedCheckIn
+        = checkIn.exceptionally(CommonFailures::failedDueToServerError);
+
+      latestCheckIns.put(barcode, guardedCheckIn);
+
+      checkIns.add(guardedCheckIn.thenApply(r -> toJson(barcode, r)));
+    }
+
+    return CompletableFuture.allOf(checkIns.toArray(new CompletableFuture[0]))
+      .thenApply(notUsed -> checkIns.stream()
+        .map(CompletableFuture::join)
+        .collect(Collectors.toList()))
+      .thenApply(outcomes -> succeeded(new JsonObject()
+        .put("checkIns", new JsonArray(outcomes))
+        .put("totalRecords", outcomes.size())));
+  }
+
+  private static JsonObject toJson(
+    String barcode,
+    Result<CheckInProcessRecords> checkInResult) {
+
+    final JsonObject outcome = checkInResult.succeeded()
+      ? CheckInByBarcodeResponse.asJson(checkInResult.value())
+      : FailureRepresentation.asJson(checkInResult.cause());
+
+    return outcome.put("itemBarcode", barcode);
+  }
+}
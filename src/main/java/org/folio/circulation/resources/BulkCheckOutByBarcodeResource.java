@@ -0,0 +1,320 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.function.Function.identity;
+import static org.folio.circulation.domain.representations.CheckOutByBarcodeRequest.ITEM_BARCODE;
+import static org.folio.circulation.domain.representations.CheckOutByBarcodeRequest.PROXY_USER_BARCODE;
+import static org.folio.circulation.domain.representations.CheckOutByBarcodeRequest.SERVICE_POINT_ID;
+import static org.folio.circulation.domain.representations.CheckOutByBarcodeRequest.USER_BARCODE;
+import static org.folio.circulation.support.Result.failed;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.ConfigurationRepository;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.LoanRepresentation;
+import org.folio.circulation.domain.LoanService;
+import org.folio.circulation.domain.PatronGroupRepository;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.RequestQueueRepository;
+import org.folio.circulation.domain.UpdateItem;
+import org.folio.circulation.domain.UpdateRequestQueue;
+import org.folio.circulation.domain.UserRepository;
+import org.folio.circulation.domain.notice.PatronNoticeService;
+import org.folio.circulation.domain.notice.schedule.ScheduledNoticeService;
+import org.folio.circulation.domain.notice.schedule.ScheduledNoticesRepository;
+import org.folio.circulation.domain.policy.CachingLoanPolicyRepository;
+import org.folio.circulation.domain.policy.LoanPolicyRepository;
+import org.folio.circulation.domain.policy.PatronNoticePolicyRepository;
+import org.folio.circulation.domain.representations.BulkCheckOutByBarcodeRequest;
+import org.folio.circulation.domain.representations.LoanProperties;
+import org.folio.circulation.domain.validation.AlreadyCheckedOutValidator;
+import org.folio.circulation.domain.validation.ExistingOpenLoanValidator;
+import org.folio.circulation.domain.validation.InactiveUserValidator;
+import org.folio.circulation.domain.validation.ItemMissingValidator;
+import org.folio.circulation.domain.validation.ItemNotFoundValidator;
+import org.folio.circulation.domain.validation.ProxyRelationshipValidator;
+import org.folio.circulation.domain.validation.RequestedByAnotherPatronValidator;
+import org.folio.circulation.domain.validation.ServicePointOfCheckoutPresentValidator;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.FailureRepresentation;
+import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Checks out many items to the same patron at the same service point in a
+ * single request
+ *
+ * The patron (and proxy) are found and validated once, along with the time
+ * zone and the patron's group. When the patron cannot check out, the whole
+ * request is refused in the same way as a single check out.
+ *
+ * The items, their open loans and request queues are then found using batched
+ * queries, and each item is checked out concurrently, sharing loan policies
+ * between items with the same circulation rules criteria. The outcome of each
+ * check out is reported separately, in the order the barcodes were provided
+ */
+public class BulkCheckOutByBarcodeResource extends Resource {
+  private final String rootPath;
+  private final CheckOutStrategy checkOutStrategy;
+
+  public BulkCheckOutByBarcodeResource(String rootPath, HttpClient client,
+    CheckOutStrategy checkOutStrategy) {
+
+    super(client);
+    this.rootPath = rootPath;
+    this.checkOutStrategy = checkOutStrategy;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      rootPath, router);
+
+    routeRegistration.create(this::checkOut);
+  }
+
+  private void checkOut(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+
+    final Clients clients = Clients.create(context, client);
+
+    BulkCheckOutByBarcodeRequest.from(routingContext.getBodyAsJson())
+      .after(bulkRequest -> findPatron(bulkRequest, clients)
+        .thenCompose(r -> r.after(patronRecords ->
+          checkOutItems(bulkRequest, patronRecords, clients))))
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> findPatron(
+    BulkCheckOutByBarcodeRequest bulkRequest, Clients clients) {
+
+    final String userBarcode = bulkRequest.getUserBarcode();
+    final String proxyUserBarcode = bulkRequest.getProxyUserBarcode();
+    final String checkoutServicePointId = bulkRequest.getServicePointId();
+
+    final UserRepository userRepository = new UserRepository(clients);
+    final ConfigurationRepository configurationRepository = new ConfigurationRepository(clients);
+    final PatronGroupRepository patronGroupRepository = new PatronGroupRepository(clients);
+
+    final ServicePointOfCheckoutPresentValidator servicePointOfCheckoutPresentValidator
+      = new ServicePointOfCheckoutPresentValidator(message ->
+      singleValidationError(message, SERVICE_POINT_ID, checkoutServicePointId));
+
+    final ProxyRelationshipValidator proxyRelationshipValidator = new ProxyRelationshipValidator(
+      clients, () -> singleValidationError(
+      "Cannot check out item via proxy when relationship is invalid",
+      PROXY_USER_BARCODE, proxyUserBarcode));
+
+    final InactiveUserValidator inactiveUserValidator = InactiveUserValidator.forUser(userBarcode);
+    final InactiveUserValidator inactiveProxyUserValidator = InactiveUserValidator.forProxy(proxyUserBarcode);
+
+    //Loan is only used to validate the patron, each item gets a loan of its own
+    final LoanAndRelatedRecords patronRecords = new LoanAndRelatedRecords(
+      newLoan(bulkRequest));
+
+    return completedFuture(succeeded(patronRecords))
+      .thenApply(servicePointOfCheckoutPresentValidator::refuseCheckOutWhenServicePointIsNotPresent)
+      .thenCombine(userRepository.getUserByBarcode(userBarcode),
+        (loanResult, userResult) -> Result.combine(loanResult, userResult,
+          LoanAndRelatedRecords::withRequestingUser))
+      .thenCombine(userRepository.getProxyUserByBarcode(proxyUserBarcode),
+        (loanResult, userResult) -> Result.combine(loanResult, userResult,
+          LoanAndRelatedRecords::withProxyingUser))
+      .thenApply(inactiveUserValidator::refuseWhenUserIsInactive)
+      .thenApply(inactiveProxyUserValidator::refuseWhenUserIsInactive)
+      .thenCompose(r -> r.after(proxyRelationshipValidator::refuseWhenInvalid))
+      .thenCompose(r -> r.after(configurationRepository::lookupTimeZone))
+      .thenCompose(r -> r.after(patronGroupRepository::findPatronGroupForLoanAndRelatedRecords));
+  }
+
+  private CompletableFuture<Result<JsonObject>> checkOutItems(
+    BulkCheckOutByBarcodeRequest bulkRequest,
+    LoanAndRelatedRecords patronRecords,
+    Clients clients) {
+
+    final ItemRepository itemRepository = new ItemRepository(clients, true, true, true);
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final RequestQueueRepository requestQueueRepository = RequestQueueRepository.using(clients);
+
+    return itemRepository.fetchByBarcodes(bulkRequest.getDistinctItemBarcodes())
+      .thenCompose(r -> r.after(items -> {
+        final List<String> itemIds = items.stream()
+          .map(Item::getItemId)
+          .collect(Collectors.toList());
+
+        final CompletableFuture<Result<Set<String>>> itemsWithOpenLoansFetched
+          = loanRepository.findOpenLoansForItems(itemIds)
+            .thenApply(loansResult -> loansResult.map(loans -> loans.getRecords().stream()
+              .map(Loan::getItemId)
+              .collect(Collectors.toSet())));
+
+        final CompletableFuture<Result<Map<String, RequestQueue>>> queuesFetched
+          = requestQueueRepository.getRequestQueues(items);
+
+        return itemsWithOpenLoansFetched.thenCombine(queuesFetched,
+          (loansResult, queuesResult) -> Result.combine(loansResult, queuesResult,
+            (itemsWithOpenLoans, queues) -> checkOutItems(bulkRequest,
+              patronRecords, items, itemsWithOpenLoans, queues, clients)))
+          .thenCompose(checkedOut -> checkedOut.after(identity()));
+      }));
+  }
+
+  private CompletableFuture<Result<JsonObject>> checkOutItems(
+    BulkCheckOutByBarcodeRequest bulkRequest,
+    LoanAndRelatedRecords patronRecords,
+    Collection<Item> items,
+    Set<String> itemIdsWithOpenLoans,
+    Map<String, RequestQueue> queues,
+    Clients clients) {
+
+    final Map<String, Item> itemsByBarcode = items.stream()
+      .collect(Collectors.toMap(Item::getBarcode, item -> item,
+        (first, second) -> first));
+
+    final LoanPolicyRepository loanPolicyRepository = new CachingLoanPolicyRepository(clients);
+
+    final Set<String> barcodesSeen = new HashSet<>();
+    final List<CompletableFuture<JsonObject>> checkOuts = new ArrayList<>();
+
+    for (String itemBarcode : bulkRequest.getItemBarcodes()) {
+      final CompletableFuture<Result<LoanAndRelatedRecords>> checkOut;
+
+      if (barcodesSeen.add(itemBarcode)) {
+        final Item item = itemsByBarcode.getOrDefault(itemBarcode, Item.from(null));
+
+        final LoanAndRelatedRecords records = patronRecords
+          .withLoan(newLoan(bulkRequest)
+            .withUser(patronRecords.getLoan().getUser())
+            .withItem(item))
+          .withProxyingUser(patronRecords.getProxy())
+          .withRequestQueue(queues.getOrDefault(item.getItemId(),
+            new RequestQueue(new ArrayList<>())));
+
+        checkOut = checkOutItem(bulkRequest, records, itemBarcode,
+          itemIdsWithOpenLoans, loanPolicyRepository, clients)
+          .exceptionally(CommonFailures::failedDueToServerError);
+      }
+      else {
+        checkOut = completedFuture(failed(singleValidationError(
+          "Cannot check out the same item more than once in a single request",
+          ITEM_BARCODE, itemBarcode)));
+      }
+
+      checkOuts.add(checkOut.thenApply(r -> toJson(itemBarcode, r)));
+    }
+
+    return CompletableFuture.allOf(checkOuts.toArray(new CompletableFuture[0]))
+      .thenApply(notUsed -> checkOuts.stream()
+        .map(CompletableFuture::join)
+        .collect(Collectors.toList()))
+      .thenApply(outcomes -> succeeded(new JsonObject()
+        .put("checkOuts", new JsonArray(outcomes))
+        .put("totalRecords", outcomes.size())));
+  }
+
+  private CompletableFuture<Result<LoanAndRelatedRecords>> checkOutItem(
+    BulkCheckOutByBarcodeRequest bulkRequest,
+    LoanAndRelatedRecords records,
+    String itemBarcode,
+    Set<String> itemIdsWithOpenLoans,
+    LoanPolicyRepository loanPolicyRepository,
+    Clients clients) {
+
+    final String userBarcode = bulkRequest.getUserBarcode();
+
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final LoanService loanService = new LoanService(clients);
+    final PatronNoticePolicyRepository patronNoticePolicyRepository = new PatronNoticePolicyRepository(clients);
+    final PatronNoticeService patronNoticeService = new PatronNoticeService(patronNoticePolicyRepository, clients);
+    final ScheduledNoticesRepository scheduledNoticesRepository = ScheduledNoticesRepository.using(clients);
+    final ScheduledNoticeService scheduledNoticeService =
+      new ScheduledNoticeService(scheduledNoticesRepository, patronNoticePolicyRepository);
+
+    final RequestedByAnotherPatronValidator requestedByAnotherPatronValidator = new RequestedByAnotherPatronValidator(
+      message -> singleValidationError(message, USER_BARCODE, userBarcode));
+
+    final AlreadyCheckedOutValidator alreadyCheckedOutValidator = new AlreadyCheckedOutValidator(
+      message -> singleValidationError(message, ITEM_BARCODE, itemBarcode));
+
+    final ItemNotFoundValidator itemNotFoundValidator = new ItemNotFoundValidator(
+      () -> singleValidationError(String.format("No item with barcode %s could be found", itemBarcode),
+        ITEM_BARCODE, itemBarcode));
+
+    final ItemMissingValidator itemMissingValidator = new ItemMissingValidator(
+      message -> singleValidationError(message, ITEM_BARCODE, itemBarcode));
+
+    final ExistingOpenLoanValidator openLoanValidator = new ExistingOpenLoanValidator(
+      loanRepository, message -> singleValidationError(message, ITEM_BARCODE, itemBarcode));
+
+    final UpdateItem updateItem = new UpdateItem(clients);
+    final UpdateRequestQueue requestQueueUpdate = UpdateRequestQueue.using(clients);
+
+    return completedFuture(succeeded(records))
+      .thenApply(itemNotFoundValidator::refuseWhenItemNotFound)
+      .thenApply(alreadyCheckedOutValidator::refuseWhenItemIsAlreadyCheckedOut)
+      .thenApply(itemMissingValidator::refuseWhenItemIsMissing)
+      .thenApply(r -> openLoanValidator.refuseWhenHasOpenLoan(r, itemIdsWithOpenLoans))
+      .thenApply(requestedByAnotherPatronValidator::refuseWhenRequestedByAnotherPatron)
+      .thenCompose(r -> r.after(loanPolicyRepository::lookupLoanPolicy))
+      .thenCompose(r -> r.after(relatedRecords -> checkOutStrategy.checkOut(
+        relatedRecords, bulkRequest.getRepresentation(), clients)))
+      .thenCompose(r -> r.after(requestQueueUpdate::onCheckOut))
+      .thenCompose(r -> r.after(updateItem::onCheckOut))
+      .thenCompose(r -> r.after(loanService::truncateLoanWhenItemRecalled))
+      .thenCompose(r -> r.after(loanRepository::createLoan))
+      .thenApply(r -> r.next(relatedRecords -> CheckOutByBarcodeResource
+        .sendCheckOutPatronNotice(relatedRecords, patronNoticeService)))
+      .thenApply(r -> r.next(scheduledNoticeService::scheduleNoticesForLoanDueDate));
+  }
+
+  private static Loan newLoan(BulkCheckOutByBarcodeRequest bulkRequest) {
+    final JsonObject loanJson = new JsonObject();
+
+    loanJson.put("id", UUID.randomUUID().toString());
+
+    CheckOutByBarcodeResource.copyOrDefaultLoanDate(
+      bulkRequest.getRepresentation(), loanJson);
+
+    loanJson.put(LoanProperties.CHECKOUT_SERVICE_POINT_ID,
+      bulkRequest.getServicePointId());
+
+    return Loan.from(loanJson);
+  }
+
+  private static JsonObject toJson(
+    String itemBarcode,
+    Result<LoanAndRelatedRecords> checkOutResult) {
+
+    final JsonObject outcome = checkOutResult.succeeded()
+      ? new JsonObject().put("loan", new LoanRepresentation()
+          .extendedLoan(checkOutResult.value().getLoan()))
+      : FailureRepresentation.asJson(checkOutResult.cause());
+
+    return outcome.put(ITEM_BARCODE, itemBarcode);
+  }
+}
@@ -0,0 +1,74 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.JsonPropertyFetcher.getProperty;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.domain.RequestType;
+import org.folio.circulation.support.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Moving all of the requests which have not yet been filled from one item
+ * to another (e.g. when a copy is withdrawn), optionally changing the type
+ * of the moved requests
+ */
+public class BulkMoveRequestsRequest {
+  private static final String SOURCE_ITEM_ID = "sourceItemId";
+  private static final String DESTINATION_ITEM_ID = "destinationItemId";
+  private static final String REQUEST_TYPE = "requestType";
+
+  private final String sourceItemId;
+  private final String destinationItemId;
+  private final RequestType requestType;
+
+  private BulkMoveRequestsRequest(String sourceItemId, String destinationItemId,
+    RequestType requestType) {
+
+    this.sourceItemId = sourceItemId;
+    this.destinationItemId = destinationItemId;
+    this.requestType = requestType;
+  }
+
+  public static Result<BulkMoveRequestsRequest> from(JsonObject json) {
+    final String sourceItemId = getProperty(json, SOURCE_ITEM_ID);
+    final String destinationItemId = getProperty(json, DESTINATION_ITEM_ID);
+    final String requestType = getProperty(json, REQUEST_TYPE);
+
+    if(StringUtils.isBlank(sourceItemId)) {
+      return failedValidation("Bulk move request must have a source item ID",
+        SOURCE_ITEM_ID, sourceItemId);
+    }
+
+    if(StringUtils.isBlank(destinationItemId)) {
+      return failedValidation("Bulk move request must have a destination item ID",
+        DESTINATION_ITEM_ID, destinationItemId);
+    }
+
+    if(StringUtils.equals(sourceItemId, destinationItemId)) {
+      return failedValidation("Cannot move requests to the item they are already for",
+        DESTINATION_ITEM_ID, destinationItemId);
+    }
+
+    return succeeded(new BulkMoveRequestsRequest(sourceItemId, destinationItemId,
+      StringUtils.isBlank(requestType) ? null : RequestType.from(requestType)));
+  }
+
+  public String getSourceItemId() {
+    return sourceItemId;
+  }
+
+  public String getDestinationItemId() {
+    return destinationItemId;
+  }
+
+  boolean changesRequestType() {
+    return requestType != null;
+  }
+
+  RequestType getRequestType() {
+    return requestType;
+  }
+}
@@ -0,0 +1,131 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.MoveRequestService;
+import org.folio.circulation.domain.Request;
+import org.folio.circulation.domain.RequestAndRelatedRecords;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.RequestQueueRepository;
+import org.folio.circulation.domain.RequestRepository;
+import org.folio.circulation.domain.RequestRepresentation;
+import org.folio.circulation.domain.RequestStatus;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.FailureRepresentation;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Moves all of the requests which have not yet been filled from one item to
+ * another, such as when a copy is withdrawn
+ *
+ * The requests are moved in queue order, so they keep the same order
+ * relative to each other at the end of the destination queue. Each move
+ * changes both queues, so the requests are moved one after another.
+ * The outcome of each move (including any reasons it was refused)
+ * is reported separately
+ */
+public class BulkMoveRequestsResource extends Resource {
+  private final String rootPath;
+
+  public BulkMoveRequestsResource(String rootPath, HttpClient client) {
+    super(client);
+    this.rootPath = rootPath;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      rootPath, router);
+
+    routeRegistration.create(this::move);
+  }
+
+  private void move(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final RequestQueueRepository requestQueueRepository = RequestQueueRepository.using(clients);
+
+    BulkMoveRequestsRequest.from(routingContext.getBodyAsJson())
+      .after(bulkMove -> requestQueueRepository.get(bulkMove.getSourceItemId())
+        .thenApply(r -> r.map(this::requestsToMove))
+        .thenCompose(r -> r.after(requestIds ->
+          moveRequests(requestIds, bulkMove, clients))))
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private List<String> requestsToMove(RequestQueue requestQueue) {
+    return requestQueue.getRequests().stream()
+      .filter(request -> request.getStatus() == RequestStatus.OPEN_NOT_YET_FILLED)
+      .map(Request::getId)
+      .collect(Collectors.toList());
+  }
+
+  private CompletableFuture<Result<JsonObject>> moveRequests(
+    List<String> requestIds,
+    BulkMoveRequestsRequest bulkMove,
+    Clients clients) {
+
+    final RequestRepository requestRepository = RequestRepository.using(clients);
+    final MoveRequestService moveRequestService = MoveRequestService.using(clients);
+    final RequestRepresentation requestRepresentation = new RequestRepresentation();
+
+    final List<JsonObject> outcomes = new ArrayList<>();
+
+    CompletableFuture<Void> allMoved = completedFuture(null);
+
+    for (String requestId : requestIds) {
+      allMoved = allMoved.thenCompose(notUsed -> requestRepository.getById(requestId)
+        .thenApply(r -> r.map(request -> asMove(request, bulkMove)))
+        .thenCompose(r -> r.after(moveRequestService::moveRequest))
+        .exceptionally(CommonFailures::failedDueToServerError)
+        .thenAccept(r -> outcomes.add(toJson(requestId, r, requestRepresentation))));
+    }
+
+    return allMoved.thenApply(notUsed -> succeeded(new JsonObject()
+      .put("moves", new JsonArray(outcomes))
+      .put("totalRecords", outcomes.size())));
+  }
+
+  private static RequestAndRelatedRecords asMove(Request request,
+    BulkMoveRequestsRequest bulkMove) {
+
+    final RequestAndRelatedRecords requestAndRelatedRecords =
+      new RequestAndRelatedRecords(request);
+
+    return (bulkMove.changesRequestType()
+      ? requestAndRelatedRecords.withRequestType(bulkMove.getRequestType())
+      : requestAndRelatedRecords)
+      .asMove(bulkMove.getSourceItemId(), bulkMove.getDestinationItemId());
+  }
+
+  private static JsonObject toJson(
+    String requestId,
+    Result<RequestAndRelatedRecords> moveResult,
+    RequestRepresentation requestRepresentation) {
+
+    final JsonObject outcome = moveResult.succeeded()
+      ? new JsonObject().put("request", requestRepresentation
+          .extendedRepresentation(moveResult.value().getRequest()))
+      : FailureRepresentation.asJson(moveResult.cause());
+
+    return outcome.put("requestId", requestId);
+  }
+}
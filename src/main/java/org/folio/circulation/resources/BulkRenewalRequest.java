@@ -0,0 +1,59 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.JsonPropertyFetcher.getProperty;
+import static org.folio.circulation.support.JsonStringArrayHelper.toStream;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.support.Result;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Renewal of many loans at once, either all of the open loans for a user
+ * (e.g. when a patron chooses to renew all of their loans), or specific
+ * loans by ID (optionally checking they are loaned to the user)
+ */
+public class BulkRenewalRequest {
+  private static final String USER_ID = "userId";
+  private static final String LOAN_IDS = "loanIds";
+
+  private final String userId;
+  private final List<String> loanIds;
+
+  private BulkRenewalRequest(String userId, List<String> loanIds) {
+    this.userId = userId;
+    this.loanIds = loanIds;
+  }
+
+  public static Result<BulkRenewalRequest> from(JsonObject json) {
+    final String userId = getProperty(json, USER_ID);
+
+    final List<String> loanIds = toStream(json, LOAN_IDS)
+      .distinct()
+      .collect(Collectors.toList());
+
+    if(StringUtils.isBlank(userId) && loanIds.isEmpty()) {
+      return failedValidation("Bulk renewal request must have a user ID or loan IDs",
+        USER_ID, null);
+    }
+
+    return succeeded(new BulkRenewalRequest(userId, loanIds));
+  }
+
+  public String getUserId() {
+    return userId;
+  }
+
+  public List<String> getLoanIds() {
+    return loanIds;
+  }
+
+  boolean isForAllLoansOfUser() {
+    return loanIds.isEmpty();
+  }
+}
@@ -0,0 +1,265 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.domain.ConfigurationRepository;
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.LoanRepresentation;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.RequestQueueRepository;
+import org.folio.circulation.domain.UserRepository;
+import org.folio.circulation.domain.notice.PatronNoticeService;
+import org.folio.circulation.domain.notice.schedule.ScheduledNoticeService;
+import org.folio.circulation.domain.policy.CachingLoanPolicyRepository;
+import org.folio.circulation.domain.policy.LoanPolicyRepository;
+import org.folio.circulation.domain.validation.UserNotFoundValidator;
+import org.folio.circulation.support.BoundedConcurrency;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.FailureRepresentation;
+import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Renews many loans in a single request, either all of the open loans for a
+ * user or specific loans
+ *
+ * The loans, their items, borrowers and request queues are found using
+ * batched queries, and the time zone is looked up once. Loan policies are
+ * shared between loans with the same circulation rules criteria.
+ *
+ * Each loan is then renewed using the same renewal strategy as a single
+ * renewal, with a limited number of renewals being made at the same time.
+ * The outcome of each renewal (including any reasons it was refused)
+ * is reported separately
+ */
+public class BulkRenewalResource extends Resource {
+  private static final int MAXIMUM_CONCURRENT_RENEWALS = 10;
+
+  private final String rootPath;
+  private final RenewalStrategy renewalStrategy;
+
+  public BulkRenewalResource(String rootPath, RenewalStrategy renewalStrategy,
+    HttpClient client) {
+
+    super(client);
+    this.rootPath = rootPath;
+    this.renewalStrategy = renewalStrategy;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      rootPath, router);
+
+    routeRegistration.create(this::renew);
+  }
+
+  private void renew(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final JsonObject body = routingContext.getBodyAsJson();
+
+    BulkRenewalRequest.from(body)
+      .after(bulkRequest -> findLoans(bulkRequest, clients))
+      .thenCompose(r -> r.after(loans -> findRelatedRecords(loans, clients)))
+      .thenCompose(r -> r.after(records -> renewLoans(records, body, clients)))
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private CompletableFuture<Result<Map<String, Result<Loan>>>> findLoans(
+    BulkRenewalRequest bulkRequest, Clients clients) {
+
+    final LoanRepository loanRepository = new LoanRepository(clients);
+
+    if (bulkRequest.isForAllLoansOfUser()) {
+      return loanRepository.findAllOpenLoansForUser(bulkRequest.getUserId())
+        .thenApply(r -> r.map(loans -> loans.getRecords().stream()
+          .collect(Collectors.toMap(Loan::getId, Result::succeeded,
+            (first, second) -> first, LinkedHashMap::new))));
+    }
+
+    return loanRepository.findByIds(bulkRequest.getLoanIds())
+      .thenApply(r -> r.map(loans -> matchLoansToIds(bulkRequest,
+        loans.toMap(Loan::getId))));
+  }
+
+  private Map<String, Result<Loan>> matchLoansToIds(
+    BulkRenewalRequest bulkRequest,
+    Map<String, Loan> loansById) {
+
+    final Map<String, Result<Loan>> loans = new LinkedHashMap<>();
+
+    bulkRequest.getLoanIds().forEach(loanId ->
+      loans.put(loanId, refuseWhenCannotBeRenewed(loanId,
+        loansById.get(loanId), bulkRequest.getUserId())));
+
+    return loans;
+  }
+
+  private Result<Loan> refuseWhenCannotBeRenewed(
+    String loanId,
+    Loan loan,
+    String expectedUserId) {
+
+    if (loan == null) {
+      return failedValidation(String.format("No loan with ID %s exists", loanId),
+        "loanId", loanId);
+    }
+
+    if (loan.isClosed()) {
+      return failedValidation("Cannot renew a loan that is closed",
+        "loanId", loanId);
+    }
+
+    if (StringUtils.isNotBlank(expectedUserId)
+      && !StringUtils.equals(loan.getUserId(), expectedUserId)) {
+
+      return failedValidation("Cannot renew item checked out to different user",
+        "userId", expectedUserId);
+    }
+
+    return succeeded(loan);
+  }
+
+  private CompletableFuture<Result<Map<String, Result<LoanAndRelatedRecords>>>> findRelatedRecords(
+    Map<String, Result<Loan>> loans,
+    Clients clients) {
+
+    final ItemRepository itemRepository = new ItemRepository(clients, true, true, true);
+    final UserRepository userRepository = new UserRepository(clients);
+    final RequestQueueRepository requestQueueRepository = RequestQueueRepository.using(clients);
+    final ConfigurationRepository configurationRepository = new ConfigurationRepository(clients);
+
+    final List<Loan> loansToRenew = loans.values().stream()
+      .filter(loan -> loan.succeeded())
+      .map(Result::value)
+      .collect(Collectors.toList());
+
+    if (loansToRenew.isEmpty()) {
+      return completedFuture(succeeded(mapRecords(loans, new ArrayList<>(),
+        new LinkedHashMap<>(), null)));
+    }
+
+    return itemRepository.fetchItemsFor(
+      succeeded(new MultipleRecords<>(loansToRenew, loansToRenew.size())), Loan::withItem)
+      .thenCompose(r -> r.after(userRepository::findUsersForLoans))
+      .thenCompose(r -> r.after(foundLoans -> {
+        final List<Item> items = foundLoans.getRecords().stream()
+          .map(Loan::getItem)
+          .filter(Objects::nonNull)
+          .filter(Item::isFound)
+          .collect(Collectors.toList());
+
+        final CompletableFuture<Result<Map<String, RequestQueue>>> queuesFetched
+          = requestQueueRepository.getRequestQueues(items);
+
+        //Time zone is the same for every loan, so is only looked up once
+        final CompletableFuture<Result<LoanAndRelatedRecords>> timeZoneFetched
+          = configurationRepository.lookupTimeZone(
+            new LoanAndRelatedRecords(loansToRenew.get(0)));
+
+        return queuesFetched.thenCombine(timeZoneFetched,
+          (queuesResult, timeZoneResult) -> Result.combine(queuesResult,
+            timeZoneResult, (queues, timeZoneRecords) -> mapRecords(loans,
+              foundLoans.getRecords(), queues, timeZoneRecords)));
+      }));
+  }
+
+  private Map<String, Result<LoanAndRelatedRecords>> mapRecords(
+    Map<String, Result<Loan>> loans,
+    Collection<Loan> foundLoans,
+    Map<String, RequestQueue> queues,
+    LoanAndRelatedRecords timeZoneRecords) {
+
+    final UserNotFoundValidator userNotFoundValidator = new UserNotFoundValidator(
+      userId -> singleValidationError("user is not found", "userId", userId));
+
+    final Map<String, Loan> foundLoansById = foundLoans.stream()
+      .collect(Collectors.toMap(Loan::getId, loan -> loan,
+        (first, second) -> first));
+
+    final Map<String, Result<LoanAndRelatedRecords>> records = new LinkedHashMap<>();
+
+    loans.forEach((loanId, loanResult) -> records.put(loanId, loanResult
+      .map(loan -> foundLoansById.getOrDefault(loanId, loan))
+      .next(loan -> userNotFoundValidator.refuseWhenUserNotFound(succeeded(loan)))
+      .map(loan -> timeZoneRecords.withLoan(loan)
+        .withRequestQueue(queues.getOrDefault(loan.getItemId(),
+          new RequestQueue(new ArrayList<>()))))));
+
+    return records;
+  }
+
+  private CompletableFuture<Result<JsonObject>> renewLoans(
+    Map<String, Result<LoanAndRelatedRecords>> records,
+    JsonObject body,
+    Clients clients) {
+
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final LoanPolicyRepository loanPolicyRepository = new CachingLoanPolicyRepository(clients);
+    final ScheduledNoticeService scheduledNoticeService = ScheduledNoticeService.using(clients);
+    final PatronNoticeService patronNoticeService = PatronNoticeService.using(clients);
+
+    final LoanRepresentation loanRepresentation = new LoanRepresentation();
+
+    final List<Map.Entry<String, Result<LoanAndRelatedRecords>>> renewals
+      = new ArrayList<>(records.entrySet());
+
+    return BoundedConcurrency.mapInOrder(renewals, MAXIMUM_CONCURRENT_RENEWALS,
+      renewal -> completedFuture(renewal.getValue())
+        .thenCompose(r -> r.after(loanPolicyRepository::lookupLoanPolicy))
+        .thenCompose(r -> r.after(relatedRecords ->
+          renewalStrategy.renew(relatedRecords, body, clients)))
+        .thenCompose(r -> r.after(loanRepository::updateLoan))
+        .thenCompose(r -> r.after(scheduledNoticeService::rescheduleDueDateNotices))
+        .thenApply(r -> r.next(relatedRecords ->
+          RenewalResource.sendRenewalPatronNotice(relatedRecords, patronNoticeService)))
+        .exceptionally(CommonFailures::failedDueToServerError)
+        .thenApply(r -> toJson(renewal.getKey(), r, loanRepresentation)))
+      .thenApply(outcomes -> succeeded(new JsonObject()
+        .put("renewals", new JsonArray(outcomes))
+        .put("totalRecords", outcomes.size())));
+  }
+
+  private static JsonObject toJson(
+    String loanId,
+    Result<LoanAndRelatedRecords> renewalResult,
+    LoanRepresentation loanRepresentation) {
+
+    final JsonObject outcome = renewalResult.succeeded()
+      ? new JsonObject().put("loan",
+          loanRepresentation.extendedLoan(renewalResult.value()))
+      : FailureRepresentation.asJson(renewalResult.cause());
+
+    return outcome.put("loanId", loanId);
+  }
+}
@@ -1,6 +1,8 @@
 package org.folio.circulation.resources;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.domain.validation.CommonFailures.moreThanOneOpenLoanFailure;
+import static org.folio.circulation.domain.validation.CommonFailures.noItemFoundForBarcodeFailure;
 import static org.folio.circulation.domain.notice.TemplateContextUtil.createAvailableNoticeContext;
 import static org.folio.circulation.domain.notice.TemplateContextUtil.createLoanNoticeContext;
 import static org.folio.circulation.support.Result.succeeded;
@@ -28,8 +30,11 @@ import org.folio.circulation.domain.notice.NoticeTiming;
 import org.folio.circulation.domain.notice.PatronNoticeEvent;
 import org.folio.circulation.domain.notice.PatronNoticeEventBuilder;
 import org.folio.circulation.domain.notice.PatronNoticeService;
+import org.folio.circulation.domain.policy.PatronNoticePolicyRepository;
 import org.folio.circulation.storage.ItemByBarcodeInStorageFinder;
 import org.folio.circulation.storage.SingleOpenLoanForItemInStorageFinder;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.ItemRepository;
 import org.folio.circulation.support.Result;
 
 class CheckInProcessAdapter {
@@ -66,6 +71,72 @@ class CheckInProcessAdapter {
     this.userRepository = userRepository;
   }
 
+  CompletableFuture<Result<CheckInProcessRecords>> checkIn(
+    CheckInProcessRecords records) {
+
+    return succeeded(records)
+      .combineAfter(this::findItem, CheckInProcessRecords::withItem)
+      .thenComposeAsync(findItemResult -> findItemResult.combineAfter(
+        this::findSingleOpenLoan, CheckInProcessRecords::withLoan))
+      .thenComposeAsync(findLoanResult -> findLoanResult.combineAfter(
+        this::checkInLoan, CheckInProcessRecords::withLoan))
+      .thenComposeAsync(loanCheckInResult -> loanCheckInResult.combineAfter(
+        this::getRequestQueue, CheckInProcessRecords::withRequestQueue))
+      .thenComposeAsync(findRequestQueueResult -> findRequestQueueResult.after(
+        this::completeCheckIn));
+  }
+
+  static CheckInProcessAdapter newAdapter(Clients clients, String itemBarcode) {
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final ItemRepository itemRepository = new ItemRepository(clients, true, true, true);
+    final UserRepository userRepository = new UserRepository(clients);
+
+    final ItemByBarcodeInStorageFinder itemFinder = new ItemByBarcodeInStorageFinder(
+      itemRepository, noItemFoundForBarcodeFailure(itemBarcode));
+
+    final SingleOpenLoanForItemInStorageFinder singleOpenLoanFinder
+      = new SingleOpenLoanForItemInStorageFinder(loanRepository, userRepository,
+        moreThanOneOpenLoanFailure(itemBarcode), true);
+
+    final PatronNoticePolicyRepository patronNoticePolicyRepository
+      = new PatronNoticePolicyRepository(clients);
+
+    return new CheckInProcessAdapter(itemFinder, singleOpenLoanFinder,
+      new LoanCheckInService(), RequestQueueRepository.using(clients),
+      new UpdateItem(clients), UpdateRequestQueue.using(clients), loanRepository,
+      new ServicePointRepository(clients),
+      new PatronNoticeService(patronNoticePolicyRepository, clients),
+      userRepository);
+  }
+
+  /**
+   * Completes the check in, once the item, any open loan (already checked in)
+   * and the request queue have been found
+   *
+   * @param records the records found for the item being checked in
+   * @return the records after the check in has been completed
+   */
+  CompletableFuture<Result<CheckInProcessRecords>> completeCheckIn(
+    CheckInProcessRecords records) {
+
+    return succeeded(records)
+      .combineAfter(this::updateRequestQueue, CheckInProcessRecords::withRequestQueue)
+      .thenComposeAsync(updateRequestQueueResult -> updateRequestQueueResult.combineAfter(
+        this::updateItem, CheckInProcessRecords::withItem))
+      .thenApply(handleItemStatus -> handleItemStatus.next(this::sendItemStatusPatronNotice))
+      .thenComposeAsync(updateItemResult -> updateItemResult.combineAfter(
+        this::getDestinationServicePoint, CheckInProcessRecords::withItem))
+      .thenComposeAsync(updateItemResult -> updateItemResult.combineAfter(
+        this::getCheckInServicePoint, CheckInProcessRecords::withCheckInServicePoint))
+      .thenComposeAsync(updateItemResult -> updateItemResult.combineAfter(
+        this::getPickupServicePoint, CheckInProcessRecords::withHighestPriorityFulfillableRequest))
+      .thenComposeAsync(updateItemResult -> updateItemResult.combineAfter(
+        this::getRequester, CheckInProcessRecords::withHighestPriorityFulfillableRequest))
+      .thenComposeAsync(updateItemResult -> updateItemResult.combineAfter(
+        this::updateLoan, CheckInProcessRecords::withLoan))
+      .thenApply(updateItemResult -> updateItemResult.next(this::sendCheckInPatronNotice));
+  }
+
   CompletableFuture<Result<Item>> findItem(CheckInProcessRecords records) {
     return itemFinder.findItemByBarcode(records.getCheckInRequestBarcode());
   }
@@ -84,7 +155,7 @@ class CheckInProcessAdapter {
   CompletableFuture<Result<RequestQueue>> getRequestQueue(
     CheckInProcessRecords records) {
 
-    return requestQueueRepository.get(records.getItem().getItemId());
+    return requestQueueRepository.getHeadOfQueue(records.getItem().getItemId());
   }
 
   CompletableFuture<Result<Item>> updateItem(CheckInProcessRecords records) {
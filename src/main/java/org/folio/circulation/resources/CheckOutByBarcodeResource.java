@@ -11,6 +11,7 @@ import static org.folio.circulation.support.Result.succeeded;
 import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 import org.folio.circulation.domain.ConfigurationRepository;
 import org.folio.circulation.domain.Item;
@@ -80,7 +81,19 @@ public class CheckOutByBarcodeResource extends Resource {
   private void checkOut(RoutingContext routingContext) {
     final WebContext context = new WebContext(routingContext);
 
-    JsonObject request = routingContext.getBodyAsJson();
+    final Clients clients = Clients.create(context, client);
+
+    final LoanRepresentation loanRepresentation = new LoanRepresentation();
+
+    checkOut(routingContext.getBodyAsJson(), clients)
+      .thenApply(r -> r.map(LoanAndRelatedRecords::getLoan))
+      .thenApply(r -> r.map(loanRepresentation::extendedLoan))
+      .thenApply(this::createdLoanFrom)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  CompletableFuture<Result<LoanAndRelatedRecords>> checkOut(
+    JsonObject request, Clients clients) {
 
     final JsonObject loanJson = new JsonObject();
     loanJson.put("id", UUID.randomUUID().toString());
@@ -95,8 +108,6 @@ public class CheckOutByBarcodeResource extends Resource {
     loanJson.put(LoanProperties.CHECKOUT_SERVICE_POINT_ID, checkoutServicePointId);
     Loan loan = Loan.from(loanJson);
 
-    final Clients clients = Clients.create(context, client);
-
     final UserRepository userRepository = new UserRepository(clients);
     final ItemRepository itemRepository = new ItemRepository(clients, true, true, true);
     final RequestQueueRepository requestQueueRepository = RequestQueueRepository.using(clients);
@@ -142,9 +153,7 @@ public class CheckOutByBarcodeResource extends Resource {
     final UpdateItem updateItem = new UpdateItem(clients);
     final UpdateRequestQueue requestQueueUpdate = UpdateRequestQueue.using(clients);
 
-    final LoanRepresentation loanRepresentation = new LoanRepresentation();
-
-    completedFuture(succeeded(new LoanAndRelatedRecords(loan)))
+    return completedFuture(succeeded(new LoanAndRelatedRecords(loan)))
       .thenApply(servicePointOfCheckoutPresentValidator::refuseCheckOutWhenServicePointIsNotPresent)
       .thenCombineAsync(userRepository.getUserByBarcode(userBarcode), this::addUser)
       .thenCombineAsync(userRepository.getProxyUserByBarcode(proxyUserBarcode), this::addProxyUser)
@@ -156,7 +165,7 @@ public class CheckOutByBarcodeResource extends Resource {
       .thenApply(itemMissingValidator::refuseWhenItemIsMissing)
       .thenComposeAsync(r -> r.after(proxyRelationshipValidator::refuseWhenInvalid))
       .thenComposeAsync(r -> r.after(openLoanValidator::refuseWhenHasOpenLoan))
-      .thenComposeAsync(r -> r.after(requestQueueRepository::get))
+      .thenComposeAsync(r -> r.after(requestQueueRepository::getHeadOfQueue))
       .thenApply(requestedByAnotherPatronValidator::refuseWhenRequestedByAnotherPatron)
       .thenComposeAsync(r -> r.after(configurationRepository::lookupTimeZone))
       .thenComposeAsync(r -> r.after(loanPolicyRepository::lookupLoanPolicy))
@@ -167,14 +176,10 @@ public class CheckOutByBarcodeResource extends Resource {
       .thenComposeAsync(r -> r.after(patronGroupRepository::findPatronGroupForLoanAndRelatedRecords))
       .thenComposeAsync(r -> r.after(loanRepository::createLoan))
       .thenApply(r -> r.next(records -> sendCheckOutPatronNotice(records, patronNoticeService)))
-      .thenApply(r -> r.next(scheduledNoticeService::scheduleNoticesForLoanDueDate))
-      .thenApply(r -> r.map(LoanAndRelatedRecords::getLoan))
-      .thenApply(r -> r.map(loanRepresentation::extendedLoan))
-      .thenApply(this::createdLoanFrom)
-      .thenAccept(result -> result.writeTo(routingContext.response()));
+      .thenApply(r -> r.next(scheduledNoticeService::scheduleNoticesForLoanDueDate));
   }
 
-  private void copyOrDefaultLoanDate(JsonObject request, JsonObject loan) {
+  static void copyOrDefaultLoanDate(JsonObject request, JsonObject loan) {
     final String loanDateProperty = "loanDate";
 
     if (request.containsKey(loanDateProperty)) {
@@ -218,7 +223,7 @@ public class CheckOutByBarcodeResource extends Resource {
       LoanAndRelatedRecords::withItem);
   }
 
-  private Result<LoanAndRelatedRecords> sendCheckOutPatronNotice(
+  static Result<LoanAndRelatedRecords> sendCheckOutPatronNotice(
     LoanAndRelatedRecords relatedRecords,
     PatronNoticeService patronNoticeService) {
 
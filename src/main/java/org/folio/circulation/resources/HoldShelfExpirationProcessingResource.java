@@ -0,0 +1,92 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.JsonPropertyFetcher.getProperty;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.folio.circulation.domain.HoldShelfExpirationHandler;
+import org.folio.circulation.domain.HoldShelfExpirationSweep;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Closes requests which have not been picked up before their hold shelf
+ * expiration date, intended to be run periodically
+ *
+ * A sweep can be continued from where a previous one stopped by providing
+ * the cursor from the previous response. Timers post without a cursor, so
+ * the last cursor for each tenant is remembered and a timed sweep carries on
+ * from there, only starting over once a sweep has reached the end. Otherwise
+ * requests which fail to close could fill every sweep, and those after them
+ * would never be looked at
+ */
+public class HoldShelfExpirationProcessingResource extends Resource {
+  private static final String CURSOR = "cursor";
+
+  private final Map<String, String> lastCursorByTenant = new ConcurrentHashMap<>();
+
+  public HoldShelfExpirationProcessingResource(HttpClient client) {
+    super(client);
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      "/circulation/hold-shelf-expiration-processing", router);
+
+    routeRegistration.create(this::process);
+  }
+
+  private void process(RoutingContext routingContext) {
+    final DateTime systemTime = DateTime.now(DateTimeZone.UTC);
+
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final HoldShelfExpirationHandler holdShelfExpirationHandler =
+      HoldShelfExpirationHandler.using(clients, systemTime);
+
+    final String tenantId = context.getTenantId();
+
+    holdShelfExpirationHandler.expireRequests(
+      HoldShelfExpirationSweep.startingAfter(getCursor(routingContext, tenantId)))
+      .thenApply(r -> r.map(sweep -> rememberCursor(tenantId, sweep)))
+      .thenApply(r -> r.map(HoldShelfExpirationSweep::asJson))
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private String getCursor(RoutingContext routingContext, String tenantId) {
+    //Timers post without a body, which carries on from the last sweep
+    final String body = routingContext.getBodyAsString();
+
+    if (body == null || body.trim().isEmpty()) {
+      return lastCursorByTenant.get(tenantId);
+    }
+
+    return getProperty(new JsonObject(body), CURSOR);
+  }
+
+  private HoldShelfExpirationSweep rememberCursor(String tenantId,
+    HoldShelfExpirationSweep sweep) {
+
+    if (sweep.getCursor() == null) {
+      lastCursorByTenant.remove(tenantId);
+    }
+    else {
+      lastCursorByTenant.put(tenantId, sweep.getCursor());
+    }
+
+    return sweep;
+  }
+}
@@ -0,0 +1,222 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.ItemAvailability;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.RequestQueue;
+import org.folio.circulation.domain.RequestQueueRepository;
+import org.folio.circulation.domain.User;
+import org.folio.circulation.domain.UserRepository;
+import org.folio.circulation.domain.policy.CachingRequestPolicyRepository;
+import org.folio.circulation.domain.policy.RequestPolicy;
+import org.folio.circulation.domain.policy.RequestPolicyRepository;
+import org.folio.circulation.domain.representations.ItemsAvailabilityRequest;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * The availability of many items (e.g. a page of search results) for a patron
+ * in a single request: the status of each item, when it is due back if it is
+ * on loan, how many requests are waiting for it, and which kinds of request
+ * the patron could place for it
+ *
+ * The items, their open loans and request queues are found using batched
+ * queries. The request policy is only determined once for each combination
+ * of circulation rules criteria, as many of the items are likely to share them
+ */
+public class ItemsAvailabilityResource extends Resource {
+  private final String rootPath;
+
+  public ItemsAvailabilityResource(String rootPath, HttpClient client) {
+    super(client);
+    this.rootPath = rootPath;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(rootPath, router);
+
+    routeRegistration.create(this::findAvailability);
+  }
+
+  private void findAvailability(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    ItemsAvailabilityRequest.from(routingContext.getBodyAsJson())
+      .after(availabilityRequest -> findAvailability(availabilityRequest, clients))
+      .thenApply(r -> r.map(ItemsAvailabilityResource::toJson))
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private CompletableFuture<Result<List<ItemAvailability>>> findAvailability(
+    ItemsAvailabilityRequest availabilityRequest, Clients clients) {
+
+    final ItemRepository itemRepository = new ItemRepository(clients, true, false, false);
+    final UserRepository userRepository = new UserRepository(clients);
+
+    final CompletableFuture<Result<User>> userFetched = userRepository
+      .getUserFailOnNotFound(availabilityRequest.getUserId());
+
+    final CompletableFuture<Result<Collection<Item>>> itemsFetched = itemRepository
+      .fetchByIds(availabilityRequest.getItemIds());
+
+    return userFetched.thenCombine(itemsFetched, (userResult, itemsResult) ->
+        Result.combine(userResult, itemsResult, UserAndItems::new))
+      .thenCompose(r -> r.after(userAndItems -> findAvailability(
+        availabilityRequest, userAndItems.user, userAndItems.items, clients)));
+  }
+
+  private CompletableFuture<Result<List<ItemAvailability>>> findAvailability(
+    ItemsAvailabilityRequest availabilityRequest,
+    User user,
+    Collection<Item> items,
+    Clients clients) {
+
+    if (items.isEmpty()) {
+      return completedFuture(succeeded(new ArrayList<>()));
+    }
+
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final RequestQueueRepository requestQueueRepository = RequestQueueRepository.using(clients);
+    final RequestPolicyRepository requestPolicyRepository = new CachingRequestPolicyRepository(clients);
+
+    final Map<String, Item> itemsById = items.stream()
+      .collect(Collectors.toMap(Item::getItemId, Function.identity(),
+        (first, second) -> first));
+
+    final CompletableFuture<Result<MultipleRecords<Loan>>> loansFetched
+      = loanRepository.findOpenLoansForItems(itemsById.keySet());
+
+    final CompletableFuture<Result<Map<String, RequestQueue>>> queuesFetched
+      = requestQueueRepository.getRequestQueues(items);
+
+    final CompletableFuture<Result<Map<String, RequestPolicy>>> policiesFetched
+      = findRequestPolicies(items, user, requestPolicyRepository);
+
+    return CompletableFuture.allOf(loansFetched, queuesFetched, policiesFetched)
+      .thenApply(notUsed -> loansFetched.join()
+        .combine(queuesFetched.join(), LoansAndQueues::new)
+        .combine(policiesFetched.join(), (loansAndQueues, policies) ->
+          toAvailability(availabilityRequest, itemsById, loansAndQueues.loans,
+            loansAndQueues.queues, policies)));
+  }
+
+  private static CompletableFuture<Result<Map<String, RequestPolicy>>> findRequestPolicies(
+    Collection<Item> items,
+    User user,
+    RequestPolicyRepository requestPolicyRepository) {
+
+    final List<CompletableFuture<Result<ItemRequestPolicy>>> policiesFetched = items.stream()
+      .map(item -> requestPolicyRepository.lookupRequestPolicy(item, user)
+        .thenApply(r -> r.map(policy -> new ItemRequestPolicy(item.getItemId(), policy))))
+      .collect(Collectors.toList());
+
+    return CompletableFuture.allOf(policiesFetched.toArray(new CompletableFuture[0]))
+      .thenApply(notUsed -> combinePolicies(policiesFetched));
+  }
+
+  private static Result<Map<String, RequestPolicy>> combinePolicies(
+    List<CompletableFuture<Result<ItemRequestPolicy>>> policiesFetched) {
+
+    final List<Result<ItemRequestPolicy>> policies = policiesFetched.stream()
+      .map(CompletableFuture::join)
+      .collect(Collectors.toList());
+
+    return Result.combineAll(policies)
+      .map(ItemsAvailabilityResource::toPolicyMap);
+  }
+
+  private static Map<String, RequestPolicy> toPolicyMap(
+    List<ItemRequestPolicy> policies) {
+
+    return policies.stream()
+      .collect(Collectors.toMap(policy -> policy.itemId, policy -> policy.policy,
+        (first, second) -> first));
+  }
+
+  private static List<ItemAvailability> toAvailability(
+    ItemsAvailabilityRequest availabilityRequest,
+    Map<String, Item> itemsById,
+    MultipleRecords<Loan> openLoans,
+    Map<String, RequestQueue> queues,
+    Map<String, RequestPolicy> policies) {
+
+    final Map<String, Loan> loansByItemId = openLoans.getRecords().stream()
+      .collect(Collectors.toMap(Loan::getItemId, Function.identity(),
+        (first, second) -> first));
+
+    //Items which could not be found are not included
+    return availabilityRequest.getItemIds().stream()
+      .filter(itemsById::containsKey)
+      .map(itemId -> new ItemAvailability(itemsById.get(itemId),
+        loansByItemId.get(itemId), queues.get(itemId), policies.get(itemId)))
+      .collect(Collectors.toList());
+  }
+
+  private static JsonObject toJson(List<ItemAvailability> availability) {
+    return new JsonObject()
+      .put("items", new JsonArray(availability.stream()
+        .map(ItemAvailability::asJson)
+        .collect(Collectors.toList())))
+      .put("totalRecords", availability.size());
+  }
+
+  private static class UserAndItems {
+    private final User user;
+    private final Collection<Item> items;
+
+    private UserAndItems(User user, Collection<Item> items) {
+      this.user = user;
+      this.items = items;
+    }
+  }
+
+  private static class LoansAndQueues {
+    private final MultipleRecords<Loan> loans;
+    private final Map<String, RequestQueue> queues;
+
+    private LoansAndQueues(MultipleRecords<Loan> loans,
+      Map<String, RequestQueue> queues) {
+
+      this.loans = loans;
+      this.queues = queues;
+    }
+  }
+
+  private static class ItemRequestPolicy {
+    private final String itemId;
+    private final RequestPolicy policy;
+
+    private ItemRequestPolicy(String itemId, RequestPolicy policy) {
+      this.itemId = itemId;
+      this.policy = policy;
+    }
+  }
+}
@@ -8,14 +8,17 @@ import static org.folio.circulation.support.ValidationErrorFailure.failedValidat
 import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 
 import org.folio.circulation.domain.AccountRepository;
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.Loan;
 import org.folio.circulation.domain.LoanAndRelatedRecords;
+import org.folio.circulation.domain.LoanRelatedRecordsFinder;
 import org.folio.circulation.domain.LoanRepository;
 import org.folio.circulation.domain.LoanRepresentation;
 import org.folio.circulation.domain.LoanService;
+import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.PatronGroupRepository;
 import org.folio.circulation.domain.RequestQueue;
 import org.folio.circulation.domain.RequestQueueRepository;
@@ -35,9 +38,11 @@ import org.folio.circulation.domain.validation.ServicePointLoanLocationValidator
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CreatedJsonResponseResult;
 import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.KeysetPage;
 import org.folio.circulation.support.NoContentResult;
 import org.folio.circulation.support.OkJsonResponseResult;
 import org.folio.circulation.support.Result;
+import org.folio.circulation.support.StreamedJsonCollectionResult;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
@@ -102,7 +107,7 @@ public class LoanCollectionResource extends CollectionResource {
       .thenApply(alreadyCheckedOutValidator::refuseWhenItemIsAlreadyCheckedOut)
       .thenApply(itemMissingValidator::refuseWhenItemIsMissing)
       .thenComposeAsync(r -> r.after(proxyRelationshipValidator::refuseWhenInvalid))
-      .thenCombineAsync(requestQueueRepository.get(loan.getItemId()), this::addRequestQueue)
+      .thenCombineAsync(requestQueueRepository.getHeadOfQueue(loan.getItemId()), this::addRequestQueue)
       .thenCombineAsync(userRepository.getUserFailOnNotFound(loan.getUserId()), this::addUser)
       .thenApply(requestedByAnotherPatronValidator::refuseWhenRequestedByAnotherPatron)
       .thenComposeAsync(r -> r.after(loanPolicyRepository::lookupLoanPolicy))
@@ -157,7 +162,7 @@ public class LoanCollectionResource extends CollectionResource {
       .thenCombineAsync(userRepository.getUser(loan.getUserId()), this::addUser)
       .thenApply(itemNotFoundValidator::refuseWhenItemNotFound)
       .thenComposeAsync(r -> r.after(proxyRelationshipValidator::refuseWhenInvalid))
-      .thenCombineAsync(requestQueueRepository.get(loan.getItemId()), this::addRequestQueue)
+      .thenCombineAsync(requestQueueRepository.getHeadOfQueue(loan.getItemId()), this::addRequestQueue)
       .thenComposeAsync(result -> result.after(requestQueueUpdate::onCheckIn))
       .thenComposeAsync(result -> result.after(updateItem::onLoanUpdate))
       // Loan must be updated after item
@@ -210,24 +215,40 @@ public class LoanCollectionResource extends CollectionResource {
     Clients clients = Clients.create(context, client);
 
     final LoanRepository loanRepository = new LoanRepository(clients);
-    final ServicePointRepository servicePointRepository = new ServicePointRepository(clients);
+    final LoanRelatedRecordsFinder relatedRecordsFinder = LoanRelatedRecordsFinder.using(clients);
     final LoanRepresentation loanRepresentation = new LoanRepresentation();
-    final UserRepository userRepository = new UserRepository(clients);
-    final LoanPolicyRepository loanPolicyRepository = new LoanPolicyRepository(clients);
-    final AccountRepository accountRepository = new AccountRepository(clients);
-    final PatronGroupRepository patronGroupRepository = new PatronGroupRepository(clients);
+
+    final Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>>
+      findRelatedRecords = loans -> loanRepository.findItemsFor(loans)
+        .thenCompose(result -> result.after(relatedRecordsFinder::findRelatedRecords));
+
+    if (KeysetPage.isRequested(routingContext.request())) {
+      final Result<KeysetPage> page = KeysetPage.from(routingContext.request());
+
+      page.next(KeysetPage::toCqlQuery)
+        .after(query -> loanRepository.findWithoutItems(query, page.value().getLimit()))
+        .thenApply(r -> StreamedJsonCollectionResult.from(r, "loans",
+          findRelatedRecords, loanRepresentation::extendedLoan,
+          loans -> page.value().pageProperties(loans, Loan::getId)))
+        .thenAccept(result -> result.writeTo(routingContext.response()));
+
+      return;
+    }
+
+    if (StreamedJsonCollectionResult.isLargePage(
+      routingContext.request().getParam("limit"))) {
+
+      loanRepository.findWithoutItems(routingContext.request().query())
+        .thenApply(r -> StreamedJsonCollectionResult.from(r, "loans",
+          findRelatedRecords, loanRepresentation::extendedLoan))
+        .thenAccept(result -> result.writeTo(routingContext.response()));
+
+      return;
+    }
 
     loanRepository.findBy(routingContext.request().query())
       .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(accountRepository::findAccountsForLoans))
-      .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(servicePointRepository::findServicePointsForLoans))
-      .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(userRepository::findUsersForLoans))
-      .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(loanPolicyRepository::findLoanPoliciesForLoans))
-      .thenCompose(multiLoanRecordsResult ->
-        multiLoanRecordsResult.after(patronGroupRepository::findPatronGroupsByIds))
+        multiLoanRecordsResult.after(relatedRecordsFinder::findRelatedRecords))
       .thenApply(multipleLoanRecordsResult -> multipleLoanRecordsResult.map(loans ->
         loans.asJson(loanRepresentation::extendedLoan, "loans")))
       .thenApply(OkJsonResponseResult::from)
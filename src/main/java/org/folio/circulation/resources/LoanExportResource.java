@@ -0,0 +1,145 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanRelatedRecordsFinder;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.LoanRepresentation;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.KeysetPage;
+import org.folio.circulation.support.NdJsonStreamWriter;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Exports every loan matching a query as newline delimited JSON
+ *
+ * Loans are found from storage a page at a time (by ID, rather than by offset,
+ * so that each page costs the same), and each page is enriched and written
+ * before the next page is found. The next page is only found once the
+ * response is ready for more, so only one page is held in memory
+ * however many loans are exported
+ */
+public class LoanExportResource extends Resource {
+  private static final int PAGE_SIZE = 100;
+
+  private final String rootPath;
+
+  public LoanExportResource(String rootPath, HttpClient client) {
+    super(client);
+    this.rootPath = rootPath;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      rootPath, router);
+
+    routeRegistration.getMany(this::export);
+  }
+
+  private void export(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final LoanRelatedRecordsFinder relatedRecordsFinder = LoanRelatedRecordsFinder.using(clients);
+    final LoanRepresentation loanRepresentation = new LoanRepresentation();
+
+    final NdJsonStreamWriter writer = new NdJsonStreamWriter(
+      routingContext.response());
+
+    KeysetPage.firstPage(routingContext.request().getParam("query"), PAGE_SIZE)
+      .after(firstPage -> exportFrom(firstPage, loanRepository,
+        relatedRecordsFinder, loanRepresentation, writer))
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenAccept(r -> {
+        if (r.succeeded()) {
+          writer.end();
+        }
+        else {
+          writer.fail(r.cause());
+        }
+      });
+  }
+
+  private CompletableFuture<Result<Void>> exportFrom(
+    KeysetPage page,
+    LoanRepository loanRepository,
+    LoanRelatedRecordsFinder relatedRecordsFinder,
+    LoanRepresentation loanRepresentation,
+    NdJsonStreamWriter writer) {
+
+    return page.toCqlQuery()
+      .after(query -> loanRepository.findWithoutItems(query, PAGE_SIZE))
+      .thenCompose(r -> r.after(loans -> exportPage(loans, loanRepository,
+        relatedRecordsFinder, loanRepresentation, writer)
+        .thenCompose(exported -> exported.after(notUsed -> exportAfter(page, loans,
+          loanRepository, relatedRecordsFinder, loanRepresentation, writer)))));
+  }
+
+  private CompletableFuture<Result<Void>> exportAfter(
+    KeysetPage page,
+    MultipleRecords<Loan> loans,
+    LoanRepository loanRepository,
+    LoanRelatedRecordsFinder relatedRecordsFinder,
+    LoanRepresentation loanRepresentation,
+    NdJsonStreamWriter writer) {
+
+    if (page.isLastPage(loans)) {
+      return completedFuture(succeeded(null));
+    }
+
+    return exportFrom(page.nextPage(KeysetPage.lastId(loans, Loan::getId)),
+      loanRepository, relatedRecordsFinder, loanRepresentation, writer);
+  }
+
+  private CompletableFuture<Result<Void>> exportPage(
+    MultipleRecords<Loan> loans,
+    LoanRepository loanRepository,
+    LoanRelatedRecordsFinder relatedRecordsFinder,
+    LoanRepresentation loanRepresentation,
+    NdJsonStreamWriter writer) {
+
+    if (loans.isEmpty()) {
+      return completedFuture(succeeded(null));
+    }
+
+    return loanRepository.findItemsFor(loans)
+      .thenCompose(r -> r.after(relatedRecordsFinder::findRelatedRecords))
+      .thenApply(r -> r.map(enrichedLoans -> toJson(enrichedLoans, loanRepresentation)))
+      .thenCompose(r -> r.after(records -> write(records, writer)));
+  }
+
+  /**
+   * @return completes when the response is ready for more loans
+   */
+  private static CompletableFuture<Result<Void>> write(List<JsonObject> records,
+    NdJsonStreamWriter writer) {
+
+    return writer.write(records)
+      .thenApply(notUsed -> succeeded(null));
+  }
+
+  private static List<JsonObject> toJson(MultipleRecords<Loan> loans,
+    LoanRepresentation loanRepresentation) {
+
+    return loans.getRecords().stream()
+      .map(loanRepresentation::extendedLoan)
+      .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,324 @@
+package org.folio.circulation.resources;
+
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.folio.circulation.domain.representations.OfflineTransaction;
+import org.folio.circulation.support.FailureRepresentation;
+import org.folio.circulation.support.NdJsonStreamWriter;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.results.CommonFailures;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * Replays a stream of offline transactions (one per line), writing the
+ * outcome of each transaction as a line of the response as soon as it is known
+ *
+ * Transactions for different items are replayed concurrently, up to a limit.
+ * Lines which are received whilst at the limit, or whilst the response is not
+ * ready for more outcomes, wait in a queue and reading of the request body is
+ * paused until they have all been started. Transactions for the same item are
+ * replayed one after another, in the order they were recorded. The stream is
+ * expected to be in the order the transactions happened, a transaction which
+ * is earlier than one already received for the same item is refused rather
+ * than replayed out of order
+ *
+ * Other than the latest timestamp for each item, only the transactions
+ * currently being replayed and the lines of the last chunk received are held
+ * in memory. Everything happens on the context the replay was started on,
+ * as replays can complete on other threads
+ */
+class OfflineTransactionReplay {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final Context context;
+  private final ReadStream<Buffer> body;
+  private final NdJsonStreamWriter writer;
+  private final Function<OfflineTransaction, CompletableFuture<Result<JsonObject>>> replayer;
+  private final int maximumConcurrentTransactions;
+
+  private final Deque<ReceivedLine> receivedLines = new ArrayDeque<>();
+  private final Map<String, CompletableFuture<Void>> latestReplayForItem = new HashMap<>();
+  private final Map<String, DateTime> latestTimestampForItem = new HashMap<>();
+
+  private Buffer partialLine = Buffer.buffer();
+  private int lineNumber = 0;
+  private int transactionsInProgress = 0;
+  private CompletableFuture<Void> waitingForResponse = null;
+  private boolean paused = false;
+  private boolean ended = false;
+  private boolean closed = false;
+  private boolean finished = false;
+
+  OfflineTransactionReplay(
+    Context context,
+    ReadStream<Buffer> body,
+    NdJsonStreamWriter writer,
+    Function<OfflineTransaction, CompletableFuture<Result<JsonObject>>> replayer,
+    int maximumConcurrentTransactions) {
+
+    this.context = context;
+    this.body = body;
+    this.writer = writer;
+    this.replayer = replayer;
+    this.maximumConcurrentTransactions = maximumConcurrentTransactions;
+  }
+
+  void start() {
+    body.exceptionHandler(this::streamFailed);
+    body.endHandler(notUsed -> streamEnded());
+    body.handler(this::chunkReceived);
+  }
+
+  private void chunkReceived(Buffer chunk) {
+    if (closed) {
+      return;
+    }
+
+    final Buffer received = partialLine.appendBuffer(chunk);
+
+    int lineStart = 0;
+
+    for (int index = 0; index < received.length(); index++) {
+      if (received.getByte(index) == '\n') {
+        lineReceived(received.getBuffer(lineStart, index));
+        lineStart = index + 1;
+      }
+    }
+
+    partialLine = received.getBuffer(lineStart, received.length());
+
+    replayReceivedLines();
+  }
+
+  private void lineReceived(Buffer buffer) {
+    lineNumber++;
+
+    receivedLines.add(new ReceivedLine(lineNumber, buffer));
+  }
+
+  private void replayReceivedLines() {
+    while (!receivedLines.isEmpty() && canStartReplay()) {
+      replay(receivedLines.poll());
+    }
+
+    final boolean behind = !receivedLines.isEmpty() || waitingForResponse != null;
+
+    if (behind && !paused) {
+      paused = true;
+      body.pause();
+    }
+    else if (!behind && paused) {
+      paused = false;
+      body.resume();
+    }
+
+    finishWhenAllReplayed();
+  }
+
+  private boolean canStartReplay() {
+    return !closed
+      && waitingForResponse == null
+      && transactionsInProgress < maximumConcurrentTransactions;
+  }
+
+  private void replay(ReceivedLine receivedLine) {
+    final int line = receivedLine.number;
+    final String text = receivedLine.text.toString(StandardCharsets.UTF_8.name()).trim();
+
+    if (text.isEmpty()) {
+      return;
+    }
+
+    final Result<OfflineTransaction> transactionResult = OfflineTransaction.from(text)
+      .next(this::refuseWhenEarlierThanPreviousForItem);
+
+    if (transactionResult.failed()) {
+      writeOutcome(line, null, FailureRepresentation.asJson(transactionResult.cause()));
+      return;
+    }
+
+    final OfflineTransaction transaction = transactionResult.value();
+    final String itemBarcode = transaction.getItemBarcode();
+
+    latestTimestampForItem.put(itemBarcode, transaction.getTimestamp());
+
+    transactionsInProgress++;
+
+    final CompletableFuture<Void> previousReplay = latestReplayForItem
+      .getOrDefault(itemBarcode, completedFuture(null));
+
+    final CompletableFuture<Void> replay = previousReplay
+      .thenCompose(notUsed -> replayer.apply(transaction))
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenCompose(result -> onContext(() ->
+        transactionReplayed(line, transaction, result)));
+
+    latestReplayForItem.put(itemBarcode, replay);
+
+    replay.thenRun(() -> context.runOnContext(notUsed ->
+      forgetReplay(itemBarcode, replay)));
+  }
+
+  private Result<OfflineTransaction> refuseWhenEarlierThanPreviousForItem(
+    OfflineTransaction transaction) {
+
+    final DateTime previousTimestamp = latestTimestampForItem.get(
+      transaction.getItemBarcode());
+
+    if (previousTimestamp != null
+      && transaction.getTimestamp().isBefore(previousTimestamp)) {
+
+      return failedValidation(
+        "Transaction is earlier than a previous transaction for the same item",
+        "timestamp", transaction.getTimestamp().toString());
+    }
+
+    return Result.succeeded(transaction);
+  }
+
+  private void transactionReplayed(
+    int line,
+    OfflineTransaction transaction,
+    Result<JsonObject> result) {
+
+    writeOutcome(line, transaction, result.succeeded()
+      ? result.value()
+      : FailureRepresentation.asJson(result.cause()));
+
+    transactionsInProgress--;
+
+    replayReceivedLines();
+  }
+
+  private void forgetReplay(
+    String itemBarcode,
+    CompletableFuture<Void> replay) {
+
+    //Only forget when no later transaction for the item is waiting on this one
+    latestReplayForItem.remove(itemBarcode, replay);
+  }
+
+  private void streamEnded() {
+    //The last transaction may not be followed by a line break
+    if (partialLine.length() > 0) {
+      lineReceived(partialLine);
+      partialLine = Buffer.buffer();
+    }
+
+    ended = true;
+
+    replayReceivedLines();
+  }
+
+  private void streamFailed(Throwable cause) {
+    log.error("Failed to read offline transactions", cause);
+
+    partialLine = Buffer.buffer();
+
+    streamEnded();
+  }
+
+  private void finishWhenAllReplayed() {
+    if (ended && !finished && receivedLines.isEmpty()
+      && transactionsInProgress == 0) {
+
+      finished = true;
+
+      if (!closed) {
+        writer.end();
+      }
+    }
+  }
+
+  private void writeOutcome(
+    int line,
+    OfflineTransaction transaction,
+    JsonObject outcome) {
+
+    if (closed) {
+      return;
+    }
+
+    final JsonObject representation = new JsonObject()
+      .put("line", line);
+
+    if (transaction != null) {
+      representation
+        .put("type", transaction.getType().getValue())
+        .put("itemBarcode", transaction.getItemBarcode());
+    }
+
+    representation.mergeIn(outcome);
+
+    final CompletableFuture<Void> writable = writer.write(singletonList(representation));
+
+    if (!writable.isDone()) {
+      waitingForResponse = writable;
+
+      writable.whenComplete((notUsed, failure) -> context.runOnContext(
+        notUsedAgain -> responseWritable(writable, failure)));
+    }
+  }
+
+  private void responseWritable(CompletableFuture<Void> writable, Throwable failure) {
+    //Only the latest write is told when the response has drained
+    if (waitingForResponse != writable) {
+      return;
+    }
+
+    waitingForResponse = null;
+
+    if (failure != null) {
+      log.error("Stopped replaying offline transactions", failure);
+
+      closed = true;
+      receivedLines.clear();
+    }
+
+    replayReceivedLines();
+  }
+
+  private CompletableFuture<Void> onContext(Runnable action) {
+    final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    context.runOnContext(notUsed -> {
+      try {
+        action.run();
+        done.complete(null);
+      }
+      catch (Exception e) {
+        done.completeExceptionally(e);
+      }
+    });
+
+    return done;
+  }
+
+  private static class ReceivedLine {
+    private final int number;
+    private final Buffer text;
+
+    private ReceivedLine(int number, Buffer text) {
+      this.number = number;
+      this.text = text;
+    }
+  }
+}
@@ -0,0 +1,110 @@
+package org.folio.circulation.resources;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.domain.CheckInProcessRecords;
+import org.folio.circulation.domain.LoanRepresentation;
+import org.folio.circulation.domain.representations.CheckInByBarcodeRequest;
+import org.folio.circulation.domain.representations.CheckInByBarcodeResponse;
+import org.folio.circulation.domain.representations.OfflineTransaction;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.NdJsonStreamWriter;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Replays check outs, check ins and renewals recorded whilst offline,
+ * provided as newline delimited JSON, using the same processes as the
+ * equivalent online requests
+ *
+ * Check outs and check ins happen at the time they were recorded,
+ * renewals happen at the time they are replayed, as renewal has no
+ * equivalent of the loan or check in date
+ */
+public class OfflineTransactionsResource extends Resource {
+  private static final int MAXIMUM_CONCURRENT_TRANSACTIONS = 10;
+
+  private final CheckOutByBarcodeResource checkOutResource;
+  private final RenewByBarcodeResource renewalResource;
+
+  public OfflineTransactionsResource(HttpClient client) {
+    super(client);
+
+    checkOutResource = new CheckOutByBarcodeResource(
+      "/circulation/check-out-by-barcode", client, new RegularCheckOutStrategy());
+
+    renewalResource = new RenewByBarcodeResource(
+      "/circulation/renew-by-barcode", new RegularRenewalStrategy(), client);
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(
+      "/circulation/offline-transactions", router);
+
+    routeRegistration.createStreaming(this::replay);
+  }
+
+  private void replay(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+
+    final Clients clients = Clients.create(context, client);
+
+    final NdJsonStreamWriter writer = new NdJsonStreamWriter(
+      routingContext.response());
+
+    new OfflineTransactionReplay(routingContext.vertx().getOrCreateContext(),
+      routingContext.request(), writer,
+      transaction -> replay(transaction, clients),
+      MAXIMUM_CONCURRENT_TRANSACTIONS).start();
+  }
+
+  private CompletableFuture<Result<JsonObject>> replay(
+    OfflineTransaction transaction,
+    Clients clients) {
+
+    final LoanRepresentation loanRepresentation = new LoanRepresentation();
+
+    switch (transaction.getType()) {
+      case CHECK_OUT:
+        return checkOutResource.checkOut(transaction.toCheckOutRequest(), clients)
+          .thenApply(r -> r.map(records -> new JsonObject()
+            .put("loan", loanRepresentation.extendedLoan(records))));
+
+      case CHECK_IN:
+        return checkIn(transaction.toCheckInRequest(), clients)
+          .thenApply(r -> r.map(CheckInByBarcodeResponse::asJson));
+
+      case RENEW:
+      default:
+        return renewalResource.renew(transaction.toRenewalRequest(), clients)
+          .thenApply(r -> r.map(loan -> new JsonObject()
+            .put("loan", loanRepresentation.extendedLoan(loan))));
+    }
+  }
+
+  private CompletableFuture<Result<CheckInProcessRecords>> checkIn(
+    JsonObject request,
+    Clients clients) {
+
+    final Result<CheckInByBarcodeRequest> checkInRequestResult
+      = CheckInByBarcodeRequest.from(request);
+
+    final String itemBarcode = checkInRequestResult
+      .map(CheckInByBarcodeRequest::getItemBarcode)
+      .orElse("unknown barcode");
+
+    final CheckInProcessAdapter processAdapter
+      = CheckInProcessAdapter.newAdapter(clients, itemBarcode);
+
+    return checkInRequestResult
+      .map(CheckInProcessRecords::new)
+      .after(processAdapter::checkIn);
+  }
+}
@@ -0,0 +1,120 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.support.CqlQuery.exactMatch;
+import static org.folio.circulation.support.CqlQuery.lessThan;
+import static org.folio.circulation.support.CqlSortBy.ascending;
+import static org.folio.circulation.support.PagingParameter.getLimit;
+import static org.folio.circulation.support.PagingParameter.getPagingParameter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.LoanRepresentation;
+import org.folio.circulation.domain.UserRepository;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.ClockManager;
+import org.folio.circulation.support.CqlQuery;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.StreamedJsonCollectionResult;
+import org.folio.circulation.support.http.server.WebContext;
+import org.joda.time.DateTime;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Open loans which were due before now, most overdue first, optionally only
+ * those checked out at a service point or to a patron group
+ *
+ * The loans are found in storage (rather than by clients finding every open
+ * loan and then checking the due date themselves), and the items and borrowers
+ * for the loans are found a batch at a time as the report is written.
+ * A summary of the report only includes how many loans are overdue,
+ * so does not find anything for the loans
+ */
+public class OverdueLoansReportResource extends Resource {
+  private static final String SERVICE_POINT_ID_PARAMETER = "servicePointId";
+  private static final String PATRON_GROUP_ID_PARAMETER = "patronGroupId";
+  private static final String SUMMARY_PARAMETER = "summary";
+  private static final String LIMIT_PARAMETER = "limit";
+  private static final String OFFSET_PARAMETER = "offset";
+
+  private static final int DEFAULT_LIMIT = 10;
+
+  private final String rootPath;
+
+  public OverdueLoansReportResource(String rootPath, HttpClient client) {
+    super(client);
+    this.rootPath = rootPath;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(rootPath, router);
+
+    routeRegistration.getMany(this::getMany);
+  }
+
+  private void getMany(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final UserRepository userRepository = new UserRepository(clients);
+    final LoanRepresentation loanRepresentation = new LoanRepresentation();
+
+    final HttpServerRequest request = routingContext.request();
+
+    final Result<CqlQuery> query = overdueLoansQuery(
+      ClockManager.getClockManager().getDateTime(),
+      request.getParam(SERVICE_POINT_ID_PARAMETER),
+      request.getParam(PATRON_GROUP_ID_PARAMETER));
+
+    if (Boolean.parseBoolean(request.getParam(SUMMARY_PARAMETER))) {
+      query.after(overdueLoans -> loanRepository.findWithoutItems(overdueLoans, 0))
+        .thenApply(r -> r.map(loans -> new JsonObject()
+          .put("totalRecords", loans.getTotalRecords())))
+        .thenApply(OkJsonResponseResult::from)
+        .thenAccept(result -> result.writeTo(routingContext.response()));
+
+      return;
+    }
+
+    final Result<Integer> limit = getLimit(request, LIMIT_PARAMETER,
+      DEFAULT_LIMIT, 0);
+
+    final Result<Integer> offset = getPagingParameter(request, OFFSET_PARAMETER,
+      0, 0, Integer.MAX_VALUE);
+
+    query.after(overdueLoans -> limit.after(pageLimit -> offset.after(pageOffset ->
+        loanRepository.findWithoutItems(overdueLoans, pageLimit, pageOffset))))
+      .thenApply(r -> StreamedJsonCollectionResult.from(r, "loans",
+        loans -> loanRepository.findItemsFor(loans)
+          .thenCompose(result -> result.after(userRepository::findUsersForLoans)),
+        loanRepresentation::extendedLoan))
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private static Result<CqlQuery> overdueLoansQuery(DateTime now,
+    String servicePointId, String patronGroupId) {
+
+    Result<CqlQuery> query = exactMatch("status.name", "Open")
+      .combine(lessThan("dueDate", now), CqlQuery::and);
+
+    if (StringUtils.isNotBlank(servicePointId)) {
+      query = query.combine(exactMatch("checkoutServicePointId", servicePointId),
+        CqlQuery::and);
+    }
+
+    if (StringUtils.isNotBlank(patronGroupId)) {
+      query = query.combine(exactMatch("patronGroupIdAtCheckout", patronGroupId),
+        CqlQuery::and);
+    }
+
+    return query.map(q -> q.sortBy(ascending("dueDate")));
+  }
+}
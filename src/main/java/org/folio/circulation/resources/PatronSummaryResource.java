@@ -0,0 +1,130 @@
+package org.folio.circulation.resources;
+
+import static org.folio.circulation.domain.MultipleRecords.onlyWhen;
+import static org.folio.circulation.support.PagingParameter.getLimit;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.folio.circulation.domain.Account;
+import org.folio.circulation.domain.AccountRepository;
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.LoanRepository;
+import org.folio.circulation.domain.LoanRepresentation;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.Request;
+import org.folio.circulation.domain.RequestIncludes;
+import org.folio.circulation.domain.RequestRepository;
+import org.folio.circulation.domain.RequestRepresentation;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * A summary of a patron's open loans, open requests and open fees / fines,
+ * so that self service clients do not need to make a separate (fully enriched)
+ * request for each of them
+ *
+ * The loans, requests and accounts are found at the same time, and only the
+ * records a patron needs to recognise them are found for them (the item for
+ * loans, the item and pickup service point for requests). When only the counts
+ * are asked for, no records are found, only the number of each
+ */
+public class PatronSummaryResource extends Resource {
+  private static final String USER_ID_PARAMETER = "userId";
+  private static final String COUNTS_ONLY_PARAMETER = "countsOnly";
+  private static final String LIMIT_PARAMETER = "limit";
+
+  private static final int DEFAULT_LIMIT = 10;
+
+  private static final String SUMMARY_REQUEST_INCLUDES = "item,pickupServicePoint";
+
+  private final String rootPath;
+
+  public PatronSummaryResource(String rootPath, HttpClient client) {
+    super(client);
+    this.rootPath = rootPath;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(rootPath, router);
+
+    routeRegistration.getMany(this::getSummary);
+  }
+
+  private void getSummary(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final LoanRepository loanRepository = new LoanRepository(clients);
+    final RequestRepository requestRepository = RequestRepository.using(clients);
+    final AccountRepository accountRepository = new AccountRepository(clients);
+
+    final HttpServerRequest request = routingContext.request();
+
+    final String userId = request.getParam(USER_ID_PARAMETER);
+    final boolean countsOnly = Boolean.parseBoolean(
+      request.getParam(COUNTS_ONLY_PARAMETER));
+
+    final Result<Integer> limit = countsOnly
+      ? succeeded(0)
+      : getLimit(request, LIMIT_PARAMETER, DEFAULT_LIMIT, 0);
+
+    final Result<RequestIncludes> requestIncludes = RequestIncludes.from(
+      SUMMARY_REQUEST_INCLUDES);
+
+    if (limit.failed()) {
+      limit.cause().writeTo(routingContext.response());
+      return;
+    }
+
+    final CompletableFuture<Result<MultipleRecords<Loan>>> loans = loanRepository
+      .findOpenLoansForUser(userId, limit.value())
+      .thenCompose(r -> r.after(onlyWhen(!countsOnly,
+        loanRepository::findItemsFor)));
+
+    final CompletableFuture<Result<MultipleRecords<Request>>> requests = requestRepository
+      .findOpenRequestsForRequester(userId, limit.value())
+      .thenCompose(r -> r.after(onlyWhen(!countsOnly,
+        found -> requestIncludes.after(includes ->
+          requestRepository.findRelatedRecords(found, includes)))));
+
+    final CompletableFuture<Result<MultipleRecords<Account>>> accounts = accountRepository
+      .findOpenAccountsForUser(userId, limit.value());
+
+    CompletableFuture.allOf(loans, requests, accounts)
+      .thenApply(notUsed -> toSummary(userId, loans.join(), requests.join(),
+        accounts.join()))
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenApply(OkJsonResponseResult::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  private static Result<JsonObject> toSummary(
+    String userId,
+    Result<MultipleRecords<Loan>> loans,
+    Result<MultipleRecords<Request>> requests,
+    Result<MultipleRecords<Account>> accounts) {
+
+    final LoanRepresentation loanRepresentation = new LoanRepresentation();
+    final RequestRepresentation requestRepresentation = new RequestRepresentation();
+
+    return succeeded(new JsonObject().put("userId", userId))
+      .combine(loans, (summary, openLoans) -> summary.put("openLoans",
+        openLoans.asJson(loanRepresentation::extendedLoan, "loans")))
+      .combine(requests, (summary, openRequests) -> summary.put("openRequests",
+        openRequests.asJson(requestRepresentation::extendedRepresentation, "requests")))
+      .combine(accounts, (summary, openAccounts) -> summary.put("openAccounts",
+        openAccounts.asJson(Account::asJson, "accounts")));
+  }
+}
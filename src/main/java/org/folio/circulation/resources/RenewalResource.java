@@ -54,13 +54,21 @@ public abstract class RenewalResource extends Resource {
     final WebContext context = new WebContext(routingContext);
     final Clients clients = Clients.create(context, client);
 
+    final LoanRepresentation loanRepresentation = new LoanRepresentation();
+
+    renew(routingContext.getBodyAsJson(), clients)
+      .thenApply(r -> r.map(loanRepresentation::extendedLoan))
+      .thenApply(LoanResponse::from)
+      .thenAccept(result -> result.writeTo(routingContext.response()));
+  }
+
+  CompletableFuture<Result<Loan>> renew(JsonObject bodyAsJson, Clients clients) {
     final LoanRepository loanRepository = new LoanRepository(clients);
     final ItemRepository itemRepository = new ItemRepository(clients, true, true, true);
     final UserRepository userRepository = new UserRepository(clients);
     final RequestQueueRepository requestQueueRepository = RequestQueueRepository.using(clients);
     final LoanPolicyRepository loanPolicyRepository = new LoanPolicyRepository(clients);
 
-    final LoanRepresentation loanRepresentation = new LoanRepresentation();
     final ConfigurationRepository configurationRepository = new ConfigurationRepository(clients);
     final ScheduledNoticeService scheduledNoticeService = ScheduledNoticeService.using(clients);
 
@@ -68,27 +76,24 @@ public abstract class RenewalResource extends Resource {
 
     //TODO: Validation check for same user should be in the domain service
 
-    JsonObject bodyAsJson = routingContext.getBodyAsJson();
     CompletableFuture<Result<Loan>> findLoanResult = findLoan(bodyAsJson,
       loanRepository,
       itemRepository,
       userRepository);
 
-    findLoanResult
+    return findLoanResult
       .thenApply(r -> r.map(LoanAndRelatedRecords::new))
       .thenComposeAsync(r -> r.after(loanPolicyRepository::lookupLoanPolicy))
-      .thenComposeAsync(r -> r.after(requestQueueRepository::get))
+      .thenComposeAsync(r -> r.after(requestQueueRepository::getHeadOfQueue))
       .thenComposeAsync(r -> r.after(configurationRepository::lookupTimeZone))
       .thenComposeAsync(r -> r.after(records -> renewalStrategy.renew(records, bodyAsJson, clients)))
       .thenComposeAsync(r -> r.after(loanRepository::updateLoan))
       .thenComposeAsync(r -> r.after(scheduledNoticeService::rescheduleDueDateNotices))
       .thenApply(r -> r.next(records -> sendRenewalPatronNotice(records, patronNoticeService)))
-      .thenApply(r -> r.map(loanRepresentation::extendedLoan))
-      .thenApply(LoanResponse::from)
-      .thenAccept(result -> result.writeTo(routingContext.response()));
+      .thenApply(r -> r.map(LoanAndRelatedRecords::getLoan));
   }
 
-  private Result<LoanAndRelatedRecords> sendRenewalPatronNotice(
+  static Result<LoanAndRelatedRecords> sendRenewalPatronNotice(
     LoanAndRelatedRecords relatedRecords,
     PatronNoticeService patronNoticeService) {
 
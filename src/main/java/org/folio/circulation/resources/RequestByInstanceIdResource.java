@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
@@ -51,6 +52,7 @@ import org.folio.circulation.domain.validation.RequestLoanValidator;
 import org.folio.circulation.domain.validation.ServicePointPickupLocationValidator;
 import org.folio.circulation.storage.ItemByInstanceIdFinder;
 import org.folio.circulation.support.BadRequestFailure;
+import org.folio.circulation.support.BoundedConcurrency;
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CreatedJsonResponseResult;
 import org.folio.circulation.support.ForwardOnFailure;
@@ -64,6 +66,7 @@ import org.folio.circulation.support.ValidationErrorFailure;
 import org.folio.circulation.support.http.server.ServerErrorResponse;
 import org.folio.circulation.support.http.server.ValidationError;
 import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
 import org.joda.time.DateTime;
 import org.joda.time.format.ISODateTimeFormat;
 import org.slf4j.Logger;
@@ -76,6 +79,10 @@ import io.vertx.ext.web.RoutingContext;
 
 public class RequestByInstanceIdResource extends Resource {
 
+  //Possible requests are checked in groups, so that when the highest ranked
+  //request can be placed, few checks are wasted on those ranked lower
+  private static final int MAXIMUM_REQUESTS_CHECKED_TOGETHER = 5;
+
   private final Logger log;
 
   public RequestByInstanceIdResource(HttpClient client) {
@@ -145,27 +152,29 @@ public class RequestByInstanceIdResource extends Resource {
       return CompletableFuture.completedFuture(succeeded(null));
     }
 
-    LoanRepository loanRepository = new LoanRepository(clients);
-    Map<Item, CompletableFuture<Result<Loan>>> itemLoanFuturesMap = new HashMap<>();
+    final LoanRepository loanRepository = new LoanRepository(clients);
 
-    //Find request queues and loan items for each item
-    for (Item item : unsortedUnavailableItems) {
-      itemLoanFuturesMap.put(item, loanRepository.findOpenLoanForItem(item));
-    }
+    final Set<String> itemIds = unsortedUnavailableItems.stream()
+      .map(Item::getItemId)
+      .collect(Collectors.toSet());
 
-    final Collection<CompletableFuture<Result<Loan>>> loanFutures = itemLoanFuturesMap.values();
+    //Find the open loans for all of the items at once, using batched queries
+    return loanRepository.findOpenLoansForItems(itemIds)
+      .thenApply(loansResult -> {
+        final Map<String, Loan> loansByItemId = loansResult.succeeded()
+          ? loansResult.value().toMap(Loan::getItemId)
+          : new HashMap<>();
 
-    return CompletableFuture.allOf(loanFutures.toArray(new CompletableFuture[0]))
-      .thenApply(dd -> {
         Map<Item, DateTime> itemDueDateMap = new HashMap<>();
         List<Item> itemsWithoutLoansList = new ArrayList<>();
 
-        for (Map.Entry<Item, CompletableFuture<Result<Loan>>> entry : itemLoanFuturesMap.entrySet()) {
-          Result<Loan> aLoanResult = entry.getValue().join();
-          if (aLoanResult.succeeded() && aLoanResult.value() != null) {
-            itemDueDateMap.put(aLoanResult.value().getItem(), aLoanResult.value().getDueDate());
+        for (Item item : unsortedUnavailableItems) {
+          final Loan loan = loansByItemId.get(item.getItemId());
+
+          if (loan != null) {
+            itemDueDateMap.put(item, loan.getDueDate());
           } else {
-            itemsWithoutLoansList.add(entry.getKey());
+            itemsWithoutLoansList.add(item);
           }
         }
         instanceRequestPackage.setItemsWithoutLoans(itemsWithoutLoansList);
@@ -178,31 +187,23 @@ public class RequestByInstanceIdResource extends Resource {
     InstanceRequestRelatedRecords instanceRequestPackage, Clients clients) {
 
     RequestQueueRepository queueRepository = RequestQueueRepository.using(clients);
-    Map<Item, CompletableFuture<Result<RequestQueue>>> itemRequestQueueMap = new HashMap<>();
 
     instanceRequestPackage.setAllUnsortedItems(items);
 
-    for (Item item : items) {
-      itemRequestQueueMap.put(item, queueRepository.getRequestQueueWithoutItemLookup(item.getItemId()));
-    }
-
-    final Collection<CompletableFuture<Result<RequestQueue>>> requestQueuesFutures = itemRequestQueueMap.values();
-
-    //Collect the RequestQueue objects once they come back
-    return CompletableFuture.allOf(requestQueuesFutures.toArray(new CompletableFuture[0]))
-      .thenApply(x -> {
+    //Find the open requests for all of the items at once, using batched queries
+    return queueRepository.getRequestQueues(items)
+      .thenApply(queuesResult -> {
         Map<Item, RequestQueue> itemQueueMap = new HashMap<>();
         List<Item> itemsWithoutRequestQueues = new ArrayList<>();
 
-        for (Map.Entry<Item, CompletableFuture<Result<RequestQueue>>> entry : itemRequestQueueMap.entrySet()) {
-          Result<RequestQueue> requestQueueResult = entry.getValue().join();
-          if (requestQueueResult.succeeded()) {
-            itemQueueMap.put(entry.getKey(), requestQueueResult.value());
+        for (Item item : items) {
+          if (queuesResult.succeeded()) {
+            itemQueueMap.put(item, queuesResult.value().get(item.getItemId()));
           } else {
-            itemsWithoutRequestQueues.add(entry.getKey());
+            itemsWithoutRequestQueues.add(item);
           }
         }
-        if (itemsWithoutRequestQueues.size() == requestQueuesFutures.size()
+        if (itemsWithoutRequestQueues.size() == items.size()
           && (instanceRequestPackage.getSortedAvailableItems() == null || instanceRequestPackage.getSortedAvailableItems().isEmpty())) {
           //fail the requests when there are no items to make requests from.
           log.error("Failed to find request queues for all items of instanceId {}",
@@ -225,24 +226,47 @@ public class RequestByInstanceIdResource extends Resource {
     final UpdateUponRequest updateUponRequest = new UpdateUponRequest(
         new UpdateItem(clients),
         new UpdateLoan(clients, loanRepository, loanPolicyRepository),
-        new UpdateLoanActionHistory(clients),
+        new UpdateLoanActionHistory(loanRepository),
         UpdateRequestQueue.using(clients));
 
     final CreateRequestService createRequestService = new CreateRequestService(
         RequestRepository.using(clients),
         new RequestPolicyRepository(clients),
         updateUponRequest,
-        new RequestLoanValidator(loanRepository),
+        new RequestLoanValidator(),
         requestNoticeSender);
 
-    return placeRequest(itemRequestRepresentations, 0, createRequestService,
-                        clients, loanRepository, new ArrayList<>());
+    if (itemRequestRepresentations.isEmpty()) {
+      return placeRequest(itemRequestRepresentations, 0, null, createRequestService,
+        new ArrayList<>());
+    }
+
+    //Every possible request is for the same requester, proxy and pickup service point
+    final RequestFromRepresentationService requestFromRepresentationService =
+      new RequestFromRepresentationService(
+        new ItemRepository(clients, true, false, false),
+        RequestQueueRepository.using(clients),
+        new UserRepository(clients),
+        loanRepository,
+        new ServicePointRepository(clients),
+        createProxyRelationshipValidator(itemRequestRepresentations.get(0), clients),
+        new ServicePointPickupLocationValidator()
+      );
+
+    return placeRequest(itemRequestRepresentations, 0,
+      requestFromRepresentationService, createRequestService, new ArrayList<>());
   }
 
+  /**
+   * Checks whether a group of possible requests could be placed at the same
+   * time (without changing anything), then creates the highest ranked one
+   * which could be placed. Only when none of the group can be placed
+   * is the next group checked
+   */
   private CompletableFuture<Result<RequestAndRelatedRecords>> placeRequest(List<JsonObject> itemRequests, int startIndex,
-                                                                           CreateRequestService createRequestService, Clients clients,
-                                                                           LoanRepository loanRepository, List<String> errors) {
-    final UserRepository userRepository = new UserRepository(clients);
+                                                                           RequestFromRepresentationService requestFromRepresentationService,
+                                                                           CreateRequestService createRequestService,
+                                                                           List<String> errors) {
 
     log.debug("RequestByInstanceIdResource.placeRequest, startIndex={}, itemRequestSize={}", startIndex, itemRequests.size());
     if (startIndex >= itemRequests.size()) {
@@ -253,32 +277,45 @@ public class RequestByInstanceIdResource extends Resource {
         "Failed to place a request for the instance. Reasons: " + aggregateFailures));
     }
 
-    JsonObject currentItemRequest = itemRequests.get(startIndex);
+    final List<JsonObject> candidates = itemRequests.subList(startIndex,
+      Math.min(startIndex + MAXIMUM_REQUESTS_CHECKED_TOGETHER, itemRequests.size()));
+
+    return BoundedConcurrency.mapInOrder(candidates, MAXIMUM_REQUESTS_CHECKED_TOGETHER,
+      candidate -> requestFromRepresentationService.getRequestFrom(candidate)
+        .thenCompose(r -> r.after(createRequestService::checkRequestCanBeCreated))
+        .exceptionally(CommonFailures::failedDueToServerError))
+      .thenCompose(checks -> createFirstPossibleRequest(candidates, checks, 0,
+        createRequestService, errors))
+      .thenCompose(created -> created.isPresent()
+        ? CompletableFuture.completedFuture(created.get())
+        : placeRequest(itemRequests, startIndex + candidates.size(),
+            requestFromRepresentationService, createRequestService, errors));
+  }
 
-    final RequestFromRepresentationService requestFromRepresentationService =
-      new RequestFromRepresentationService(
-        new ItemRepository(clients, true, false, false),
-        RequestQueueRepository.using(clients),
-        userRepository,
-        loanRepository,
-        new ServicePointRepository(clients),
-        createProxyRelationshipValidator(currentItemRequest, clients),
-        new ServicePointPickupLocationValidator()
-      );
+  private CompletableFuture<Optional<Result<RequestAndRelatedRecords>>> createFirstPossibleRequest(
+    List<JsonObject> candidates, List<Result<RequestAndRelatedRecords>> checks,
+    int index, CreateRequestService createRequestService, List<String> errors) {
+
+    if (index >= checks.size()) {
+      return CompletableFuture.completedFuture(Optional.empty());
+    }
+
+    final String itemId = candidates.get(index).getString(ITEM_ID);
 
-    return requestFromRepresentationService.getRequestFrom(currentItemRequest)
-      .thenCompose(r -> r.after(createRequestService::createRequest))
+    return CompletableFuture.completedFuture(checks.get(index))
+      .thenCompose(r -> r.after(createRequestService::createCheckedRequest))
       .thenCompose(r -> {
           if (r.succeeded()) {
             log.debug("RequestByInstanceIdResource.placeRequest: succeeded creating request for item {}",
-                currentItemRequest.getString(ITEM_ID));
-            return CompletableFuture.completedFuture(r);
+                itemId);
+            return CompletableFuture.completedFuture(Optional.of(r));
           } else {
             String reason = getErrorMessage(r.cause());
             errors.add(reason);
 
-            log.debug("Failed to create request for item {} with reason: {}", currentItemRequest.getString(ITEM_ID), reason);
-            return placeRequest(itemRequests, startIndex +1, createRequestService, clients, loanRepository, errors);
+            log.debug("Failed to create request for item {} with reason: {}", itemId, reason);
+            return createFirstPossibleRequest(candidates, checks, index + 1,
+              createRequestService, errors);
           }
         });
   }
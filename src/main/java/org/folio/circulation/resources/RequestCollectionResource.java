@@ -1,5 +1,6 @@
 package org.folio.circulation.resources;
 
+import static org.folio.circulation.domain.RequestIncludes.INCLUDE_PARAMETER;
 import static org.folio.circulation.domain.representations.RequestProperties.PROXY_USER_ID;
 import static org.folio.circulation.support.JsonPropertyWriter.write;
 import static org.folio.circulation.support.ValidationErrorFailure.singleValidationError;
@@ -7,9 +8,10 @@ import static org.folio.circulation.support.ValidationErrorFailure.singleValidat
 import org.folio.circulation.domain.CreateRequestService;
 import org.folio.circulation.domain.LoanRepository;
 import org.folio.circulation.domain.MoveRequestService;
+import org.folio.circulation.domain.Request;
 import org.folio.circulation.domain.RequestAndRelatedRecords;
+import org.folio.circulation.domain.RequestIncludes;
 import org.folio.circulation.domain.RequestQueueRepository;
-import org.folio.circulation.domain.MoveRequestProcessAdapter;
 import org.folio.circulation.domain.RequestRepository;
 import org.folio.circulation.domain.RequestRepresentation;
 import org.folio.circulation.domain.RequestType;
@@ -30,8 +32,11 @@ import org.folio.circulation.domain.validation.ServicePointPickupLocationValidat
 import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CreatedJsonResponseResult;
 import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.KeysetPage;
 import org.folio.circulation.support.NoContentResult;
 import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.StreamedJsonCollectionResult;
 import org.folio.circulation.support.http.server.WebContext;
 
 import io.vertx.core.http.HttpClient;
@@ -66,14 +71,14 @@ public class RequestCollectionResource extends CollectionResource {
     final UpdateUponRequest updateUponRequest = new UpdateUponRequest(
         new UpdateItem(clients),
         new UpdateLoan(clients, loanRepository, loanPolicyRepository),
-        new UpdateLoanActionHistory(clients),
+        new UpdateLoanActionHistory(loanRepository),
         UpdateRequestQueue.using(clients));
 
     final CreateRequestService createRequestService = new CreateRequestService(
         RequestRepository.using(clients),
         new RequestPolicyRepository(clients),
         updateUponRequest,
-        new RequestLoanValidator(loanRepository),
+        new RequestLoanValidator(),
         requestNoticeSender);
 
     final RequestFromRepresentationService requestFromRepresentationService =
@@ -114,14 +119,14 @@ public class RequestCollectionResource extends CollectionResource {
     final UpdateUponRequest updateUponRequest = new UpdateUponRequest(
         updateItem,
         new UpdateLoan(clients, loanRepository, loanPolicyRepository),
-        new UpdateLoanActionHistory(clients),
+        new UpdateLoanActionHistory(loanRepository),
         updateRequestQueue);
 
     final CreateRequestService createRequestService = new CreateRequestService(
         RequestRepository.using(clients),
         new RequestPolicyRepository(clients),
         updateUponRequest,
-        new RequestLoanValidator(loanRepository),
+        new RequestLoanValidator(),
         requestNoticeSender);
 
     final UpdateRequestService updateRequestService = new UpdateRequestService(
@@ -192,7 +197,46 @@ public class RequestCollectionResource extends CollectionResource {
     final RequestRepository requestRepository = RequestRepository.using(clients);
     final RequestRepresentation requestRepresentation = new RequestRepresentation();
 
-    requestRepository.findBy(routingContext.request().query())
+    final String query = context.getQueryStringWithout(INCLUDE_PARAMETER);
+
+    final Result<RequestIncludes> includesResult = RequestIncludes.from(
+      routingContext.request().getParam(INCLUDE_PARAMETER));
+
+    if (includesResult.failed()) {
+      includesResult.cause().writeTo(routingContext.response());
+      return;
+    }
+
+    final RequestIncludes includes = includesResult.value();
+
+    if (KeysetPage.isRequested(routingContext.request())) {
+      final Result<KeysetPage> page = KeysetPage.from(routingContext.request());
+
+      page.next(KeysetPage::toCqlQuery)
+        .after(cqlQuery -> requestRepository.findWithoutRelatedRecords(
+          cqlQuery, page.value().getLimit()))
+        .thenApply(r -> StreamedJsonCollectionResult.from(r, "requests",
+          requests -> requestRepository.findRelatedRecords(requests, includes),
+          requestRepresentation::extendedRepresentation,
+          requests -> page.value().pageProperties(requests, Request::getId)))
+        .thenAccept(result -> result.writeTo(routingContext.response()));
+
+      return;
+    }
+
+    if (StreamedJsonCollectionResult.isLargePage(
+      routingContext.request().getParam("limit"))) {
+
+      requestRepository.findWithoutRelatedRecords(query)
+        .thenApply(r -> StreamedJsonCollectionResult.from(r, "requests",
+          requests -> requestRepository.findRelatedRecords(requests, includes),
+          requestRepresentation::extendedRepresentation))
+        .thenAccept(result -> result.writeTo(routingContext.response()));
+
+      return;
+    }
+
+    requestRepository.findBy(query, includes)
       .thenApply(r -> r.map(requests ->
         requests.asJson(requestRepresentation::extendedRepresentation, "requests")))
       .thenApply(OkJsonResponseResult::from)
@@ -217,32 +261,7 @@ public class RequestCollectionResource extends CollectionResource {
     String id = getRequestId(routingContext);
 
     final RequestRepository requestRepository = RequestRepository.using(clients);
-    final RequestQueueRepository requestQueueRepository = RequestQueueRepository.using(clients);
-
-    final ItemRepository itemRepository = new ItemRepository(clients, true, true, true);
-    final LoanRepository loanRepository = new LoanRepository(clients);
-    final LoanPolicyRepository loanPolicyRepository = new LoanPolicyRepository(clients);
-
-    final UpdateUponRequest updateUponRequest = new UpdateUponRequest(
-        new UpdateItem(clients),
-        new UpdateLoan(clients, loanRepository, loanPolicyRepository),
-        new UpdateLoanActionHistory(clients),
-        UpdateRequestQueue.using(clients));
-    
-    final MoveRequestProcessAdapter moveRequestProcessAdapter = 
-        new MoveRequestProcessAdapter(
-          itemRepository,
-          loanRepository,
-          requestRepository,
-          requestQueueRepository);
-
-    final MoveRequestService moveRequestService = new MoveRequestService(
-        RequestRepository.using(clients),
-        new RequestPolicyRepository(clients),
-        updateUponRequest,
-        moveRequestProcessAdapter,
-        new RequestLoanValidator(loanRepository),
-        RequestNoticeSender.using(clients));
+    final MoveRequestService moveRequestService = MoveRequestService.using(clients);
 
     requestRepository.getById(id)
       .thenApply(r -> r.map(RequestAndRelatedRecords::new))
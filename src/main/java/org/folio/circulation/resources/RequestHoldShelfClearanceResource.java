@@ -1,12 +1,9 @@
 package org.folio.circulation.resources;
 
 import io.vertx.core.http.HttpClient;
-import io.vertx.core.json.JsonArray;
-import io.vertx.core.json.JsonObject;
 import io.vertx.ext.web.Router;
 import io.vertx.ext.web.RoutingContext;
 import org.apache.commons.lang3.StringUtils;
-import org.folio.circulation.domain.HoldShelfClearanceContext;
 import org.folio.circulation.domain.Item;
 import org.folio.circulation.domain.MultipleRecords;
 import org.folio.circulation.domain.Request;
@@ -15,38 +12,38 @@ import org.folio.circulation.support.Clients;
 import org.folio.circulation.support.CollectionResourceClient;
 import org.folio.circulation.support.CqlQuery;
 import org.folio.circulation.support.ItemRepository;
-import org.folio.circulation.support.OkJsonResponseResult;
+import org.folio.circulation.support.JsonArrayStreamWriter;
+import org.folio.circulation.support.KeysetPage;
+import org.folio.circulation.support.MultipleRecordFetcher;
 import org.folio.circulation.support.Result;
 import org.folio.circulation.support.RouteRegistration;
 import org.folio.circulation.support.http.client.Response;
 import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+import org.joda.time.DateTime;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.stream.Collector;
+import java.util.function.Function;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.folio.circulation.domain.ItemStatus.AWAITING_PICKUP;
 import static org.folio.circulation.domain.RequestStatus.*;
 import static org.folio.circulation.support.CqlQuery.exactMatch;
-import static org.folio.circulation.support.CqlSortBy.descending;
+import static org.folio.circulation.support.JsonPropertyFetcher.getDateTimeProperty;
+import static org.folio.circulation.support.Result.succeeded;
 
 public class RequestHoldShelfClearanceResource extends Resource {
 
   /**
-   * The optimal number of identifiers that will not exceed the permissible length
-   * of the URI in according to the RFC 2616
-   */
-  private static final int BATCH_SIZE = 40;
-
-  /**
-   * Default limit value on a query
+   * Number of awaiting pickup items in each page
    */
   private static final int PAGE_LIMIT = 100;
   private static final String SERVICE_POINT_ID_PARAM = "servicePointId";
@@ -55,9 +52,10 @@ public class RequestHoldShelfClearanceResource extends Resource {
   private static final String REQUESTS_KEY = "requests";
   private static final String STATUS_KEY = "status";
   private static final String STATUS_NAME_KEY = "status.name";
-  private static final String TOTAL_RECORDS_KEY = "totalRecords";
   private static final String SERVICE_POINT_ID_KEY = "pickupServicePointId";
   private static final String REQUEST_CLOSED_DATE_KEY = "awaitingPickupRequestClosedDate";
+  private static final String AWAITING_PICKUP_ITEMS_QUERY = String.format(
+    "%s==\"%s\"", STATUS_NAME_KEY, AWAITING_PICKUP.getValue());
 
   private final String rootPath;
 
@@ -78,211 +76,175 @@ public class RequestHoldShelfClearanceResource extends Resource {
 
     final CollectionResourceClient itemsStorageClient = clients.itemsStorage();
     final ItemRepository itemRepository = new ItemRepository(clients, false, false, false);
-    final CollectionResourceClient requestsStorage = clients.requestsStorage();
+    final MultipleRecordFetcher<Request> requestsFetcher = new MultipleRecordFetcher<>(
+      clients.requestsStorage(), REQUESTS_KEY, Request::from);
 
-    final String servicePointId = routingContext.request().getParam(SERVICE_POINT_ID_PARAM);
+    final RequestRepresentation requestRepresentation = new RequestRepresentation();
 
-    findAllAwaitingPickupItems(itemsStorageClient)
-      .thenComposeAsync(r -> r.after(this::mapContextToItemIdList))
-      .thenComposeAsync(r -> r.after(this::mapItemIdsInBatchItemIds))
-      .thenComposeAsync(r -> findExpiredOrCancelledItemsIds(requestsStorage, servicePointId, r.value()))
-      .thenComposeAsync(r -> findExpiredOrCancelledRequestByItemIds(requestsStorage, servicePointId, r.value()))
-      .thenApply(r -> fetchItemToRequest(r, itemRepository))
-      .thenApply(this::mapResultToJson)
-      .thenApply(OkJsonResponseResult::from)
-      .thenAccept(r -> r.writeTo(routingContext.response()));
-  }
+    final String servicePointId = routingContext.request().getParam(SERVICE_POINT_ID_PARAM);
 
-  private CompletableFuture<Result<HoldShelfClearanceContext>> findAllAwaitingPickupItems(CollectionResourceClient client) {
-    CompletableFuture<Result<HoldShelfClearanceContext>> future = new CompletableFuture<>();
-    HoldShelfClearanceContext initialContext = new HoldShelfClearanceContext(0, new ArrayList<>());
-    fetchNextPage(client, initialContext, future);
-    return future;
+    final JsonArrayStreamWriter writer = new JsonArrayStreamWriter(
+      routingContext.response(), REQUESTS_KEY);
+
+    //The total is the number of requests written, rather than the number of items
+    KeysetPage.firstPage(AWAITING_PICKUP_ITEMS_QUERY, PAGE_LIMIT)
+      .after(firstPage -> writeRequestsFrom(firstPage, itemsStorageClient,
+        servicePointId, requestsFetcher, itemRepository, requestRepresentation,
+        writer))
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenAccept(r -> {
+        if (r.succeeded()) {
+          writer.end();
+        }
+        else {
+          writer.fail(r.cause());
+        }
+      });
   }
 
-  private void fetchNextPage(CollectionResourceClient client, HoldShelfClearanceContext initialContext,
-                             CompletableFuture<Result<HoldShelfClearanceContext>> future) {
-    findAwaitingPickupItemsByQuery(client, initialContext)
-      .thenApply(itemRecords -> {
-          HoldShelfClearanceContext context = fillHoldShelfClearanceContext(initialContext, itemRecords);
-          int totalRecords = itemRecords.value().getTotalRecords();
-
-          if (totalRecords > context.getPageOffset(PAGE_LIMIT)) {
-            fetchNextPage(client, context, future);
-          } else {
-            future.complete(Result.of(() -> context));
+  /**
+   * Finds the awaiting pickup items a page at a time (by ID, rather than by
+   * offset, so that items which change status whilst the report is being
+   * produced cannot cause other items to be skipped or repeated), only keeping
+   * the IDs of one page of items, and writes the requests for each page
+   * before finding the next
+   */
+  private CompletableFuture<Result<Void>> writeRequestsFrom(KeysetPage page,
+    CollectionResourceClient itemsStorageClient, String servicePointId,
+    MultipleRecordFetcher<Request> requestsFetcher, ItemRepository itemRepository,
+    RequestRepresentation requestRepresentation, JsonArrayStreamWriter writer) {
+
+    return findAwaitingPickupItemIds(itemsStorageClient, page)
+      .thenCompose(r -> r.after(itemIds -> writeRequestsFor(itemIds,
+        servicePointId, requestsFetcher, itemRepository, requestRepresentation,
+        writer)
+        .thenCompose(written -> written.after(notUsed -> {
+          if (page.isLastPage(itemIds)) {
+            return completedFuture(succeeded(null));
           }
 
-          return itemRecords;
-        }
-      );
+          return writeRequestsFrom(
+            page.nextPage(KeysetPage.lastId(itemIds, Function.identity())),
+            itemsStorageClient, servicePointId, requestsFetcher, itemRepository,
+            requestRepresentation, writer);
+        }))));
   }
 
-  private CompletableFuture<Result<MultipleRecords<Item>>> findAwaitingPickupItemsByQuery(CollectionResourceClient client,
-                                                                                          HoldShelfClearanceContext holdShelfClearanceContext) {
-    final Result<CqlQuery> itemStatusQuery = exactMatch(STATUS_NAME_KEY, AWAITING_PICKUP.getValue());
-    int pageOffset = holdShelfClearanceContext.getCurrPageNumber() * PAGE_LIMIT;
+  private CompletableFuture<Result<MultipleRecords<String>>> findAwaitingPickupItemIds(
+    CollectionResourceClient itemsStorageClient, KeysetPage page) {
 
-    return itemStatusQuery
-      .after(query -> client.getMany(query, PAGE_LIMIT, pageOffset))
-      .thenApply(result -> result.next(this::mapResponseToItems));
+    return page.toCqlQuery()
+      .after(query -> itemsStorageClient.getMany(query, page.getLimit()))
+      .thenApply(result -> result.next(this::mapResponseToItems))
+      .thenApply(r -> r.map(items -> items.mapRecords(Item::getItemId)));
   }
 
-  private HoldShelfClearanceContext fillHoldShelfClearanceContext(HoldShelfClearanceContext initialContext,
-                                                                  Result<MultipleRecords<Item>> itemRecords) {
-    List<Result<MultipleRecords<Item>>> resultListOfItems = initialContext.getResultListOfItems();
-    resultListOfItems.add(itemRecords);
-    int newPageNumber = initialContext.getCurrPageNumber() + 1;
-    return new HoldShelfClearanceContext(newPageNumber, resultListOfItems);
-  }
+  /**
+   * @return completes when the response is ready for more requests
+   */
+  private CompletableFuture<Result<Void>> writeRequestsFor(
+    MultipleRecords<String> itemIds, String servicePointId,
+    MultipleRecordFetcher<Request> requestsFetcher, ItemRepository itemRepository,
+    RequestRepresentation requestRepresentation, JsonArrayStreamWriter writer) {
 
-  private CompletableFuture<Result<List<String>>> mapContextToItemIdList(HoldShelfClearanceContext holdShelfClearanceContext) {
-    List<String> itemIds = holdShelfClearanceContext.getResultListOfItems().stream()
-      .flatMap(records -> records.value().getRecords().stream())
-      .filter(item -> StringUtils.isNoneBlank(item.getItemId()))
-      .map(Item::getItemId)
+    final List<String> nonBlankItemIds = itemIds.getRecords().stream()
+      .filter(StringUtils::isNoneBlank)
       .collect(Collectors.toList());
-    return CompletableFuture.completedFuture(Result.succeeded(itemIds));
-  }
-
-  private CompletableFuture<Result<List<List<String>>>> mapItemIdsInBatchItemIds(List<String> itemIds) {
-    return CompletableFuture.completedFuture(Result.succeeded(splitIds(itemIds)));
-  }
 
-  private List<List<String>> splitIds(List<String> itemsIds) {
-    int size = itemsIds.size();
-    if (size <= 0) {
-      return new ArrayList<>();
+    if (nonBlankItemIds.isEmpty()) {
+      return completedFuture(succeeded(null));
     }
 
-    int fullChunks = (size - 1) / BATCH_SIZE;
-    return IntStream.range(0, fullChunks + 1)
-      .mapToObj(n ->
-        itemsIds.subList(n * BATCH_SIZE, n == fullChunks
-          ? size
-          : (n + 1) * BATCH_SIZE))
-      .collect(Collectors.toList());
+    return findRequestsForItems(nonBlankItemIds, servicePointId,
+      requestsFetcher, itemRepository)
+      .thenApply(r -> r.map(requests -> requests.getRecords().stream()
+        .map(requestRepresentation::extendedRepresentation)
+        .collect(Collectors.toList())))
+      .thenCompose(r -> r.after(records -> writer.write(records)
+        .thenApply(notUsed -> succeeded(null))));
   }
 
-  private CompletableFuture<Result<List<String>>> findExpiredOrCancelledItemsIds(CollectionResourceClient client,
-                                                                                 String servicePointId,
-                                                                                 List<List<String>> batchItemIds) {
-    List<Result<MultipleRecords<Request>>> awaitingPickupRequests = findAwaitingPickupRequests(client, servicePointId, batchItemIds);
-    return CompletableFuture.completedFuture(Result.succeeded(
-      findDifferenceBetweenAvailableItemsAndExpired(batchItemIds, awaitingPickupRequests)));
-  }
+  /**
+   * Finds the requests for the report for a batch of items
+   */
+  private CompletableFuture<Result<MultipleRecords<Request>>> findRequestsForItems(
+    Collection<String> itemIds, String servicePointId,
+    MultipleRecordFetcher<Request> requestsFetcher, ItemRepository itemRepository) {
 
-  private List<Result<MultipleRecords<Request>>> findAwaitingPickupRequests(CollectionResourceClient client,
-                                                                            String servicePointId,
-                                                                            List<List<String>> batchItemIds) {
-    return batchItemIds.stream()
-      .map(batch -> {
-        final Result<CqlQuery> servicePointQuery = exactMatch(SERVICE_POINT_ID_KEY, servicePointId);
-        final Result<CqlQuery> statusQuery = exactMatch(STATUS_KEY, OPEN_AWAITING_PICKUP.getValue());
-        final Result<CqlQuery> itemIdsQuery = CqlQuery.exactMatchAny(ITEM_ID_KEY, batch);
-
-        Result<CqlQuery> cqlQueryResult = servicePointQuery
-          .combine(statusQuery, CqlQuery::and)
-          .combine(itemIdsQuery, CqlQuery::and);
-
-        return findRequestsByCqlQuery(client, cqlQueryResult);
-      })
-      .map(CompletableFuture::join)
-      .collect(Collectors.toList());
+    final List<String> itemIdList = new ArrayList<>(itemIds);
+
+    return findAwaitingPickupRequests(requestsFetcher, servicePointId, itemIdList)
+      .thenApply(r -> r.map(awaitingPickupRequests ->
+        findItemsWithoutAwaitingPickupRequest(itemIdList, awaitingPickupRequests)))
+      .thenCompose(r -> r.after(expiredItemIds ->
+        findRequestsSortedByClosedDate(requestsFetcher, servicePointId, expiredItemIds)))
+      .thenApply(r -> r.map(this::findLatestClosedRequestForEachItem))
+      .thenCompose(r -> itemRepository.fetchItemsFor(r, Request::withItem));
   }
 
-  private List<String> findDifferenceBetweenAvailableItemsAndExpired(List<List<String>> batchItemIds,
-                                                                     List<Result<MultipleRecords<Request>>> requests) {
-    List<String> awaitingPickupItemIds = requests.stream()
-      .flatMap(records -> records.value().getRecords().stream())
-      .map(Request::getItemId)
-      .collect(Collectors.toList());
+  private CompletableFuture<Result<MultipleRecords<Request>>> findAwaitingPickupRequests(
+    MultipleRecordFetcher<Request> requestsFetcher, String servicePointId,
+    List<String> itemIds) {
 
-    List<String> itemIds = batchItemIds.stream()
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    final Result<CqlQuery> servicePointQuery = exactMatch(SERVICE_POINT_ID_KEY, servicePointId);
+    final Result<CqlQuery> statusQuery = exactMatch(STATUS_KEY, OPEN_AWAITING_PICKUP.getValue());
 
-    itemIds.removeAll(awaitingPickupItemIds);
-    return itemIds;
+    return requestsFetcher.findByIndexNameAndQuery(itemIds, ITEM_ID_KEY,
+      servicePointQuery.combine(statusQuery, CqlQuery::and));
   }
 
-  private CompletableFuture<Result<List<Request>>> findExpiredOrCancelledRequestByItemIds(CollectionResourceClient client,
-                                                                                          String servicePointId, List<String> itemIds) {
-    List<Result<MultipleRecords<Request>>> requestList = findRequestsSortedByClosedDate(client, servicePointId, itemIds);
-    return CompletableFuture.completedFuture(
-      Result.succeeded(getFirstRequestFromList(requestList)));
-  }
+  private List<String> findItemsWithoutAwaitingPickupRequest(List<String> itemIds,
+                                                             MultipleRecords<Request> awaitingPickupRequests) {
+    final Set<String> awaitingPickupItemIds = awaitingPickupRequests.getRecords().stream()
+      .map(Request::getItemId)
+      .collect(Collectors.toSet());
 
-  /**
-   * Find for each item ids requests sorted by awaitingPickupRequestClosedDate
-   */
-  private List<Result<MultipleRecords<Request>>> findRequestsSortedByClosedDate(CollectionResourceClient client,
-                                                                                String servicePointId,
-                                                                                List<String> itemIds) {
     return itemIds.stream()
-      .filter(Objects::nonNull)
-      .map(itemId -> {
-        final Result<CqlQuery> servicePointQuery = exactMatch(SERVICE_POINT_ID_KEY, servicePointId);
-        final Result<CqlQuery> itemIdQuery = CqlQuery.exactMatch(ITEM_ID_KEY, itemId);
-        final Result<CqlQuery> notEmptyDateQuery = CqlQuery.greaterThan(REQUEST_CLOSED_DATE_KEY, StringUtils.EMPTY);
-        final Result<CqlQuery> statusQuery = CqlQuery.exactMatchAny(STATUS_KEY,
-          Arrays.asList(CLOSED_PICKUP_EXPIRED.getValue(), CLOSED_CANCELLED.getValue()));
-
-        Result<CqlQuery> cqlQueryResult = servicePointQuery
-          .combine(itemIdQuery, CqlQuery::and)
-          .combine(statusQuery, CqlQuery::and)
-          .combine(notEmptyDateQuery, CqlQuery::and)
-          .map(q -> q.sortBy(descending(REQUEST_CLOSED_DATE_KEY)));
-
-        return findRequestsByCqlQuery(client, cqlQueryResult);
-      }).map(CompletableFuture::join)
+      .filter(itemId -> !awaitingPickupItemIds.contains(itemId))
       .collect(Collectors.toList());
   }
 
-  private List<Request> getFirstRequestFromList(List<Result<MultipleRecords<Request>>> multipleRecordsList) {
-    return multipleRecordsList.stream()
-      .map(r -> r.value().getRecords().stream().findFirst())
-      .filter(Optional::isPresent)
-      .map(Optional::get)
-      .collect(Collectors.toList());
-  }
+  /**
+   * Find the expired or cancelled requests for all of the items at once
+   */
+  private CompletableFuture<Result<MultipleRecords<Request>>> findRequestsSortedByClosedDate(
+    MultipleRecordFetcher<Request> requestsFetcher, String servicePointId,
+    List<String> itemIds) {
 
-  private CompletableFuture<Result<MultipleRecords<Request>>> findRequestsByCqlQuery(CollectionResourceClient client,
-                                                                                     Result<CqlQuery> cqlQueryResult) {
-    return cqlQueryResult
-      .after(query -> client.getMany(query, PAGE_LIMIT))
-      .thenApply(result -> result.next(this::mapResponseToRequest));
-  }
+    final Result<CqlQuery> servicePointQuery = exactMatch(SERVICE_POINT_ID_KEY, servicePointId);
+    final Result<CqlQuery> notEmptyDateQuery = CqlQuery.greaterThan(REQUEST_CLOSED_DATE_KEY, StringUtils.EMPTY);
+    final Result<CqlQuery> statusQuery = CqlQuery.exactMatchAny(STATUS_KEY,
+      Arrays.asList(CLOSED_PICKUP_EXPIRED.getValue(), CLOSED_CANCELLED.getValue()));
 
-  private Result<List<Result<Request>>> fetchItemToRequest(Result<List<Request>> requests,
-                                                           ItemRepository itemRepository) {
-    return requests.map(r -> r.stream()
-      .map(request -> fetchItem(itemRepository, request))
-      .map(CompletableFuture::join)
-      .collect(Collectors.toList()));
+    final Result<CqlQuery> cqlQueryResult = servicePointQuery
+      .combine(statusQuery, CqlQuery::and)
+      .combine(notEmptyDateQuery, CqlQuery::and);
+
+    return requestsFetcher.findByIndexNameAndQuery(itemIds, ITEM_ID_KEY, cqlQueryResult);
   }
 
-  private Result<JsonObject> mapResultToJson(Result<List<Result<Request>>> requests) {
-    return requests
-      .map(resultList ->
-        Result.combineAll(resultList).map(r -> r.stream()
-          .map(result -> new RequestRepresentation().extendedRepresentation(result))
-          .collect(Collector.of(JsonArray::new, JsonArray::add, JsonArray::add))))
-      .next(r -> r.next(jsonArray -> Result.succeeded(new JsonObject()
-        .put(REQUESTS_KEY, jsonArray)
-        .put(TOTAL_RECORDS_KEY, jsonArray.size()))));
+  /**
+   * Only the most recently closed request for each item is included
+   */
+  private MultipleRecords<Request> findLatestClosedRequestForEachItem(
+    MultipleRecords<Request> closedRequests) {
+
+    final Map<String, Request> latestRequestByItem = closedRequests.getRecords().stream()
+      .collect(Collectors.toMap(Request::getItemId, Function.identity(),
+        (first, second) -> getClosedDate(second).isAfter(getClosedDate(first))
+          ? second
+          : first,
+        LinkedHashMap::new));
+
+    return new MultipleRecords<>(new ArrayList<>(latestRequestByItem.values()),
+      latestRequestByItem.size());
   }
 
-  private CompletableFuture<Result<Request>> fetchItem(ItemRepository itemRepository, Request request) {
-    return CompletableFuture.completedFuture(Result.succeeded(request))
-      .thenComposeAsync(result -> result.combineAfter(itemRepository::fetchFor, Request::withItem));
+  private DateTime getClosedDate(Request request) {
+    return getDateTimeProperty(request.asJson(), REQUEST_CLOSED_DATE_KEY);
   }
 
   private Result<MultipleRecords<Item>> mapResponseToItems(Response response) {
     return MultipleRecords.from(response, Item::from, ITEMS_KEY);
   }
-
-  private Result<MultipleRecords<Request>> mapResponseToRequest(Response response) {
-    return MultipleRecords.from(response, Request::from, REQUESTS_KEY);
-  }
 }
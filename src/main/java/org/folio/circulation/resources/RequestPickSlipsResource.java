@@ -0,0 +1,197 @@
+package org.folio.circulation.resources;
+
+import static java.util.Comparator.comparing;
+import static java.util.Comparator.nullsLast;
+import static java.util.function.Function.identity;
+import static org.apache.commons.collections4.ListUtils.partition;
+import static org.folio.circulation.support.Result.succeeded;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.Item;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.domain.Request;
+import org.folio.circulation.domain.RequestRepository;
+import org.folio.circulation.domain.RequestRepresentation;
+import org.folio.circulation.support.Clients;
+import org.folio.circulation.support.ItemRepository;
+import org.folio.circulation.support.JsonArrayStreamWriter;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.RouteRegistration;
+import org.folio.circulation.support.http.server.WebContext;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpClient;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+
+/**
+ * Pick slips (the paging list) for a service point: the open page requests
+ * for items whose effective location has the service point as its primary
+ * service point, in location and call number order, so they can be worked
+ * through while walking the shelves
+ *
+ * The open page requests are found a batch at a time, with the items (and
+ * their locations) for each batch fetched together, so the work depends upon
+ * the number of page requests rather than the size of the collection. Only
+ * the request ID and what is needed to sort each pick slip is kept between
+ * batches, and the requests are fetched again, a few at a time, when they
+ * are written to a chunked response
+ */
+public class RequestPickSlipsResource extends Resource {
+  private static final int BATCH_SIZE = 100;
+  private static final int RECORDS_PER_WRITE = 100;
+
+  private static final String SERVICE_POINT_ID_PARAM = "servicePointId";
+  private static final String REQUESTS_KEY = "requests";
+
+  private static final Comparator<PickSlip> SHELF_ORDER =
+    comparing((PickSlip pickSlip) -> pickSlip.locationName,
+      nullsLast(String.CASE_INSENSITIVE_ORDER))
+    .thenComparing(pickSlip -> pickSlip.callNumber,
+      nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+  private final String rootPath;
+
+  public RequestPickSlipsResource(String rootPath, HttpClient client) {
+    super(client);
+    this.rootPath = rootPath;
+  }
+
+  @Override
+  public void register(Router router) {
+    RouteRegistration routeRegistration = new RouteRegistration(rootPath, router);
+    routeRegistration.getMany(this::getMany);
+  }
+
+  private void getMany(RoutingContext routingContext) {
+    final WebContext context = new WebContext(routingContext);
+    final Clients clients = Clients.create(context, client);
+
+    final RequestRepository requestRepository = RequestRepository.using(clients);
+    final ItemRepository itemRepository = new ItemRepository(clients, true, false, false);
+
+    final String servicePointId = routingContext.request().getParam(SERVICE_POINT_ID_PARAM);
+
+    final JsonArrayStreamWriter writer = new JsonArrayStreamWriter(
+      routingContext.response(), REQUESTS_KEY);
+
+    findPickSlips(requestRepository, itemRepository, servicePointId, null,
+      new ArrayList<>())
+      .thenCompose(r -> r.after(pickSlips -> writePickSlips(pickSlips,
+        requestRepository, itemRepository, writer)))
+      .exceptionally(CommonFailures::failedDueToServerError)
+      .thenAccept(r -> {
+        if (r.succeeded()) {
+          writer.end();
+        }
+        else {
+          writer.fail(r.cause());
+        }
+      });
+  }
+
+  private CompletableFuture<Result<List<PickSlip>>> findPickSlips(
+    RequestRepository requestRepository, ItemRepository itemRepository,
+    String servicePointId, String afterRequestId, List<PickSlip> foundSoFar) {
+
+    return requestRepository.findOpenPageRequests(afterRequestId, BATCH_SIZE)
+      .thenCompose(r -> itemRepository.fetchItemsFor(r, Request::withItem))
+      .thenCompose(r -> r.after(requests -> {
+        final List<Request> batch = new ArrayList<>(requests.getRecords());
+
+        foundSoFar.addAll(toPickSlips(batch, servicePointId));
+
+        if (batch.size() < BATCH_SIZE) {
+          return CompletableFuture.completedFuture(succeeded(foundSoFar));
+        }
+
+        return findPickSlips(requestRepository, itemRepository, servicePointId,
+          batch.get(batch.size() - 1).getId(), foundSoFar);
+      }));
+  }
+
+  private List<PickSlip> toPickSlips(List<Request> requests, String servicePointId) {
+    return requests.stream()
+      .filter(request -> isPagedFrom(request.getItem(), servicePointId))
+      .map(PickSlip::new)
+      .collect(Collectors.toList());
+  }
+
+  private boolean isPagedFrom(Item item, String servicePointId) {
+    if (item == null || item.isNotFound() || item.getLocation() == null) {
+      return false;
+    }
+
+    final UUID primaryServicePointId = item.getLocation().getPrimaryServicePointId();
+
+    return primaryServicePointId != null
+      && Objects.equals(primaryServicePointId.toString(), servicePointId);
+  }
+
+  private CompletableFuture<Result<Void>> writePickSlips(List<PickSlip> pickSlips,
+    RequestRepository requestRepository, ItemRepository itemRepository,
+    JsonArrayStreamWriter writer) {
+
+    pickSlips.sort(SHELF_ORDER);
+
+    CompletableFuture<Result<Void>> written = CompletableFuture.completedFuture(
+      succeeded(null));
+
+    for (List<PickSlip> chunk : partition(pickSlips, RECORDS_PER_WRITE)) {
+      final List<String> requestIds = chunk.stream()
+        .map(pickSlip -> pickSlip.requestId)
+        .collect(Collectors.toList());
+
+      written = written.thenCompose(r -> r.after(notUsed ->
+        requestRepository.findByIds(requestIds)
+          .thenCompose(found -> itemRepository.fetchItemsFor(found, Request::withItem))
+          .thenApply(found -> found.map(requests -> toRepresentations(requestIds, requests)))
+          .thenCompose(found -> found.after(representations ->
+            writer.write(representations).thenApply(writable -> succeeded(null))))));
+    }
+
+    return written;
+  }
+
+  /**
+   * The requests are found again by ID, so need to be put back in shelf order.
+   * Any which have since been deleted are left out
+   */
+  private List<JsonObject> toRepresentations(List<String> requestIds,
+    MultipleRecords<Request> requests) {
+
+    final RequestRepresentation requestRepresentation = new RequestRepresentation();
+
+    final Map<String, Request> requestsById = requests.getRecords().stream()
+      .collect(Collectors.toMap(Request::getId, identity()));
+
+    return requestIds.stream()
+      .map(requestsById::get)
+      .filter(Objects::nonNull)
+      .map(requestRepresentation::extendedRepresentation)
+      .collect(Collectors.toList());
+  }
+
+  private static class PickSlip {
+    private final String requestId;
+    private final String locationName;
+    private final String callNumber;
+
+    private PickSlip(Request request) {
+      final Item item = request.getItem();
+
+      this.requestId = request.getId();
+      this.locationName = item.getLocation().getName();
+      this.callNumber = item.getCallNumber();
+    }
+  }
+}
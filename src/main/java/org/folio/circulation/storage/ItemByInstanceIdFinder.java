@@ -2,7 +2,6 @@ package org.folio.circulation.storage;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
 import static java.util.function.Function.identity;
-import static org.folio.circulation.support.CqlQuery.exactMatchAny;
 import static org.folio.circulation.support.JsonKeys.byId;
 import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
 
@@ -53,7 +52,7 @@ public class ItemByInstanceIdFinder {
 
       List<String> holdingsIds = holdingsRecords.toKeys(byId());
 
-      return itemRepository.findByQuery(exactMatchAny("holdingsRecordId", holdingsIds));
+      return itemRepository.findByIndexName(holdingsIds, "holdingsRecordId");
     });
   }
 }
@@ -0,0 +1,225 @@
+package org.folio.circulation.support;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Applies an asynchronous operation to many values, with no more than a
+ * limited number of the operations in progress at the same time
+ *
+ * Used when processing many records in a single request, to avoid
+ * overwhelming the storage modules with requests
+ */
+public class BoundedConcurrency {
+  private BoundedConcurrency() { }
+
+  /**
+   * Applies the operation to each value, starting the next operation as soon
+   * as one of those in progress has finished
+   *
+   * @param values to apply the operation to
+   * @param maximumConcurrency how many operations can be in progress at once
+   * @param operation to apply to each value
+   * @return the outcomes of the operations, in the same order as the values,
+   * completes exceptionally if any of the operations complete exceptionally
+   */
+  public static <T, R> CompletableFuture<List<R>> mapInOrder(
+    List<T> values,
+    int maximumConcurrency,
+    Function<T, CompletableFuture<R>> operation) {
+
+    if (maximumConcurrency < 1) {
+      throw new IllegalArgumentException("Maximum concurrency must be at least 1");
+    }
+
+    final List<CompletableFuture<R>> outcomes = new ArrayList<>();
+
+    values.forEach(value -> outcomes.add(new CompletableFuture<>()));
+
+    final AtomicInteger nextIndex = new AtomicInteger(0);
+
+    final int initialOperations = Math.min(maximumConcurrency, values.size());
+
+    for (int started = 0; started < initialOperations; started++) {
+      startNext(values, outcomes, nextIndex, operation);
+    }
+
+    return CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0]))
+      .thenApply(notUsed -> outcomes.stream()
+        .map(CompletableFuture::join)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Applies the operation to each value, passing each outcome on to the
+   * consumer in the same order as the values
+   *
+   * Unlike {@link #mapInOrder(List, int, Function)}, only a limited number of
+   * outcomes are held at any time, as the next operation is only started
+   * once the consumer has finished with the earliest outcome. This means
+   * the outcomes can be streamed somewhere without all being held in memory
+   *
+   * @param values to apply the operation to
+   * @param maximumConcurrency how many operations can be in progress at once
+   * @param operation to apply to each value
+   * @param consumer of each outcome, completes when it is ready for another
+   * @return completes when every outcome has been consumed,
+   * completes exceptionally if any of the operations or the consumer do
+   */
+  public static <T, R> CompletableFuture<Void> forEachInOrder(
+    List<T> values,
+    int maximumConcurrency,
+    Function<T, CompletableFuture<R>> operation,
+    Function<R, CompletableFuture<Void>> consumer) {
+
+    if (maximumConcurrency < 1) {
+      throw new IllegalArgumentException("Maximum concurrency must be at least 1");
+    }
+
+    final Deque<CompletableFuture<R>> inProgress = new ArrayDeque<>();
+
+    final int initialOperations = Math.min(maximumConcurrency, values.size());
+
+    for (int index = 0; index < initialOperations; index++) {
+      inProgress.add(start(values.get(index), operation));
+    }
+
+    final CompletableFuture<Void> allConsumed = new CompletableFuture<>();
+
+    consumeFrom(values, 0, maximumConcurrency, inProgress, operation,
+      consumer, allConsumed);
+
+    return allConsumed;
+  }
+
+  /**
+   * Consumes the outcomes in order, starting another operation each time one
+   * is consumed
+   *
+   * Outcomes which have already been consumed by the time they are checked
+   * (e.g. when the operations or consumer complete synchronously) are handled
+   * in a loop, rather than by nesting callbacks, so that the stack does not
+   * grow with the number of values
+   */
+  private static <T, R> void consumeFrom(
+    List<T> values,
+    int firstIndex,
+    int maximumConcurrency,
+    Deque<CompletableFuture<R>> inProgress,
+    Function<T, CompletableFuture<R>> operation,
+    Function<R, CompletableFuture<Void>> consumer,
+    CompletableFuture<Void> allConsumed) {
+
+    for (int index = firstIndex; index < values.size(); index++) {
+      final CompletableFuture<Void> consumed = inProgress.poll()
+        .thenCompose(consumer);
+
+      if (!consumed.isDone() || consumed.isCompletedExceptionally()) {
+        final int consumedIndex = index;
+
+        consumed.whenComplete((notUsed, failure) -> {
+          if (failure != null) {
+            allConsumed.completeExceptionally(failure);
+            return;
+          }
+
+          startAfterConsumed(values, consumedIndex, maximumConcurrency,
+            inProgress, operation);
+
+          consumeFrom(values, consumedIndex + 1, maximumConcurrency,
+            inProgress, operation, consumer, allConsumed);
+        });
+
+        return;
+      }
+
+      startAfterConsumed(values, index, maximumConcurrency, inProgress,
+        operation);
+    }
+
+    allConsumed.complete(null);
+  }
+
+  private static <T, R> void startAfterConsumed(
+    List<T> values,
+    int consumedIndex,
+    int maximumConcurrency,
+    Deque<CompletableFuture<R>> inProgress,
+    Function<T, CompletableFuture<R>> operation) {
+
+    final int nextIndex = consumedIndex + maximumConcurrency;
+
+    if (nextIndex < values.size()) {
+      inProgress.add(start(values.get(nextIndex), operation));
+    }
+  }
+
+  private static <T, R> CompletableFuture<R> start(
+    T value,
+    Function<T, CompletableFuture<R>> operation) {
+
+    try {
+      return operation.apply(value);
+    }
+    catch (Exception e) {
+      final CompletableFuture<R> failed = new CompletableFuture<>();
+      failed.completeExceptionally(e);
+      return failed;
+    }
+  }
+
+  /**
+   * Starts operations until one does not complete straight away, continuing
+   * once it has completed
+   *
+   * Operations which complete synchronously (e.g. failing validation) are
+   * handled in a loop, rather than by nesting callbacks, so that the stack
+   * does not grow with the number of values
+   */
+  private static <T, R> void startNext(
+    List<T> values,
+    List<CompletableFuture<R>> outcomes,
+    AtomicInteger nextIndex,
+    Function<T, CompletableFuture<R>> operation) {
+
+    int index = nextIndex.getAndIncrement();
+
+    while (index < values.size()) {
+      final CompletableFuture<R> outcome = outcomes.get(index);
+      final CompletableFuture<R> started = start(values.get(index), operation);
+
+      if (!started.isDone()) {
+        started.whenComplete((result, failure) -> {
+          complete(outcome, result, failure);
+
+          startNext(values, outcomes, nextIndex, operation);
+        });
+
+        return;
+      }
+
+      started.whenComplete((result, failure) -> complete(outcome, result, failure));
+
+      index = nextIndex.getAndIncrement();
+    }
+  }
+
+  private static <R> void complete(
+    CompletableFuture<R> outcome,
+    R result,
+    Throwable failure) {
+
+    if (failure != null) {
+      outcome.completeExceptionally(failure);
+    }
+    else {
+      outcome.complete(result);
+    }
+  }
+}
@@ -0,0 +1,137 @@
+package org.folio.circulation.support;
+
+import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Writes records as a chunked JSON response, so that records can be written
+ * as soon as they are available, rather than the whole response being built
+ * in memory first. Sub-classes only define how the records are framed
+ *
+ * The response is only started when the first records are written, so a
+ * failure before that can still be written as a normal failure response.
+ * Once the response has been started, a failure can only be signalled by
+ * closing the connection without completing the response
+ */
+public abstract class ChunkedJsonStreamWriter {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final HttpServerResponse response;
+  private final String contentType;
+  private boolean started = false;
+  private int recordsWritten = 0;
+
+  protected ChunkedJsonStreamWriter(HttpServerResponse response,
+    String contentType) {
+
+    this.response = response;
+    this.contentType = contentType;
+  }
+
+  /**
+   * Writes the records to the response
+   *
+   * @return completes when the response is ready to accept more records,
+   * so that records are not produced faster than the client can receive them
+   */
+  public synchronized CompletableFuture<Void> write(Collection<JsonObject> records) {
+    start();
+
+    final StringBuilder chunk = new StringBuilder();
+
+    for (JsonObject record : records) {
+      chunk.append(frame(record, recordsWritten));
+      recordsWritten++;
+    }
+
+    response.write(Buffer.buffer(chunk.toString(), "UTF-8"));
+
+    return whenWritable();
+  }
+
+  public synchronized void fail(HttpFailure failure) {
+    if (!started) {
+      failure.writeTo(response);
+      return;
+    }
+
+    log.error("Failed after {} records were written: {}", recordsWritten, failure);
+
+    response.close();
+  }
+
+  public synchronized int getRecordsWritten() {
+    return recordsWritten;
+  }
+
+  /**
+   * @return what is written before any records
+   */
+  protected abstract String opening();
+
+  /**
+   * @param record to write
+   * @param recordsAlreadyWritten number of records written before this one
+   * @return the record as it is written to the response
+   */
+  protected abstract String frame(JsonObject record, int recordsAlreadyWritten);
+
+  /**
+   * Completes the response
+   *
+   * @param ending what is written after all of the records
+   */
+  protected synchronized void endWith(String ending) {
+    start();
+
+    response.end(Buffer.buffer(ending, "UTF-8"));
+  }
+
+  private void start() {
+    if (started) {
+      return;
+    }
+
+    started = true;
+
+    response.setStatusCode(200);
+    response.putHeader("content-type", contentType);
+    response.setChunked(true);
+
+    final String opening = opening();
+
+    if (!opening.isEmpty()) {
+      response.write(Buffer.buffer(opening, "UTF-8"));
+    }
+  }
+
+  private CompletableFuture<Void> whenWritable() {
+    final CompletableFuture<Void> writable = new CompletableFuture<>();
+
+    if (!response.writeQueueFull()) {
+      writable.complete(null);
+      return writable;
+    }
+
+    response.drainHandler(notUsed -> writable.complete(null));
+    response.exceptionHandler(writable::completeExceptionally);
+    response.closeHandler(notUsed -> writable.completeExceptionally(
+      new IllegalStateException(String.format(
+        "Response closed after %d records were written", recordsWritten))));
+
+    //The queue may have drained before the drain handler was registered
+    if (!response.writeQueueFull()) {
+      writable.complete(null);
+    }
+
+    return writable;
+  }
+}
@@ -9,6 +9,7 @@ import io.vertx.core.http.HttpClient;
 
 public class Clients {
   private final CollectionResourceClient requestsStorageClient;
+  private final CollectionResourceClient requestsBatchStorageClient;
   private final CollectionResourceClient cancellationReasonStorageClient;
   private final CollectionResourceClient itemsStorageClient;
   private final CollectionResourceClient holdingsStorageClient;
@@ -37,14 +38,18 @@ public class Clients {
   private final CollectionResourceClient configurationStorageClient;
   private final CollectionResourceClient scheduledNoticesStorageClient;
   private final CollectionResourceClient accountsStorageClient;
+  private final String currentUserId;
 
   public static Clients create(WebContext context, HttpClient httpClient) {
     return new Clients(context.createHttpClient(httpClient), context);
   }
 
   private Clients(OkapiHttpClient client, WebContext context) {
+    currentUserId = context.getUserId();
+
     try {
       requestsStorageClient = createRequestsStorageClient(client, context);
+      requestsBatchStorageClient = createRequestsBatchStorageClient(client, context);
       cancellationReasonStorageClient = createCancellationReasonStorageClient(client, context);
       itemsStorageClient = createItemsStorageClient(client, context);
       holdingsStorageClient = createHoldingsStorageClient(client, context);
@@ -79,10 +84,21 @@ public class Clients {
     }
   }
 
+  /**
+   * @return ID of the user making the request that these clients are used for
+   */
+  public String currentUserId() {
+    return currentUserId;
+  }
+
   public CollectionResourceClient requestsStorage() {
     return requestsStorageClient;
   }
 
+  public CollectionResourceClient requestsBatchStorage() {
+    return requestsBatchStorageClient;
+  }
+
   public CollectionResourceClient cancellationReasonStorage() {
     return cancellationReasonStorageClient;
   }
@@ -234,6 +250,14 @@ public class Clients {
     return getCollectionResourceClient(client, context, "/request-storage/requests");
   }
 
+  private static CollectionResourceClient createRequestsBatchStorageClient(
+    OkapiHttpClient client,
+    WebContext context)
+    throws MalformedURLException {
+
+    return getCollectionResourceClient(client, context, "/request-storage-batch/requests");
+  }
+
   private static CollectionResourceClient createCancellationReasonStorageClient(
     OkapiHttpClient client,
     WebContext context)
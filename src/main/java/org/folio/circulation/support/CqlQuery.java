@@ -52,6 +52,18 @@ public class CqlQuery {
     return Result.of(() -> new CqlQuery(format("%s<\"%s\"", index, value), none()));
   }
 
+  public static Result<CqlQuery> allRecords() {
+    return Result.of(() -> new CqlQuery("cql.allRecords=1", none()));
+  }
+
+  /**
+   * Uses a query provided by a client, in parentheses, so that combining it
+   * with other queries cannot change what it matches
+   */
+  public static Result<CqlQuery> fromText(String query) {
+    return Result.of(() -> new CqlQuery(format("(%s)", query), none()));
+  }
+
   private static List<String> filterNullValues(Collection<String> values) {
     return values.stream()
       .filter(Objects::nonNull)
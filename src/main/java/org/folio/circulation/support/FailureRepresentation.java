@@ -0,0 +1,67 @@
+package org.folio.circulation.support;
+
+import static org.folio.circulation.support.JsonPropertyWriter.write;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.support.http.client.Response;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Represents a failure as JSON, for operations that report the outcome of
+ * many records within a single response, rather than writing the failure
+ * as the whole response
+ *
+ * Always has an errors array, in the same form as validation errors
+ */
+public class FailureRepresentation {
+  private FailureRepresentation() { }
+
+  public static JsonObject asJson(HttpFailure failure) {
+    if(failure instanceof ValidationErrorFailure) {
+      return ((ValidationErrorFailure) failure).asJson();
+    }
+    else if(failure instanceof ForwardOnFailure) {
+      return forwardedFailure(((ForwardOnFailure) failure).getFailureResponse());
+    }
+    else if(failure instanceof ServerErrorFailure) {
+      return singleError(((ServerErrorFailure) failure).getReason());
+    }
+    else if(failure instanceof BadRequestFailure) {
+      return singleError(((BadRequestFailure) failure).getReason());
+    }
+    else {
+      return singleError(String.valueOf(failure));
+    }
+  }
+
+  private static JsonObject forwardedFailure(Response response) {
+    if(response.getStatusCode() == 422) {
+      try {
+        final JsonObject body = response.getJson();
+
+        if(body.containsKey("errors")) {
+          return new JsonObject().put("errors", body.getJsonArray("errors"));
+        }
+      }
+      catch(DecodeException e) {
+        //Fall back to including the body as the message
+      }
+    }
+
+    return singleError(String.format("%s (status code: %s)",
+      StringUtils.defaultIfBlank(response.getBody(), "Unknown failure"),
+      response.getStatusCode()));
+  }
+
+  private static JsonObject singleError(String message) {
+    final JsonObject error = new JsonObject();
+
+    write(error, "message", message);
+    error.put("parameters", new JsonArray());
+
+    return new JsonObject().put("errors", new JsonArray().add(error));
+  }
+}
@@ -10,8 +10,10 @@ import static org.folio.circulation.support.ResultBinding.mapResult;
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -140,6 +142,42 @@ public class ItemRepository {
       .thenComposeAsync(this::fetchItemRelatedRecords);
   }
 
+  /**
+   * Fetches many items by barcode, using batched queries for the items
+   * and each kind of related record
+   *
+   * @param barcodes the barcodes of the items to fetch
+   * @return the items found, items which cannot be found are not included
+   */
+  public CompletableFuture<Result<Collection<Item>>> fetchByBarcodes(
+    Collection<String> barcodes) {
+
+    final MultipleRecordFetcher<Item> fetcher
+      = new MultipleRecordFetcher<>(itemsClient, ITEMS_COLLECTION_PROPERTY_NAME, Item::from);
+
+    return fetcher.findByIndexName(barcodes, "barcode")
+      .thenApply(mapResult(MultipleRecords::getRecords))
+      .thenComposeAsync(this::fetchHoldingRecords)
+      .thenComposeAsync(this::fetchInstances)
+      .thenComposeAsync(this::fetchLocations)
+      .thenComposeAsync(this::fetchPrimaryServicePoints)
+      .thenComposeAsync(this::fetchMaterialTypes)
+      .thenComposeAsync(this::fetchLoanTypes);
+  }
+
+  /**
+   * Fetches many items by ID, using batched queries for the items
+   * and each kind of related record
+   *
+   * @param itemIds the IDs of the items to fetch
+   * @return the items found, items which cannot be found are not included
+   */
+  public CompletableFuture<Result<Collection<Item>>> fetchByIds(
+    Collection<String> itemIds) {
+
+    return fetchFor(itemIds);
+  }
+
   public CompletableFuture<Result<Item>> fetchById(String itemId) {
     return fetchItem(itemId)
       .thenComposeAsync(this::fetchItemRelatedRecords);
@@ -161,6 +199,71 @@ public class ItemRepository {
     }
   }
 
+  private CompletableFuture<Result<Collection<Item>>> fetchPrimaryServicePoints(
+    Result<Collection<Item>> result) {
+
+    if(!fetchLocation) {
+      return completedFuture(result);
+    }
+
+    return result.after(items -> {
+      final List<String> servicePointIds = items.stream()
+        .map(Item::getLocation)
+        .filter(Objects::nonNull)
+        .map(Location::getPrimaryServicePointId)
+        .filter(Objects::nonNull)
+        .map(UUID::toString)
+        .distinct()
+        .collect(Collectors.toList());
+
+      return servicePointRepository.findServicePointsByIds(servicePointIds)
+        .thenApply(r -> r.map(servicePoints -> servicePoints.toMap(ServicePoint::getId)))
+        .thenApply(r -> r.map(servicePoints -> items.stream()
+          .map(item -> item.withPrimaryServicePoint(
+            primaryServicePointFor(item, servicePoints)))
+          .collect(Collectors.toList())));
+    });
+  }
+
+  private static ServicePoint primaryServicePointFor(
+    Item item, Map<String, ServicePoint> servicePoints) {
+
+    final Location location = item.getLocation();
+
+    if(isNull(location) || isNull(location.getPrimaryServicePointId())) {
+      return null;
+    }
+
+    return servicePoints.getOrDefault(
+      location.getPrimaryServicePointId().toString(), null);
+  }
+
+  private CompletableFuture<Result<Collection<Item>>> fetchLoanTypes(
+    Result<Collection<Item>> result) {
+
+    if(!fetchLoanType) {
+      return completedFuture(result);
+    }
+
+    return result.after(items -> {
+      final List<String> loanTypeIds = items.stream()
+        .map(Item::determineLoanTypeForItem)
+        .filter(Objects::nonNull)
+        .distinct()
+        .collect(Collectors.toList());
+
+      final MultipleRecordFetcher<JsonObject> fetcher
+        = new MultipleRecordFetcher<>(loanTypesClient, "loantypes", identity());
+
+      return fetcher.findByIds(loanTypeIds)
+        .thenApply(r -> r.map(loanTypes -> loanTypes.toMap(loanType -> loanType.getString("id"))))
+        .thenApply(r -> r.map(loanTypes -> items.stream()
+          .map(item -> item.withLoanType(
+            loanTypes.getOrDefault(item.determineLoanTypeForItem(), null)))
+          .collect(Collectors.toList())));
+    });
+  }
+
   private CompletableFuture<Result<Collection<Item>>> fetchMaterialTypes(
     Result<Collection<Item>> result) {
 
@@ -304,11 +407,17 @@ public class ItemRepository {
         records.getTotalRecords()));
   }
 
-  public CompletableFuture<Result<Collection<Item>>> findByQuery(Result<CqlQuery> queryResult) {
+  /**
+   * Finds every item with any of the values for an index, e.g. all of the
+   * items for many holdings records, using as many batches as needed
+   */
+  public CompletableFuture<Result<Collection<Item>>> findByIndexName(
+    Collection<String> values, String indexName) {
+
     MultipleRecordFetcher<Item> fetcher
       = new MultipleRecordFetcher<>(itemsClient, ITEMS_COLLECTION_PROPERTY_NAME , Item::from);
 
-    return fetcher.findByQuery(queryResult)
+    return fetcher.findByIndexName(values, indexName)
       .thenApply(mapResult(MultipleRecords::getRecords))
       .thenComposeAsync(this::fetchHoldingRecords)
       .thenComposeAsync(this::fetchInstances)
@@ -0,0 +1,70 @@
+package org.folio.circulation.support;
+
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Writes a collection of records as a chunked JSON response, in the same
+ * shape as other collection responses (an array of records and a count of
+ * total records)
+ */
+public class JsonArrayStreamWriter extends ChunkedJsonStreamWriter {
+  private final String recordsPropertyName;
+
+  public JsonArrayStreamWriter(HttpServerResponse response,
+    String recordsPropertyName) {
+
+    super(response, "application/json; charset=utf-8");
+
+    this.recordsPropertyName = recordsPropertyName;
+  }
+
+  public synchronized void end() {
+    end(getRecordsWritten());
+  }
+
+  /**
+   * Completes the response, for when the records written are only a page
+   * of a larger set of records
+   *
+   * @param totalRecords the total number of records, including those
+   * which were not written
+   */
+  public synchronized void end(int totalRecords) {
+    end(totalRecords, new JsonObject());
+  }
+
+  /**
+   * Completes the response, including properties of the collection
+   * other than the records and the total number of records
+   *
+   * @param totalRecords the total number of records, including those
+   * which were not written
+   * @param additionalProperties properties to include after the total
+   */
+  public synchronized void end(int totalRecords, JsonObject additionalProperties) {
+    final StringBuilder ending = new StringBuilder(
+      String.format("],\"totalRecords\":%d", totalRecords));
+
+    additionalProperties.forEach(property -> ending
+      .append(",")
+      .append(Json.encode(property.getKey()))
+      .append(":")
+      .append(Json.encode(property.getValue())));
+
+    endWith(ending.append("}").toString());
+  }
+
+  @Override
+  protected String opening() {
+    return String.format("{\"%s\":[", recordsPropertyName);
+  }
+
+  @Override
+  protected String frame(JsonObject record, int recordsAlreadyWritten) {
+    final String separator = recordsAlreadyWritten > 0 ? "," : "";
+
+    return separator + record.encode();
+  }
+}
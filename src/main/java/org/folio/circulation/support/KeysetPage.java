@@ -0,0 +1,192 @@
+package org.folio.circulation.support;
+
+import static org.folio.circulation.support.CqlSortBy.ascending;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.domain.MultipleRecords;
+
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A page of records found by a range of IDs, starting after the last record
+ * of the previous page, rather than by an offset, so that finding a page costs
+ * the same however far into the records it is
+ *
+ * The cursor is opaque to clients, they provide an empty cursor for the first
+ * page and then the next cursor from the previous page
+ */
+public class KeysetPage {
+  public static final String CURSOR_PARAMETER = "cursor";
+  private static final String NEXT_CURSOR_PROPERTY = "nextCursor";
+
+  private static final String QUERY_PARAMETER = "query";
+  private static final String LIMIT_PARAMETER = "limit";
+  private static final String OFFSET_PARAMETER = "offset";
+
+  private static final String SORT_INDEX = "id";
+  private static final int DEFAULT_PAGE_LIMIT = 10;
+  private static final Pattern ID_PATTERN = Pattern.compile("^[a-fA-F0-9-]+$");
+  private static final Pattern QUOTED_TERM_PATTERN = Pattern.compile("\"(?:[^\"\\\\]|\\\\.)*\"");
+  private static final Pattern SORT_BY_PATTERN = Pattern.compile("(?i)(^|[\\s)])sortBy(\\s|$)");
+
+  private final String query;
+  private final String afterId;
+  private final int limit;
+
+  private KeysetPage(String query, String afterId, int limit) {
+    this.query = query;
+    this.afterId = afterId;
+    this.limit = limit;
+  }
+
+  public static boolean isRequested(HttpServerRequest request) {
+    return request.getParam(CURSOR_PARAMETER) != null;
+  }
+
+  public static Result<KeysetPage> from(HttpServerRequest request) {
+    final String cursor = request.getParam(CURSOR_PARAMETER);
+    final String query = request.getParam(QUERY_PARAMETER);
+    final String offset = request.getParam(OFFSET_PARAMETER);
+
+    if (offset != null) {
+      return failedValidation("Cannot use an offset when finding a page by cursor",
+        OFFSET_PARAMETER, offset);
+    }
+
+    return PagingParameter.getLimit(request, LIMIT_PARAMETER, DEFAULT_PAGE_LIMIT, 1)
+      .next(limit -> fromCursor(cursor, query, limit));
+  }
+
+  private static Result<KeysetPage> fromCursor(String cursor, String query,
+    int limit) {
+
+    if (StringUtils.isBlank(cursor)) {
+      return firstPage(query, limit);
+    }
+
+    final String afterId = decode(cursor);
+
+    //The ID is included in the query, so must only be an ID
+    if (afterId == null || !ID_PATTERN.matcher(afterId).matches()) {
+      return failedValidation("Cursor is not valid", CURSOR_PARAMETER, cursor);
+    }
+
+    return firstPage(query, limit)
+      .map(firstPage -> firstPage.nextPage(afterId));
+  }
+
+  /**
+   * @param query to find the records with, cannot define a sort order
+   * @param limit maximum number of records in a page
+   * @return the first page of records matching the query
+   */
+  public static Result<KeysetPage> firstPage(String query, int limit) {
+    if (definesSortOrder(query)) {
+      return failedValidation(
+        "Cannot use a query which defines a sort order when finding a page by cursor",
+        QUERY_PARAMETER, query);
+    }
+
+    return succeeded(new KeysetPage(query, null, limit));
+  }
+
+  //Ignores quoted terms, which may contain sortBy without it being a clause
+  private static boolean definesSortOrder(String query) {
+    if (StringUtils.isBlank(query)) {
+      return false;
+    }
+
+    final String unquotedQuery = QUOTED_TERM_PATTERN.matcher(query).replaceAll("\"\"");
+
+    return SORT_BY_PATTERN.matcher(unquotedQuery).find();
+  }
+
+  /**
+   * @param lastId ID of the last record in this page
+   * @return the page which follows this one
+   */
+  public KeysetPage nextPage(String lastId) {
+    return new KeysetPage(query, lastId, limit);
+  }
+
+  /**
+   * A page which is not full is the last page, as otherwise there
+   * would have been more records to fill it with
+   */
+  public <T> boolean isLastPage(MultipleRecords<T> page) {
+    return page.getRecords().size() < limit;
+  }
+
+  /**
+   * @return the query for the page, in ID order, starting after the
+   * last record of the previous page
+   */
+  public Result<CqlQuery> toCqlQuery() {
+    final Result<CqlQuery> afterPreviousPage = afterId == null
+      ? CqlQuery.allRecords()
+      : CqlQuery.greaterThan(SORT_INDEX, afterId);
+
+    final Result<CqlQuery> pageQuery = StringUtils.isBlank(query)
+      ? afterPreviousPage
+      : CqlQuery.fromText(query).combine(afterPreviousPage, CqlQuery::and);
+
+    return pageQuery.map(q -> q.sortBy(ascending(SORT_INDEX)));
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * The properties to add to the collection response for the page, a next
+   * cursor is only included when the page is full, as otherwise there cannot
+   * be any more records
+   *
+   * @param page the records found for the page
+   * @param getId gets the ID of a record
+   */
+  public <T> JsonObject pageProperties(MultipleRecords<T> page,
+    Function<T, String> getId) {
+
+    final JsonObject properties = new JsonObject();
+
+    if (!isLastPage(page)) {
+      properties.put(NEXT_CURSOR_PROPERTY, encode(lastId(page, getId)));
+    }
+
+    return properties;
+  }
+
+  public static <T> String lastId(MultipleRecords<T> page,
+    Function<T, String> getId) {
+
+    final List<T> records = new ArrayList<>(page.getRecords());
+
+    return getId.apply(records.get(records.size() - 1));
+  }
+
+  private static String encode(String id) {
+    return Base64.getUrlEncoder().withoutPadding()
+      .encodeToString(id.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static String decode(String cursor) {
+    try {
+      return new String(Base64.getUrlDecoder().decode(cursor),
+        StandardCharsets.UTF_8);
+    }
+    catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+}
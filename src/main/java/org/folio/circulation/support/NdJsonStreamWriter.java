@@ -0,0 +1,28 @@
+package org.folio.circulation.support;
+
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Writes records as a chunked newline delimited JSON response (one record
+ * per line), so that clients can process each record as soon as it is received
+ */
+public class NdJsonStreamWriter extends ChunkedJsonStreamWriter {
+  public NdJsonStreamWriter(HttpServerResponse response) {
+    super(response, "application/x-ndjson; charset=utf-8");
+  }
+
+  public synchronized void end() {
+    endWith("");
+  }
+
+  @Override
+  protected String opening() {
+    return "";
+  }
+
+  @Override
+  protected String frame(JsonObject record, int recordsAlreadyWritten) {
+    return record.encode() + "\n";
+  }
+}
@@ -0,0 +1,64 @@
+package org.folio.circulation.support;
+
+import static org.folio.circulation.support.Result.succeeded;
+import static org.folio.circulation.support.ValidationErrorFailure.failedValidation;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.vertx.core.http.HttpServerRequest;
+
+/**
+ * Reads a limit or offset from the query string of a request
+ */
+public final class PagingParameter {
+  public static final int MAXIMUM_LIMIT = 1000;
+
+  private PagingParameter() {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * @return the value of the parameter, the default value when it is not
+   * provided, or a validation failure when it is not a whole number from
+   * the minimum to the maximum (inclusive)
+   */
+  public static Result<Integer> getPagingParameter(HttpServerRequest request,
+    String name, int defaultValue, int minimum, int maximum) {
+
+    final String value = request.getParam(name);
+
+    if (value == null) {
+      return succeeded(defaultValue);
+    }
+
+    final String message = String.format("%s must be a number from %d to %d",
+      StringUtils.capitalize(name), minimum, maximum);
+
+    //A value no longer than the maximum always fits in a long, even when
+    //it is too large for an int, so is parsed as a long before the range check
+    if (!StringUtils.isNumeric(value)
+      || value.length() > String.valueOf(maximum).length()) {
+
+      return failedValidation(message, name, value);
+    }
+
+    final long parsedValue = Long.parseLong(value);
+
+    if (parsedValue < minimum || parsedValue > maximum) {
+      return failedValidation(message, name, value);
+    }
+
+    return succeeded((int) parsedValue);
+  }
+
+  /**
+   * @return the limit of the request, which is at most
+   * {@value #MAXIMUM_LIMIT}
+   */
+  public static Result<Integer> getLimit(HttpServerRequest request,
+    String name, int defaultValue, int minimum) {
+
+    return getPagingParameter(request, name, defaultValue, minimum,
+      MAXIMUM_LIMIT);
+  }
+}
@@ -49,6 +49,15 @@ public class RouteRegistration {
       .failureHandler(this::failureResponder);
   }
 
+  /**
+   * Registers a POST handler which reads the request body itself (e.g. to
+   * process it as it arrives), rather than it being read into memory first
+   */
+  public void createStreaming(Handler<RoutingContext> handler) {
+    router.post(rootPath).handler(handler)
+      .failureHandler(this::failureResponder);
+  }
+
   private void failureResponder(RoutingContext context) {
     Throwable failure = context.failure();
 
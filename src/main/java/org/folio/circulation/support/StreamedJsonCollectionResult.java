@@ -0,0 +1,186 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.apache.commons.collections4.ListUtils.partition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.math.NumberUtils;
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.results.CommonFailures;
+
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A page of records which is written as a chunked JSON collection response
+ *
+ * The related records are found for a batch of records at a time, and each
+ * batch is written as soon as it (and all of the batches before it) are ready,
+ * so that only the batches in progress are held in memory with their related
+ * records, rather than the whole page
+ *
+ * @param <T> type of record in the collection
+ * @param <R> type of record written to the response for each batch
+ */
+public class StreamedJsonCollectionResult<T, R>
+  implements ResponseWritableResult<MultipleRecords<T>> {
+
+  private static final int LARGE_PAGE_SIZE = 500;
+  private static final int BATCH_SIZE = 100;
+  private static final int MAXIMUM_CONCURRENT_BATCHES = 2;
+
+  private final MultipleRecords<T> records;
+  private final String recordsPropertyName;
+  private final Function<MultipleRecords<T>, CompletableFuture<Result<MultipleRecords<R>>>> findRelatedRecords;
+  private final Function<R, JsonObject> mapper;
+  private final JsonObject additionalProperties;
+
+  private StreamedJsonCollectionResult(
+    MultipleRecords<T> records,
+    String recordsPropertyName,
+    Function<MultipleRecords<T>, CompletableFuture<Result<MultipleRecords<R>>>> findRelatedRecords,
+    Function<R, JsonObject> mapper,
+    JsonObject additionalProperties) {
+
+    this.records = records;
+    this.recordsPropertyName = recordsPropertyName;
+    this.findRelatedRecords = findRelatedRecords;
+    this.mapper = mapper;
+    this.additionalProperties = additionalProperties;
+  }
+
+  /**
+   * Whether a page of records is large enough that it should be streamed,
+   * rather than written as a single JSON object
+   *
+   * @param limit the (unparsed) maximum number of records requested for the page
+   */
+  public static boolean isLargePage(String limit) {
+    return NumberUtils.toInt(limit, 0) > LARGE_PAGE_SIZE;
+  }
+
+  /**
+   * @param result the page of records, without their related records
+   * (when there is no total, the number of records written is used instead)
+   * @param recordsPropertyName name of the array property for the records
+   * @param findRelatedRecords finds the related records for a batch of records
+   * @param mapper maps a record (with its related records) to JSON
+   */
+  public static <T, R> ResponseWritableResult<MultipleRecords<T>> from(
+    Result<MultipleRecords<T>> result,
+    String recordsPropertyName,
+    Function<MultipleRecords<T>, CompletableFuture<Result<MultipleRecords<R>>>> findRelatedRecords,
+    Function<R, JsonObject> mapper) {
+
+    return from(result, recordsPropertyName, findRelatedRecords, mapper,
+      records -> new JsonObject());
+  }
+
+  /**
+   * @param result the page of records, without their related records
+   * @param recordsPropertyName name of the array property for the records
+   * @param findRelatedRecords finds the related records for a batch of records
+   * @param mapper maps a record (with its related records) to JSON
+   * @param additionalProperties properties of the collection (other than the
+   * records and total records) derived from the page of records
+   */
+  public static <T, R> ResponseWritableResult<MultipleRecords<T>> from(
+    Result<MultipleRecords<T>> result,
+    String recordsPropertyName,
+    Function<MultipleRecords<T>, CompletableFuture<Result<MultipleRecords<R>>>> findRelatedRecords,
+    Function<R, JsonObject> mapper,
+    Function<MultipleRecords<T>, JsonObject> additionalProperties) {
+
+    if(result.failed()) {
+      return Result.failed(result.cause());
+    }
+    else {
+      return new StreamedJsonCollectionResult<>(result.value(),
+        recordsPropertyName, findRelatedRecords, mapper,
+        additionalProperties.apply(result.value()));
+    }
+  }
+
+  @Override
+  public boolean failed() {
+    return false;
+  }
+
+  @Override
+  public MultipleRecords<T> value() {
+    return records;
+  }
+
+  @Override
+  public HttpFailure cause() {
+    return null;
+  }
+
+  @Override
+  public void writeTo(HttpServerResponse response) {
+    final JsonArrayStreamWriter writer = new JsonArrayStreamWriter(response,
+      recordsPropertyName);
+
+    final AtomicReference<HttpFailure> failure = new AtomicReference<>();
+
+    final List<List<T>> batches = partition(new ArrayList<>(records.getRecords()),
+      BATCH_SIZE);
+
+    BoundedConcurrency.forEachInOrder(batches, MAXIMUM_CONCURRENT_BATCHES,
+      batch -> findRelatedRecordsForBatch(batch, failure),
+      batch -> writeBatch(batch, writer, failure))
+      .thenApply(notUsed -> failure.get())
+      .exceptionally(e -> new ServerErrorFailure(e))
+      .thenAccept(batchFailure -> {
+        if (batchFailure == null) {
+          writer.end(getTotalRecords(writer), additionalProperties);
+        }
+        else {
+          writer.fail(batchFailure);
+        }
+      });
+  }
+
+  private int getTotalRecords(JsonArrayStreamWriter writer) {
+    final Integer totalRecords = records.getTotalRecords();
+
+    return totalRecords == null
+      ? writer.getRecordsWritten()
+      : totalRecords;
+  }
+
+  private CompletableFuture<Result<List<JsonObject>>> findRelatedRecordsForBatch(
+    List<T> batch, AtomicReference<HttpFailure> failure) {
+
+    //No point finding related records for any more batches once the response has failed
+    if (failure.get() != null) {
+      return completedFuture(Result.failed(failure.get()));
+    }
+
+    return findRelatedRecords.apply(new MultipleRecords<>(batch, batch.size()))
+      .thenApply(r -> r.map(found -> found.getRecords().stream()
+        .map(mapper)
+        .collect(Collectors.toList())))
+      .exceptionally(CommonFailures::failedDueToServerError);
+  }
+
+  private CompletableFuture<Void> writeBatch(Result<List<JsonObject>> batch,
+    JsonArrayStreamWriter writer, AtomicReference<HttpFailure> failure) {
+
+    if (batch.failed()) {
+      failure.compareAndSet(null, batch.cause());
+    }
+
+    if (failure.get() != null) {
+      return completedFuture(null);
+    }
+
+    return writer.write(batch.value());
+  }
+}
@@ -69,7 +69,7 @@ public class ValidationErrorFailure implements HttpFailure {
     new JsonResponseResult(422, jsonErrors, null).writeTo(response);
   }
 
-  private JsonObject asJson() {
+  JsonObject asJson() {
     JsonArray mappedErrors = new JsonArray(
       errors.stream()
       .map(ValidationError::toJson)
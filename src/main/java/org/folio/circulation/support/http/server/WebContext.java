@@ -8,7 +8,11 @@ import static org.folio.circulation.support.http.OkapiHeader.USER_ID;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
+import org.apache.commons.lang3.StringUtils;
 import org.folio.circulation.support.InvalidOkapiLocationException;
 import org.folio.circulation.support.http.client.OkapiHttpClient;
 
@@ -66,6 +70,27 @@ public class WebContext {
     return value != null ? value : defaultValue;
   }
 
+  /**
+   * The raw query string of the request, without the parameters which are
+   * only understood by this module, so that it can be passed on to storage
+   *
+   * @param names of the parameters to leave out
+   * @return the remaining parameters, still encoded as they were received
+   */
+  public String getQueryStringWithout(String... names) {
+    final String query = routingContext.request().query();
+
+    if (StringUtils.isBlank(query)) {
+      return query;
+    }
+
+    final List<String> excluded = Arrays.asList(names);
+
+    return Arrays.stream(query.split("&"))
+      .filter(parameter -> !excluded.contains(StringUtils.substringBefore(parameter, "=")))
+      .collect(Collectors.joining("&"));
+  }
+
   public URL getOkapiBasedUrl(String path)
     throws MalformedURLException {
 
@@ -0,0 +1,167 @@
+package api;
+
+import static api.support.http.InterfaceUrls.patronSummaryUrl;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.support.JsonArrayHelper;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.http.client.ResponseHandler;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import api.support.builders.AccountBuilder;
+import io.vertx.core.json.JsonObject;
+
+public class PatronSummaryAPITests extends APITests {
+  @Test
+  public void summaryIncludesOpenLoansRequestsAndAccountsForPatron()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+    final IndividualResource jessica = usersFixture.jessica();
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource temeraire = itemsFixture.basedUponTemeraire();
+
+    final IndividualResource loan = loansFixture.checkOutByBarcode(
+      smallAngryPlanet, steve);
+
+    loansFixture.checkOutByBarcode(nod, jessica);
+    loansFixture.checkOutByBarcode(temeraire, jessica);
+    loansFixture.checkInByBarcode(temeraire);
+
+    final IndividualResource request = requestsFixture.placeHoldShelfRequest(
+      nod, steve, DateTime.now(DateTimeZone.UTC));
+
+    requestsFixture.placeHoldShelfRequest(smallAngryPlanet, jessica,
+      DateTime.now(DateTimeZone.UTC));
+
+    accountsClient.create(new AccountBuilder()
+      .forUser(steve)
+      .withLoan(loan)
+      .feeFineStatusOpen()
+      .withRemainingFeeFine(25));
+
+    accountsClient.create(new AccountBuilder()
+      .forUser(steve)
+      .withLoan(loan)
+      .feeFineStatusClosed()
+      .withRemainingFeeFine(0));
+
+    final Response response = getSummary(steve, "");
+
+    assertThat(response.getStatusCode(), is(200));
+
+    final JsonObject summary = response.getJson();
+
+    assertThat(summary.getString("userId"), is(steve.getId().toString()));
+
+    final JsonObject openLoans = summary.getJsonObject("openLoans");
+    final List<JsonObject> loans = JsonArrayHelper.toList(
+      openLoans.getJsonArray("loans"));
+
+    assertThat(openLoans.getInteger("totalRecords"), is(1));
+    assertThat(loans.get(0).getString("id"), is(loan.getId().toString()));
+    assertThat(loans.get(0).getJsonObject("item").getString("barcode"),
+      is(smallAngryPlanet.getBarcode()));
+
+    final JsonObject openRequests = summary.getJsonObject("openRequests");
+    final List<JsonObject> requests = JsonArrayHelper.toList(
+      openRequests.getJsonArray("requests"));
+
+    assertThat(openRequests.getInteger("totalRecords"), is(1));
+    assertThat(requests.get(0).getString("id"), is(request.getId().toString()));
+    assertThat(requests.get(0).getJsonObject("item").getString("barcode"),
+      is(nod.getBarcode()));
+    assertThat(requests.get(0).containsKey("pickupServicePoint"), is(true));
+
+    final JsonObject openAccounts = summary.getJsonObject("openAccounts");
+
+    assertThat(openAccounts.getInteger("totalRecords"), is(1));
+    assertThat(openAccounts.getJsonArray("accounts").size(), is(1));
+  }
+
+  @Test
+  public void countsOnlySummaryDoesNotIncludeRecords()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+
+    final IndividualResource loan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponSmallAngryPlanet(), steve);
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), steve);
+
+    final IndividualResource temeraire = itemsFixture.basedUponTemeraire();
+
+    loansFixture.checkOutByBarcode(temeraire, usersFixture.jessica());
+
+    requestsFixture.placeHoldShelfRequest(temeraire, steve,
+      DateTime.now(DateTimeZone.UTC));
+
+    accountsClient.create(new AccountBuilder()
+      .forUser(steve)
+      .withLoan(loan)
+      .feeFineStatusOpen()
+      .withRemainingFeeFine(25));
+
+    final Response response = getSummary(steve, "?countsOnly=true");
+
+    assertThat(response.getStatusCode(), is(200));
+
+    final JsonObject summary = response.getJson();
+
+    assertThat(summary.getJsonObject("openLoans").getInteger("totalRecords"), is(2));
+    assertThat(summary.getJsonObject("openLoans").getJsonArray("loans").size(), is(0));
+
+    assertThat(summary.getJsonObject("openRequests").getInteger("totalRecords"), is(1));
+    assertThat(summary.getJsonObject("openRequests").getJsonArray("requests").size(), is(0));
+
+    assertThat(summary.getJsonObject("openAccounts").getInteger("totalRecords"), is(1));
+    assertThat(summary.getJsonObject("openAccounts").getJsonArray("accounts").size(), is(0));
+  }
+
+  @Test
+  public void cannotGetSummaryWithAnInvalidLimit()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final Response response = getSummary(usersFixture.steve(), "?limit=all");
+
+    assertThat(response.getStatusCode(), is(422));
+  }
+
+  private Response getSummary(IndividualResource user, String queryString)
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    final CompletableFuture<Response> getCompleted = new CompletableFuture<>();
+
+    client.get(patronSummaryUrl(user.getId().toString(), queryString),
+      ResponseHandler.any(getCompleted));
+
+    return getCompleted.get(5, TimeUnit.SECONDS);
+  }
+}
@@ -0,0 +1,101 @@
+package api.loans;
+
+import static api.support.matchers.ResponseStatusCodeMatcher.hasStatus;
+import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
+import static api.support.matchers.ValidationErrorMatchers.hasMessage;
+import static org.folio.HttpStatus.HTTP_VALIDATION_ERROR;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class BulkCheckInByBarcodeTests extends APITests {
+  @Test
+  public void canCheckInManyItemsInOneRequest()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource james = usersFixture.james();
+
+    final UUID checkInServicePointId = servicePointsFixture.cd1().getId();
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    final IndividualResource nodLoan = loansFixture.checkOutByBarcode(nod, james);
+    final IndividualResource smallAngryPlanetLoan = loansFixture.checkOutByBarcode(
+      smallAngryPlanet, james);
+
+    final Response response = loansFixture.bulkCheckInByBarcode(new JsonObject()
+      .put("itemBarcodes", new JsonArray()
+        .add(nod.getJson().getString("barcode"))
+        .add("543593485458")
+        .add(smallAngryPlanet.getJson().getString("barcode")))
+      .put("servicePointId", checkInServicePointId.toString())
+      .put("checkInDate", DateTime.now(DateTimeZone.UTC).toString()));
+
+    final JsonArray checkIns = response.getJson().getJsonArray("checkIns");
+
+    assertThat(response.getJson().getInteger("totalRecords"), is(3));
+
+    assertThat(checkIns.getJsonObject(0).getString("itemBarcode"),
+      is(nod.getJson().getString("barcode")));
+
+    assertThat(checkIns.getJsonObject(0).getJsonObject("loan").getString("id"),
+      is(nodLoan.getId().toString()));
+
+    assertThat(checkIns.getJsonObject(1).getString("itemBarcode"),
+      is("543593485458"));
+
+    assertThat(checkIns.getJsonObject(1), hasErrorWith(hasMessage(
+      "No item with barcode 543593485458 exists")));
+
+    assertThat(checkIns.getJsonObject(2).getString("itemBarcode"),
+      is(smallAngryPlanet.getJson().getString("barcode")));
+
+    final JsonObject storedNodLoan = loansStorageClient.getById(nodLoan.getId()).getJson();
+
+    assertThat("nod loan should be closed",
+      storedNodLoan.getJsonObject("status").getString("name"), is("Closed"));
+
+    final JsonObject storedSmallAngryPlanetLoan = loansStorageClient
+      .getById(smallAngryPlanetLoan.getId()).getJson();
+
+    assertThat("small angry planet loan should be closed",
+      storedSmallAngryPlanetLoan.getJsonObject("status").getString("name"),
+      is("Closed"));
+
+    assertThat("nod should be available",
+      itemsClient.getById(nod.getId()).getJson()
+        .getJsonObject("status").getString("name"), is("Available"));
+  }
+
+  @Test
+  public void cannotCheckInWithoutAnyItemBarcodes() {
+    final Response response = loansFixture.attemptBulkCheckInByBarcode(
+      new JsonObject()
+        .put("itemBarcodes", new JsonArray())
+        .put("servicePointId", UUID.randomUUID().toString())
+        .put("checkInDate", DateTime.now(DateTimeZone.UTC).toString()));
+
+    assertThat(response, hasStatus(HTTP_VALIDATION_ERROR));
+
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "Bulk check in request must have at least one item barcode")));
+  }
+}
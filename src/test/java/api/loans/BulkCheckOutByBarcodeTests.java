@@ -0,0 +1,201 @@
+package api.loans;
+
+import static api.support.matchers.ResponseStatusCodeMatcher.hasStatus;
+import static api.support.matchers.TextDateTimeMatcher.isEquivalentTo;
+import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
+import static api.support.matchers.ValidationErrorMatchers.hasMessage;
+import static org.folio.HttpStatus.HTTP_VALIDATION_ERROR;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import api.support.builders.LoanPolicyBuilder;
+import api.support.builders.UserBuilder;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class BulkCheckOutByBarcodeTests extends APITests {
+  @Test
+  public void canCheckOutManyItemsToTheSamePatron()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource james = usersFixture.james();
+
+    final UUID checkOutServicePointId = servicePointsFixture.cd1().getId();
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    final Response response = loansFixture.bulkCheckOutByBarcode(new JsonObject()
+      .put("itemBarcodes", new JsonArray()
+        .add(nod.getJson().getString("barcode"))
+        .add("543593485458")
+        .add(smallAngryPlanet.getJson().getString("barcode")))
+      .put("userBarcode", james.getJson().getString("barcode"))
+      .put("servicePointId", checkOutServicePointId.toString()));
+
+    assertThat(response.getJson().getInteger("totalRecords"), is(3));
+
+    final JsonArray checkOuts = response.getJson().getJsonArray("checkOuts");
+
+    final JsonObject nodLoan = checkOuts.getJsonObject(0).getJsonObject("loan");
+
+    assertThat("nod should have been checked out", nodLoan, notNullValue());
+    assertThat(nodLoan.getString("userId"), is(james.getId().toString()));
+    assertThat(nodLoan.getString("itemId"), is(nod.getId().toString()));
+    assertThat(nodLoan.getString("dueDate"), notNullValue());
+
+    assertThat(checkOuts.getJsonObject(1), hasErrorWith(hasMessage(
+      "No item with barcode 543593485458 could be found")));
+
+    final JsonObject smallAngryPlanetLoan = checkOuts.getJsonObject(2)
+      .getJsonObject("loan");
+
+    assertThat("small angry planet should have been checked out",
+      smallAngryPlanetLoan, notNullValue());
+
+    assertThat(loansStorageClient.getById(UUID.fromString(
+      smallAngryPlanetLoan.getString("id"))).getJson()
+      .getJsonObject("status").getString("name"), is("Open"));
+
+    assertThat(itemsClient.getById(nod.getId()).getJson()
+      .getJsonObject("status").getString("name"), is("Checked out"));
+  }
+
+  @Test
+  public void cannotCheckOutAnItemWhichIsAlreadyCheckedOut()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource james = usersFixture.james();
+    final IndividualResource jessica = usersFixture.jessica();
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    loansFixture.checkOutByBarcode(nod, jessica);
+
+    final Response response = loansFixture.bulkCheckOutByBarcode(new JsonObject()
+      .put("itemBarcodes", new JsonArray()
+        .add(nod.getJson().getString("barcode"))
+        .add(smallAngryPlanet.getJson().getString("barcode"))
+        .add(smallAngryPlanet.getJson().getString("barcode")))
+      .put("userBarcode", james.getJson().getString("barcode"))
+      .put("servicePointId", servicePointsFixture.cd1().getId().toString()));
+
+    final JsonArray checkOuts = response.getJson().getJsonArray("checkOuts");
+
+    assertThat(checkOuts.getJsonObject(0), hasErrorWith(hasMessage(
+      "Item is already checked out")));
+
+    assertThat(checkOuts.getJsonObject(1).getJsonObject("loan"), notNullValue());
+
+    assertThat(checkOuts.getJsonObject(2), hasErrorWith(hasMessage(
+      "Cannot check out the same item more than once in a single request")));
+  }
+
+  @Test
+  public void cannotCheckOutToInactiveUser()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve(UserBuilder::inactive);
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    final Response response = loansFixture.attemptBulkCheckOutByBarcode(new JsonObject()
+      .put("itemBarcodes", new JsonArray()
+        .add(smallAngryPlanet.getJson().getString("barcode")))
+      .put("userBarcode", steve.getJson().getString("barcode"))
+      .put("servicePointId", servicePointsFixture.cd1().getId().toString()));
+
+    assertThat(response, hasStatus(HTTP_VALIDATION_ERROR));
+
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "Cannot check out to inactive user")));
+  }
+
+  @Test
+  public void canOverrideCheckOutOfManyItemsWhichAreNotLoanable()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    useLoanPolicyAsFallback(
+      loanPoliciesFixture.create(new LoanPolicyBuilder()
+        .withName("Not Loanable Policy")
+        .withLoanable(false)).getId(),
+      requestPoliciesFixture.allowAllRequestPolicy().getId(),
+      noticePoliciesFixture.activeNotice().getId());
+
+    final IndividualResource james = usersFixture.james();
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    final DateTime dueDate = DateTime.now(DateTimeZone.UTC).plusWeeks(1);
+
+    final Response response = loansFixture.overrideBulkCheckOutByBarcode(new JsonObject()
+      .put("itemBarcodes", new JsonArray()
+        .add(nod.getJson().getString("barcode"))
+        .add(smallAngryPlanet.getJson().getString("barcode")))
+      .put("userBarcode", james.getJson().getString("barcode"))
+      .put("servicePointId", servicePointsFixture.cd1().getId().toString())
+      .put("dueDate", dueDate.toString())
+      .put("comment", "Needed for a class"));
+
+    final JsonArray checkOuts = response.getJson().getJsonArray("checkOuts");
+
+    assertThat(checkOuts.size(), is(2));
+
+    for (int index = 0; index < checkOuts.size(); index++) {
+      final JsonObject loan = checkOuts.getJsonObject(index).getJsonObject("loan");
+
+      assertThat("item should have been checked out", loan, notNullValue());
+      assertThat(loan.getString("action"), is("checkedOutThroughOverride"));
+      assertThat(loan.getString("actionComment"), is("Needed for a class"));
+      assertThat(loan.getString("dueDate"), isEquivalentTo(dueDate));
+    }
+  }
+
+  @Test
+  public void cannotOverrideCheckOutOfItemsWhichAreLoanable()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    final Response response = loansFixture.overrideBulkCheckOutByBarcode(new JsonObject()
+      .put("itemBarcodes", new JsonArray()
+        .add(smallAngryPlanet.getJson().getString("barcode")))
+      .put("userBarcode", usersFixture.james().getJson().getString("barcode"))
+      .put("servicePointId", servicePointsFixture.cd1().getId().toString())
+      .put("dueDate", DateTime.now(DateTimeZone.UTC).plusWeeks(1).toString())
+      .put("comment", "Needed for a class"));
+
+    assertThat(response.getJson().getJsonArray("checkOuts").getJsonObject(0),
+      hasErrorWith(hasMessage("Override is not allowed when item is loanable")));
+  }
+}
@@ -0,0 +1,130 @@
+package api.loans;
+
+import static api.support.matchers.ResponseStatusCodeMatcher.hasStatus;
+import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
+import static api.support.matchers.ValidationErrorMatchers.hasMessage;
+import static org.folio.HttpStatus.HTTP_VALIDATION_ERROR;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class BulkRenewalTests extends APITests {
+  @Test
+  public void canRenewAllOpenLoansForAUser()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource james = usersFixture.james();
+
+    final DateTime loanDate = DateTime.now(DateTimeZone.UTC).minusDays(2);
+
+    final IndividualResource nodLoan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponNod(), james, loanDate);
+
+    final IndividualResource smallAngryPlanetLoan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponSmallAngryPlanet(), james, loanDate);
+
+    final Response response = loansFixture.bulkRenewal(new JsonObject()
+      .put("userId", james.getId().toString()));
+
+    assertThat(response.getJson().getInteger("totalRecords"), is(2));
+
+    final JsonArray renewals = response.getJson().getJsonArray("renewals");
+
+    assertThat(renewals.getJsonObject(0).getJsonObject("loan"), notNullValue());
+    assertThat(renewals.getJsonObject(1).getJsonObject("loan"), notNullValue());
+
+    assertRenewed(nodLoan);
+    assertRenewed(smallAngryPlanetLoan);
+  }
+
+  @Test
+  public void reportsLoansWhichCannotBeFound()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource james = usersFixture.james();
+
+    final IndividualResource nodLoan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponNod(), james,
+      DateTime.now(DateTimeZone.UTC).minusDays(2));
+
+    final UUID unknownLoanId = UUID.randomUUID();
+
+    final Response response = loansFixture.bulkRenewal(new JsonObject()
+      .put("loanIds", new JsonArray()
+        .add(unknownLoanId.toString())
+        .add(nodLoan.getId().toString())));
+
+    final JsonArray renewals = response.getJson().getJsonArray("renewals");
+
+    assertThat(renewals.getJsonObject(0).getString("loanId"),
+      is(unknownLoanId.toString()));
+
+    assertThat(renewals.getJsonObject(0), hasErrorWith(hasMessage(
+      String.format("No loan with ID %s exists", unknownLoanId))));
+
+    assertThat(renewals.getJsonObject(1).getJsonObject("loan"), notNullValue());
+
+    assertRenewed(nodLoan);
+  }
+
+  @Test
+  public void cannotRenewLoansCheckedOutToADifferentUser()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource nodLoan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponNod(), usersFixture.jessica());
+
+    final Response response = loansFixture.bulkRenewal(new JsonObject()
+      .put("userId", usersFixture.james().getId().toString())
+      .put("loanIds", new JsonArray().add(nodLoan.getId().toString())));
+
+    assertThat(response.getJson().getJsonArray("renewals").getJsonObject(0),
+      hasErrorWith(hasMessage("Cannot renew item checked out to different user")));
+  }
+
+  @Test
+  public void cannotRenewWithoutUserOrLoans() {
+    final Response response = loansFixture.attemptBulkRenewal(new JsonObject());
+
+    assertThat(response, hasStatus(HTTP_VALIDATION_ERROR));
+
+    assertThat(response.getJson(), hasErrorWith(hasMessage(
+      "Bulk renewal request must have a user ID or loan IDs")));
+  }
+
+  private void assertRenewed(IndividualResource loan)
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final JsonObject storedLoan = loansStorageClient.getById(loan.getId()).getJson();
+
+    assertThat(storedLoan.getInteger("renewalCount"), is(1));
+    assertThat(storedLoan.getString("action"), is("renewed"));
+  }
+}
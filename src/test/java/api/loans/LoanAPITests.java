@@ -16,6 +16,7 @@ import static org.folio.HttpStatus.HTTP_VALIDATION_ERROR;
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.core.Is.is;
@@ -1033,6 +1034,60 @@ public class LoanAPITests extends APITests {
     loans.forEach(loanJson -> loanHasLoanPolicyProperties(loanJson, loanPolicy));
   }
 
+  @Test
+  public void locationHierarchyIsIncludedForMultipleLoans()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource thirdFloor = locationsFixture.thirdFloor();
+    final IndividualResource mezzanineDisplayCase = locationsFixture.mezzanineDisplayCase();
+
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet(
+      holdingBuilder -> holdingBuilder
+        .withPermanentLocation(thirdFloor)
+        .withNoTemporaryLocation(),
+      itemBuilder -> itemBuilder
+        .withNoPermanentLocation()
+        .withNoTemporaryLocation());
+
+    final InventoryItemResource temeraire = itemsFixture.basedUponTemeraire(
+      holdingBuilder -> holdingBuilder
+        .withPermanentLocation(mezzanineDisplayCase)
+        .withNoTemporaryLocation(),
+      itemBuilder -> itemBuilder
+        .withNoPermanentLocation()
+        .withNoTemporaryLocation());
+
+    final UUID smallAngryPlanetLoanId = loansFixture.checkOutByBarcode(
+      smallAngryPlanet, usersFixture.jessica()).getId();
+
+    final UUID temeraireLoanId = loansFixture.checkOutByBarcode(
+      temeraire, usersFixture.steve()).getId();
+
+    List<JsonObject> loans = loansClient.getAll();
+
+    final JsonObject smallAngryPlanetLocation = getRecordById(loans,
+      smallAngryPlanetLoanId).get().getJsonObject("item").getJsonObject("location");
+
+    final JsonObject temeraireLocation = getRecordById(loans, temeraireLoanId).get()
+      .getJsonObject("item").getJsonObject("location");
+
+    assertThat(smallAngryPlanetLocation.getString("name"), is("3rd Floor"));
+    assertThat(smallAngryPlanetLocation.getString("libraryName"),
+      is("Djanogly Learning Resource Centre"));
+    assertThat(smallAngryPlanetLocation.getString("campusName"), is("Jubilee Campus"));
+    assertThat(smallAngryPlanetLocation.getString("institutionName"),
+      is("Nottingham University"));
+
+    assertThat(temeraireLocation.getString("name"), is("Display Case, Mezzanine"));
+    assertThat(temeraireLocation.getString("libraryName"), is("Business Library"));
+    assertThat(temeraireLocation.getString("campusName"), is("Jubilee Campus"));
+    assertThat(temeraireLocation.getString("institutionName"),
+      is("Nottingham University"));
+  }
+
   @Test
   public void loanFoundByIdDoesNotProvideItemInformationForUnknownItem()
     throws MalformedURLException,
@@ -1408,6 +1463,98 @@ public class LoanAPITests extends APITests {
     assertThat(countOfDistinctTitles(secondPageLoans), is(greaterThan(1)));
   }
 
+  @Test
+  public void canGetALargePageOfLoans()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    IndividualResource user = usersFixture.steve();
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(), user);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), user);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponTemeraire(), user);
+
+    CompletableFuture<Response> pageCompleted = new CompletableFuture<>();
+
+    //Large pages are streamed, rather than built in memory first
+    client.get(loansUrl() + "?limit=1000&offset=1",
+      ResponseHandler.json(pageCompleted));
+
+    Response pageResponse = pageCompleted.get(5, TimeUnit.SECONDS);
+
+    assertThat(String.format("Failed to get large page of loans: %s",
+      pageResponse.getBody()),
+      pageResponse.getStatusCode(), is(200));
+
+    JsonObject page = pageResponse.getJson();
+
+    List<JsonObject> loans = getLoans(page);
+
+    assertThat(loans.size(), is(2));
+    assertThat(page.getInteger("totalRecords"), is(3));
+
+    loans.forEach(loan -> loanHasExpectedProperties(loan, user));
+  }
+
+  @Test
+  public void canPageLoansByCursor()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    IndividualResource user = usersFixture.steve();
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(), user);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), user);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponTemeraire(), user);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponUprooted(), user);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponInterestingTimes(), user);
+
+    JsonObject firstPage = getLoansPage("?cursor=&limit=2").getJson();
+    JsonObject secondPage = getLoansPage(String.format("?cursor=%s&limit=2",
+      firstPage.getString("nextCursor"))).getJson();
+    JsonObject thirdPage = getLoansPage(String.format("?cursor=%s&limit=2",
+      secondPage.getString("nextCursor"))).getJson();
+
+    List<JsonObject> firstPageLoans = getLoans(firstPage);
+    List<JsonObject> secondPageLoans = getLoans(secondPage);
+    List<JsonObject> thirdPageLoans = getLoans(thirdPage);
+
+    assertThat(firstPageLoans.size(), is(2));
+    assertThat(secondPageLoans.size(), is(2));
+    assertThat(thirdPageLoans.size(), is(1));
+
+    assertThat("Last page should not have a next cursor",
+      thirdPage.containsKey("nextCursor"), is(false));
+
+    //Loans are in ID order, without any loan being on more than one page
+    assertThat(firstPageLoans.get(1).getString("id")
+      .compareTo(secondPageLoans.get(0).getString("id")), lessThan(0));
+    assertThat(secondPageLoans.get(1).getString("id")
+      .compareTo(thirdPageLoans.get(0).getString("id")), lessThan(0));
+
+    firstPageLoans.forEach(loan -> loanHasExpectedProperties(loan, user));
+    secondPageLoans.forEach(loan -> loanHasExpectedProperties(loan, user));
+    thirdPageLoans.forEach(loan -> loanHasExpectedProperties(loan, user));
+  }
+
+  @Test
+  public void cannotPageLoansByCursorAndOffset()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    Response response = getLoansPage("?cursor=&limit=2&offset=2");
+
+    assertThat(response, hasStatus(HTTP_VALIDATION_ERROR));
+    assertThat(response.getJson(), hasErrorWith(
+      hasMessage("Cannot use an offset when finding a page by cursor")));
+  }
+
   @Test
   public void canSearchByUserId()
     throws MalformedURLException,
@@ -2106,6 +2253,18 @@ public class LoanAPITests extends APITests {
       .count()).intValue();
   }
 
+  private Response getLoansPage(String queryString)
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    CompletableFuture<Response> pageCompleted = new CompletableFuture<>();
+
+    client.get(loansUrl() + queryString, ResponseHandler.any(pageCompleted));
+
+    return pageCompleted.get(5, TimeUnit.SECONDS);
+  }
+
   private List<JsonObject> getLoans(JsonObject page) {
     return JsonArrayHelper.toList(page.getJsonArray("loans"));
   }
@@ -0,0 +1,120 @@
+package api.loans;
+
+import static api.support.http.InterfaceUrls.loansExportUrl;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.io.UnsupportedEncodingException;
+import java.net.MalformedURLException;
+import java.net.URLEncoder;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.apache.commons.lang3.StringUtils;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.http.client.ResponseHandler;
+import org.junit.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonObject;
+
+public class LoanExportTests extends APITests {
+  @Test
+  public void canExportAllLoansAsNewlineDelimitedJson()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(), steve);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), steve);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponTemeraire(), steve);
+
+    final Response response = export("");
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getContentType().startsWith("application/x-ndjson"), is(true));
+
+    final List<JsonObject> loans = toLoans(response);
+
+    assertThat(loans.size(), is(3));
+
+    loans.forEach(loan -> {
+      assertThat(loan.getJsonObject("item").containsKey("title"), is(true));
+      assertThat(loan.getJsonObject("borrower").getString("barcode"),
+        is(steve.getBarcode()));
+    });
+
+    //Loans are exported in ID order
+    assertThat(loans.get(0).getString("id")
+      .compareTo(loans.get(1).getString("id")) < 0, is(true));
+    assertThat(loans.get(1).getString("id")
+      .compareTo(loans.get(2).getString("id")) < 0, is(true));
+  }
+
+  @Test
+  public void canExportLoansMatchingAQuery()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException,
+    UnsupportedEncodingException {
+
+    final IndividualResource steve = usersFixture.steve();
+    final IndividualResource jessica = usersFixture.jessica();
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(), steve);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), jessica);
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponTemeraire(), steve);
+
+    final Response response = export("?query=" + URLEncoder.encode(
+      String.format("userId==\"%s\"", jessica.getId()), "UTF-8"));
+
+    final List<JsonObject> loans = toLoans(response);
+
+    assertThat(loans.size(), is(1));
+    assertThat(loans.get(0).getString("userId"), is(jessica.getId().toString()));
+  }
+
+  @Test
+  public void cannotExportLoansWithAQueryWhichDefinesASortOrder()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException,
+    UnsupportedEncodingException {
+
+    final Response response = export("?query=" + URLEncoder.encode(
+      "status.name==\"Open\" sortBy loanDate", "UTF-8"));
+
+    assertThat(response.getStatusCode(), is(422));
+  }
+
+  private Response export(String queryString)
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    final CompletableFuture<Response> exportCompleted = new CompletableFuture<>();
+
+    client.get(loansExportUrl(queryString), ResponseHandler.any(exportCompleted));
+
+    return exportCompleted.get(5, TimeUnit.SECONDS);
+  }
+
+  private static List<JsonObject> toLoans(Response response) {
+    return Arrays.stream(response.getBody().split("\n"))
+      .filter(StringUtils::isNotBlank)
+      .map(JsonObject::new)
+      .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,136 @@
+package api.loans;
+
+import static api.support.matchers.ValidationErrorMatchers.hasErrorWith;
+import static api.support.matchers.ValidationErrorMatchers.hasMessage;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonObject;
+
+public class OfflineTransactionsTests extends APITests {
+  @Test
+  public void canReplayTransactionsRecordedWhilstOffline()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource james = usersFixture.james();
+
+    final UUID servicePointId = servicePointsFixture.cd1().getId();
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    final DateTime checkOutDate = new DateTime(2019, 3, 1, 10, 15, 0, DateTimeZone.UTC);
+    final DateTime checkInDate = new DateTime(2019, 3, 1, 14, 40, 0, DateTimeZone.UTC);
+
+    final String transactions = String.join("\n",
+      checkOut(nod, james, servicePointId, checkOutDate).encode(),
+      checkOut(smallAngryPlanet, james, servicePointId, checkOutDate).encode(),
+      "not a transaction",
+      checkIn(nod, servicePointId, checkInDate).encode());
+
+    final Response response = loansFixture.replayOfflineTransactions(transactions);
+
+    final Map<Integer, JsonObject> outcomes = Arrays.stream(response.getBody().split("\n"))
+      .map(JsonObject::new)
+      .collect(Collectors.toMap(outcome -> outcome.getInteger("line"),
+        Function.identity()));
+
+    assertThat(outcomes.size(), is(4));
+
+    final JsonObject nodLoan = outcomes.get(1).getJsonObject("loan");
+
+    assertThat("nod should have been checked out", nodLoan, notNullValue());
+    assertThat(DateTime.parse(nodLoan.getString("loanDate")).isEqual(checkOutDate), is(true));
+
+    assertThat("small angry planet should have been checked out",
+      outcomes.get(2).getJsonObject("loan"), notNullValue());
+
+    assertThat(outcomes.get(3), hasErrorWith(hasMessage(
+      "Transaction is not valid JSON")));
+
+    final JsonObject checkedInLoan = outcomes.get(4).getJsonObject("loan");
+
+    assertThat(checkedInLoan.getString("id"), is(nodLoan.getString("id")));
+    assertThat(checkedInLoan.getJsonObject("status").getString("name"), is("Closed"));
+    assertThat(DateTime.parse(checkedInLoan.getString("returnDate")).isEqual(checkInDate),
+      is(true));
+  }
+
+  @Test
+  public void refusesTransactionEarlierThanPreviousTransactionForSameItem()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource james = usersFixture.james();
+
+    final UUID servicePointId = servicePointsFixture.cd1().getId();
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+
+    final DateTime checkOutDate = new DateTime(2019, 3, 1, 10, 15, 0, DateTimeZone.UTC);
+
+    final String transactions = String.join("\n",
+      checkOut(nod, james, servicePointId, checkOutDate).encode(),
+      checkIn(nod, servicePointId, checkOutDate.minusHours(1)).encode());
+
+    final Response response = loansFixture.replayOfflineTransactions(transactions);
+
+    final Map<Integer, JsonObject> outcomes = Arrays.stream(response.getBody().split("\n"))
+      .map(JsonObject::new)
+      .collect(Collectors.toMap(outcome -> outcome.getInteger("line"),
+        Function.identity()));
+
+    assertThat(outcomes.get(1).getJsonObject("loan"), notNullValue());
+
+    assertThat(outcomes.get(2), hasErrorWith(hasMessage(
+      "Transaction is earlier than a previous transaction for the same item")));
+  }
+
+  private static JsonObject checkOut(
+    IndividualResource item,
+    IndividualResource user,
+    UUID servicePointId,
+    DateTime when) {
+
+    return new JsonObject()
+      .put("type", "check-out")
+      .put("timestamp", when.toString())
+      .put("itemBarcode", item.getJson().getString("barcode"))
+      .put("userBarcode", user.getJson().getString("barcode"))
+      .put("servicePointId", servicePointId.toString());
+  }
+
+  private static JsonObject checkIn(
+    IndividualResource item,
+    UUID servicePointId,
+    DateTime when) {
+
+    return new JsonObject()
+      .put("type", "check-in")
+      .put("timestamp", when.toString())
+      .put("itemBarcode", item.getJson().getString("barcode"))
+      .put("servicePointId", servicePointId.toString());
+  }
+}
@@ -0,0 +1,224 @@
+package api.loans;
+
+import static api.support.http.InterfaceUrls.overdueLoansReportUrl;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.support.JsonArrayHelper;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.folio.circulation.support.http.client.ResponseHandler;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import api.support.builders.CheckOutByBarcodeRequestBuilder;
+import io.vertx.core.json.JsonObject;
+
+public class OverdueLoansReportTests extends APITests {
+  @Test
+  public void reportOnlyIncludesOpenLoansWhichAreOverdue()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+    final DateTime now = DateTime.now(DateTimeZone.UTC);
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource temeraire = itemsFixture.basedUponTemeraire();
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource dunkirk = itemsFixture.basedUponDunkirk();
+
+    final IndividualResource leastOverdueLoan = loansFixture.checkOutByBarcode(
+      nod, steve, now.minusMonths(2));
+
+    final IndividualResource mostOverdueLoan = loansFixture.checkOutByBarcode(
+      temeraire, steve, now.minusMonths(4));
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, steve, now.minusMonths(3));
+    loansFixture.checkInByBarcode(smallAngryPlanet);
+
+    loansFixture.checkOutByBarcode(dunkirk, steve, now);
+
+    final Response response = getReport("");
+
+    assertThat(response.getStatusCode(), is(200));
+
+    final List<JsonObject> loans = toLoans(response);
+
+    assertThat(response.getJson().getInteger("totalRecords"), is(2));
+    assertThat(loans.size(), is(2));
+
+    //Most overdue loan comes first
+    assertThat(loans.get(0).getString("id"), is(mostOverdueLoan.getId().toString()));
+    assertThat(loans.get(1).getString("id"), is(leastOverdueLoan.getId().toString()));
+
+    loans.forEach(loan -> {
+      assertThat(loan.getJsonObject("item").getString("barcode") != null, is(true));
+      assertThat(loan.getJsonObject("borrower").getString("barcode"),
+        is(steve.getBarcode()));
+    });
+  }
+
+  @Test
+  public void canLimitReportToLoansCheckedOutAtAServicePoint()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+    final IndividualResource otherServicePoint = servicePointsFixture.cd2();
+    final DateTime loanDate = DateTime.now(DateTimeZone.UTC).minusMonths(2);
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), steve, loanDate);
+
+    final IndividualResource loanAtOtherServicePoint = loansFixture.checkOutByBarcode(
+      new CheckOutByBarcodeRequestBuilder()
+        .forItem(itemsFixture.basedUponTemeraire())
+        .to(steve)
+        .on(loanDate)
+        .at(otherServicePoint));
+
+    final Response response = getReport(
+      "?servicePointId=" + otherServicePoint.getId());
+
+    final List<JsonObject> loans = toLoans(response);
+
+    assertThat(loans.size(), is(1));
+    assertThat(loans.get(0).getString("id"),
+      is(loanAtOtherServicePoint.getId().toString()));
+  }
+
+  @Test
+  public void canLimitReportToLoansCheckedOutToAPatronGroup()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final DateTime loanDate = DateTime.now(DateTimeZone.UTC).minusMonths(2);
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(),
+      usersFixture.steve(), loanDate);
+
+    final IndividualResource undergraduateLoan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponTemeraire(), usersFixture.undergradHenry(), loanDate);
+
+    final Response response = getReport(
+      "?patronGroupId=" + patronGroupsFixture.undergrad().getId());
+
+    final List<JsonObject> loans = toLoans(response);
+
+    assertThat(loans.size(), is(1));
+    assertThat(loans.get(0).getString("id"),
+      is(undergraduateLoan.getId().toString()));
+  }
+
+  @Test
+  public void canPageThroughReport()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+    final DateTime now = DateTime.now(DateTimeZone.UTC);
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), steve,
+      now.minusMonths(4));
+
+    final IndividualResource secondMostOverdueLoan = loansFixture.checkOutByBarcode(
+      itemsFixture.basedUponTemeraire(), steve, now.minusMonths(3));
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(), steve,
+      now.minusMonths(2));
+
+    final Response response = getReport("?limit=1&offset=1");
+
+    final List<JsonObject> loans = toLoans(response);
+
+    assertThat(response.getJson().getInteger("totalRecords"), is(3));
+    assertThat(loans.size(), is(1));
+    assertThat(loans.get(0).getString("id"),
+      is(secondMostOverdueLoan.getId().toString()));
+  }
+
+  @Test
+  public void summaryOnlyIncludesNumberOfOverdueLoans()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+    final DateTime now = DateTime.now(DateTimeZone.UTC);
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponNod(), steve,
+      now.minusMonths(4));
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponTemeraire(), steve,
+      now.minusMonths(3));
+
+    loansFixture.checkOutByBarcode(itemsFixture.basedUponSmallAngryPlanet(), steve,
+      now);
+
+    final Response response = getReport("?summary=true");
+
+    assertThat(response.getStatusCode(), is(200));
+    assertThat(response.getJson().getInteger("totalRecords"), is(2));
+    assertThat(response.getJson().containsKey("loans"), is(false));
+  }
+
+  @Test
+  public void cannotGetReportWithAnInvalidLimit()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final Response response = getReport("?limit=lots");
+
+    assertThat(response.getStatusCode(), is(422));
+  }
+
+  @Test
+  public void cannotGetReportWithALimitWhichIsTooLarge()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    assertThat(getReport("?limit=1001").getStatusCode(), is(422));
+    assertThat(getReport("?limit=99999999999").getStatusCode(), is(422));
+    assertThat(getReport("?offset=2147483648").getStatusCode(), is(422));
+    assertThat(getReport("?offset=99999999999").getStatusCode(), is(422));
+  }
+
+  private Response getReport(String queryString)
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    final CompletableFuture<Response> getCompleted = new CompletableFuture<>();
+
+    client.get(overdueLoansReportUrl(queryString), ResponseHandler.any(getCompleted));
+
+    return getCompleted.get(5, TimeUnit.SECONDS);
+  }
+
+  private static List<JsonObject> toLoans(Response response) {
+    return JsonArrayHelper.toList(response.getJson().getJsonArray("loans"));
+  }
+}
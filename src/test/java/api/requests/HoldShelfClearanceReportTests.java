@@ -236,6 +236,48 @@ public class HoldShelfClearanceReportTests extends APITests {
     verifyResponse(smallAngryPlanet, rebecca, response, RequestStatus.CLOSED_PICKUP_EXPIRED);
   }
 
+  @Test
+  public void requestsForItemsAfterTheFirstPageOfItemsAreIncludedInReport()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    //Items are found in ID order, so this item is always after the other items
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet(
+      itemBuilder -> itemBuilder.withId(
+        UUID.fromString("ffffffff-ffff-4fff-bfff-ffffffffffff")));
+
+    final IndividualResource rebecca = usersFixture.rebecca();
+    final UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+    RequestBuilder requestBuilderOnItem = new RequestBuilder()
+      .open()
+      .hold()
+      .withPickupServicePointId(pickupServicePointId)
+      .forItem(smallAngryPlanet)
+      .by(rebecca);
+    IndividualResource request = requestsClient.create(requestBuilderOnItem);
+    loansFixture.checkInByBarcode(smallAngryPlanet);
+    requestsClient.replace(request.getId(),
+      requestBuilderOnItem.withStatus(RequestStatus.CLOSED_PICKUP_EXPIRED.getValue()).create()
+        .put(CLOSED_DATE_KEY, "2018-03-11T15:45:23.000+0000"));
+
+    //More than a page of other awaiting pickup items, without any requests
+    final JsonObject awaitingPickupItem = itemsClient.getById(smallAngryPlanet.getId())
+      .getJson();
+
+    for (int index = 0; index < 110; index++) {
+      itemsClient.create(awaitingPickupItem.copy()
+        .put("id", UUID.randomUUID().toString())
+        .put(BARCODE_KEY, "awaiting-pickup-" + index));
+    }
+
+    Response response = ResourceClient.forRequestReport(client).getById(pickupServicePointId);
+    verifyResponse(smallAngryPlanet, rebecca, response, RequestStatus.CLOSED_PICKUP_EXPIRED);
+  }
+
   @Test
   public void checkThatResponseGetsRequestWithEarlierClosedDate()
     throws InterruptedException,
@@ -0,0 +1,114 @@
+package api.requests;
+
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.domain.RequestStatus;
+import org.folio.circulation.support.ClockManager;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import api.support.APITests;
+import api.support.http.InventoryItemResource;
+import io.vertx.core.json.JsonObject;
+
+public class HoldShelfExpirationProcessingTests extends APITests {
+  @Before
+  public void useSystemClock() {
+    //Hold shelf expiration dates are based upon the clock, which other tests change
+    ClockManager.getClockManager().setClock(Clock.systemUTC());
+  }
+
+  @Test
+  public void expiredRequestIsClosedAndQueueMovesUp()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+    final DateTime requestDate = DateTime.now(DateTimeZone.UTC).minusDays(2);
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+
+    final IndividualResource jessicaRequest = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.jessica(), requestDate, pickupServicePointId);
+
+    final IndividualResource steveRequest = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.steve(), requestDate.plusHours(1),
+      pickupServicePointId);
+
+    loansFixture.checkInByBarcode(smallAngryPlanet, DateTime.now(DateTimeZone.UTC),
+      pickupServicePointId);
+
+    assertThat(getStoredRequest(jessicaRequest).getString("status"),
+      is(RequestStatus.OPEN_AWAITING_PICKUP.getValue()));
+
+    final JsonObject sweep = holdShelfExpirationProcessingClient
+      .runExpirationProcessing(DateTime.now(DateTimeZone.UTC).plusYears(1));
+
+    assertThat(sweep.getInteger("closedRequests"), is(1));
+    assertThat(sweep.getInteger("failedRequests"), is(0));
+    assertThat(sweep.getString("cursor"), is(nullValue()));
+
+    final JsonObject expiredRequest = getStoredRequest(jessicaRequest);
+
+    assertThat(expiredRequest.getString("status"),
+      is(RequestStatus.CLOSED_PICKUP_EXPIRED.getValue()));
+    assertThat(expiredRequest.getInteger("position"), is(nullValue()));
+
+    final JsonObject nextRequest = getStoredRequest(steveRequest);
+
+    assertThat(nextRequest.getString("status"),
+      is(RequestStatus.OPEN_NOT_YET_FILLED.getValue()));
+    assertThat(nextRequest.getInteger("position"), is(1));
+  }
+
+  @Test
+  public void requestIsNotClosedBeforeItExpires()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+
+    final IndividualResource request = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.jessica(),
+      DateTime.now(DateTimeZone.UTC).minusDays(2), pickupServicePointId);
+
+    loansFixture.checkInByBarcode(smallAngryPlanet, DateTime.now(DateTimeZone.UTC),
+      pickupServicePointId);
+
+    final JsonObject sweep = holdShelfExpirationProcessingClient
+      .runExpirationProcessing();
+
+    assertThat(sweep.getInteger("closedRequests"), is(0));
+
+    assertThat(getStoredRequest(request).getString("status"),
+      is(RequestStatus.OPEN_AWAITING_PICKUP.getValue()));
+  }
+
+  private JsonObject getStoredRequest(IndividualResource request)
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    return requestsStorageClient.getById(request.getId()).getJson();
+  }
+}
@@ -10,11 +10,14 @@ import static org.hamcrest.junit.MatcherAssert.assertThat;
 import static org.junit.Assert.*;
 
 import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 import org.folio.circulation.domain.ItemStatus;
 import org.folio.circulation.domain.RequestType;
@@ -29,6 +32,7 @@ import org.junit.Test;
 
 import api.support.APITests;
 import api.support.builders.RequestBuilder;
+import api.support.fakes.FakeStorageModule;
 import api.support.http.InterfaceUrls;
 import io.vertx.core.json.JsonObject;
 
@@ -817,6 +821,210 @@ public class InstanceRequestsAPICreationTests extends APITests {
       hasParameter("holdingsRecords", "null"))));
   }
 
+  @Test
+  public void canPlaceRequestOnNextCopyWhenRequesterAlreadyHasHighestRankedCopy()
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    DateTime instanceRequestDate = new DateTime(2017, 7, 22, 10, 22, 54, DateTimeZone.UTC);
+
+    IndividualResource instance = instancesFixture.basedUponDunkirk();
+    IndividualResource holdings = holdingsFixture.defaultWithHoldings(instance.getId());
+
+    final IndividualResource item1 = itemsFixture.basedUponDunkirkWithCustomHoldingAndLocation(holdings.getId(), null);
+    final IndividualResource item2 = itemsFixture.basedUponDunkirkWithCustomHoldingAndLocation(holdings.getId(), null);
+
+    IndividualResource instanceRequester = usersFixture.charlotte();
+
+    //The requester's own copy is due first, so is ranked highest, but cannot be requested
+    loansFixture.createLoan(item1, instanceRequester, DateTime.now().minusDays(18));
+    loansFixture.createLoan(item2, usersFixture.rebecca(), DateTime.now().minusDays(16));
+
+    Response postResponse = placeInstanceRequest(createInstanceRequestObject(
+      instance.getId(), instanceRequester.getId(), pickupServicePointId,
+      instanceRequestDate, instanceRequestDate.plusDays(30)));
+
+    assertThat(postResponse, hasStatus(HTTP_CREATED));
+
+    validateInstanceRequestResponse(postResponse.getJson(),
+      pickupServicePointId,
+      instance.getId(),
+      item2.getId(),
+      RequestType.HOLD);
+  }
+
+  @Test
+  public void canPlaceRequestOnHighestRankedCopyWhichCanBeRequested()
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    DateTime instanceRequestDate = new DateTime(2017, 7, 22, 10, 22, 54, DateTimeZone.UTC);
+
+    IndividualResource instance = instancesFixture.basedUponDunkirk();
+    IndividualResource holdings = holdingsFixture.defaultWithHoldings(instance.getId());
+
+    final IndividualResource item1 = itemsFixture.basedUponDunkirkWithCustomHoldingAndLocation(holdings.getId(), null);
+    final IndividualResource item2 = itemsFixture.basedUponDunkirkWithCustomHoldingAndLocation(holdings.getId(), null);
+    final IndividualResource item3 = itemsFixture.basedUponDunkirkWithCustomHoldingAndLocation(holdings.getId(), null);
+    final IndividualResource item4 = itemsFixture.basedUponDunkirkWithCustomHoldingAndLocation(holdings.getId(), null);
+
+    IndividualResource instanceRequester = usersFixture.charlotte();
+
+    //Copies are ranked by due date, the requester has the two copies due first,
+    //so every possible request for them is refused, which is more than are
+    //checked together, the later copies could all be requested
+    loansFixture.createLoan(item1, instanceRequester, DateTime.now().minusDays(20));
+    loansFixture.createLoan(item2, instanceRequester, DateTime.now().minusDays(19));
+    loansFixture.createLoan(item3, usersFixture.rebecca(), DateTime.now().minusDays(16));
+    loansFixture.createLoan(item4, usersFixture.steve(), DateTime.now().minusDays(15));
+
+    Response postResponse = placeInstanceRequest(createInstanceRequestObject(
+      instance.getId(), instanceRequester.getId(), pickupServicePointId,
+      instanceRequestDate, instanceRequestDate.plusDays(30)));
+
+    assertThat(postResponse, hasStatus(HTTP_CREATED));
+
+    validateInstanceRequestResponse(postResponse.getJson(),
+      pickupServicePointId,
+      instance.getId(),
+      item3.getId(),
+      RequestType.HOLD);
+  }
+
+  @Test
+  public void canPlaceRequestOnNextCopyWhenCreatingRequestFailsAfterCheck()
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    DateTime instanceRequestDate = new DateTime(2017, 7, 22, 10, 22, 54, DateTimeZone.UTC);
+
+    IndividualResource instance = instancesFixture.basedUponDunkirk();
+    IndividualResource holdings = holdingsFixture.defaultWithHoldings(instance.getId());
+
+    //The copy at a location served by the pickup service point is ranked highest
+    final IndividualResource item1 = itemsFixture.basedUponDunkirkWithCustomHoldingAndLocation(
+      holdings.getId(), locationsFixture.mainFloor().getId());
+    final IndividualResource item2 = itemsFixture.basedUponDunkirkWithCustomHoldingAndLocation(
+      holdings.getId(), null);
+
+    //A closed request which still has the first position in the queue is not
+    //part of the queue, so does not stop a request being placed on the copy,
+    //but storage refuses to create a request with the same position
+    requestsStorageClient.create(new RequestBuilder()
+      .page()
+      .forItem(item1)
+      .by(usersFixture.steve())
+      .withPickupServicePointId(pickupServicePointId)
+      .cancelled()
+      .withPosition(1));
+
+    Response postResponse = placeInstanceRequest(createInstanceRequestObject(
+      instance.getId(), usersFixture.charlotte().getId(), pickupServicePointId,
+      instanceRequestDate, instanceRequestDate.plusDays(30)));
+
+    assertThat(postResponse, hasStatus(HTTP_CREATED));
+
+    validateInstanceRequestResponse(postResponse.getJson(),
+      pickupServicePointId,
+      instance.getId(),
+      item2.getId(),
+      RequestType.PAGE);
+  }
+
+  @Test
+  public void canPlaceRequestWhenLoansAndQueuesAreFoundInSeveralBatches()
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    //Open loans and request queues are found for up to 50 copies at a time
+    final int numberOfCopies = 55;
+
+    UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    DateTime instanceRequestDate = new DateTime(2017, 7, 22, 10, 22, 54, DateTimeZone.UTC);
+
+    IndividualResource instance = instancesFixture.basedUponDunkirk();
+    IndividualResource holdings = holdingsFixture.defaultWithHoldings(instance.getId());
+
+    final IndividualResource james = usersFixture.james();
+    final List<IndividualResource> items = new ArrayList<>();
+
+    for (int index = 0; index < numberOfCopies; index++) {
+      final IndividualResource item = itemsFixture
+        .basedUponDunkirkWithCustomHoldingAndLocation(holdings.getId(), null);
+
+      //Each later copy is due sooner than the copy before it
+      loansFixture.createLoan(item, james, DateTime.now().minusDays(index));
+
+      items.add(item);
+    }
+
+    final IndividualResource dueFirst = items.get(numberOfCopies - 1);
+
+    Response postResponse = placeInstanceRequest(createInstanceRequestObject(
+      instance.getId(), usersFixture.charlotte().getId(), pickupServicePointId,
+      instanceRequestDate, instanceRequestDate.plusDays(30)));
+
+    assertThat(postResponse, hasStatus(HTTP_CREATED));
+
+    validateInstanceRequestResponse(postResponse.getJson(),
+      pickupServicePointId,
+      instance.getId(),
+      dueFirst.getId(),
+      RequestType.HOLD);
+
+    assertFoundInSeveralBatches("/loan-storage/loans", items);
+    assertFoundInSeveralBatches("/request-storage/requests", items);
+  }
+
+  private void assertFoundInSeveralBatches(String path,
+    List<IndividualResource> items) {
+
+    final List<String> itemIds = items.stream()
+      .map(item -> item.getId().toString())
+      .collect(Collectors.toList());
+
+    final List<String> batchQueries = FakeStorageModule.getQueries()
+      .filter(query -> query.startsWith(path))
+      .filter(query -> itemIds.stream().anyMatch(query::contains))
+      .collect(Collectors.toList());
+
+    assertThat(String.format("Should be more than one batch query to %s", path),
+      batchQueries.size() > 1, is(true));
+
+    itemIds.forEach(itemId -> assertThat(
+      String.format("Should be a query to %s for item %s", path, itemId),
+      batchQueries.stream().anyMatch(query -> query.contains(itemId)), is(true)));
+  }
+
+  private Response placeInstanceRequest(JsonObject requestBody)
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    CompletableFuture<Response> postCompleted = new CompletableFuture<>();
+
+    client.post(InterfaceUrls.requestsUrl("/instances"), requestBody,
+      ResponseHandler.any(postCompleted));
+
+    return postCompleted.get(REQUEST_TIMEOUT, TimeUnit.SECONDS);
+  }
+
   private void validateInstanceRequestResponse(JsonObject representation,
                                                UUID pickupServicePointId,
                                                UUID instanceId,
@@ -0,0 +1,143 @@
+package api.requests;
+
+import static api.support.RestAssuredClient.from;
+import static api.support.RestAssuredClient.post;
+import static api.support.http.InterfaceUrls.itemsAvailabilityUrl;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.domain.RequestType;
+import org.folio.circulation.support.JsonArrayHelper;
+import org.folio.circulation.support.JsonStringArrayHelper;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class ItemsAvailabilityTests extends APITests {
+  @Test
+  public void canFindAvailabilityOfManyItemsForPatron()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource steve = usersFixture.steve();
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource nod = itemsFixture.basedUponNod();
+
+    loansFixture.checkOutByBarcode(nod, usersFixture.jessica());
+
+    requestsFixture.placeHoldShelfRequest(nod, usersFixture.charlotte(),
+      DateTime.now(DateTimeZone.UTC));
+
+    final Response response = findAvailability(new JsonObject()
+      .put("userId", steve.getId().toString())
+      .put("itemIds", new JsonArray()
+        .add(nod.getId().toString())
+        .add(UUID.randomUUID().toString())
+        .add(smallAngryPlanet.getId().toString())), 200);
+
+    final List<JsonObject> items = JsonArrayHelper.toList(
+      response.getJson().getJsonArray("items"));
+
+    //Items which cannot be found are not included
+    assertThat(response.getJson().getInteger("totalRecords"), is(2));
+
+    final JsonObject nodAvailability = items.get(0);
+
+    assertThat(nodAvailability.getString("itemId"), is(nod.getId().toString()));
+    assertThat(nodAvailability.getString("status"), is("Checked out"));
+    assertThat(nodAvailability.containsKey("dueDate"), is(true));
+    assertThat(nodAvailability.getInteger("queueLength"), is(1));
+    assertThat(allowedRequestTypes(nodAvailability).contains("Hold"), is(true));
+    assertThat(allowedRequestTypes(nodAvailability).contains("Recall"), is(true));
+    assertThat(allowedRequestTypes(nodAvailability).contains("Page"), is(false));
+
+    final JsonObject smallAngryPlanetAvailability = items.get(1);
+
+    assertThat(smallAngryPlanetAvailability.getString("itemId"),
+      is(smallAngryPlanet.getId().toString()));
+    assertThat(smallAngryPlanetAvailability.getString("status"), is("Available"));
+    assertThat(smallAngryPlanetAvailability.containsKey("dueDate"), is(false));
+    assertThat(smallAngryPlanetAvailability.getInteger("queueLength"), is(0));
+    assertThat(allowedRequestTypes(smallAngryPlanetAvailability).contains("Page"), is(true));
+    assertThat(allowedRequestTypes(smallAngryPlanetAvailability).contains("Hold"), is(false));
+  }
+
+  @Test
+  public void requestTypesAreLimitedByRequestPolicy()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final ArrayList<RequestType> holdOnly = new ArrayList<>();
+    holdOnly.add(RequestType.HOLD);
+
+    //Policies are created only when there is not one with the same name already
+    useLoanPolicyAsFallback(
+      loanPoliciesFixture.canCirculateRolling().getId(),
+      requestPoliciesFixture.customRequestPolicy(holdOnly, "Hold only",
+        "Only allows holds").getId(),
+      noticePoliciesFixture.activeNotice().getId());
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+    final IndividualResource temeraire = itemsFixture.basedUponTemeraire();
+
+    loansFixture.checkOutByBarcode(nod, usersFixture.jessica());
+    loansFixture.checkOutByBarcode(temeraire, usersFixture.jessica());
+
+    final Response response = findAvailability(new JsonObject()
+      .put("userId", usersFixture.steve().getId().toString())
+      .put("itemIds", new JsonArray()
+        .add(nod.getId().toString())
+        .add(temeraire.getId().toString())), 200);
+
+    final List<JsonObject> items = JsonArrayHelper.toList(
+      response.getJson().getJsonArray("items"));
+
+    items.forEach(item -> {
+      assertThat(allowedRequestTypes(item).size(), is(1));
+      assertThat(allowedRequestTypes(item).get(0), is("Hold"));
+    });
+  }
+
+  @Test
+  public void cannotFindAvailabilityForUnknownPatron()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource nod = itemsFixture.basedUponNod();
+
+    findAvailability(new JsonObject()
+      .put("userId", UUID.randomUUID().toString())
+      .put("itemIds", new JsonArray().add(nod.getId().toString())), 422);
+  }
+
+  private static Response findAvailability(JsonObject request, int expectedStatusCode) {
+    return from(post(request, itemsAvailabilityUrl(), expectedStatusCode,
+      "items-availability-request"));
+  }
+
+  private static List<String> allowedRequestTypes(JsonObject availability) {
+    return JsonStringArrayHelper.toStream(availability, "allowedRequestTypes")
+      .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,114 @@
+package api.requests;
+
+import static java.net.HttpURLConnection.HTTP_OK;
+import static org.hamcrest.core.Is.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.folio.circulation.support.JsonArrayHelper;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import api.support.builders.RequestBuilder;
+import api.support.http.InventoryItemResource;
+import api.support.http.ResourceClient;
+import io.vertx.core.json.JsonObject;
+
+public class PickSlipsReportTests extends APITests {
+  @Test
+  public void pickSlipsAreInLocationAndCallNumberOrder()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final UUID servicePointId = servicePointsFixture.cd1().getId();
+
+    final IndividualResource exampleLocation = locationsFixture
+      .basedUponExampleLocation(Function.identity());
+
+    final InventoryItemResource laterOnThirdFloor = itemsFixture.basedUponSmallAngryPlanet(
+      holdings -> holdings.withCallNumber("B 100"),
+      item -> item.withBarcode("100001"));
+
+    final InventoryItemResource earlierOnThirdFloor = itemsFixture.basedUponSmallAngryPlanet(
+      holdings -> holdings.withCallNumber("A 100"),
+      item -> item.withBarcode("100002"));
+
+    final InventoryItemResource inExampleLocation = itemsFixture.basedUponSmallAngryPlanet(
+      holdings -> holdings.withCallNumber("A 050"),
+      item -> item.withBarcode("100003").withTemporaryLocation(exampleLocation));
+
+    placePageRequest(inExampleLocation, servicePointId);
+    placePageRequest(laterOnThirdFloor, servicePointId);
+    placePageRequest(earlierOnThirdFloor, servicePointId);
+
+    final Response response = ResourceClient.forPickSlips(client)
+      .getById(servicePointId);
+
+    assertThat(response.getStatusCode(), is(HTTP_OK));
+    assertThat(response.getJson().getInteger("totalRecords"), is(3));
+
+    final List<String> itemIds = JsonArrayHelper
+      .toList(response.getJson().getJsonArray("requests")).stream()
+      .map(request -> request.getString("itemId"))
+      .collect(Collectors.toList());
+
+    assertThat(itemIds.get(0), is(earlierOnThirdFloor.getId().toString()));
+    assertThat(itemIds.get(1), is(laterOnThirdFloor.getId().toString()));
+    assertThat(itemIds.get(2), is(inExampleLocation.getId().toString()));
+  }
+
+  @Test
+  public void onlyIncludesPageRequestsForItemsFromTheServicePoint()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    placePageRequest(smallAngryPlanet, servicePointsFixture.cd1().getId());
+
+    final InventoryItemResource nod = itemsFixture.basedUponNod();
+
+    loansFixture.checkOutByBarcode(nod, usersFixture.jessica());
+
+    requestsFixture.placeHoldShelfRequest(nod, usersFixture.james(),
+      DateTime.now(DateTimeZone.UTC), servicePointsFixture.cd1().getId());
+
+    final Response otherServicePointResponse = ResourceClient.forPickSlips(client)
+      .getById(servicePointsFixture.cd2().getId());
+
+    assertThat(otherServicePointResponse.getJson().getInteger("totalRecords"), is(0));
+
+    final JsonObject pickSlips = ResourceClient.forPickSlips(client)
+      .getById(servicePointsFixture.cd1().getId()).getJson();
+
+    assertThat(pickSlips.getInteger("totalRecords"), is(1));
+  }
+
+  private void placePageRequest(IndividualResource item, UUID servicePointId)
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    requestsClient.create(new RequestBuilder()
+      .page()
+      .forItem(item)
+      .withPickupServicePointId(servicePointId)
+      .by(usersFixture.james()));
+  }
+}
@@ -1,6 +1,7 @@
 package api.requests;
 
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.junit.MatcherAssert.assertThat;
 
 import java.net.MalformedURLException;
@@ -8,11 +9,16 @@ import java.util.UUID;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
+import org.folio.circulation.domain.RequestType;
 import org.folio.circulation.support.http.client.IndividualResource;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.junit.Test;
 
 import api.support.APITests;
+import api.support.builders.MoveRequestBuilder;
 import api.support.builders.RequestBuilder;
+import api.support.fakes.FakeStorageModule;
 import api.support.http.InventoryItemResource;
 import io.vertx.core.json.JsonObject;
 
@@ -237,4 +243,78 @@ public class RequestsAPILoanHistoryTests extends APITests {
       .withPickupServicePointId(pickupServicePointId)
       .by(usersFixture.charlotte()));
   }
+
+  @Test
+  public void creatingRecallRequestChangesActionAndDueDateOfLoanInSingleUpdate()
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    final IndividualResource loan = loansFixture.checkOutByBarcode(smallAngryPlanet);
+    final String originalDueDate = loan.getJson().getString("dueDate");
+
+    final long updatesBeforeRequest = numberOfTimesLoanReplaced(loan.getId());
+
+    requestsClient.create(new RequestBuilder()
+      .recall()
+      .forItem(smallAngryPlanet)
+      .withPickupServicePointId(pickupServicePointId)
+      .by(usersFixture.charlotte()));
+
+    JsonObject loanFromStorage = loansStorageClient.getById(loan.getId()).getJson();
+
+    assertThat("action snapshot in storage is not recall requested",
+      loanFromStorage.getString("action"), is("recallrequested"));
+
+    assertThat("due date in storage has not been changed by recall",
+      loanFromStorage.getString("dueDate"), not(originalDueDate));
+
+    assertThat("loan should only be updated once",
+      numberOfTimesLoanReplaced(loan.getId()) - updatesBeforeRequest, is(1L));
+  }
+
+  @Test
+  public void movingRequestChangesTheOpenLoanForTheItemItWasMovedFrom()
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final InventoryItemResource interestingTimes = itemsFixture.basedUponInterestingTimes();
+
+    UUID sourceLoanId = loansFixture.checkOutByBarcode(smallAngryPlanet,
+      usersFixture.james()).getId();
+
+    UUID destinationLoanId = loansFixture.checkOutByBarcode(interestingTimes,
+      usersFixture.rebecca()).getId();
+
+    final IndividualResource request = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.charlotte(), DateTime.now(DateTimeZone.UTC));
+
+    assertThat("action snapshot in storage is not hold requested",
+      loansStorageClient.getById(sourceLoanId).getJson().getString("action"),
+      is("holdrequested"));
+
+    requestsFixture.move(new MoveRequestBuilder(request.getId(),
+      interestingTimes.getId(), RequestType.RECALL.getValue()));
+
+    assertThat("action snapshot for item moved from is not recall requested",
+      loansStorageClient.getById(sourceLoanId).getJson().getString("action"),
+      is("recallrequested"));
+
+    assertThat("action snapshot for item moved to is not recall requested",
+      loansStorageClient.getById(destinationLoanId).getJson().getString("action"),
+      is("recallrequested"));
+  }
+
+  private static long numberOfTimesLoanReplaced(UUID loanId) {
+    return FakeStorageModule.getReplacedRecords()
+      .filter(path -> path.equals("/loan-storage/loans/" + loanId))
+      .count();
+  }
 }
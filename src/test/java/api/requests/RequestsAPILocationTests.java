@@ -132,12 +132,16 @@ public class RequestsAPILocationTests extends APITests {
 
     assertThat(firstFetchedRequest, hasItemLocationProperties(allOf(
       hasLibraryName("Djanogly Learning Resource Centre"),
+      hasCampusName("Jubilee Campus"),
+      hasInstitutionName("Nottingham University"),
       hasLocationName("3rd Floor"),
       hasLocationCode("NU/JC/DL/3F")
     )));
 
     assertThat(secondFetchedRequest, hasItemLocationProperties(allOf(
       hasLibraryName("Business Library"),
+      hasCampusName("Jubilee Campus"),
+      hasInstitutionName("Nottingham University"),
       hasLocationName("Display Case, Mezzanine"),
       hasLocationCode("NU/JC/BL/DM")
     )));
@@ -14,8 +14,10 @@ import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.junit.MatcherAssert.assertThat;
 
+import java.io.UnsupportedEncodingException;
 import java.net.HttpURLConnection;
 import java.net.MalformedURLException;
+import java.net.URLEncoder;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -547,6 +549,117 @@ public class RequestsAPIRetrievalTests extends APITests {
     secondPageRequests.forEach(this::requestHasExpectedProperties);
   }
 
+  @Test
+  public void canGetALargePageOfRequests()
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    UUID requesterId = usersFixture.charlotte().getId();
+    final UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    requestsClient.create(new RequestBuilder()
+      .withItemId(itemsFixture.basedUponSmallAngryPlanet(ItemBuilder::checkOut).getId())
+      .withPickupServicePointId(pickupServicePointId)
+      .withRequesterId(requesterId));
+
+    requestsClient.create(new RequestBuilder()
+      .withItemId(itemsFixture.basedUponNod(ItemBuilder::checkOut).getId())
+      .withPickupServicePointId(pickupServicePointId)
+      .withRequesterId(requesterId));
+
+    requestsClient.create(new RequestBuilder()
+      .withItemId(itemsFixture.basedUponTemeraire(ItemBuilder::checkOut).getId())
+      .withPickupServicePointId(pickupServicePointId)
+      .withRequesterId(requesterId));
+
+    //Large pages are streamed, rather than built in memory first
+    final Response response = getRequestsWith("?limit=1000&offset=1");
+
+    assertThat(format("Failed to get large page of requests: %s",
+      response.getBody()),
+      response.getStatusCode(), is(HttpURLConnection.HTTP_OK));
+
+    final JsonObject page = response.getJson();
+
+    final List<JsonObject> requests = getRequests(page);
+
+    assertThat(requests.size(), is(2));
+    assertThat(page.getInteger("totalRecords"), is(3));
+
+    requests.forEach(this::requestHasExpectedProperties);
+  }
+
+  @Test
+  public void canPageRequestsMatchingAQueryByCursor()
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    UnsupportedEncodingException {
+
+    UUID requesterId = usersFixture.charlotte().getId();
+    UUID otherRequesterId = usersFixture.steve().getId();
+    final UUID pickupServicePointId = servicePointsFixture.cd1().getId();
+
+    requestsClient.create(new RequestBuilder()
+      .withItemId(itemsFixture.basedUponSmallAngryPlanet(ItemBuilder::checkOut).getId())
+      .withPickupServicePointId(pickupServicePointId)
+      .withRequesterId(requesterId));
+
+    requestsClient.create(new RequestBuilder()
+      .withItemId(itemsFixture.basedUponNod(ItemBuilder::checkOut).getId())
+      .withPickupServicePointId(pickupServicePointId)
+      .withRequesterId(requesterId));
+
+    requestsClient.create(new RequestBuilder()
+      .withItemId(itemsFixture.basedUponTemeraire(ItemBuilder::checkOut).getId())
+      .withPickupServicePointId(pickupServicePointId)
+      .withRequesterId(requesterId));
+
+    requestsClient.create(new RequestBuilder()
+      .withItemId(itemsFixture.basedUponUprooted(ItemBuilder::checkOut).getId())
+      .withPickupServicePointId(pickupServicePointId)
+      .withRequesterId(otherRequesterId));
+
+    final String query = URLEncoder.encode(
+      String.format("requesterId==\"%s\"", requesterId), "UTF-8");
+
+    final JsonObject firstPage = getRequestsWith(
+      String.format("?query=%s&cursor=&limit=2", query)).getJson();
+
+    final JsonObject secondPage = getRequestsWith(
+      String.format("?query=%s&cursor=%s&limit=2", query,
+        firstPage.getString("nextCursor"))).getJson();
+
+    final List<JsonObject> firstPageRequests = getRequests(firstPage);
+    final List<JsonObject> secondPageRequests = getRequests(secondPage);
+
+    assertThat(firstPageRequests.size(), is(2));
+    assertThat(secondPageRequests.size(), is(1));
+
+    assertThat(secondPage.containsKey("nextCursor"), is(false));
+
+    assertThat(secondPageRequests.get(0).getString("requesterId"),
+      is(requesterId.toString()));
+
+    firstPageRequests.forEach(this::requestHasExpectedProperties);
+    secondPageRequests.forEach(this::requestHasExpectedProperties);
+  }
+
+  @Test
+  public void cannotPageRequestsByAnInvalidCursor()
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    final Response response = getRequestsWith("?cursor=not-a-cursor");
+
+    assertThat(response.getStatusCode(), is(422));
+  }
+
   @Test
   public void canSearchForRequestsByRequesterLastName()
     throws MalformedURLException,
@@ -744,6 +857,70 @@ public class RequestsAPIRetrievalTests extends APITests {
     requests.forEach(this::requestHasExpectedProperties);
   }
 
+  @Test
+  public void canOnlyIncludeSomeRelatedRecords()
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    final InventoryItemResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+
+    requestsFixture.placeHoldShelfRequest(smallAngryPlanet, usersFixture.charlotte(),
+      DateTime.now(DateTimeZone.UTC), servicePointsFixture.cd1().getId());
+
+    final List<JsonObject> everything = getRequests(
+      getRequestsWith("").getJson());
+
+    assertThat(everything.get(0).getJsonObject("requester")
+      .containsKey("patronGroupId"), is(true));
+    assertThat(everything.get(0).containsKey("loan"), is(true));
+    assertThat(everything.get(0).containsKey("pickupServicePoint"), is(true));
+
+    final List<JsonObject> onlyRequester = getRequests(
+      getRequestsWith("?include=requester").getJson());
+
+    assertThat(onlyRequester.get(0).getJsonObject("requester")
+      .containsKey("patronGroupId"), is(true));
+    assertThat(onlyRequester.get(0).containsKey("loan"), is(false));
+    assertThat(onlyRequester.get(0).containsKey("pickupServicePoint"), is(false));
+
+    final List<JsonObject> nothingRelated = getRequests(
+      getRequestsWith("?include=").getJson());
+
+    assertThat(nothingRelated.size(), is(1));
+    assertThat(nothingRelated.get(0).getJsonObject("requester")
+      .containsKey("patronGroupId"), is(false));
+    assertThat(nothingRelated.get(0).containsKey("loan"), is(false));
+  }
+
+  @Test
+  public void cannotIncludeUnknownRelatedRecords()
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    final Response response = getRequestsWith("?include=requester,librarian");
+
+    assertThat(response.getStatusCode(), is(422));
+  }
+
+  private Response getRequestsWith(String queryString)
+    throws MalformedURLException,
+    InterruptedException,
+    ExecutionException,
+    TimeoutException {
+
+    CompletableFuture<Response> getRequestsCompleted = new CompletableFuture<>();
+
+    client.get(requestsUrl() + queryString, any(getRequestsCompleted));
+
+    return getRequestsCompleted.get(5, TimeUnit.SECONDS);
+  }
+
   private List<JsonObject> getRequests(JsonObject page) {
     System.out.println("Found requests");
     System.out.println(page.getJsonArray("requests").encodePrettily());
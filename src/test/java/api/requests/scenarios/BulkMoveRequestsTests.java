@@ -0,0 +1,132 @@
+package api.requests.scenarios;
+
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.folio.circulation.support.http.client.Response;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import api.support.APITests;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+public class BulkMoveRequestsTests extends APITests {
+  @Test
+  public void canMoveAllUnfilledRequestsToTheEndOfAnotherQueue()
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    final IndividualResource withdrawnCopy = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource otherCopy = itemsFixture.basedUponNod();
+
+    final DateTime now = DateTime.now(DateTimeZone.UTC);
+
+    loansFixture.checkOutByBarcode(withdrawnCopy, usersFixture.james());
+    loansFixture.checkOutByBarcode(otherCopy, usersFixture.rebecca());
+
+    final IndividualResource charlotteRequest = requestsFixture.placeHoldShelfRequest(
+      otherCopy, usersFixture.charlotte(), now.minusHours(4));
+
+    final IndividualResource jessicaRequest = requestsFixture.placeHoldShelfRequest(
+      withdrawnCopy, usersFixture.jessica(), now.minusHours(3));
+
+    final IndividualResource steveRequest = requestsFixture.placeHoldShelfRequest(
+      withdrawnCopy, usersFixture.steve(), now.minusHours(2));
+
+    final Response response = requestsFixture.bulkMove(new JsonObject()
+      .put("sourceItemId", withdrawnCopy.getId().toString())
+      .put("destinationItemId", otherCopy.getId().toString()));
+
+    assertThat(response.getJson().getInteger("totalRecords"), is(2));
+
+    final JsonArray moves = response.getJson().getJsonArray("moves");
+
+    assertThat(moves.getJsonObject(0).getString("requestId"),
+      is(jessicaRequest.getId().toString()));
+    assertThat(moves.getJsonObject(0).getJsonObject("request"), notNullValue());
+
+    assertThat(moves.getJsonObject(1).getString("requestId"),
+      is(steveRequest.getId().toString()));
+    assertThat(moves.getJsonObject(1).getJsonObject("request"), notNullValue());
+
+    assertThat(requestsFixture.getQueueFor(withdrawnCopy).getTotalRecords(), is(0));
+    assertThat(requestsFixture.getQueueFor(otherCopy).getTotalRecords(), is(3));
+
+    assertThat(getStoredRequest(charlotteRequest).getInteger("position"), is(1));
+
+    final JsonObject movedJessicaRequest = getStoredRequest(jessicaRequest);
+
+    assertThat(movedJessicaRequest.getString("itemId"), is(otherCopy.getId().toString()));
+    assertThat(movedJessicaRequest.getInteger("position"), is(2));
+
+    final JsonObject movedSteveRequest = getStoredRequest(steveRequest);
+
+    assertThat(movedSteveRequest.getString("itemId"), is(otherCopy.getId().toString()));
+    assertThat(movedSteveRequest.getInteger("position"), is(3));
+  }
+
+  @Test
+  public void reportsRequestsWhichCannotBeMoved()
+    throws InterruptedException,
+    ExecutionException,
+    TimeoutException,
+    MalformedURLException {
+
+    final IndividualResource withdrawnCopy = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource otherCopy = itemsFixture.basedUponNod();
+
+    final DateTime now = DateTime.now(DateTimeZone.UTC);
+
+    loansFixture.checkOutByBarcode(withdrawnCopy, usersFixture.james());
+    loansFixture.checkOutByBarcode(otherCopy, usersFixture.rebecca());
+
+    requestsFixture.placeHoldShelfRequest(otherCopy, usersFixture.jessica(),
+      now.minusHours(4));
+
+    final IndividualResource jessicaRequest = requestsFixture.placeHoldShelfRequest(
+      withdrawnCopy, usersFixture.jessica(), now.minusHours(3));
+
+    final IndividualResource steveRequest = requestsFixture.placeHoldShelfRequest(
+      withdrawnCopy, usersFixture.steve(), now.minusHours(2));
+
+    final Response response = requestsFixture.bulkMove(new JsonObject()
+      .put("sourceItemId", withdrawnCopy.getId().toString())
+      .put("destinationItemId", otherCopy.getId().toString()));
+
+    final JsonArray moves = response.getJson().getJsonArray("moves");
+
+    assertThat(moves.getJsonObject(0).getString("requestId"),
+      is(jessicaRequest.getId().toString()));
+    assertThat(moves.getJsonObject(0).getJsonObject("request"), nullValue());
+    assertThat(moves.getJsonObject(0).getJsonArray("errors").size(), is(1));
+
+    assertThat(moves.getJsonObject(1).getJsonObject("request"), notNullValue());
+
+    final JsonObject notMovedRequest = getStoredRequest(jessicaRequest);
+
+    assertThat(notMovedRequest.getString("itemId"), is(withdrawnCopy.getId().toString()));
+    assertThat(notMovedRequest.getInteger("position"), is(1));
+
+    assertThat(getStoredRequest(steveRequest).getInteger("position"), is(2));
+  }
+
+  private JsonObject getStoredRequest(IndividualResource request)
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    return requestsStorageClient.getById(request.getId()).getJson();
+  }
+}
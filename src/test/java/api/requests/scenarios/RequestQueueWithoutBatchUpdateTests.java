@@ -0,0 +1,224 @@
+package api.requests.scenarios;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.net.MalformedURLException;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.folio.circulation.domain.MultipleRecords;
+import org.folio.circulation.support.http.client.IndividualResource;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import api.support.APITests;
+import api.support.builders.MoveRequestBuilder;
+import api.support.fakes.FakeStorageModule;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * When storage cannot update many requests at once, each request which
+ * has changed position is updated individually
+ */
+public class RequestQueueWithoutBatchUpdateTests extends APITests {
+  @Before
+  public void makeBatchUpdatesUnavailable() {
+    FakeStorageModule.makeBatchUpdatesUnavailable();
+  }
+
+  @After
+  public void makeBatchUpdatesAvailable() {
+    FakeStorageModule.makeBatchUpdatesAvailable();
+  }
+
+  @Test
+  public void earlierRequestIsPlacedAheadOfLaterRequests()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+
+    final IndividualResource requestByJessica = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.jessica(),
+      new DateTime(2018, 1, 10, 15, 34, 21, DateTimeZone.UTC));
+
+    final IndividualResource requestBySteve = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.steve(),
+      new DateTime(2018, 2, 4, 7, 4, 53, DateTimeZone.UTC));
+
+    final IndividualResource requestByCharlotte = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.charlotte(),
+      new DateTime(2018, 1, 20, 9, 12, 43, DateTimeZone.UTC));
+
+    final MultipleRecords<JsonObject> queue = requestsFixture.getQueueFor(smallAngryPlanet);
+
+    assertThat("Should have contiguous positions", positions(queue), contains(1, 2, 3));
+
+    assertThat("Should be in request date order", requestIds(queue), contains(
+      requestByJessica.getId(), requestByCharlotte.getId(), requestBySteve.getId()));
+  }
+
+  @Test
+  public void requestsAfterCancelledRequestMoveUp()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+
+    final IndividualResource requestByJessica = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.jessica(), DateTime.now(DateTimeZone.UTC).minusHours(5));
+
+    final IndividualResource requestBySteve = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.steve(), DateTime.now(DateTimeZone.UTC).minusHours(4));
+
+    final IndividualResource requestByCharlotte = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.charlotte(), DateTime.now(DateTimeZone.UTC).minusHours(3));
+
+    final IndividualResource requestByRebecca = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.rebecca(), DateTime.now(DateTimeZone.UTC).minusHours(2));
+
+    requestsFixture.cancelRequest(requestByJessica);
+
+    final MultipleRecords<JsonObject> queue = requestsFixture.getQueueFor(smallAngryPlanet);
+
+    assertThat("Should have contiguous positions", positions(queue), contains(1, 2, 3));
+
+    assertThat("Should be in same order as before cancellation", requestIds(queue),
+      contains(requestBySteve.getId(), requestByCharlotte.getId(),
+        requestByRebecca.getId()));
+  }
+
+  @Test
+  public void bothQueuesAreUpdatedWhenRequestIsMoved()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+    final IndividualResource interestingTimes = itemsFixture.basedUponInterestingTimes();
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+    loansFixture.checkOutByBarcode(interestingTimes, usersFixture.rebecca());
+
+    final IndividualResource requestByJessica = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.jessica(), DateTime.now(DateTimeZone.UTC).minusHours(5));
+
+    final IndividualResource requestBySteve = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.steve(), DateTime.now(DateTimeZone.UTC).minusHours(4));
+
+    final IndividualResource requestByCharlotte = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.charlotte(), DateTime.now(DateTimeZone.UTC).minusHours(3));
+
+    final IndividualResource requestByJames = requestsFixture.placeHoldShelfRequest(
+      interestingTimes, usersFixture.james(), DateTime.now(DateTimeZone.UTC).minusHours(1));
+
+    requestsFixture.move(new MoveRequestBuilder(requestByJessica.getId(),
+      interestingTimes.getId()));
+
+    final MultipleRecords<JsonObject> sourceQueue
+      = requestsFixture.getQueueFor(smallAngryPlanet);
+
+    assertThat("Source queue should have contiguous positions",
+      positions(sourceQueue), contains(1, 2));
+
+    assertThat("Rest of source queue should have moved up", requestIds(sourceQueue),
+      contains(requestBySteve.getId(), requestByCharlotte.getId()));
+
+    final MultipleRecords<JsonObject> destinationQueue
+      = requestsFixture.getQueueFor(interestingTimes);
+
+    assertThat("Destination queue should have contiguous positions",
+      positions(destinationQueue), contains(1, 2));
+
+    assertThat("Moved request should be placed by request date",
+      requestIds(destinationQueue),
+      contains(requestByJessica.getId(), requestByJames.getId()));
+  }
+
+  @Test
+  public void queueOutOfRequestDateOrderIsReorderedWhenRequestIsPlaced()
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final IndividualResource smallAngryPlanet = itemsFixture.basedUponSmallAngryPlanet();
+
+    loansFixture.checkOutByBarcode(smallAngryPlanet, usersFixture.james());
+
+    final IndividualResource requestByJessica = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.jessica(), DateTime.now(DateTimeZone.UTC).minusHours(5));
+
+    final IndividualResource requestBySteve = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.steve(), DateTime.now(DateTimeZone.UTC).minusHours(4));
+
+    final IndividualResource requestByCharlotte = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.charlotte(), DateTime.now(DateTimeZone.UTC).minusHours(3));
+
+    //Rotate the stored positions, so that each request needs to move into
+    //the position of another once the queue is put back in request date order
+    changeStoredPosition(requestByJessica, null);
+    changeStoredPosition(requestBySteve, 1);
+    changeStoredPosition(requestByCharlotte, 2);
+    changeStoredPosition(requestByJessica, 3);
+
+    final IndividualResource requestByRebecca = requestsFixture.placeHoldShelfRequest(
+      smallAngryPlanet, usersFixture.rebecca(), DateTime.now(DateTimeZone.UTC).minusHours(2));
+
+    final MultipleRecords<JsonObject> queue = requestsFixture.getQueueFor(smallAngryPlanet);
+
+    assertThat("Should have contiguous positions", positions(queue),
+      contains(1, 2, 3, 4));
+
+    assertThat("Should be in request date order", requestIds(queue), contains(
+      requestByJessica.getId(), requestBySteve.getId(),
+      requestByCharlotte.getId(), requestByRebecca.getId()));
+  }
+
+  private void changeStoredPosition(IndividualResource request, Integer position)
+    throws InterruptedException,
+    MalformedURLException,
+    TimeoutException,
+    ExecutionException {
+
+    final JsonObject storedRequest = requestsStorageClient.getById(request.getId())
+      .getJson();
+
+    if (position == null) {
+      storedRequest.remove("position");
+    }
+    else {
+      storedRequest.put("position", position);
+    }
+
+    requestsStorageClient.replace(request.getId(), storedRequest);
+  }
+
+  private static Collection<Integer> positions(MultipleRecords<JsonObject> queue) {
+    return queue
+      .mapRecords(request -> request.getInteger("position"))
+      .getRecords();
+  }
+
+  private static Collection<UUID> requestIds(MultipleRecords<JsonObject> queue) {
+    return queue
+      .mapRecords(request -> UUID.fromString(request.getString("id")))
+      .getRecords();
+  }
+}
@@ -154,6 +154,9 @@ public abstract class APITests {
   protected final ScheduledNoticeProcessingClient scheduledNoticeProcessingClient =
     new ScheduledNoticeProcessingClient();
 
+  protected final HoldShelfExpirationProcessingClient holdShelfExpirationProcessingClient =
+    new HoldShelfExpirationProcessingClient();
+
   protected APITests() {
     this(true);
   }
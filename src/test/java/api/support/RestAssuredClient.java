@@ -5,6 +5,7 @@ import static org.folio.circulation.support.http.OkapiHeader.OKAPI_URL;
 import static org.folio.circulation.support.http.OkapiHeader.TENANT;
 
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 
 import org.folio.circulation.support.http.OkapiHeader;
 import org.folio.circulation.support.http.client.Response;
@@ -106,6 +107,27 @@ public class RestAssuredClient {
       .extract().response();
   }
 
+  public static io.restassured.response.Response postNewlineDelimitedJson(
+    String body,
+    URL url,
+    int expectedStatusCode,
+    String requestId) {
+
+    return given()
+      .log().all()
+      .spec(defaultHeaders(requestId))
+      .spec(timeoutConfig())
+      .contentType("application/x-ndjson")
+      .accept("application/x-ndjson, text/plain")
+      //Rest Assured does not know how to encode a string as newline delimited JSON
+      .body(body.getBytes(StandardCharsets.UTF_8))
+      .when().post(url)
+      .then()
+      .log().all()
+      .statusCode(expectedStatusCode)
+      .extract().response();
+  }
+
   public static io.restassured.response.Response get(
     URL url,
     int expectedStatusCode,
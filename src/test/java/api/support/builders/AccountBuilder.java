@@ -19,7 +19,8 @@ public class AccountBuilder extends JsonBuilder implements Builder {
   public AccountBuilder() {
   }
 
-  AccountBuilder(String loanId, Double amount, String status) {
+  AccountBuilder(String userId, String loanId, Double amount, String status) {
+    this.userId = userId;
     this.loanId = loanId;
     this.amount = amount;
     this.status = status;
@@ -44,19 +45,23 @@ public class AccountBuilder extends JsonBuilder implements Builder {
   }
 
   public AccountBuilder withLoan(IndividualResource loan) {
-    return new AccountBuilder(loan.getId().toString(), amount, status);
+    return new AccountBuilder(userId, loan.getId().toString(), amount, status);
+  }
+
+  public AccountBuilder forUser(IndividualResource user) {
+    return new AccountBuilder(user.getId().toString(), loanId, amount, status);
   }
 
   public AccountBuilder withRemainingFeeFine(double remaining) {
-    return new AccountBuilder(loanId, remaining, status);
+    return new AccountBuilder(userId, loanId, remaining, status);
   }
 
   public AccountBuilder feeFineStatusOpen() {
-    return new AccountBuilder(loanId, amount, "Open");
+    return new AccountBuilder(userId, loanId, amount, "Open");
   }
 
   public AccountBuilder feeFineStatusClosed() {
-    return new AccountBuilder(loanId, amount, "Closed");
+    return new AccountBuilder(userId, loanId, amount, "Closed");
   }
 
 
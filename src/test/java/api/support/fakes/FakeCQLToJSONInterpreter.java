@@ -79,7 +79,7 @@ public class FakeCQLToJSONInterpreter {
           printDiagnostics(() -> String.format("Split clause: %s",
             String.join(", ", split)));
 
-          String searchField = split[0]
+          String searchField = removeBrackets(split[0])
             .replaceAll("\"", "");
 
           String searchTerm = split[1]
@@ -115,6 +115,10 @@ public class FakeCQLToJSONInterpreter {
   }
 
   private Predicate<JsonObject> filterByField(String field, String term, String operator) {
+    if (StringUtils.equals(field, "cql.allRecords")) {
+      return record -> true;
+    }
+
     return record -> {
       final boolean result;
       final String propertyValue;
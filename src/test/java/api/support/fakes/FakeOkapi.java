@@ -181,6 +181,7 @@ public class FakeOkapi extends AbstractVerticle {
     new FakeStorageModuleBuilder()
       .withRecordName("request")
       .withRootPath("/request-storage/requests")
+      .withBatchUpdatePath("/request-storage-batch/requests")
       .withRequiredProperties("itemId", "requesterId", "requestType",
         "requestDate", "fulfilmentPreference")
       .withDisallowedProperties("pickupServicePoint", "loan", "deliveryAddress")
@@ -42,6 +42,8 @@ import io.vertx.ext.web.handler.BodyHandler;
 
 public class FakeStorageModule extends AbstractVerticle {
   private static final Set<String> queries = Collections.synchronizedSet(new HashSet<>());
+  private static final List<String> replacedRecords = Collections.synchronizedList(new ArrayList<>());
+  private static volatile boolean batchUpdatesAvailable = true;
 
   private final String rootPath;
   private final String collectionPropertyName;
@@ -55,11 +57,35 @@ public class FakeStorageModule extends AbstractVerticle {
   private final Boolean includeChangeMetadata;
   private final String changeMetadataPropertyName = "metadata";
   private final BiFunction<Collection<JsonObject>, JsonObject, Result<Object>> constraint;
+  private final String batchUpdatePath;
 
   public static Stream<String> getQueries() {
     return queries.stream();
   }
 
+  /**
+   * @return the path of each record replaced individually, once for every
+   * time it has been replaced
+   */
+  public static Stream<String> getReplacedRecords() {
+    synchronized (replacedRecords) {
+      return new ArrayList<>(replacedRecords).stream();
+    }
+  }
+
+  /**
+   * Emulates storage which does not support batch updates (the batch
+   * endpoint responds with not found), so that records are updated
+   * individually instead
+   */
+  public static void makeBatchUpdatesUnavailable() {
+    batchUpdatesAvailable = false;
+  }
+
+  public static void makeBatchUpdatesAvailable() {
+    batchUpdatesAvailable = true;
+  }
+
   FakeStorageModule(
     String rootPath,
     String collectionPropertyName,
@@ -71,7 +97,8 @@ public class FakeStorageModule extends AbstractVerticle {
     Collection<String> uniqueProperties,
     Collection<String> disallowedProperties,
     Boolean includeChangeMetadata,
-    BiFunction<Collection<JsonObject>, JsonObject, Result<Object>> constraint) {
+    BiFunction<Collection<JsonObject>, JsonObject, Result<Object>> constraint,
+    String batchUpdatePath) {
 
     this.rootPath = rootPath;
     this.collectionPropertyName = collectionPropertyName;
@@ -83,6 +110,7 @@ public class FakeStorageModule extends AbstractVerticle {
     this.disallowedProperties = disallowedProperties;
     this.constraint = constraint;
     this.includeChangeMetadata = includeChangeMetadata;
+    this.batchUpdatePath = batchUpdatePath;
 
     storedResourcesByTenant = new HashMap<>();
     storedResourcesByTenant.put(tenantId, new HashMap<>());
@@ -117,6 +145,14 @@ public class FakeStorageModule extends AbstractVerticle {
 
     router.get(rootPath + "/:id").handler(this::getById);
     router.delete(rootPath + "/:id").handler(this::delete);
+
+    if (batchUpdatePath != null) {
+      router.route(batchUpdatePath).handler(this::checkTokenHeader);
+      router.route(batchUpdatePath).handler(this::checkRequestIdHeader);
+
+      router.post(batchUpdatePath).handler(BodyHandler.create());
+      router.post(batchUpdatePath).handler(this::batchUpdate);
+    }
   }
 
   private void create(RoutingContext routingContext) {
@@ -181,6 +217,8 @@ public class FakeStorageModule extends AbstractVerticle {
       System.out.println(
         format("Replaced %s resource: %s", recordTypeName, id));
 
+      replacedRecords.add(routingContext.request().path());
+
       if(includeChangeMetadata) {
         final String fakeUserId = APITestContext.getUserId();
         final JsonObject existingChangeMetadata = resourcesForTenant.get(id)
@@ -230,6 +268,65 @@ public class FakeStorageModule extends AbstractVerticle {
     }
   }
 
+  //Emulates a storage batch update, which replaces all of the records
+  // together, so constraints are only checked against the outcome
+  private void batchUpdate(RoutingContext routingContext) {
+    WebContext context = new WebContext(routingContext);
+
+    if (!batchUpdatesAvailable) {
+      ClientErrorResponse.notFound(routingContext.response());
+      return;
+    }
+
+    final List<JsonObject> records = getJsonFromBody(routingContext)
+      .getJsonArray(collectionPropertyName, new JsonArray())
+      .stream()
+      .map(JsonObject.class::cast)
+      .collect(Collectors.toList());
+
+    final Map<String, JsonObject> resourcesForTenant = getResourcesForTenant(context);
+    final Map<String, JsonObject> updatedResources = new HashMap<>(resourcesForTenant);
+
+    for (JsonObject record : records) {
+      final String id = record.getString("id");
+
+      if (!resourcesForTenant.containsKey(id)) {
+        failedValidation(format("%s resource %s does not exist", recordTypeName, id),
+          "id", id).writeTo(routingContext.response());
+        return;
+      }
+
+      if(includeChangeMetadata) {
+        record.put(changeMetadataPropertyName, resourcesForTenant.get(id)
+          .getJsonObject(changeMetadataPropertyName).copy()
+          .put("updatedDate", new DateTime(DateTimeZone.UTC)
+            .toString(ISODateTimeFormat.dateTime()))
+          .put("updatedByUserId", APITestContext.getUserId()));
+      }
+
+      updatedResources.put(id, record);
+    }
+
+    if (constraint != null) {
+      for (JsonObject record : records) {
+        final Result<Object> checkConstraint = constraint.apply(
+          updatedResources.values(), record);
+
+        if (checkConstraint.failed()) {
+          checkConstraint.cause().writeTo(routingContext.response());
+          return;
+        }
+      }
+    }
+
+    records.forEach(record -> resourcesForTenant.put(record.getString("id"), record));
+
+    System.out.println(
+      format("Replaced %s %s resources in batch", records.size(), recordTypeName));
+
+    routingContext.response().setStatusCode(201).end();
+  }
+
   private void getById(RoutingContext routingContext) {
     WebContext context = new WebContext(routingContext);
 
@@ -22,6 +22,7 @@ public class FakeStorageModuleBuilder {
   private final String recordName;
   private final Boolean includeChangeMetadata;
   private final BiFunction<Collection<JsonObject>, JsonObject, Result<Object>> constraint;
+  private final String batchUpdatePath;
 
   FakeStorageModuleBuilder() {
     this(
@@ -35,7 +36,8 @@ public class FakeStorageModuleBuilder {
       new ArrayList<>(),
       false,
       false,
-      (c, r) -> Result.succeeded(null));
+      (c, r) -> Result.succeeded(null),
+      null);
   }
 
   private FakeStorageModuleBuilder(
@@ -48,7 +50,8 @@ public class FakeStorageModuleBuilder {
     String recordName,
     Collection<String> uniqueProperties,
     Boolean hasDeleteByQuery,
-    Boolean includeChangeMetadata, BiFunction<Collection<JsonObject>, JsonObject, Result<Object>> constraint) {
+    Boolean includeChangeMetadata, BiFunction<Collection<JsonObject>, JsonObject, Result<Object>> constraint,
+    String batchUpdatePath) {
 
     this.rootPath = rootPath;
     this.collectionPropertyName = collectionPropertyName;
@@ -61,12 +64,13 @@ public class FakeStorageModuleBuilder {
     this.hasDeleteByQuery = hasDeleteByQuery;
     this.includeChangeMetadata = includeChangeMetadata;
     this.constraint = constraint;
+    this.batchUpdatePath = batchUpdatePath;
   }
 
   public FakeStorageModule create() {
     return new FakeStorageModule(rootPath, collectionPropertyName, tenantId,
       requiredProperties, hasCollectionDelete, hasDeleteByQuery, recordName, uniqueProperties,
-      disallowedProperties, includeChangeMetadata, constraint);
+      disallowedProperties, includeChangeMetadata, constraint, batchUpdatePath);
   }
 
   FakeStorageModuleBuilder withRootPath(String rootPath) {
@@ -85,7 +89,8 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       this.hasDeleteByQuery,
       this.includeChangeMetadata,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
   }
 
   FakeStorageModuleBuilder withCollectionPropertyName(
@@ -102,7 +107,8 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       this.hasDeleteByQuery,
       this.includeChangeMetadata,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
   }
 
   FakeStorageModuleBuilder withRecordName(String recordName) {
@@ -117,7 +123,8 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       this.hasDeleteByQuery,
       this.includeChangeMetadata,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
   }
 
   private FakeStorageModuleBuilder withRequiredProperties(
@@ -134,7 +141,8 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       this.hasDeleteByQuery,
       this.includeChangeMetadata,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
     }
 
   FakeStorageModuleBuilder withRequiredProperties(String... requiredProperties) {
@@ -155,7 +163,8 @@ public class FakeStorageModuleBuilder {
       uniqueProperties,
       this.hasDeleteByQuery,
       this.includeChangeMetadata,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
   }
 
   FakeStorageModuleBuilder withUniqueProperties(String... uniqueProperties) {
@@ -176,7 +185,8 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       this.hasDeleteByQuery,
       this.includeChangeMetadata,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
   }
 
   FakeStorageModuleBuilder withDisallowedProperties(String... disallowedProperties) {
@@ -195,7 +205,8 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       this.hasDeleteByQuery,
       this.includeChangeMetadata,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
   }
 
   FakeStorageModuleBuilder allowDeleteByQuery() {
@@ -210,7 +221,8 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       true,
       this.includeChangeMetadata,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
   }
 
   FakeStorageModuleBuilder withChangeMetadata() {
@@ -225,7 +237,8 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       this.hasDeleteByQuery,
       true,
-      this.constraint);
+      this.constraint,
+      this.batchUpdatePath);
   }
 
   FakeStorageModuleBuilder withRecordConstraint(
@@ -242,6 +255,23 @@ public class FakeStorageModuleBuilder {
       this.uniqueProperties,
       this.hasDeleteByQuery,
       this.includeChangeMetadata,
-      constraint);
+      constraint,
+      this.batchUpdatePath);
+  }
+
+  FakeStorageModuleBuilder withBatchUpdatePath(String batchUpdatePath) {
+    return new FakeStorageModuleBuilder(
+      this.rootPath,
+      this.collectionPropertyName,
+      this.tenantId,
+      this.requiredProperties,
+      this.disallowedProperties,
+      this.hasCollectionDelete,
+      this.recordName,
+      this.uniqueProperties,
+      this.hasDeleteByQuery,
+      this.includeChangeMetadata,
+      this.constraint,
+      batchUpdatePath);
   }
 }
@@ -0,0 +1,32 @@
+package api.support.fixtures;
+
+import static api.support.APITestContext.circulationModuleUrl;
+import static api.support.RestAssuredClient.manuallyStartTimedTask;
+
+import java.net.URL;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeUtils;
+
+import io.vertx.core.json.JsonObject;
+
+public class HoldShelfExpirationProcessingClient {
+
+  public JsonObject runExpirationProcessing(DateTime mockSystemTime) {
+    DateTimeUtils.setCurrentMillisFixed(mockSystemTime.getMillis());
+
+    try {
+      return runExpirationProcessing();
+    }
+    finally {
+      DateTimeUtils.setCurrentMillisSystem();
+    }
+  }
+
+  public JsonObject runExpirationProcessing() {
+    URL url = circulationModuleUrl("/circulation/hold-shelf-expiration-processing");
+
+    return new JsonObject(manuallyStartTimedTask(url, 200,
+      "hold-shelf-expiration-processing-request").body().asString());
+  }
+}
@@ -2,9 +2,15 @@ package api.support.fixtures;
 
 import static api.support.RestAssuredClient.from;
 import static api.support.RestAssuredClient.post;
+import static api.support.RestAssuredClient.postNewlineDelimitedJson;
 import static api.support.http.AdditionalHttpStatusCodes.UNPROCESSABLE_ENTITY;
+import static api.support.http.InterfaceUrls.bulkCheckInByBarcodeUrl;
+import static api.support.http.InterfaceUrls.bulkCheckOutByBarcodeUrl;
+import static api.support.http.InterfaceUrls.bulkRenewUrl;
 import static api.support.http.InterfaceUrls.checkInByBarcodeUrl;
 import static api.support.http.InterfaceUrls.checkOutByBarcodeUrl;
+import static api.support.http.InterfaceUrls.offlineTransactionsUrl;
+import static api.support.http.InterfaceUrls.overrideBulkCheckOutByBarcodeUrl;
 import static api.support.http.InterfaceUrls.overrideCheckOutByBarcodeUrl;
 import static api.support.http.InterfaceUrls.overrideRenewalByBarcodeUrl;
 import static api.support.http.InterfaceUrls.renewByBarcodeUrl;
@@ -327,6 +333,44 @@ public class LoansFixture {
       .at(servicePointId));
   }
 
+  public Response replayOfflineTransactions(String transactions) {
+    return from(postNewlineDelimitedJson(transactions, offlineTransactionsUrl(),
+      200, "offline-transactions-request"));
+  }
+
+  public Response attemptBulkCheckOutByBarcode(JsonObject request) {
+    return from(post(request, bulkCheckOutByBarcodeUrl(),
+      "bulk-check-out-by-barcode-request"));
+  }
+
+  public Response bulkCheckOutByBarcode(JsonObject request) {
+    return from(post(request, bulkCheckOutByBarcodeUrl(), 200,
+      "bulk-check-out-by-barcode-request"));
+  }
+
+  public Response overrideBulkCheckOutByBarcode(JsonObject request) {
+    return from(post(request, overrideBulkCheckOutByBarcodeUrl(), 200,
+      "override-bulk-check-out-by-barcode-request"));
+  }
+
+  public Response attemptBulkCheckInByBarcode(JsonObject request) {
+    return from(post(request, bulkCheckInByBarcodeUrl(),
+      "bulk-check-in-by-barcode-request"));
+  }
+
+  public Response bulkCheckInByBarcode(JsonObject request) {
+    return from(post(request, bulkCheckInByBarcodeUrl(), 200,
+      "bulk-check-in-by-barcode-request"));
+  }
+
+  public Response attemptBulkRenewal(JsonObject request) {
+    return from(post(request, bulkRenewUrl(), "bulk-renew-request"));
+  }
+
+  public Response bulkRenewal(JsonObject request) {
+    return from(post(request, bulkRenewUrl(), 200, "bulk-renew-request"));
+  }
+
   private IndividualResource defaultServicePoint()
     throws InterruptedException,
     MalformedURLException,
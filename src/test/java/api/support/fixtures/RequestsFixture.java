@@ -198,6 +198,11 @@ public class RequestsFixture {
     return requestsClient.attemptMove(requestToBuild);
   }
 
+  public Response bulkMove(JsonObject request) {
+    return RestAssuredClient.from(RestAssuredClient.post(request,
+      InterfaceUrls.bulkMoveRequestsUrl(), 200, "bulk-move-requests-request"));
+  }
+
   public MultipleRecords<JsonObject> getQueueFor(IndividualResource item) {
     //TODO: Replace with better parsing
     return MultipleRecords.from(
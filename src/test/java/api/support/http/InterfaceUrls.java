@@ -112,10 +112,18 @@ public class InterfaceUrls {
     return circulationModuleUrl("/circulation/requests-reports/hold-shelf-clearance/" + servicePointId);
   }
 
+  public static URL pickSlipsUrl(String servicePointId) {
+    return circulationModuleUrl("/circulation/requests-reports/pick-slips/" + servicePointId);
+  }
+
   public static URL requestQueueUrl(UUID itemId) {
     return requestsUrl(String.format("/queue/%s", itemId));
   }
 
+  public static URL bulkMoveRequestsUrl() {
+    return requestsUrl("/bulk-move");
+  }
+
   public static URL checkOutByBarcodeUrl() {
     return circulationModuleUrl("/circulation/check-out-by-barcode");
   }
@@ -128,6 +136,26 @@ public class InterfaceUrls {
     return circulationModuleUrl("/circulation/check-in-by-barcode");
   }
 
+  public static URL offlineTransactionsUrl() {
+    return circulationModuleUrl("/circulation/offline-transactions");
+  }
+
+  public static URL bulkCheckOutByBarcodeUrl() {
+    return circulationModuleUrl("/circulation/bulk-check-out-by-barcode");
+  }
+
+  public static URL overrideBulkCheckOutByBarcodeUrl() {
+    return circulationModuleUrl("/circulation/override-bulk-check-out-by-barcode");
+  }
+
+  public static URL bulkCheckInByBarcodeUrl() {
+    return circulationModuleUrl("/circulation/bulk-check-in-by-barcode");
+  }
+
+  public static URL bulkRenewUrl() {
+    return circulationModuleUrl("/circulation/bulk-renew");
+  }
+
   public static URL renewByBarcodeUrl() {
     return circulationModuleUrl("/circulation/renew-by-barcode");
   }
@@ -148,6 +176,23 @@ public class InterfaceUrls {
     return circulationModuleUrl("/circulation/loans" + subPath);
   }
 
+  public static URL loansExportUrl(String queryString) {
+    return circulationModuleUrl("/circulation/loans-export" + queryString);
+  }
+
+  public static URL overdueLoansReportUrl(String queryString) {
+    return circulationModuleUrl("/circulation/loans-reports/overdue" + queryString);
+  }
+
+  public static URL patronSummaryUrl(String userId, String queryString) {
+    return circulationModuleUrl(
+      String.format("/circulation/patron-summary/%s%s", userId, queryString));
+  }
+
+  public static URL itemsAvailabilityUrl() {
+    return circulationModuleUrl("/circulation/items-availability");
+  }
+
   public static URL accountsUrl(String subPath) {
     return APITestContext.viaOkapiModuleUrl("/accounts" + subPath);
   }
@@ -61,6 +61,11 @@ public class ResourceClient {
       "requestReport");
   }
 
+  public static ResourceClient forPickSlips(OkapiHttpClient client) {
+    return new ResourceClient(client, InterfaceUrls::pickSlipsUrl,
+      "pickSlips");
+  }
+
   public static ResourceClient forLoans(OkapiHttpClient client) {
     return new ResourceClient(client, InterfaceUrls::loansUrl,
       "loans");
@@ -46,6 +46,38 @@ public class RequestItemMatcher extends ValidationErrorMatchers {
     };
   }
 
+  public static TypeSafeDiagnosingMatcher<Object> hasCampusName(String value) {
+    return new TypeSafeDiagnosingMatcher<Object>() {
+      @Override
+      public void describeTo(Description description) {
+        description.appendText("has campus name ").appendValue(value);
+      }
+
+      @Override
+      protected boolean matchesSafely(Object map, Description description) {
+        Matcher<Map<? extends String, ? extends String>> matcher = IsMapContaining.hasEntry("campusName", value);
+        matcher.describeMismatch(map, description);
+        return matcher.matches(map);
+      }
+    };
+  }
+
+  public static TypeSafeDiagnosingMatcher<Object> hasInstitutionName(String value) {
+    return new TypeSafeDiagnosingMatcher<Object>() {
+      @Override
+      public void describeTo(Description description) {
+        description.appendText("has institution name ").appendValue(value);
+      }
+
+      @Override
+      protected boolean matchesSafely(Object map, Description description) {
+        Matcher<Map<? extends String, ? extends String>> matcher = IsMapContaining.hasEntry("institutionName", value);
+        matcher.describeMismatch(map, description);
+        return matcher.matches(map);
+      }
+    };
+  }
+
   public static TypeSafeDiagnosingMatcher<Object> hasLocationCode(String value) {
     return new TypeSafeDiagnosingMatcher<Object>() {
       @Override
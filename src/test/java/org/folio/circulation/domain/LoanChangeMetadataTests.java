@@ -0,0 +1,65 @@
+package org.folio.circulation.domain;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.MatcherAssert.assertThat;
+
+import java.util.UUID;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class LoanChangeMetadataTests {
+  @Test
+  public void changingLoanUpdatesChangeMetadata() {
+    final String createdByUserId = UUID.randomUUID().toString();
+    final String changedByUserId = UUID.randomUUID().toString();
+
+    final Loan loan = Loan.from(new JsonObject()
+      .put("id", UUID.randomUUID().toString())
+      .put("metadata", new JsonObject()
+        .put("createdDate", "2019-03-01T10:00:00.000Z")
+        .put("createdByUserId", createdByUserId)
+        .put("updatedDate", "2019-03-01T10:00:00.000Z")
+        .put("updatedByUserId", createdByUserId)));
+
+    final DateTime changedDate = new DateTime(2019, 4, 12, 15, 30, DateTimeZone.UTC);
+
+    final JsonObject metadata = loan.changedBy(changedByUserId, changedDate)
+      .asJson().getJsonObject("metadata");
+
+    assertThat(metadata.getString("createdDate"), is("2019-03-01T10:00:00.000Z"));
+    assertThat(metadata.getString("createdByUserId"), is(createdByUserId));
+    assertThat(DateTime.parse(metadata.getString("updatedDate")).isEqual(changedDate),
+      is(true));
+    assertThat(metadata.getString("updatedByUserId"), is(changedByUserId));
+  }
+
+  @Test
+  public void changingLoanWithoutChangeMetadataAddsIt() {
+    final String changedByUserId = UUID.randomUUID().toString();
+
+    final Loan loan = Loan.from(new JsonObject()
+      .put("id", UUID.randomUUID().toString()));
+
+    final DateTime changedDate = new DateTime(2019, 4, 12, 15, 30, DateTimeZone.UTC);
+
+    final JsonObject metadata = loan.changedBy(changedByUserId, changedDate)
+      .asJson().getJsonObject("metadata");
+
+    assertThat(metadata.getString("updatedByUserId"), is(changedByUserId));
+    assertThat(metadata.containsKey("updatedDate"), is(true));
+  }
+
+  @Test
+  public void changingLoanDoesNotChangeOriginalLoan() {
+    final Loan loan = Loan.from(new JsonObject()
+      .put("id", UUID.randomUUID().toString()));
+
+    loan.changedBy(UUID.randomUUID().toString(), DateTime.now(DateTimeZone.UTC));
+
+    assertThat(loan.asJson().containsKey("metadata"), is(false));
+  }
+}
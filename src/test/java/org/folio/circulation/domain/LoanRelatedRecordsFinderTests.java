@@ -0,0 +1,210 @@
+package org.folio.circulation.domain;
+
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.folio.circulation.domain.policy.LoanPolicy;
+import org.folio.circulation.support.Result;
+import org.folio.circulation.support.ServerErrorFailure;
+import org.junit.Ignore;
+import org.junit.Test;
+
+import io.vertx.core.json.JsonObject;
+
+public class LoanRelatedRecordsFinderTests {
+  private static final int PAGE_SIZE = 100;
+  private static final long STORAGE_LATENCY_MILLISECONDS = 200;
+
+  //Finders which have been started, but are waiting to be allowed to finish
+  private final List<Runnable> waitingFinders = new ArrayList<>();
+
+  @Test
+  public void relatedRecordsForAPageOfLoansAreFoundAtTheSameTime()
+    throws ExecutionException, InterruptedException {
+
+    final LoanRelatedRecordsFinder finder = new LoanRelatedRecordsFinder(
+      waitingToFinish(loan -> loan.withAccounts(Collections.emptyList())),
+      waitingToFinish(loan -> loan.withCheckinServicePoint(servicePoint())),
+      inReverseOrder(waitingToFinish(loan -> loan.withUser(new User(
+        new JsonObject().put("id", loan.getUserId()))))),
+      waitingToFinish(loan -> loan.withLoanPolicy(LoanPolicy.from(
+        new JsonObject().put("id", UUID.randomUUID().toString())))),
+      waitingToFinish(loan -> loan.withPatronGroupAtCheckout(
+        PatronGroup.from(new JsonObject()
+          .put("id", UUID.randomUUID().toString())
+          .put("group", "undergrad")))));
+
+    final CompletableFuture<Result<MultipleRecords<Loan>>> found =
+      finder.findRelatedRecords(pageOfLoans());
+
+    assertThat("Accounts, service points, users and loan policies should all be"
+      + " found before any of them have finished", waitingFinders.size(), is(4));
+
+    finishWaitingFinders();
+
+    assertThat("Patron groups should only be found once the others have finished",
+      waitingFinders.size(), is(1));
+
+    finishWaitingFinders();
+
+    final Result<MultipleRecords<Loan>> result = found.get();
+
+    assertThat(result.succeeded(), is(true));
+    assertThat(result.value().getRecords().size(), is(PAGE_SIZE));
+    assertThat(result.value().getTotalRecords(), is(PAGE_SIZE * 2));
+
+    result.value().getRecords().forEach(loan -> {
+      assertThat(loan.getAccounts(), notNullValue());
+      assertThat(loan.getCheckinServicePoint(), notNullValue());
+      assertThat("Users should be merged with the loan they are for",
+        loan.getUser().getId(), is(loan.getUserId()));
+      assertThat(loan.getLoanPolicy().getId(), notNullValue());
+      assertThat(loan.asJson().getJsonObject("patronGroupAtCheckout")
+        .getString("name"), is("undergrad"));
+    });
+  }
+
+  @Test
+  public void failsWhenAnyRelatedRecordsCannotBeFound()
+    throws ExecutionException, InterruptedException {
+
+    final Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>>
+      unchanged = loans -> CompletableFuture.completedFuture(succeeded(loans));
+
+    final LoanRelatedRecordsFinder finder = new LoanRelatedRecordsFinder(
+      unchanged, unchanged,
+      loans -> CompletableFuture.completedFuture(Result.failed(
+        new ServerErrorFailure("users unavailable"))),
+      unchanged, unchanged);
+
+    final Result<MultipleRecords<Loan>> result =
+      finder.findRelatedRecords(pageOfLoans()).get();
+
+    assertThat(result.failed(), is(true));
+  }
+
+  @Ignore("Benchmark which depends upon timing, run manually when changing "
+    + "how related records are found")
+  @Test
+  public void relatedRecordsForAPageOfLoansAreFoundQuicklyWhenStorageIsSlow()
+    throws ExecutionException, InterruptedException {
+
+    final ScheduledExecutorService storage = Executors.newScheduledThreadPool(5);
+
+    try {
+      final LoanRelatedRecordsFinder finder = new LoanRelatedRecordsFinder(
+        slowly(storage, loan -> loan.withAccounts(Collections.emptyList())),
+        slowly(storage, loan -> loan.withCheckinServicePoint(servicePoint())),
+        slowly(storage, loan -> loan.withUser(new User(
+          new JsonObject().put("id", loan.getUserId())))),
+        slowly(storage, loan -> loan.withLoanPolicy(LoanPolicy.from(
+          new JsonObject().put("id", UUID.randomUUID().toString())))),
+        slowly(storage, loan -> loan.withPatronGroupAtCheckout(
+          PatronGroup.from(new JsonObject()
+            .put("id", UUID.randomUUID().toString())
+            .put("group", "undergrad")))));
+
+      final long started = System.currentTimeMillis();
+
+      final Result<MultipleRecords<Loan>> result =
+        finder.findRelatedRecords(pageOfLoans()).get();
+
+      final long elapsed = System.currentTimeMillis() - started;
+
+      System.out.println(String.format(
+        "Found related records for %d loans in %d ms (storage latency %d ms)",
+        PAGE_SIZE, elapsed, STORAGE_LATENCY_MILLISECONDS));
+
+      assertThat(result.succeeded(), is(true));
+
+      //Patron groups are found after the others, so finding all of them one
+      //after another would take five times the latency, rather than twice
+      assertThat(elapsed, lessThan(STORAGE_LATENCY_MILLISECONDS * 4));
+    }
+    finally {
+      storage.shutdownNow();
+    }
+  }
+
+  private Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> waitingToFinish(
+    Function<Loan, Loan> mapper) {
+
+    return loans -> {
+      final CompletableFuture<Result<MultipleRecords<Loan>>> found =
+        new CompletableFuture<>();
+
+      waitingFinders.add(() -> found.complete(succeeded(loans.mapRecords(mapper))));
+
+      return found;
+    };
+  }
+
+  private static Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> slowly(
+    ScheduledExecutorService storage, Function<Loan, Loan> mapper) {
+
+    return loans -> {
+      final CompletableFuture<Result<MultipleRecords<Loan>>> found =
+        new CompletableFuture<>();
+
+      storage.schedule(() -> found.complete(succeeded(loans.mapRecords(mapper))),
+        STORAGE_LATENCY_MILLISECONDS, TimeUnit.MILLISECONDS);
+
+      return found;
+    };
+  }
+
+  private static Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> inReverseOrder(
+    Function<MultipleRecords<Loan>, CompletableFuture<Result<MultipleRecords<Loan>>>> finder) {
+
+    return loans -> finder.apply(loans)
+      .thenApply(r -> r.map(found -> {
+        final List<Loan> reversed = new ArrayList<>(found.getRecords());
+
+        Collections.reverse(reversed);
+
+        return new MultipleRecords<>(reversed, found.getTotalRecords());
+      }));
+  }
+
+  private void finishWaitingFinders() {
+    final List<Runnable> finishing = new ArrayList<>(waitingFinders);
+
+    waitingFinders.clear();
+
+    finishing.forEach(Runnable::run);
+  }
+
+  private static MultipleRecords<Loan> pageOfLoans() {
+    final List<Loan> loans = new ArrayList<>();
+
+    for (int index = 0; index < PAGE_SIZE; index++) {
+      loans.add(Loan.from(new JsonObject()
+        .put("id", UUID.randomUUID().toString())
+        .put("userId", UUID.randomUUID().toString())
+        .put("itemId", UUID.randomUUID().toString())
+        .put("loanDate", "2019-06-01T10:00:00.000Z")));
+    }
+
+    return new MultipleRecords<>(loans, PAGE_SIZE * 2);
+  }
+
+  private static ServicePoint servicePoint() {
+    return new ServicePoint(new JsonObject()
+      .put("id", UUID.randomUUID().toString())
+      .put("name", "Circ Desk"));
+  }
+}
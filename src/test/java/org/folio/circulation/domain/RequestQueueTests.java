@@ -1,8 +1,11 @@
 package org.folio.circulation.domain;
 
 import api.support.builders.RequestBuilder;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
 import org.junit.Test;
 
+import java.util.List;
 import java.util.UUID;
 
 import static java.util.Arrays.asList;
@@ -156,6 +159,133 @@ public class RequestQueueTests {
       requestQueue.getRequestsWithChangedPosition(), contains(fourthRequest, thirdRequest));
   }
 
+  @Test
+  public void canAddRequestAheadOfLaterRequests() {
+    final UUID itemId = UUID.randomUUID();
+
+    Request firstRequest = requestAtPosition(itemId, 1,
+      new DateTime(2018, 3, 1, 10, 0, DateTimeZone.UTC));
+
+    Request secondRequest = requestAtPosition(itemId, 2,
+      new DateTime(2018, 3, 5, 10, 0, DateTimeZone.UTC));
+
+    final RequestQueue requestQueue = new RequestQueue(
+      asList(firstRequest, secondRequest));
+
+    Request newRequest = requestAtPosition(itemId, null,
+      new DateTime(2018, 3, 3, 10, 0, DateTimeZone.UTC));
+
+    requestQueue.add(newRequest);
+
+    assertThat("New request should be ahead of later request",
+      newRequest.getPosition(), is(2));
+
+    assertThat("Later request should have moved down the queue",
+      secondRequest.getPosition(), is(3));
+
+    assertThat("Later and new requests have changed position",
+      requestQueue.getRequestsWithChangedPosition(),
+      contains(secondRequest, newRequest));
+
+    final List<RequestPositionChain> chains = requestQueue.getPositionChangeChains();
+
+    assertThat("Should be a single chain of updates", chains.size(), is(1));
+
+    assertThat("Later request should be moved before new request takes its position",
+      chains.get(0).getRequests(), contains(secondRequest, newRequest));
+
+    assertThat(chains.get(0).isCyclic(), is(false));
+  }
+
+  @Test
+  public void requestWithSameDateIsAddedAfterExistingRequests() {
+    final UUID itemId = UUID.randomUUID();
+
+    final DateTime requestDate = new DateTime(2018, 3, 1, 10, 0, DateTimeZone.UTC);
+
+    Request firstRequest = requestAtPosition(itemId, 1, requestDate);
+    Request secondRequest = requestAtPosition(itemId, 2, requestDate);
+
+    final RequestQueue requestQueue = new RequestQueue(
+      asList(firstRequest, secondRequest));
+
+    Request newRequest = requestAtPosition(itemId, null, requestDate);
+
+    requestQueue.add(newRequest);
+
+    assertThat(firstRequest.getPosition(), is(1));
+    assertThat(secondRequest.getPosition(), is(2));
+    assertThat(newRequest.getPosition(), is(3));
+  }
+
+  @Test
+  public void requestAwaitingPickupIsAheadOfOtherRequests() {
+    final UUID itemId = UUID.randomUUID();
+
+    Request firstRequest = requestAtPosition(itemId, 1,
+      new DateTime(2018, 3, 1, 10, 0, DateTimeZone.UTC));
+
+    final RequestQueue requestQueue = new RequestQueue(asList(firstRequest));
+
+    Request awaitingPickup = Request.from(new RequestBuilder()
+      .withId(UUID.randomUUID())
+      .withStatus(RequestBuilder.OPEN_AWAITING_PICKUP)
+      .hold()
+      .withItemId(itemId)
+      .withRequestDate(new DateTime(2018, 3, 5, 10, 0, DateTimeZone.UTC))
+      .create());
+
+    requestQueue.add(awaitingPickup);
+
+    assertThat(awaitingPickup.getPosition(), is(1));
+    assertThat(firstRequest.getPosition(), is(2));
+  }
+
+  @Test
+  public void requestsSwappingPositionsFormCyclicChain() {
+    final UUID itemId = UUID.randomUUID();
+
+    // positions are not in request date order
+    Request laterRequest = requestAtPosition(itemId, 1,
+      new DateTime(2018, 3, 5, 10, 0, DateTimeZone.UTC));
+
+    Request earlierRequest = requestAtPosition(itemId, 2,
+      new DateTime(2018, 3, 1, 10, 0, DateTimeZone.UTC));
+
+    final RequestQueue requestQueue = new RequestQueue(
+      asList(laterRequest, earlierRequest));
+
+    Request newRequest = requestAtPosition(itemId, null,
+      new DateTime(2018, 3, 7, 10, 0, DateTimeZone.UTC));
+
+    requestQueue.add(newRequest);
+
+    assertThat(earlierRequest.getPosition(), is(1));
+    assertThat(laterRequest.getPosition(), is(2));
+    assertThat(newRequest.getPosition(), is(3));
+
+    final List<RequestPositionChain> chains = requestQueue.getPositionChangeChains();
+
+    assertThat(chains.size(), is(2));
+
+    assertThat(chains.get(0).getRequests(), contains(newRequest));
+    assertThat(chains.get(0).isCyclic(), is(false));
+
+    assertThat(chains.get(1).getRequests(), contains(earlierRequest, laterRequest));
+    assertThat(chains.get(1).isCyclic(), is(true));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void cannotReorderPartiallyFetchedQueue() {
+    final UUID itemId = UUID.randomUUID();
+
+    Request firstRequest = requestAtPosition(itemId, 1);
+
+    final RequestQueue requestQueue = new RequestQueue(asList(firstRequest), false);
+
+    requestQueue.remove(firstRequest);
+  }
+
   private Request requestAtPosition(UUID itemId, Integer position) {
     return Request.from(new RequestBuilder()
       .withId(UUID.randomUUID())
@@ -165,4 +295,19 @@ public class RequestQueueTests {
       .withPosition(position)
       .create());
   }
+
+  private Request requestAtPosition(
+    UUID itemId,
+    Integer position,
+    DateTime requestDate) {
+
+    return Request.from(new RequestBuilder()
+      .withId(UUID.randomUUID())
+      .open()
+      .hold()
+      .withItemId(itemId)
+      .withPosition(position)
+      .withRequestDate(requestDate)
+      .create());
+  }
 }
@@ -0,0 +1,70 @@
+package org.folio.circulation.domain.validation;
+
+import static api.support.matchers.FailureMatcher.hasValidationFailure;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.folio.circulation.domain.Loan;
+import org.folio.circulation.domain.Request;
+import org.folio.circulation.domain.RequestAndRelatedRecords;
+import org.folio.circulation.support.Result;
+import org.junit.Test;
+
+import api.support.builders.LoanBuilder;
+import api.support.builders.RequestBuilder;
+
+public class RequestLoanValidatorTests {
+  private final UUID itemId = UUID.randomUUID();
+  private final UUID requesterId = UUID.randomUUID();
+
+  @Test
+  public void refuseWhenRequesterHasTheLoanFoundWithTheRequest() throws Exception {
+    final Result<RequestAndRelatedRecords> result = validate(
+      request().withLoan(loanTo(requesterId)));
+
+    assertThat(result, hasValidationFailure(
+      "This requester currently has this item on loan."));
+  }
+
+  @Test
+  public void allowWhenSomeoneElseHasTheLoanFoundWithTheRequest() throws Exception {
+    final Result<RequestAndRelatedRecords> result = validate(
+      request().withLoan(loanTo(UUID.randomUUID())));
+
+    assertThat(result.succeeded(), is(true));
+  }
+
+  @Test
+  public void allowWhenNoLoanWasFoundWithTheRequest() throws Exception {
+    final Result<RequestAndRelatedRecords> result = validate(request());
+
+    assertThat(result.succeeded(), is(true));
+  }
+
+  private Result<RequestAndRelatedRecords> validate(Request request)
+    throws Exception {
+
+    return new RequestLoanValidator()
+      .refuseWhenUserHasAlreadyBeenLoanedItem(new RequestAndRelatedRecords(request))
+      .get(5, TimeUnit.SECONDS);
+  }
+
+  private Request request() {
+    return Request.from(new RequestBuilder()
+      .hold()
+      .withItemId(itemId)
+      .withRequesterId(requesterId)
+      .create());
+  }
+
+  private Loan loanTo(UUID userId) {
+    return Loan.from(new LoanBuilder()
+      .open()
+      .withItemId(itemId)
+      .withUserId(userId)
+      .create());
+  }
+}
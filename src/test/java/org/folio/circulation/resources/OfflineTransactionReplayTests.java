@@ -0,0 +1,218 @@
+package org.folio.circulation.resources;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.folio.circulation.support.Result.succeeded;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.awaitility.Awaitility;
+import org.folio.circulation.support.NdJsonStreamWriter;
+import org.folio.circulation.support.Result;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+public class OfflineTransactionReplayTests {
+  private Vertx vertx;
+  private Context context;
+
+  private final FakeBody body = new FakeBody();
+  private final FakeWriter writer = new FakeWriter();
+  private final List<CompletableFuture<Result<JsonObject>>> replays
+    = new CopyOnWriteArrayList<>();
+
+  @Before
+  public void createContext() {
+    vertx = Vertx.vertx();
+    context = vertx.getOrCreateContext();
+  }
+
+  @After
+  public void closeVertx() {
+    vertx.close();
+  }
+
+  @Test
+  public void onlyReplaysUpToTheLimitFromASingleChunk() throws Exception {
+    startReplay(3);
+
+    onContext(() -> body.receive(transactions(10)));
+
+    assertThat("only the limit should be replayed", replays.size(), is(3));
+    assertThat("body should be paused", body.paused, is(true));
+
+    replays.get(0).complete(succeeded(new JsonObject()));
+
+    waitForReplays(4);
+
+    assertThat("only the limit should be replayed", replays.size(), is(4));
+
+    for (int index = 1; index < 10; index++) {
+      waitForReplays(index + 1);
+      replays.get(index).complete(succeeded(new JsonObject()));
+    }
+
+    onContext(body::end);
+
+    Awaitility.await()
+      .atMost(5, TimeUnit.SECONDS)
+      .until(() -> writer.ended);
+
+    assertThat(writer.outcomes.size(), is(10));
+    assertThat("body should be resumed", body.paused, is(false));
+  }
+
+  @Test
+  public void waitsForResponseToDrainBeforeReplayingMore() throws Exception {
+    final CompletableFuture<Void> drained = new CompletableFuture<>();
+
+    writer.writable = drained;
+
+    startReplay(1);
+
+    onContext(() -> body.receive(transactions(3)));
+
+    replays.get(0).complete(succeeded(new JsonObject()));
+
+    Awaitility.await()
+      .atMost(5, TimeUnit.SECONDS)
+      .until(() -> writer.outcomes.size() == 1);
+
+    //Anything already scheduled on the context runs before this
+    onContext(() -> { });
+
+    assertThat("no more should be replayed until the response drains",
+      replays.size(), is(1));
+
+    assertThat("body should be paused", body.paused, is(true));
+
+    writer.writable = completedFuture(null);
+    drained.complete(null);
+
+    waitForReplays(2);
+  }
+
+  private void startReplay(int maximumConcurrentTransactions) throws Exception {
+    onContext(() -> new OfflineTransactionReplay(context, body, writer,
+      transaction -> {
+        final CompletableFuture<Result<JsonObject>> replay = new CompletableFuture<>();
+        replays.add(replay);
+        return replay;
+      }, maximumConcurrentTransactions).start());
+  }
+
+  private void waitForReplays(int count) {
+    Awaitility.await()
+      .atMost(5, TimeUnit.SECONDS)
+      .until(() -> replays.size() >= count);
+  }
+
+  private void onContext(Runnable action) throws Exception {
+    final CompletableFuture<Void> done = new CompletableFuture<>();
+
+    context.runOnContext(notUsed -> {
+      action.run();
+      done.complete(null);
+    });
+
+    done.get(5, TimeUnit.SECONDS);
+  }
+
+  private static Buffer transactions(int count) {
+    final String servicePointId = UUID.randomUUID().toString();
+
+    return Buffer.buffer(IntStream.rangeClosed(1, count)
+      .mapToObj(index -> new JsonObject()
+        .put("type", "check-in")
+        .put("timestamp", "2019-03-01T10:15:00.000Z")
+        .put("itemBarcode", "item-" + index)
+        .put("servicePointId", servicePointId)
+        .encode())
+      .collect(Collectors.joining("\n", "", "\n")));
+  }
+
+  private static class FakeBody implements ReadStream<Buffer> {
+    private Handler<Buffer> handler;
+    private Handler<Void> endHandler;
+    private volatile boolean paused = false;
+
+    private void receive(Buffer chunk) {
+      handler.handle(chunk);
+    }
+
+    private void end() {
+      endHandler.handle(null);
+    }
+
+    @Override
+    public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+      this.handler = handler;
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> pause() {
+      paused = true;
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> resume() {
+      paused = false;
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> fetch(long amount) {
+      return this;
+    }
+
+    @Override
+    public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+      this.endHandler = endHandler;
+      return this;
+    }
+  }
+
+  private static class FakeWriter extends NdJsonStreamWriter {
+    private final List<JsonObject> outcomes = new CopyOnWriteArrayList<>();
+    private volatile CompletableFuture<Void> writable = completedFuture(null);
+    private volatile boolean ended = false;
+
+    private FakeWriter() {
+      super(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> write(Collection<JsonObject> records) {
+      outcomes.addAll(records);
+      return writable;
+    }
+
+    @Override
+    public void end() {
+      ended = true;
+    }
+  }
+}
@@ -0,0 +1,152 @@
+package org.folio.circulation.support;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class BoundedConcurrencyTests {
+  @Test
+  public void outcomesAreInTheSameOrderAsValues()
+    throws ExecutionException, InterruptedException {
+
+    final List<Integer> outcomes = BoundedConcurrency.mapInOrder(
+      Arrays.asList(1, 2, 3, 4, 5), 2, value -> completedFuture(value * 10))
+      .get();
+
+    assertThat(outcomes, is(Arrays.asList(10, 20, 30, 40, 50)));
+  }
+
+  @Test
+  public void noMoreThanMaximumOperationsAreInProgress() {
+    final AtomicInteger inProgress = new AtomicInteger();
+    final AtomicInteger mostInProgress = new AtomicInteger();
+
+    final List<CompletableFuture<String>> operations = new ArrayList<>();
+
+    final CompletableFuture<List<String>> outcomes = BoundedConcurrency.mapInOrder(
+      Arrays.asList("a", "b", "c", "d", "e"), 2, value -> {
+        mostInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+
+        final CompletableFuture<String> operation = new CompletableFuture<>();
+
+        operations.add(operation);
+
+        return operation.whenComplete((outcome, failure) -> inProgress.decrementAndGet());
+      });
+
+    assertThat(operations.size(), is(2));
+
+    //Completing operations releases the next value one at a time
+    for (int index = 0; index < operations.size(); index++) {
+      operations.get(index).complete("done");
+    }
+
+    assertThat(outcomes.isDone(), is(true));
+    assertThat(operations.size(), is(5));
+    assertThat(mostInProgress.get(), is(2));
+  }
+
+  @Test
+  public void noOperationsWhenThereAreNoValues()
+    throws ExecutionException, InterruptedException {
+
+    final List<String> outcomes = BoundedConcurrency.mapInOrder(
+      new ArrayList<String>(), 5, CompletableFuture::completedFuture).get();
+
+    assertThat(outcomes.isEmpty(), is(true));
+  }
+
+  @Test
+  public void outcomesAreConsumedInTheSameOrderAsValues()
+    throws ExecutionException, InterruptedException {
+
+    final List<Integer> consumed = new ArrayList<>();
+
+    BoundedConcurrency.forEachInOrder(Arrays.asList(1, 2, 3, 4, 5), 2,
+      value -> completedFuture(value * 10),
+      outcome -> {
+        consumed.add(outcome);
+        return completedFuture(null);
+      }).get();
+
+    assertThat(consumed, is(Arrays.asList(10, 20, 30, 40, 50)));
+  }
+
+  @Test
+  public void nextOperationIsNotStartedUntilEarliestOutcomeIsConsumed() {
+    final List<String> started = new ArrayList<>();
+    final CompletableFuture<Void> firstConsumed = new CompletableFuture<>();
+
+    final CompletableFuture<Void> allConsumed = BoundedConcurrency.forEachInOrder(
+      Arrays.asList("a", "b", "c"), 2,
+      value -> {
+        started.add(value);
+        return completedFuture(value);
+      },
+      outcome -> outcome.equals("a") ? firstConsumed : completedFuture(null));
+
+    assertThat(started, is(Arrays.asList("a", "b")));
+
+    firstConsumed.complete(null);
+
+    assertThat(started, is(Arrays.asList("a", "b", "c")));
+    assertThat(allConsumed.isDone(), is(true));
+  }
+
+  @Test
+  public void manyOperationsWhichCompleteStraightAwayDoNotOverflowTheStack()
+    throws ExecutionException, InterruptedException {
+
+    final List<Integer> values = new ArrayList<>();
+
+    for (int value = 0; value < 100000; value++) {
+      values.add(value);
+    }
+
+    final List<Integer> outcomes = BoundedConcurrency.mapInOrder(values, 5,
+      CompletableFuture::completedFuture).get();
+
+    assertThat(outcomes.size(), is(100000));
+
+    final AtomicInteger consumed = new AtomicInteger();
+
+    BoundedConcurrency.forEachInOrder(values, 5, CompletableFuture::completedFuture,
+      outcome -> {
+        consumed.incrementAndGet();
+        return completedFuture(null);
+      }).get();
+
+    assertThat(consumed.get(), is(100000));
+  }
+
+  @Test
+  public void failedConsumerFailsEverything() {
+    final List<String> started = new ArrayList<>();
+
+    final CompletableFuture<Void> allConsumed = BoundedConcurrency.forEachInOrder(
+      Arrays.asList("a", "b", "c", "d"), 1,
+      value -> {
+        started.add(value);
+        return completedFuture(value);
+      },
+      outcome -> {
+        final CompletableFuture<Void> failed = new CompletableFuture<>();
+
+        failed.completeExceptionally(new RuntimeException("Could not consume"));
+
+        return failed;
+      });
+
+    assertThat(allConsumed.isCompletedExceptionally(), is(true));
+    assertThat(started, is(Arrays.asList("a")));
+  }
+}
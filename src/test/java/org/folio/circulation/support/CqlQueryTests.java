@@ -104,4 +104,14 @@ public class CqlQueryTests {
 
     assertThat(query.value().asText(), is(String.format("lastTime>\"%s\"", dateTime)));
   }
+
+  @Test
+  public void queryFromTextIsParenthesisedWhenCombined() {
+    final Result<CqlQuery> query = fromText("userId==\"12345\" or proxyUserId==\"12345\"")
+      .combine(greaterThan("id", "abcde"), CqlQuery::and)
+      .map(q -> q.sortBy(ascending("id")));
+
+    assertThat(query.value().asText(),
+      is("(userId==\"12345\" or proxyUserId==\"12345\") and id>\"abcde\" sortBy id/sort.ascending"));
+  }
 }
@@ -0,0 +1,34 @@
+package org.folio.circulation.support;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.junit.MatcherAssert.assertThat;
+
+import org.junit.Test;
+
+public class KeysetPageTests {
+  @Test
+  public void cannotUseQueryWithSortOrder() {
+    final Result<KeysetPage> page = KeysetPage.firstPage(
+      "status.name==\"Open\" sortBy dueDate", 10);
+
+    assertThat(page.failed(), is(true));
+  }
+
+  @Test
+  public void canUseQueryWithSortByInQuotedTerm() {
+    final Result<KeysetPage> page = KeysetPage.firstPage(
+      "title=\"sortBy dueDate\"", 10);
+
+    assertThat(page.succeeded(), is(true));
+  }
+
+  @Test
+  public void clientQueryIsParenthesisedBeforeStartingAfterPreviousPage() {
+    final Result<KeysetPage> page = KeysetPage.firstPage(
+      "userId==\"12345\" or proxyUserId==\"12345\"", 10)
+      .map(firstPage -> firstPage.nextPage("abcde"));
+
+    assertThat(page.value().toCqlQuery().value().asText(),
+      is("(userId==\"12345\" or proxyUserId==\"12345\") and id>\"abcde\" sortBy id/sort.ascending"));
+  }
+}